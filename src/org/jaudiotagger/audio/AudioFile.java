@@ -25,6 +25,8 @@ import org.jaudiotagger.audio.exceptions.NoReadPermissionsException;
 import org.jaudiotagger.audio.exceptions.NoWritePermissionsException;
 import org.jaudiotagger.audio.exceptions.ReadOnlyFileException;
 import org.jaudiotagger.audio.flac.metadatablock.MetadataBlockDataPicture;
+import org.jaudiotagger.audio.generic.AudioDataHasher;
+import org.jaudiotagger.audio.generic.AudioDataRanges;
 import org.jaudiotagger.audio.generic.Permissions;
 import org.jaudiotagger.audio.real.RealTag;
 import org.jaudiotagger.logging.ErrorMessage;
@@ -39,9 +41,13 @@ import org.jaudiotagger.tag.wav.WavTag;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.logging.Logger;
+import java.util.zip.Checksum;
 
 /**
  * <p>This is the main object manipulated by the user representing an audiofile, its properties and its tag.
@@ -81,6 +87,11 @@ public class AudioFile
      */
     protected String extension;
 
+    /**
+     * The parts of the file that were read
+     */
+    protected ReadOptions readOptions = ReadOptions.HEADER_AND_TAG;
+
     public AudioFile()
     {
 
@@ -129,6 +140,25 @@ public class AudioFile
         AudioFileIO.write(this);
     }
 
+    /**
+     * @return the parts of the file that were read, a file read without its tag cannot be written because the tag
+     * already in the file would be lost
+     */
+    public ReadOptions getReadOptions()
+    {
+        return readOptions;
+    }
+
+    /**
+     * Set by the readers, users should not use this
+     *
+     * @param readOptions the parts of the file that were read
+     */
+    public void setReadOptions(ReadOptions readOptions)
+    {
+        this.readOptions = readOptions;
+    }
+
     /**
      * <p>Delete any tags that exist in the fie , this is the same as calling the <code>AudioFileIO.delete(this)</code> method.
      *
@@ -212,6 +242,64 @@ public class AudioFile
         return tag;
     }
 
+    /**
+     * Find where the audio data is held in this file, without the metadata
+     *
+     * @return
+     * @throws CannotReadException if the format is not supported or the audio data cannot be found
+     * @throws IOException
+     */
+    public AudioDataRanges getAudioDataRanges() throws CannotReadException, IOException
+    {
+        if (extension != null)
+        {
+            return AudioFileIO.getDefaultAudioFileIO().readAudioDataRangesAs(file, extension);
+        }
+        return AudioFileIO.getDefaultAudioFileIO().readAudioDataRanges(file);
+    }
+
+    /**
+     * Hash the audio data excluding all metadata, so the hash is unchanged when the file is retagged
+     *
+     * @param algorithm such as MD5 or SHA-256
+     * @return
+     * @throws CannotReadException if the format is not supported or the audio data cannot be found
+     * @throws IOException
+     * @throws NoSuchAlgorithmException
+     */
+    public byte[] getAudioHash(String algorithm) throws CannotReadException, IOException, NoSuchAlgorithmException
+    {
+        return getAudioHash(MessageDigest.getInstance(algorithm), new AudioDataHasher());
+    }
+
+    /**
+     * Hash the audio data excluding all metadata with the given digest and hasher, see {@link AudioDataHasher} for
+     * hashing large files in parallel
+     *
+     * @param digest
+     * @param hasher
+     * @return
+     * @throws CannotReadException if the format is not supported or the audio data cannot be found
+     * @throws IOException
+     */
+    public byte[] getAudioHash(MessageDigest digest, AudioDataHasher hasher) throws CannotReadException, IOException
+    {
+        return hasher.hash(file, getAudioDataRanges(), digest);
+    }
+
+    /**
+     * Checksum the audio data excluding all metadata, a fast alternative to a hash when only used to find duplicates
+     *
+     * @param checksum such as {@link java.util.zip.CRC32}
+     * @return
+     * @throws CannotReadException if the format is not supported or the audio data cannot be found
+     * @throws IOException
+     */
+    public long getAudioChecksum(Checksum checksum) throws CannotReadException, IOException
+    {
+        return new AudioDataHasher().checksum(file, getAudioDataRanges(), checksum);
+    }
+
     /**
      * <p>Returns a multi-line string with the file path, the encoding audioHeader, and the tag contents.
      *
@@ -221,7 +309,7 @@ public class AudioFile
     public String toString()
     {
         return "AudioFile " + getFile().getAbsolutePath()
-                + "  --------\n" + audioHeader.toString() + "\n" + ((tag == null) ? "" : tag.toString()) + "\n-------------------";
+                + "  --------\n" + ((audioHeader == null) ? "" : audioHeader.toString()) + "\n" + ((tag == null) ? "" : tag.toString()) + "\n-------------------";
     }
 
     /**
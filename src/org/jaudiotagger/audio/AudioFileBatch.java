@@ -0,0 +1,329 @@
+package org.jaudiotagger.audio;
+
+import org.jaudiotagger.tag.Tag;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Collects tag edits for many files and writes them together.
+ *
+ * Edits can be added from any number of threads, the edits for each file are kept in the order they were added. When
+ * the batch is committed each file is read once, all of its edits are applied to its tag and it is written once,
+ * so a file edited in several passes is only rewritten once. Files are written in parallel, but the edits for any one
+ * file are always applied in order by a single task so no file is written by two threads at once.
+ *
+ * As with {@link AudioFileScanner} a fixed pool of one thread per processor is created for the commit unless an
+ * executor is set, and no more than the maximum open files are written at once.
+ *
+ * <code>
+ * AudioFileBatch batch = new AudioFileBatch();
+ * batch.add(file, new TagEdit()
+ * {
+ *     public void apply(Tag tag) throws TagException
+ *     {
+ *         tag.setField(FieldKey.ALBUM, "Album");
+ *     }
+ * });
+ * List&lt;AudioFileBatchResult&gt; results = batch.commit();
+ * </code>
+ */
+public class AudioFileBatch
+{
+    // Logger Object
+    public static Logger logger = Logger.getLogger("org.jaudiotagger.audio");
+
+    private final Map<File, List<TagEdit>> edits = new LinkedHashMap<File, List<TagEdit>>();
+    private int editCount;
+    private boolean committed;
+
+    private AudioFileIO audioFileIO;
+    private Executor executor;
+    private int threadCount = Runtime.getRuntime().availableProcessors();
+    private int maxOpenFiles = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Add an edit to be made to the file when the batch is committed, edits to the same file through different paths
+     * or links are kept together so the file is only written by one task
+     *
+     * @param file
+     * @param edit
+     * @throws IllegalStateException if the batch has already been committed
+     */
+    public synchronized void add(File file, TagEdit edit)
+    {
+        if (committed)
+        {
+            throw new IllegalStateException("Cannot add edits to a batch that has been committed");
+        }
+        File key;
+        try
+        {
+            key = file.getCanonicalFile();
+        }
+        catch (IOException ioe)
+        {
+            logger.warning("Unable to resolve path:" + file + ":" + ioe.getMessage());
+            key = file.getAbsoluteFile();
+        }
+        List<TagEdit> fileEdits = edits.get(key);
+        if (fileEdits == null)
+        {
+            fileEdits = new ArrayList<TagEdit>();
+            edits.put(key, fileEdits);
+        }
+        fileEdits.add(edit);
+        editCount++;
+    }
+
+    /**
+     * @return number of files with edits
+     */
+    public synchronized int getFileCount()
+    {
+        return edits.size();
+    }
+
+    /**
+     * @return number of edits added to the batch
+     */
+    public synchronized int getEditCount()
+    {
+        return editCount;
+    }
+
+    public synchronized boolean isCommitted()
+    {
+        return committed;
+    }
+
+    /**
+     * Write the edits, blocking until every file has been written or has failed. A batch can only be committed once.
+     *
+     * @return the result for each file, in the order the files were first added
+     * @throws InterruptedException if interrupted while waiting, files already being written are still written
+     * @throws IllegalStateException if the batch has already been committed
+     */
+    public List<AudioFileBatchResult> commit() throws InterruptedException
+    {
+        List<Map.Entry<File, List<TagEdit>>> fileEdits;
+        synchronized (this)
+        {
+            if (committed)
+            {
+                throw new IllegalStateException("Batch has already been committed");
+            }
+            committed = true;
+            fileEdits = new ArrayList<Map.Entry<File, List<TagEdit>>>(edits.entrySet());
+            logger.config("Committing " + editCount + " edits to " + fileEdits.size() + " files");
+        }
+
+        ExecutorService ownedExecutor = null;
+        Executor commitExecutor = executor;
+        if (commitExecutor == null)
+        {
+            ownedExecutor = Executors.newFixedThreadPool(threadCount, new BatchThreadFactory());
+            commitExecutor = ownedExecutor;
+        }
+        AudioFileIO commitAudioFileIO = audioFileIO != null ? audioFileIO : AudioFileIO.getDefaultAudioFileIO();
+
+        AudioFileBatchResult[] results = new AudioFileBatchResult[fileEdits.size()];
+        CountDownLatch finished = new CountDownLatch(fileEdits.size());
+        Semaphore openFilePermits = new Semaphore(maxOpenFiles);
+        try
+        {
+            for (int i = 0; i < results.length; i++)
+            {
+                Map.Entry<File, List<TagEdit>> next = fileEdits.get(i);
+                WriteTask task = new WriteTask(commitAudioFileIO, next.getKey(), next.getValue(), results, i, finished, openFilePermits);
+                try
+                {
+                    commitExecutor.execute(task);
+                }
+                catch (RejectedExecutionException ree)
+                {
+                    results[i] = new AudioFileBatchResult(next.getKey(), 0, ree);
+                    finished.countDown();
+                }
+            }
+            finished.await();
+        }
+        finally
+        {
+            if (ownedExecutor != null)
+            {
+                ownedExecutor.shutdown();
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Read the file, apply all its edits and write it
+     *
+     * @param audioFileIO
+     * @param file
+     * @param fileEdits
+     * @return the result for the file
+     */
+    static AudioFileBatchResult write(AudioFileIO audioFileIO, File file, List<TagEdit> fileEdits)
+    {
+        try
+        {
+            AudioFile audioFile = audioFileIO.readFile(file);
+            Tag tag = audioFile.getTagOrCreateAndSetDefault();
+            for (TagEdit edit : fileEdits)
+            {
+                edit.apply(tag);
+            }
+            audioFileIO.writeFile(audioFile, null);
+            return new AudioFileBatchResult(file, fileEdits.size(), null);
+        }
+        catch (Exception e)
+        {
+            logger.warning("Unable to write edits to:" + file + ":" + e.getMessage());
+            return new AudioFileBatchResult(file, 0, e);
+        }
+    }
+
+    public AudioFileIO getAudioFileIO()
+    {
+        return audioFileIO;
+    }
+
+    /**
+     * @param audioFileIO used to read and write the files, if not set the default instance is used
+     */
+    public void setAudioFileIO(AudioFileIO audioFileIO)
+    {
+        this.audioFileIO = audioFileIO;
+    }
+
+    public Executor getExecutor()
+    {
+        return executor;
+    }
+
+    /**
+     * @param executor runs the writes, if null a fixed thread pool is created for the commit
+     */
+    public void setExecutor(Executor executor)
+    {
+        this.executor = executor;
+    }
+
+    public int getThreadCount()
+    {
+        return threadCount;
+    }
+
+    /**
+     * @param threadCount size of the thread pool created when no executor is set
+     */
+    public void setThreadCount(int threadCount)
+    {
+        if (threadCount < 1)
+        {
+            throw new IllegalArgumentException("Thread count must be at least 1:" + threadCount);
+        }
+        this.threadCount = threadCount;
+    }
+
+    public int getMaxOpenFiles()
+    {
+        return maxOpenFiles;
+    }
+
+    /**
+     * @param maxOpenFiles maximum number of files written at the same time
+     */
+    public void setMaxOpenFiles(int maxOpenFiles)
+    {
+        if (maxOpenFiles < 1)
+        {
+            throw new IllegalArgumentException("Max open files must be at least 1:" + maxOpenFiles);
+        }
+        this.maxOpenFiles = maxOpenFiles;
+    }
+
+    /**
+     * Writes all the edits for one file
+     */
+    private static class WriteTask implements Runnable
+    {
+        private final AudioFileIO audioFileIO;
+        private final File file;
+        private final List<TagEdit> fileEdits;
+        private final AudioFileBatchResult[] results;
+        private final int index;
+        private final CountDownLatch finished;
+        private final Semaphore openFilePermits;
+
+        WriteTask(AudioFileIO audioFileIO, File file, List<TagEdit> fileEdits, AudioFileBatchResult[] results, int index, CountDownLatch finished, Semaphore openFilePermits)
+        {
+            this.audioFileIO = audioFileIO;
+            this.file = file;
+            this.fileEdits = fileEdits;
+            this.results = results;
+            this.index = index;
+            this.finished = finished;
+            this.openFilePermits = openFilePermits;
+        }
+
+        public void run()
+        {
+            try
+            {
+                openFilePermits.acquireUninterruptibly();
+                try
+                {
+                    results[index] = write(audioFileIO, file, fileEdits);
+                }
+                catch (Error err)
+                {
+                    //Still record the file so every file has a result, then let the executor see the error
+                    results[index] = new AudioFileBatchResult(file, 0, new ExecutionException(err));
+                    throw err;
+                }
+                finally
+                {
+                    openFilePermits.release();
+                }
+            }
+            finally
+            {
+                finished.countDown();
+            }
+        }
+    }
+
+    /**
+     * Creates daemon threads so an abandoned commit does not stop the JVM exiting
+     */
+    private static class BatchThreadFactory implements ThreadFactory
+    {
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        public Thread newThread(Runnable r)
+        {
+            Thread thread = new Thread(r, "jaudiotagger-batch-writer-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package org.jaudiotagger.audio;
+
+import java.io.File;
+
+/**
+ * The outcome of writing the edits for one file in an {@link AudioFileBatch}, if any edit or the write failed the
+ * exception that stopped it.
+ */
+public class AudioFileBatchResult
+{
+    private final File file;
+    private final int editCount;
+    private final Exception exception;
+
+    public AudioFileBatchResult(File file, int editCount, Exception exception)
+    {
+        this.file = file;
+        this.editCount = editCount;
+        this.exception = exception;
+    }
+
+    /**
+     * @return the file that was edited
+     */
+    public File getFile()
+    {
+        return file;
+    }
+
+    /**
+     * @return number of edits made to the file
+     */
+    public int getEditCount()
+    {
+        return editCount;
+    }
+
+    /**
+     * @return why the file could not be edited, or null if it was written. An error thrown while editing is wrapped
+     * in an {@link java.util.concurrent.ExecutionException}
+     */
+    public Exception getException()
+    {
+        return exception;
+    }
+
+    /**
+     * @return true if every edit was applied and the file was written
+     */
+    public boolean isSuccess()
+    {
+        return exception == null;
+    }
+
+    public String toString()
+    {
+        return file + (exception == null ? ":written:" + editCount + " edits" : ":failed:" + exception.getMessage());
+    }
+}
@@ -86,6 +86,14 @@ import java.util.logging.Logger;
  * </code>
  * 
  *
+ * Reading is thread-safe, files can be read concurrently through one instance (such as the default instance) because
+ * the readers keep no state between reads, see {@link AudioFileReader}. The options in
+ * {@link org.jaudiotagger.tag.TagOptionSingleton} and the modification listeners must not be changed while other
+ * threads are reading or writing. Writing the same file from more than one thread is not supported, and an
+ * {@link AudioFile} must only be used by one thread at a time. {@link AudioFileScanner} reads many files in parallel
+ * within this contract.
+ * 
+ *
  * @author Raphael Slinckx
  * @version $Id$
  * @see AudioFile
@@ -126,7 +134,7 @@ public class AudioFileIO
      *
      * @return The default instance.
      */
-    public static AudioFileIO getDefaultAudioFileIO()
+    public static synchronized AudioFileIO getDefaultAudioFileIO()
     {
         if (defaultInstance == null)
         {
@@ -196,6 +204,27 @@ public class AudioFileIO
       return getDefaultAudioFileIO().readFile(f);
   }
 
+  /**
+   *
+   * Read the parts of the given file selected by options.
+   *
+   *
+   * @param f The file to read.
+   * @param options Whether to read the tag, the audio header or both, the parts not read are null.
+   * @return The AudioFile with the file tag and/or the file encoding info.
+   * @throws org.jaudiotagger.audio.exceptions.CannotReadException If the file could not be read, the extension wasn't
+   *                             recognized, or an IO error occurred during the read.
+   * @throws org.jaudiotagger.tag.TagException
+   * @throws org.jaudiotagger.audio.exceptions.ReadOnlyFileException
+   * @throws java.io.IOException
+   * @throws org.jaudiotagger.audio.exceptions.InvalidAudioFrameException
+   */
+  public static AudioFile read(File f, ReadOptions options)
+          throws CannotReadException, IOException, TagException, ReadOnlyFileException, InvalidAudioFrameException
+  {
+      return getDefaultAudioFileIO().readFile(f, options);
+  }
+
     /**
      *
      * Write the tag contained in the audioFile in the actual file on the disk.
@@ -237,8 +266,8 @@ public class AudioFileIO
 
     // These tables contains all the readers/writers associated with extension
     // as a key
-    private Map<String, AudioFileReader> readers = new HashMap<String, AudioFileReader>();
-    private Map<String, AudioFileWriter> writers = new HashMap<String, AudioFileWriter>();
+    private final Map<String, AudioFileReader> readers = new HashMap<String, AudioFileReader>();
+    private final Map<String, AudioFileWriter> writers = new HashMap<String, AudioFileWriter>();
 
 
     /**
@@ -347,6 +376,28 @@ public class AudioFileIO
      */
     public AudioFile readFile(File f)
             throws CannotReadException, IOException, TagException, ReadOnlyFileException, InvalidAudioFrameException
+    {
+        return readFile(f, ReadOptions.HEADER_AND_TAG);
+    }
+
+    /**
+     *
+     *
+     * Read the parts of the given file selected by options.
+     *
+     *
+     * @param f The file to read.
+     * @param options Whether to read the tag, the audio header or both, the parts not read are null.
+     * @return The AudioFile with the file tag and/or the file encoding info.
+     * @throws org.jaudiotagger.audio.exceptions.CannotReadException If the file could not be read, the extension wasn't
+     *                             recognized, or an IO error occurred during the read.
+     * @throws org.jaudiotagger.tag.TagException
+     * @throws org.jaudiotagger.audio.exceptions.ReadOnlyFileException
+     * @throws java.io.IOException
+     * @throws org.jaudiotagger.audio.exceptions.InvalidAudioFrameException
+     */
+    public AudioFile readFile(File f, ReadOptions options)
+            throws CannotReadException, IOException, TagException, ReadOnlyFileException, InvalidAudioFrameException
     {
         checkFileExists(f);
         String ext = Utils.getExtension(f);
@@ -356,11 +407,46 @@ public class AudioFileIO
         {
             throw new CannotReadException(ErrorMessage.NO_READER_FOR_THIS_FORMAT.getMsg(ext));
         }
-        AudioFile tempFile = afr.read(f);
+        AudioFile tempFile = afr.read(f, options);
         tempFile.setExt(ext);
         return tempFile;
     }
 
+    /**
+     * Find where the audio data is held in the given file, without the metadata
+     *
+     * @param f
+     * @return
+     * @throws CannotReadException if the file could not be read, the extension wasn't recognized or the audio data
+     * could not be found
+     * @throws IOException
+     */
+    public AudioDataRanges readAudioDataRanges(File f) throws CannotReadException, IOException
+    {
+        return readAudioDataRangesAs(f, Utils.getExtension(f));
+    }
+
+    /**
+     * Find where the audio data is held in the given file, reading it as the format of the given extension
+     *
+     * @param f
+     * @param ext
+     * @return
+     * @throws CannotReadException
+     * @throws IOException
+     */
+    public AudioDataRanges readAudioDataRangesAs(File f, String ext) throws CannotReadException, IOException
+    {
+        checkFileExists(f);
+
+        AudioFileReader afr = readers.get(ext);
+        if (afr == null)
+        {
+            throw new CannotReadException(ErrorMessage.NO_READER_FOR_THIS_FORMAT.getMsg(ext));
+        }
+        return afr.getAudioDataRanges(f);
+    }
+
     /**
     *
     * Read the tag contained in the given file.
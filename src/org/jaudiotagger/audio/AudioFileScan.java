@@ -0,0 +1,293 @@
+package org.jaudiotagger.audio;
+
+import java.io.Closeable;
+import java.io.File;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A scan started by {@link AudioFileScanner}, iterating over it returns the result for each file in the order the files
+ * finish being read, blocking until the next result is available.
+ *
+ * Files are only submitted for reading while there are fewer than the maximum pending results waiting to be taken, so
+ * a slow consumer holds the scan back rather than results building up in memory. The scan must be iterated by one
+ * thread, but can be cancelled from any thread.
+ */
+public class AudioFileScan implements Iterator<AudioFileScanResult>, Closeable
+{
+    // Logger Object
+    public static Logger logger = Logger.getLogger("org.jaudiotagger.audio");
+
+    //Marks the end of the results
+    private static final AudioFileScanResult END = new AudioFileScanResult(null, null, null);
+
+    private final AudioFileIO audioFileIO;
+    private final ReadOptions readOptions;
+    private final Executor executor;
+    private final ExecutorService ownedExecutor;
+    private final Iterator<File> files;
+
+    private final BlockingQueue<AudioFileScanResult> results = new LinkedBlockingQueue<AudioFileScanResult>();
+    private final Semaphore pendingPermits;
+    private final Semaphore openFilePermits;
+
+    //Reads not yet finished, plus one for the producer until it has submitted every file
+    private final AtomicInteger outstanding = new AtomicInteger(1);
+    private final AtomicInteger submittedCount = new AtomicInteger();
+    private final AtomicInteger completedCount = new AtomicInteger();
+    private final Thread producer;
+    private volatile boolean cancelled;
+
+    //Only used by the consuming thread
+    private AudioFileScanResult next;
+    private boolean finished;
+
+    /**
+     * @param audioFileIO reads each file
+     * @param readOptions
+     * @param executor runs the reads
+     * @param ownedExecutor the executor if it was created for this scan and should be shut down at the end, otherwise null
+     * @param files
+     * @param maxOpenFiles
+     * @param maxPendingResults
+     */
+    AudioFileScan(AudioFileIO audioFileIO, ReadOptions readOptions, Executor executor, ExecutorService ownedExecutor, Iterator<File> files, int maxOpenFiles, int maxPendingResults)
+    {
+        this.audioFileIO = audioFileIO;
+        this.readOptions = readOptions;
+        this.executor = executor;
+        this.ownedExecutor = ownedExecutor;
+        this.files = files;
+        this.openFilePermits = new Semaphore(maxOpenFiles);
+        this.pendingPermits = new Semaphore(maxPendingResults);
+        this.producer = new Thread(new Producer(), "jaudiotagger-scan");
+        this.producer.setDaemon(true);
+    }
+
+    void start()
+    {
+        producer.start();
+    }
+
+    /**
+     * Stop submitting files, reads already in progress finish and their results can still be taken
+     */
+    public void cancel()
+    {
+        cancelled = true;
+        producer.interrupt();
+    }
+
+    /**
+     * Same as {@link #cancel()}
+     */
+    public void close()
+    {
+        cancel();
+    }
+
+    public boolean isCancelled()
+    {
+        return cancelled;
+    }
+
+    /**
+     * @return number of files submitted for reading so far
+     */
+    public int getSubmittedCount()
+    {
+        return submittedCount.get();
+    }
+
+    /**
+     * @return number of files read so far, whether successfully or not
+     */
+    public int getCompletedCount()
+    {
+        return completedCount.get();
+    }
+
+    /**
+     * Blocks until the next result is available or the scan has finished
+     *
+     * @return false once every submitted file has been read and its result taken
+     */
+    public boolean hasNext()
+    {
+        if (next == null && !finished)
+        {
+            try
+            {
+                next = results.take();
+            }
+            catch (InterruptedException ie)
+            {
+                Thread.currentThread().interrupt();
+                cancel();
+                return false;
+            }
+
+            if (next == END)
+            {
+                next = null;
+                finished = true;
+            }
+        }
+        return next != null;
+    }
+
+    public AudioFileScanResult next()
+    {
+        if (!hasNext())
+        {
+            throw new NoSuchElementException();
+        }
+        AudioFileScanResult result = next;
+        next = null;
+        pendingPermits.release();
+        return result;
+    }
+
+    public void remove()
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    private void finishRead()
+    {
+        if (outstanding.decrementAndGet() == 0)
+        {
+            results.add(END);
+        }
+    }
+
+    /**
+     * Submits the files for reading, waiting whenever the maximum number of results are pending
+     */
+    private class Producer implements Runnable
+    {
+        public void run()
+        {
+            try
+            {
+                while (!cancelled && files.hasNext())
+                {
+                    File file = files.next();
+                    pendingPermits.acquire();
+                    if (cancelled)
+                    {
+                        break;
+                    }
+
+                    outstanding.incrementAndGet();
+                    submittedCount.incrementAndGet();
+                    try
+                    {
+                        executor.execute(new ReadTask(file));
+                    }
+                    catch (RejectedExecutionException ree)
+                    {
+                        completedCount.incrementAndGet();
+                        results.add(new AudioFileScanResult(file, null, ree));
+                        finishRead();
+                    }
+                }
+            }
+            catch (InterruptedException ie)
+            {
+                logger.config("Scan cancelled");
+            }
+            catch (RuntimeException re)
+            {
+                //Failed to list the files, no file to report against
+                logger.log(Level.SEVERE, "Scan failed listing files:" + re.getMessage(), re);
+                results.add(new AudioFileScanResult(null, null, re));
+            }
+            finally
+            {
+                if (ownedExecutor != null)
+                {
+                    ownedExecutor.shutdown();
+                }
+                finishRead();
+            }
+        }
+    }
+
+    /**
+     * Reads one file, unless the scan has been cancelled
+     */
+    private class ReadTask implements Runnable
+    {
+        private final File file;
+
+        ReadTask(File file)
+        {
+            this.file = file;
+        }
+
+        public void run()
+        {
+            try
+            {
+                if (cancelled)
+                {
+                    pendingPermits.release();
+                    return;
+                }
+
+                try
+                {
+                    openFilePermits.acquire();
+                }
+                catch (InterruptedException ie)
+                {
+                    Thread.currentThread().interrupt();
+                    pendingPermits.release();
+                    return;
+                }
+
+                AudioFileScanResult result;
+                Error error = null;
+                try
+                {
+                    result = new AudioFileScanResult(file, audioFileIO.readFile(file, readOptions), null);
+                }
+                catch (Exception e)
+                {
+                    result = new AudioFileScanResult(file, null, e);
+                }
+                catch (Error err)
+                {
+                    //Still report the file so every file submitted has a result, then let the executor see the error
+                    result = new AudioFileScanResult(file, null, new ExecutionException(err));
+                    error = err;
+                }
+                finally
+                {
+                    openFilePermits.release();
+                }
+                completedCount.incrementAndGet();
+                results.add(result);
+                if (error != null)
+                {
+                    throw error;
+                }
+            }
+            finally
+            {
+                finishRead();
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package org.jaudiotagger.audio;
+
+import java.io.File;
+
+/**
+ * The outcome of reading one file during a scan, either the AudioFile or the exception that stopped it being read.
+ */
+public class AudioFileScanResult
+{
+    private final File file;
+    private final AudioFile audioFile;
+    private final Exception exception;
+
+    public AudioFileScanResult(File file, AudioFile audioFile, Exception exception)
+    {
+        this.file = file;
+        this.audioFile = audioFile;
+        this.exception = exception;
+    }
+
+    /**
+     * @return the file that was read
+     */
+    public File getFile()
+    {
+        return file;
+    }
+
+    /**
+     * @return the file read, or null if it could not be read
+     */
+    public AudioFile getAudioFile()
+    {
+        return audioFile;
+    }
+
+    /**
+     * @return why the file could not be read, or null if it was read. An error thrown while reading is wrapped in an
+     * {@link java.util.concurrent.ExecutionException}
+     */
+    public Exception getException()
+    {
+        return exception;
+    }
+
+    /**
+     * @return true if the file was read
+     */
+    public boolean isSuccess()
+    {
+        return exception == null;
+    }
+
+    public String toString()
+    {
+        return file + (exception == null ? ":read" : ":failed:" + exception.getMessage());
+    }
+}
@@ -0,0 +1,276 @@
+package org.jaudiotagger.audio;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Reads many audio files in parallel.
+ *
+ * Each scan reads its files through one {@link AudioFileIO}, whose readers are safe to use from many threads at once,
+ * see {@link AudioFileIO} for the full thread-safety contract. By default a fixed pool of one thread per processor is
+ * created for each scan and shut down when the scan ends, alternatively any executor can be set such as a
+ * {@link java.util.concurrent.ForkJoinPool} or a virtual thread per task executor; a set executor is never shut
+ * down by the scanner. However many threads the executor has, no more than the maximum open files are read at once.
+ *
+ * <code>
+ * AudioFileScan scan = new AudioFileScanner().scan(new File("/music"));
+ * while (scan.hasNext())
+ * {
+ *     AudioFileScanResult result = scan.next();
+ *     ...
+ * }
+ * </code>
+ */
+public class AudioFileScanner
+{
+    // Logger Object
+    public static Logger logger = Logger.getLogger("org.jaudiotagger.audio");
+
+    public static final int DEFAULT_MAX_PENDING_RESULTS = 1000;
+
+    private AudioFileIO audioFileIO;
+    private ReadOptions readOptions = ReadOptions.HEADER_AND_TAG;
+    private Executor executor;
+    private int threadCount = Runtime.getRuntime().availableProcessors();
+    private int maxOpenFiles = Runtime.getRuntime().availableProcessors();
+    private int maxPendingResults = DEFAULT_MAX_PENDING_RESULTS;
+
+    /**
+     * Scan every supported audio file in the directory and its subdirectories
+     *
+     * @param directory
+     * @return
+     */
+    public AudioFileScan scan(File directory)
+    {
+        return scan(new AudioFileTreeIterator(directory));
+    }
+
+    /**
+     * Scan the given files
+     *
+     * @param files
+     * @return
+     */
+    public AudioFileScan scan(Iterable<File> files)
+    {
+        return scan(files.iterator());
+    }
+
+    /**
+     * Scan the given files, the iterator is only used by the scan thread and files are taken from it as
+     * the scan progresses
+     *
+     * @param files
+     * @return
+     */
+    public AudioFileScan scan(Iterator<File> files)
+    {
+        ExecutorService ownedExecutor = null;
+        Executor scanExecutor = executor;
+        if (scanExecutor == null)
+        {
+            ownedExecutor = Executors.newFixedThreadPool(threadCount, new ScanThreadFactory());
+            scanExecutor = ownedExecutor;
+        }
+        AudioFileIO scanAudioFileIO = audioFileIO != null ? audioFileIO : AudioFileIO.getDefaultAudioFileIO();
+        AudioFileScan scan = new AudioFileScan(scanAudioFileIO, readOptions, scanExecutor, ownedExecutor, files, maxOpenFiles, maxPendingResults);
+        scan.start();
+        return scan;
+    }
+
+    public AudioFileIO getAudioFileIO()
+    {
+        return audioFileIO;
+    }
+
+    /**
+     * @param audioFileIO used to read the files, if not set the default instance is used
+     */
+    public void setAudioFileIO(AudioFileIO audioFileIO)
+    {
+        this.audioFileIO = audioFileIO;
+    }
+
+    public ReadOptions getReadOptions()
+    {
+        return readOptions;
+    }
+
+    /**
+     * @param readOptions whether to read the tag, the audio header or both
+     */
+    public void setReadOptions(ReadOptions readOptions)
+    {
+        this.readOptions = readOptions;
+    }
+
+    public Executor getExecutor()
+    {
+        return executor;
+    }
+
+    /**
+     * @param executor runs the reads, if null a fixed thread pool is created for each scan
+     */
+    public void setExecutor(Executor executor)
+    {
+        this.executor = executor;
+    }
+
+    public int getThreadCount()
+    {
+        return threadCount;
+    }
+
+    /**
+     * @param threadCount size of the thread pool created when no executor is set
+     */
+    public void setThreadCount(int threadCount)
+    {
+        if (threadCount < 1)
+        {
+            throw new IllegalArgumentException("Thread count must be at least 1:" + threadCount);
+        }
+        this.threadCount = threadCount;
+    }
+
+    public int getMaxOpenFiles()
+    {
+        return maxOpenFiles;
+    }
+
+    /**
+     * @param maxOpenFiles maximum number of files read at the same time
+     */
+    public void setMaxOpenFiles(int maxOpenFiles)
+    {
+        if (maxOpenFiles < 1)
+        {
+            throw new IllegalArgumentException("Max open files must be at least 1:" + maxOpenFiles);
+        }
+        this.maxOpenFiles = maxOpenFiles;
+    }
+
+    public int getMaxPendingResults()
+    {
+        return maxPendingResults;
+    }
+
+    /**
+     * @param maxPendingResults maximum number of files submitted for reading whose results have not yet been taken
+     */
+    public void setMaxPendingResults(int maxPendingResults)
+    {
+        if (maxPendingResults < 1)
+        {
+            throw new IllegalArgumentException("Max pending results must be at least 1:" + maxPendingResults);
+        }
+        this.maxPendingResults = maxPendingResults;
+    }
+
+    /**
+     * Creates daemon threads so an abandoned scan does not stop the JVM exiting
+     */
+    private static class ScanThreadFactory implements ThreadFactory
+    {
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        public Thread newThread(Runnable r)
+        {
+            Thread thread = new Thread(r, "jaudiotagger-scan-reader-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    /**
+     * Lazily walks a directory tree returning the supported audio files, unreadable directories are skipped and
+     * each directory is only walked once however many links lead to it
+     */
+    private static class AudioFileTreeIterator implements Iterator<File>
+    {
+        private final AudioFileFilter filter = new AudioFileFilter();
+        private final Deque<File> directories = new ArrayDeque<File>();
+        private final Deque<File> pendingFiles = new ArrayDeque<File>();
+        private final Set<String> visitedDirectories = new HashSet<String>();
+
+        AudioFileTreeIterator(File directory)
+        {
+            directories.push(directory);
+        }
+
+        public boolean hasNext()
+        {
+            while (pendingFiles.isEmpty() && !directories.isEmpty())
+            {
+                File directory = directories.pop();
+                try
+                {
+                    //Symbolic links can lead back to a directory already walked, or to one of its parents
+                    if (!visitedDirectories.add(directory.getCanonicalPath()))
+                    {
+                        logger.config("Skipping directory already scanned:" + directory);
+                        continue;
+                    }
+                }
+                catch (IOException ioe)
+                {
+                    logger.warning("Unable to resolve directory:" + directory + ":" + ioe.getMessage());
+                    continue;
+                }
+                File[] children = directory.listFiles(filter);
+                if (children == null)
+                {
+                    logger.warning("Unable to list directory:" + directory);
+                    continue;
+                }
+
+                Arrays.sort(children);
+                //Push subdirectories in reverse so they are walked in name order
+                for (int i = children.length - 1; i >= 0; i--)
+                {
+                    if (children[i].isDirectory())
+                    {
+                        directories.push(children[i]);
+                    }
+                }
+                for (File child : children)
+                {
+                    if (!child.isDirectory())
+                    {
+                        pendingFiles.add(child);
+                    }
+                }
+            }
+            return !pendingFiles.isEmpty();
+        }
+
+        public File next()
+        {
+            if (!hasNext())
+            {
+                throw new NoSuchElementException();
+            }
+            return pendingFiles.poll();
+        }
+
+        public void remove()
+        {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package org.jaudiotagger.audio;
+
+/**
+ * What to read from an audio file.
+ *
+ * Reading only the tag or only the audio header lets the format readers skip the parsing, and the file I/O, needed for
+ * the other part. The part that is not read is null in the returned AudioFile.
+ */
+public enum ReadOptions
+{
+    HEADER_AND_TAG(true, true),
+    TAG_ONLY(false, true),
+    HEADER_ONLY(true, false);
+
+    private boolean readHeader;
+    private boolean readTag;
+
+    /** Constructor for internal use by this enum.
+     */
+    ReadOptions(boolean readHeader, boolean readTag)
+    {
+        this.readHeader = readHeader;
+        this.readTag = readTag;
+    }
+
+    /**
+     * @return true if the audio header should be read
+     */
+    public boolean isReadHeader()
+    {
+        return readHeader;
+    }
+
+    /**
+     * @return true if the tag should be read
+     */
+    public boolean isReadTag()
+    {
+        return readTag;
+    }
+}
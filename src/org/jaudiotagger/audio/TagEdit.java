@@ -0,0 +1,18 @@
+package org.jaudiotagger.audio;
+
+import org.jaudiotagger.tag.Tag;
+import org.jaudiotagger.tag.TagException;
+
+/**
+ * A change to the tag of a file, added to an {@link AudioFileBatch} and applied when the batch is committed.
+ */
+public interface TagEdit
+{
+    /**
+     * Apply the change to the tag, which is created if the file did not have one
+     *
+     * @param tag
+     * @throws TagException if the change could not be made, no edits to the file are then written
+     */
+    void apply(Tag tag) throws TagException;
+}
@@ -1,5 +1,7 @@
 package org.jaudiotagger.audio.aiff;
 
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.ReadOptions;
 import org.jaudiotagger.audio.exceptions.CannotReadException;
 import org.jaudiotagger.audio.generic.AudioFileReader2;
 import org.jaudiotagger.audio.generic.GenericAudioHeader;
@@ -7,6 +9,8 @@ import org.jaudiotagger.tag.Tag;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
 
 /**
  * Reads Audio and Metadata information contained in Aiff file.
@@ -27,4 +31,23 @@ public class AiffFileReader extends AudioFileReader2
     {
         return im.read(path);
     }
+
+    /**
+     * Open the file once and read both the encoding info and the tag from it
+     */
+    @Override
+    protected AudioFile readAudioFile(File path, ReadOptions options) throws CannotReadException, IOException
+    {
+        if (options != ReadOptions.HEADER_AND_TAG)
+        {
+            return super.readAudioFile(path, options);
+        }
+
+        try(FileChannel fc = new RandomAccessFile(path, "r").getChannel())
+        {
+            GenericAudioHeader info = ir.read(fc, path.toString());
+            fc.position(0);
+            return new AudioFile(path, info, im.read(fc, path.toString()));
+        }
+    }
 }
@@ -38,21 +38,35 @@ public class AiffInfoReader extends AiffChunkReader
     {
         try(FileChannel fc = new RandomAccessFile(file, "r").getChannel())
         {
-            logger.config(file + " Reading AIFF file size:" + Hex.asDecAndHex(fc.size()));
-            AiffAudioHeader aiffAudioHeader = new AiffAudioHeader();
-            final AiffFileHeader fileHeader = new AiffFileHeader();
-            long noOfBytes = fileHeader.readHeader(fc, aiffAudioHeader, file.toString());
-            while (fc.position() < fc.size())
+            return read(fc, file.toString());
+        }
+    }
+
+    /**
+     * Read the audio header from an open file
+     *
+     * @param fc positioned at the start of the file
+     * @param fileName
+     * @return
+     * @throws CannotReadException
+     * @throws IOException
+     */
+    protected GenericAudioHeader read(FileChannel fc, String fileName) throws CannotReadException, IOException
+    {
+        logger.config(fileName + " Reading AIFF file size:" + Hex.asDecAndHex(fc.size()));
+        AiffAudioHeader aiffAudioHeader = new AiffAudioHeader();
+        final AiffFileHeader fileHeader = new AiffFileHeader();
+        long noOfBytes = fileHeader.readHeader(fc, aiffAudioHeader, fileName);
+        while (fc.position() < fc.size())
+        {
+            if (!readChunk(fc, aiffAudioHeader, fileName))
             {
-                if (!readChunk(fc, aiffAudioHeader, file.toString()))
-                {
-                    logger.severe(file + " UnableToReadProcessChunk");
-                    break;
-                }
+                logger.severe(fileName + " UnableToReadProcessChunk");
+                break;
             }
-            calculateBitRate(aiffAudioHeader);
-            return aiffAudioHeader;
         }
+        calculateBitRate(aiffAudioHeader);
+        return aiffAudioHeader;
     }
 
     /**
@@ -42,27 +42,41 @@ public class AiffTagReader extends AiffChunkReader
     {
         try(FileChannel fc = new RandomAccessFile(file, "r").getChannel())
         {
-            AiffAudioHeader aiffAudioHeader = new AiffAudioHeader();
-            AiffTag aiffTag = new AiffTag();
+            return read(fc, file.toString());
+        }
+    }
 
-            final AiffFileHeader fileHeader = new AiffFileHeader();
-            fileHeader.readHeader(fc, aiffAudioHeader, file.toString());
-            while (fc.position() < fc.size())
-            {
-                if (!readChunk(fc, aiffTag, file.toString()))
-                {
-                    logger.severe(file + " UnableToReadProcessChunk");
-                    break;
-                }
-            }
+    /**
+     * Read editable Metadata from an open file
+     *
+     * @param fc positioned at the start of the file
+     * @param fileName
+     * @return
+     * @throws CannotReadException
+     * @throws IOException
+     */
+    public AiffTag read(FileChannel fc, String fileName) throws CannotReadException, IOException
+    {
+        AiffAudioHeader aiffAudioHeader = new AiffAudioHeader();
+        AiffTag aiffTag = new AiffTag();
 
-            if (aiffTag.getID3Tag() == null)
+        final AiffFileHeader fileHeader = new AiffFileHeader();
+        fileHeader.readHeader(fc, aiffAudioHeader, fileName);
+        while (fc.position() < fc.size())
+        {
+            if (!readChunk(fc, aiffTag, fileName))
             {
-                //Default still used by iTunes
-                aiffTag.setID3Tag(new ID3v22Tag());
+                logger.severe(fileName + " UnableToReadProcessChunk");
+                break;
             }
-            return aiffTag;
         }
+
+        if (aiffTag.getID3Tag() == null)
+        {
+            //Default still used by iTunes
+            aiffTag.setID3Tag(new ID3v22Tag());
+        }
+        return aiffTag;
     }
 
     /**
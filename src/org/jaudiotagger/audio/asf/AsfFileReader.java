@@ -19,13 +19,13 @@
 package org.jaudiotagger.audio.asf;
 
 import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.ReadOptions;
 import org.jaudiotagger.audio.asf.data.AsfHeader;
 import org.jaudiotagger.audio.asf.data.AudioStreamChunk;
 import org.jaudiotagger.audio.asf.data.MetadataContainer;
 import org.jaudiotagger.audio.asf.data.MetadataDescriptor;
 import org.jaudiotagger.audio.asf.io.*;
 import org.jaudiotagger.audio.asf.util.TagConverter;
-import org.jaudiotagger.audio.asf.util.Utils;
 import org.jaudiotagger.audio.exceptions.CannotReadException;
 import org.jaudiotagger.audio.exceptions.InvalidAudioFrameException;
 import org.jaudiotagger.audio.exceptions.ReadOnlyFileException;
@@ -222,17 +222,23 @@ public class AsfFileReader extends AudioFileReader
      * {@inheritDoc}
      */
     @Override
-    public AudioFile read(final File f) throws CannotReadException, IOException, TagException, ReadOnlyFileException, InvalidAudioFrameException
+    public AudioFile read(final File f, final ReadOptions options) throws CannotReadException, IOException, TagException, ReadOnlyFileException, InvalidAudioFrameException
     {
+        // Reading just the audio header or tag uses the more restricted header readers
+        if (options != ReadOptions.HEADER_AND_TAG)
+        {
+            return super.read(f, options);
+        }
         if (!f.canRead())
         {
             throw new CannotReadException(ErrorMessage.GENERAL_READ_FAILED_DO_NOT_HAVE_PERMISSION_TO_READ_FILE.getMsg(f.getAbsolutePath()));
         }
-        InputStream stream = null;
+        RandomAccessFile raf = null;
         try
         {
-            stream = new FullRequestInputStream(new BufferedInputStream(new FileInputStream(f)));
-            final AsfHeader header = HEADER_READER.read(Utils.readGUID(stream), stream, 0);
+            // One read of the header object gives both the audio header and the tag
+            raf = new RandomAccessFile(f, "r");
+            final AsfHeader header = HEADER_READER.read(raf);
             if (header == null)
             {
                 throw new CannotReadException(ErrorMessage.ASF_HEADER_MISSING.getMsg(f.getAbsolutePath()));
@@ -263,9 +269,9 @@ public class AsfFileReader extends AudioFileReader
         {
             try
             {
-                if (stream != null)
+                if (raf != null)
                 {
-                    stream.close();
+                    raf.close();
                 }
             }
             catch (final Exception ex)
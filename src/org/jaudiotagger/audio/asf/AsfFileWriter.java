@@ -26,6 +26,7 @@ import org.jaudiotagger.audio.asf.io.*;
 import org.jaudiotagger.audio.asf.util.TagConverter;
 import org.jaudiotagger.audio.exceptions.CannotWriteException;
 import org.jaudiotagger.audio.generic.AudioFileWriter;
+import org.jaudiotagger.audio.generic.InPlaceWriteListener;
 import org.jaudiotagger.tag.Tag;
 import org.jaudiotagger.tag.asf.AsfTag;
 
@@ -64,11 +65,44 @@ public class AsfFileWriter extends AudioFileWriter
         return result;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected boolean writeTagInPlace(final AudioFile audioFile, final Tag tag, final InPlaceWriteListener listener) throws CannotWriteException, IOException
+    {
+        final RandomAccessFile raf = new RandomAccessFile(audioFile.getFile(), "rw");
+        try
+        {
+            final byte[] header = AsfStreamer.readHeaderObject(raf.getChannel());
+            return new AsfStreamer().modifyInPlace(header, raf.getChannel(), createModifiers(tag, header), listener);
+        }
+        finally
+        {
+            raf.close();
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     protected void writeTag(AudioFile audioFile, final Tag tag, final RandomAccessFile raf, final RandomAccessFile rafTemp) throws CannotWriteException, IOException
+    {
+        final byte[] header = AsfStreamer.readHeaderObject(raf.getChannel());
+        new AsfStreamer().createModifiedCopy(header, raf.getChannel(), rafTemp.getChannel(), createModifiers(tag, header));
+    }
+
+    /**
+     * Creates the modifiers which write the given tag to the header object of
+     * the ASF file.<br>
+     *
+     * @param tag    the tag to write.
+     * @param header the header object of the ASF file.
+     * @return modifiers for the header object.
+     * @throws IOException on I/O errors.
+     */
+    private List<ChunkModifier> createModifiers(final Tag tag, final byte[] header) throws IOException
     {
         /*
          * Since this implementation should not change the structure of the ASF
@@ -87,8 +121,7 @@ public class AsfFileWriter extends AudioFileWriter
          * for each descriptor type, if an object is found, an updater will be
          * configured.
          */
-        final AsfHeader sourceHeader = AsfHeaderReader.readTagHeader(raf);
-        raf.seek(0); // Reset for the streamer
+        final AsfHeader sourceHeader = AsfHeaderReader.readTagHeader(header);
         /*
          * Now createField modifiers for metadata descriptor and extended content
          * descriptor as implied by the given Tag.
@@ -138,7 +171,7 @@ public class AsfFileWriter extends AudioFileWriter
         {
             headerModifier.add(new AsfExtHeaderModifier(extHeaderModifier));
         }
-        new AsfStreamer().createModifiedCopy(new RandomAccessFileInputstream(raf), new RandomAccessFileOutputStream(rafTemp), headerModifier);
+        return headerModifier;
     }
 
 }
\ No newline at end of file
@@ -24,7 +24,10 @@ import org.jaudiotagger.audio.asf.util.Utils;
 
 import java.io.*;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -89,15 +92,40 @@ public class AsfHeaderReader extends ChunkContainerReader<AsfHeader>
     }
 
     /**
-     * Creates a Stream that will read from the specified
-     * {@link RandomAccessFile};<br>
+     * Size of the GUID and the size at the start of the header object.<br>
+     */
+    private final static int HEADER_OBJECT_PREFIX_SIZE = GUID.GUID_LENGTH + 8;
+
+    /**
+     * Creates a Stream that will read the header object starting at the
+     * current position of the specified {@link RandomAccessFile}.<br>
+     * The size of the header object is read from its start and the whole
+     * object is then read into memory with one read, so it is parsed without
+     * further file access.<br>
      *
      * @param raf data source to read from.
-     * @return a stream which accesses the source.
+     * @return a stream which accesses the header object.
+     * @throws IOException on I/O Errors.
      */
-    private static InputStream createStream(final RandomAccessFile raf)
+    private static InputStream createStream(final RandomAccessFile raf) throws IOException
     {
-        return new FullRequestInputStream(new BufferedInputStream(new RandomAccessFileInputstream(raf)));
+        final long remaining = raf.length() - raf.getFilePointer();
+        final byte[] prefix = new byte[(int) Math.min(HEADER_OBJECT_PREFIX_SIZE, Math.max(remaining, 0))];
+        raf.readFully(prefix);
+        if (prefix.length < HEADER_OBJECT_PREFIX_SIZE || !GUID.GUID_HEADER.equals(new GUID(Arrays.copyOf(prefix, GUID.GUID_LENGTH))))
+        {
+            // Not an ASF header, let the reader reject it
+            return new ByteBufferInputStream(prefix);
+        }
+        final long headerSize = ByteBuffer.wrap(prefix, GUID.GUID_LENGTH, 8).order(ByteOrder.LITTLE_ENDIAN).getLong();
+        if (headerSize < 0 || headerSize > Integer.MAX_VALUE)
+        {
+            throw new IOException("Invalid ASF header size:" + headerSize); //$NON-NLS-1$
+        }
+        final byte[] header = new byte[(int) Math.max(Math.min(headerSize, remaining), HEADER_OBJECT_PREFIX_SIZE)];
+        System.arraycopy(prefix, 0, header, 0, prefix.length);
+        raf.readFully(header, prefix.length, header.length - prefix.length);
+        return new ByteBufferInputStream(header);
     }
 
     /**
@@ -111,10 +139,15 @@ public class AsfHeaderReader extends ChunkContainerReader<AsfHeader>
      */
     public static AsfHeader readHeader(final File file) throws IOException
     {
-        final InputStream stream = new FileInputStream(file);
-        final AsfHeader result = FULL_READER.read(Utils.readGUID(stream), stream, 0);
-        stream.close();
-        return result;
+        final RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try
+        {
+            return readHeader(raf);
+        }
+        finally
+        {
+            raf.close();
+        }
     }
 
     /**
@@ -128,8 +161,7 @@ public class AsfHeaderReader extends ChunkContainerReader<AsfHeader>
      */
     public static AsfHeader readHeader(final RandomAccessFile file) throws IOException
     {
-        final InputStream stream = createStream(file);
-        return FULL_READER.read(Utils.readGUID(stream), stream, 0);
+        return FULL_READER.read(file);
     }
 
     /**
@@ -144,8 +176,7 @@ public class AsfHeaderReader extends ChunkContainerReader<AsfHeader>
      */
     public static AsfHeader readInfoHeader(final RandomAccessFile file) throws IOException
     {
-        final InputStream stream = createStream(file);
-        return INFO_READER.read(Utils.readGUID(stream), stream, 0);
+        return INFO_READER.read(file);
     }
 
     /**
@@ -160,7 +191,22 @@ public class AsfHeaderReader extends ChunkContainerReader<AsfHeader>
      */
     public static AsfHeader readTagHeader(final RandomAccessFile file) throws IOException
     {
-        final InputStream stream = createStream(file);
+        return TAG_READER.read(file);
+    }
+
+    /**
+     * This method tries to extract an ASF-header, which only contains
+     * metadata, out of the header object already read into memory.<br>
+     * If no header could be extracted <code>null</code> is returned. <br>
+     *
+     * @param header the whole header object, including its GUID.
+     * @return AsfHeader-Wrapper, or <code>null</code> if no supported ASF
+     * header was found.
+     * @throws IOException Read errors
+     */
+    public static AsfHeader readTagHeader(final byte[] header) throws IOException
+    {
+        final InputStream stream = new ByteBufferInputStream(header);
         return TAG_READER.read(Utils.readGUID(stream), stream, 0);
     }
 
@@ -211,6 +257,22 @@ public class AsfHeaderReader extends ChunkContainerReader<AsfHeader>
         return new AsfHeader(streamPosition, chunkLength, chunkCount);
     }
 
+    /**
+     * Reads the ASF header starting at the current position of the given file
+     * with the chunk readers of this instance.<br>
+     * If no header could be extracted <code>null</code> is returned. <br>
+     *
+     * @param file File which contains the ASF header.
+     * @return AsfHeader-Wrapper, or <code>null</code> if no supported ASF
+     * header was found.
+     * @throws IOException Read errors
+     */
+    public AsfHeader read(final RandomAccessFile file) throws IOException
+    {
+        final InputStream stream = createStream(file);
+        return read(Utils.readGUID(stream), stream, 0);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -2,19 +2,32 @@ package org.jaudiotagger.audio.asf.io;
 
 import org.jaudiotagger.audio.asf.data.GUID;
 import org.jaudiotagger.audio.asf.util.Utils;
+import org.jaudiotagger.audio.exceptions.CannotWriteException;
+import org.jaudiotagger.audio.generic.InPlaceWriteListener;
+import org.jaudiotagger.audio.generic.PaddingPolicy;
+import org.jaudiotagger.tag.TagOptionSingleton;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
 import java.util.ArrayList;
 import java.util.List;
 
 /**
- * This class creates a modified copy of an ASF file.<br>
+ * This class creates a modified copy of an ASF file, or modifies the header
+ * object of an ASF file in place if it still fits.<br>
  *
  * @author Christian Laireiter
  */
 public class AsfStreamer
 {
 
+    /**
+     * Size of the GUID and the chunk length, which every chunk starts with.<br>
+     */
+    private final static int CHUNK_HEADER_SIZE = 24;
+
     /**
      * Simply copies a chunk from <code>source</code> to
      * <code>destination</code>.<br>
@@ -50,111 +63,247 @@ public class AsfStreamer
      * @throws IOException on I/O errors.
      */
     public void createModifiedCopy(final InputStream source, final OutputStream dest, final List<ChunkModifier> modifiers) throws IOException
+    {
+        // Read and check ASF GUID
+        final GUID readGUID = Utils.readGUID(source);
+        if (GUID.GUID_HEADER.equals(readGUID))
+        {
+            modifyHeader(source, modifiers, false).writeTo(dest, 0);
+            // copy the rest of the file (data and index)
+            Utils.flush(source, dest);
+        }
+        else
+        {
+            throw new IllegalArgumentException("No ASF header object.");
+        }
+    }
+
+    /**
+     * Creates a modified copy of the ASF file in <code>source</code> like
+     * {@link #createModifiedCopy(InputStream, OutputStream, List)}, however
+     * only the header object is read into memory. The data and index objects
+     * following it are transferred from channel to channel unchanged.<br>
+     * Padding objects in the header object are replaced with a single padding
+     * object sized by the {@link PaddingPolicy}, by default keeping the amount
+     * of padding the source had.<br>
+     *
+     * @param header    the header object of the source, as read by
+     *                  {@link #readHeaderObject(FileChannel)}.
+     * @param source    the source ASF file
+     * @param dest      the destination to write the modified version to,
+     *                  starting at its current position.
+     * @param modifiers list of chunk modifiers to apply.
+     * @throws IOException on I/O errors.
+     */
+    public void createModifiedCopy(final byte[] header, final FileChannel source, final FileChannel dest, final List<ChunkModifier> modifiers) throws IOException
+    {
+        final ModifiedHeader modified = modifyHeader(new ByteArrayInputStream(header, GUID.GUID_LENGTH, header.length - GUID.GUID_LENGTH), modifiers, true);
+        final int policyPadding = TagOptionSingleton.getInstance().getPaddingPolicy().getPadding((int) modified.getSize(), source.size(), (int) modified.getRemovedPadding());
+        long paddingSize = PaddingPolicy.limitPadding(policyPadding, modified.getSize() + CHUNK_HEADER_SIZE);
+        if (paddingSize > 0 && paddingSize < CHUNK_HEADER_SIZE)
+        {
+            paddingSize = CHUNK_HEADER_SIZE;
+        }
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream((int) (modified.getSize() + paddingSize));
+        modified.writeTo(bos, paddingSize);
+        final ByteBuffer buffer = ByteBuffer.wrap(bos.toByteArray());
+        while (buffer.hasRemaining())
+        {
+            dest.write(buffer);
+        }
+
+        // transfer the rest of the file (data and index)
+        long position = header.length;
+        final long end = source.size();
+        while (position < end)
+        {
+            final long transferred = source.transferTo(position, end - position, dest);
+            if (transferred <= 0)
+            {
+                throw new IOException("Unable to copy the ASF data after the header object."); //$NON-NLS-1$
+            }
+            position += transferred;
+        }
+        TagOptionSingleton.getInstance().getPaddingPolicy().writeCompleted(PaddingPolicy.WriteMode.REWRITE, (int) modified.getSize());
+    }
+
+    /**
+     * Applies the modifications to the header object of the ASF file without
+     * moving the data following it, which is only possible if the modified
+     * header object is the same size as the original or small enough to fill
+     * the difference with a padding object. Padding objects in the header
+     * object are counted as free space.<br>
+     *
+     * @param header    the header object of the file, as read by
+     *                  {@link #readHeaderObject(FileChannel)}.
+     * @param file      the ASF file, opened for writing.
+     * @param modifiers list of chunk modifiers to apply.
+     * @param listener  told once the header object fits, before it is written.
+     * @return <code>true</code> if the file was modified, <code>false</code>
+     * if the modified header object does not fit, in which case the file is
+     * left unchanged.
+     * @throws CannotWriteException if the listener refuses the write.
+     * @throws IOException on I/O errors.
+     */
+    public boolean modifyInPlace(final byte[] header, final FileChannel file, final List<ChunkModifier> modifiers, final InPlaceWriteListener listener) throws CannotWriteException, IOException
+    {
+        final ModifiedHeader modified = modifyHeader(new ByteArrayInputStream(header, GUID.GUID_LENGTH, header.length - GUID.GUID_LENGTH), modifiers, true);
+        final long paddingSize = header.length - modified.getSize();
+        if (paddingSize < 0 || (paddingSize > 0 && paddingSize < CHUNK_HEADER_SIZE))
+        {
+            return false;
+        }
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream(header.length);
+        modified.writeTo(bos, paddingSize);
+        final ByteBuffer buffer = ByteBuffer.wrap(bos.toByteArray());
+        assert buffer.remaining() == header.length;
+        listener.beforeWrite();
+        while (buffer.hasRemaining())
+        {
+            file.write(buffer, buffer.position());
+        }
+        TagOptionSingleton.getInstance().getPaddingPolicy().writeCompleted(PaddingPolicy.WriteMode.IN_PLACE, (int) modified.getSize());
+        return true;
+    }
+
+    /**
+     * Reads the whole header object at the start of the file, so it can be
+     * parsed and modified without reading it again.<br>
+     *
+     * @param source the ASF file.
+     * @return the header object, including its GUID and size.
+     * @throws IOException on I/O errors, or if the header object is larger
+     *                     than the file.
+     */
+    public static byte[] readHeaderObject(final FileChannel source) throws IOException
+    {
+        final ByteBuffer start = ByteBuffer.allocate(CHUNK_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(source, start, 0);
+        final byte[] guid = new byte[GUID.GUID_LENGTH];
+        start.get(guid);
+        if (!GUID.GUID_HEADER.equals(new GUID(guid)))
+        {
+            throw new IllegalArgumentException("No ASF header object.");
+        }
+        final long headerSize = start.getLong();
+        if (headerSize < CHUNK_HEADER_SIZE || headerSize > source.size() || headerSize > Integer.MAX_VALUE)
+        {
+            throw new IOException("Invalid ASF header size:" + headerSize); //$NON-NLS-1$
+        }
+        final ByteBuffer header = ByteBuffer.allocate((int) headerSize);
+        readFully(source, header, 0);
+        return header.array();
+    }
+
+    /**
+     * Reads from the channel at the given position until the buffer is full,
+     * then flips it.<br>
+     *
+     * @param source   channel to read from.
+     * @param buffer   buffer to fill.
+     * @param position position in the channel to read from.
+     * @throws IOException on I/O errors, {@link EOFException} if the channel
+     *                     ends first.
+     */
+    private static void readFully(final FileChannel source, final ByteBuffer buffer, final long position) throws IOException
+    {
+        while (buffer.hasRemaining())
+        {
+            if (source.read(buffer, position + buffer.position()) < 0)
+            {
+                throw new EOFException();
+            }
+        }
+        buffer.flip();
+    }
+
+    /**
+     * Reads the header object from <code>source</code> and applies the
+     * modifications provided by the given <code>modifiers</code>.<br>
+     *
+     * @param source        the header object, located after its GUID.
+     * @param modifiers     list of chunk modifiers to apply.
+     * @param removePadding if <code>true</code> padding objects are left out,
+     *                      and their size recorded, so padding can be added
+     *                      back when writing.
+     * @return the modified header object.
+     * @throws IOException on I/O errors.
+     */
+    private ModifiedHeader modifyHeader(final InputStream source, final List<ChunkModifier> modifiers, final boolean removePadding) throws IOException
     {
         final List<ChunkModifier> modders = new ArrayList<ChunkModifier>();
         if (modifiers != null)
         {
             modders.addAll(modifiers);
         }
-        // Read and check ASF GUID
-        final GUID readGUID = Utils.readGUID(source);
-        if (GUID.GUID_HEADER.equals(readGUID))
+        final ModifiedHeader result = new ModifiedHeader();
+
+        // read header information
+        result.headerSize = Utils.readUINT64(source);
+        result.chunkCount = Utils.readUINT32(source);
+        result.reserved[0] = (byte) (source.read() & 0xFF);
+        result.reserved[1] = (byte) (source.read() & 0xFF);
+
+        // Iterate through all chunks
+        for (long i = 0; i < result.chunkCount; i++)
         {
-            // used to calculate differences
-            long totalDiff = 0;
-            long chunkDiff = 0;
-
-            // read header information
-            final long headerSize = Utils.readUINT64(source);
-            final long chunkCount = Utils.readUINT32(source);
-            final byte[] reserved = new byte[2];
-            reserved[0] = (byte) (source.read() & 0xFF);
-            reserved[1] = (byte) (source.read() & 0xFF);
-
-            /*
-             * bos will get all unmodified and modified header chunks. This is
-             * necessary, because the header chunk (and file properties chunk)
-             * need to be adjusted but are written in front of the others.
-             */
-            final ByteArrayOutputStream bos = new ByteArrayOutputStream();
-            // fileHeader will get the binary representation of the file
-            // properties chunk, without GUID
-            byte[] fileHeader = null;
-
-            // Iterate through all chunks
-            for (long i = 0; i < chunkCount; i++)
+            // Read GUID
+            final GUID curr = Utils.readGUID(source);
+            // special case for file properties chunk
+            if (GUID.GUID_FILE.equals(curr))
             {
-                // Read GUID
-                final GUID curr = Utils.readGUID(source);
-                // special case for file properties chunk
-                if (GUID.GUID_FILE.equals(curr))
-                {
-                    final ByteArrayOutputStream tmp = new ByteArrayOutputStream();
-                    final long size = Utils.readUINT64(source);
-                    Utils.writeUINT64(size, tmp);
-                    Utils.copy(source, tmp, size - 24);
-                    fileHeader = tmp.toByteArray();
-                }
-                else
+                final ByteArrayOutputStream tmp = new ByteArrayOutputStream();
+                final long size = Utils.readUINT64(source);
+                Utils.writeUINT64(size, tmp);
+                Utils.copy(source, tmp, size - 24);
+                result.fileHeader = tmp.toByteArray();
+            }
+            else if (removePadding && GUID.GUID_PADDING.equals(curr))
+            {
+                final long size = Utils.readUINT64(source);
+                source.skip(size - 24);
+                result.chunkDiff--;
+                result.totalDiff -= size;
+                result.removedPadding += size;
+            }
+            else
+            {
+                /*
+                 * Now look for ChunkModifier objects which modify the
+                 * current chunk
+                 */
+                boolean handled = false;
+                for (int j = 0; j < modders.size() && !handled; j++)
                 {
-                    /*
-                     * Now look for ChunkModifier objects which modify the
-                     * current chunk
-                     */
-                    boolean handled = false;
-                    for (int j = 0; j < modders.size() && !handled; j++)
+                    if (modders.get(j).isApplicable(curr))
                     {
-                        if (modders.get(j).isApplicable(curr))
-                        {
-                            // alter current chunk
-                            final ModificationResult result = modders.get(j).modify(curr, source, bos);
-                            // remember size differences.
-                            chunkDiff += result.getChunkCountDifference();
-                            totalDiff += result.getByteDifference();
-                            // remove current modifier from index.
-                            modders.remove(j);
-                            handled = true;
-                        }
-                    }
-                    if (!handled)
-                    {
-                        // copy chunks which are not modified.
-                        copyChunk(curr, source, bos);
+                        // alter current chunk
+                        final ModificationResult modification = modders.get(j).modify(curr, source, result.bos);
+                        // remember size differences.
+                        result.chunkDiff += modification.getChunkCountDifference();
+                        result.totalDiff += modification.getByteDifference();
+                        // remove current modifier from index.
+                        modders.remove(j);
+                        handled = true;
                     }
                 }
+                if (!handled)
+                {
+                    // copy chunks which are not modified.
+                    copyChunk(curr, source, result.bos);
+                }
             }
-            // Now apply the left modifiers.
-            for (final ChunkModifier curr : modders)
-            {
-                // chunks, which were not in the source file, will be added to
-                // the destination
-                final ModificationResult result = curr.modify(null, null, bos);
-                chunkDiff += result.getChunkCountDifference();
-                totalDiff += result.getByteDifference();
-            }
-            /*
-             * Now all header objects have been read or manipulated and stored
-             * in the internal buffer (bos).
-             */
-            // write ASF GUID
-            dest.write(readGUID.getBytes());
-            // write altered header object size
-            Utils.writeUINT64(headerSize + totalDiff, dest);
-            // write altered number of chunks
-            Utils.writeUINT32(chunkCount + chunkDiff, dest);
-            // write the reserved 2 bytes (0x01,0x02).
-            dest.write(reserved);
-            // write the new file header
-            modifyFileHeader(new ByteArrayInputStream(fileHeader), dest, totalDiff);
-            // write the header objects (chunks)
-            dest.write(bos.toByteArray());
-            // copy the rest of the file (data and index)
-            Utils.flush(source, dest);
         }
-        else
+        // Now apply the left modifiers.
+        for (final ChunkModifier curr : modders)
         {
-            throw new IllegalArgumentException("No ASF header object.");
+            // chunks, which were not in the source file, will be added to
+            // the destination
+            final ModificationResult modification = curr.modify(null, null, result.bos);
+            result.chunkDiff += modification.getChunkCountDifference();
+            result.totalDiff += modification.getByteDifference();
         }
+        return result;
     }
 
     /**
@@ -182,4 +331,76 @@ public class AsfStreamer
         Utils.copy(source, destination, chunkSize - 48);
     }
 
+    /**
+     * A header object which has been read and modified, kept in memory until
+     * it is written.<br>
+     */
+    private class ModifiedHeader
+    {
+        /**
+         * Gets all unmodified and modified header chunks. This is necessary,
+         * because the header chunk (and file properties chunk) need to be
+         * adjusted but are written in front of the others.
+         */
+        private final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        private long chunkCount;
+        private long chunkDiff;
+        /**
+         * The binary representation of the file properties chunk, without GUID
+         */
+        private byte[] fileHeader;
+        private long headerSize;
+        private long removedPadding;
+        private final byte[] reserved = new byte[2];
+        private long totalDiff;
+
+        /**
+         * @return size of the padding objects left out of the header object.
+         */
+        long getRemovedPadding()
+        {
+            return this.removedPadding;
+        }
+
+        /**
+         * @return size of the modified header object, without any padding
+         * added when writing.
+         */
+        long getSize()
+        {
+            return this.headerSize + this.totalDiff;
+        }
+
+        /**
+         * Writes the modified header object.<br>
+         *
+         * @param dest        the destination to write the header object to.
+         * @param paddingSize size of a padding object to add to the end of
+         *                    the header object, or 0 for none.
+         * @throws IOException on I/O errors.
+         */
+        void writeTo(final OutputStream dest, final long paddingSize) throws IOException
+        {
+            final long diff = this.totalDiff + paddingSize;
+            // write ASF GUID
+            dest.write(GUID.GUID_HEADER.getBytes());
+            // write altered header object size
+            Utils.writeUINT64(this.headerSize + diff, dest);
+            // write altered number of chunks
+            Utils.writeUINT32(this.chunkCount + this.chunkDiff + (paddingSize > 0 ? 1 : 0), dest);
+            // write the reserved 2 bytes (0x01,0x02).
+            dest.write(this.reserved);
+            // write the new file header
+            modifyFileHeader(new ByteArrayInputStream(this.fileHeader), dest, diff);
+            // write the header objects (chunks)
+            this.bos.writeTo(dest);
+            if (paddingSize > 0)
+            {
+                dest.write(GUID.GUID_PADDING.getBytes());
+                Utils.writeUINT64(paddingSize, dest);
+                dest.write(new byte[(int) (paddingSize - CHUNK_HEADER_SIZE)]);
+            }
+        }
+    }
+
 }
@@ -0,0 +1,162 @@
+package org.jaudiotagger.audio.asf.io;
+
+import org.jaudiotagger.audio.asf.data.GUID;
+import org.jaudiotagger.audio.asf.util.LittleEndianSource;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Reads from an ASF header which has been read into memory.<br>
+ * Numbers and GUIDs are decoded straight from the buffer and, like
+ * {@link FullRequestInputStream}, a read of more bytes than remain fails
+ * rather than returning fewer.<br>
+ * Not safe for use by more than one thread.
+ */
+class ByteBufferInputStream extends InputStream implements LittleEndianSource
+{
+
+    /**
+     * The header data, read in little endian order.
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * Reused for the values of each GUID read.
+     */
+    private final int[] guidData = new int[GUID.GUID_LENGTH];
+
+    /**
+     * Creates an instance reading the given bytes.
+     *
+     * @param data header data.
+     */
+    public ByteBufferInputStream(final byte[] data)
+    {
+        this.buffer = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int available()
+    {
+        return this.buffer.remaining();
+    }
+
+    /**
+     * Fails if fewer than the given number of bytes remain.
+     *
+     * @param byteCount number of bytes about to be read.
+     * @throws EOFException if fewer bytes remain.
+     */
+    private void checkRemaining(final int byteCount) throws EOFException
+    {
+        if (this.buffer.remaining() < byteCount)
+        {
+            throw new EOFException((byteCount - this.buffer.remaining()) + " more bytes expected.");
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void mark(final int readlimit)
+    {
+        this.buffer.mark();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean markSupported()
+    {
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int read()
+    {
+        return this.buffer.hasRemaining() ? this.buffer.get() & 0xFF : -1;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int read(final byte[] destination, final int off, final int len) throws IOException
+    {
+        checkRemaining(len);
+        this.buffer.get(destination, off, len);
+        return len;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public GUID readGUID() throws IOException
+    {
+        checkRemaining(GUID.GUID_LENGTH);
+        for (int i = 0; i < GUID.GUID_LENGTH; i++)
+        {
+            this.guidData[i] = this.buffer.get() & 0xFF;
+        }
+        return new GUID(this.guidData);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public int readUINT16() throws IOException
+    {
+        checkRemaining(2);
+        return this.buffer.getShort() & 0xFFFF;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public long readUINT32() throws IOException
+    {
+        checkRemaining(4);
+        return this.buffer.getInt() & 0xFFFFFFFFL;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public long readUINT64() throws IOException
+    {
+        checkRemaining(8);
+        return this.buffer.getLong();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void reset() throws IOException
+    {
+        this.buffer.reset();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long skip(final long amount)
+    {
+        final int skipped = (int) Math.max(0, Math.min(amount, this.buffer.remaining()));
+        this.buffer.position(this.buffer.position() + skipped);
+        return skipped;
+    }
+}
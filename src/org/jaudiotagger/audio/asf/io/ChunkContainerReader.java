@@ -138,7 +138,7 @@ abstract class ChunkContainerReader<ChunkType extends ChunkContainer> implements
     public ChunkType read(final GUID guid, final InputStream stream, final long chunkStart) throws IOException, IllegalArgumentException
     {
         checkStream(stream);
-        final CountingInputStream cis = new CountingInputStream(stream);
+        final CountingInputStream cis = CountingInputStream.create(stream);
         if (!Arrays.asList(getApplyingIds()).contains(guid))
         {
             throw new IllegalArgumentException("provided GUID is not supported by this reader.");
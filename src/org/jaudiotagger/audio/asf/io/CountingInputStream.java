@@ -1,5 +1,8 @@
 package org.jaudiotagger.audio.asf.io;
 
+import org.jaudiotagger.audio.asf.data.GUID;
+import org.jaudiotagger.audio.asf.util.LittleEndianSource;
+
 import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -15,6 +18,66 @@ import java.io.InputStream;
 class CountingInputStream extends FilterInputStream
 {
 
+    /**
+     * Counts the bytes of numbers and GUIDs decoded by the wrapped stream
+     * itself.
+     */
+    private static final class Decoding extends CountingInputStream implements LittleEndianSource
+    {
+
+        private final LittleEndianSource source;
+
+        Decoding(final InputStream stream)
+        {
+            super(stream);
+            this.source = (LittleEndianSource) stream;
+        }
+
+        public GUID readGUID() throws IOException
+        {
+            final GUID result = this.source.readGUID();
+            super.bytesRead(GUID.GUID_LENGTH);
+            return result;
+        }
+
+        public int readUINT16() throws IOException
+        {
+            final int result = this.source.readUINT16();
+            super.bytesRead(2);
+            return result;
+        }
+
+        public long readUINT32() throws IOException
+        {
+            final long result = this.source.readUINT32();
+            super.bytesRead(4);
+            return result;
+        }
+
+        public long readUINT64() throws IOException
+        {
+            final long result = this.source.readUINT64();
+            super.bytesRead(8);
+            return result;
+        }
+    }
+
+    /**
+     * Creates an instance counting the bytes read from the given stream, which
+     * also decodes numbers and GUIDs directly if the stream can.
+     *
+     * @param stream stream to actually work with.
+     * @return counting stream.
+     */
+    public static CountingInputStream create(final InputStream stream)
+    {
+        if (stream instanceof LittleEndianSource)
+        {
+            return new Decoding(stream);
+        }
+        return new CountingInputStream(stream);
+    }
+
     /**
      * If {@link #mark(int)} has been called, the current value of
      * {@link #readCount} is stored, in order to reset it upon {@link #reset()}.
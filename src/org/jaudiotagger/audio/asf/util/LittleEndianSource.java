@@ -0,0 +1,47 @@
+package org.jaudiotagger.audio.asf.util;
+
+import org.jaudiotagger.audio.asf.data.GUID;
+
+import java.io.IOException;
+
+/**
+ * Implemented by streams which can decode the little endian numbers and GUIDs
+ * of ASF straight from the data they hold.<br>
+ * The read methods of {@link Utils} use these instead of copying each value
+ * into a new array first.<br>
+ */
+public interface LittleEndianSource
+{
+
+    /**
+     * Reads a GUID.<br>
+     *
+     * @return the GUID.
+     * @throws IOException if fewer than 16 bytes remain.
+     */
+    GUID readGUID() throws IOException;
+
+    /**
+     * Reads 2 bytes as UINT16.<br>
+     *
+     * @return UINT16 value.
+     * @throws IOException if fewer than 2 bytes remain.
+     */
+    int readUINT16() throws IOException;
+
+    /**
+     * Reads 4 bytes as UINT32.<br>
+     *
+     * @return UINT32 value.
+     * @throws IOException if fewer than 4 bytes remain.
+     */
+    long readUINT32() throws IOException;
+
+    /**
+     * Reads 8 bytes as a little endian long.<br>
+     *
+     * @return the value.
+     * @throws IOException if fewer than 8 bytes remain.
+     */
+    long readUINT64() throws IOException;
+}
@@ -257,6 +257,10 @@ public class Utils
      */
     public static BigInteger readBig64(InputStream stream) throws IOException
     {
+        if (stream instanceof LittleEndianSource)
+        {
+            return BigInteger.valueOf(((LittleEndianSource) stream).readUINT64());
+        }
         byte[] bytes = new byte[8];
         byte[] oa = new byte[8];
         int read = stream.read(bytes);
@@ -373,14 +377,58 @@ public class Utils
         {
             throw new IllegalArgumentException("Argument must not be null"); //$NON-NLS-1$
         }
-        int[] binaryGuid = new int[GUID.GUID_LENGTH];
-        for (int i = 0; i < binaryGuid.length; i++)
+        if (stream instanceof LittleEndianSource)
         {
-            binaryGuid[i] = stream.read();
+            return ((LittleEndianSource) stream).readGUID();
         }
+        final byte[] binaryGuid = new byte[GUID.GUID_LENGTH];
+        readFully(stream, binaryGuid);
         return new GUID(binaryGuid);
     }
 
+    /**
+     * Reads a little endian number from the stream with a single read rather
+     * than a read for each byte.<br>
+     *
+     * @param stream    stream to read from.
+     * @param byteCount number of bytes making up the number, at most 8.
+     * @return the number.
+     * @throws IOException on I/O Errors, or if the stream ends first.
+     */
+    private static long readLittleEndian(final InputStream stream, final int byteCount) throws IOException
+    {
+        final byte[] bytes = new byte[byteCount];
+        readFully(stream, bytes);
+        long result = 0;
+        for (int i = byteCount - 1; i >= 0; i--)
+        {
+            result = (result << 8) | (bytes[i] & 0xFF);
+        }
+        return result;
+    }
+
+    /**
+     * Fills the given array from the stream.<br>
+     *
+     * @param stream stream to read from.
+     * @param bytes  array to fill.
+     * @throws IOException on I/O Errors, {@link EOFException} if the stream
+     *                     ends first.
+     */
+    private static void readFully(final InputStream stream, final byte[] bytes) throws IOException
+    {
+        int totalRead = 0;
+        while (totalRead < bytes.length)
+        {
+            final int read = stream.read(bytes, totalRead, bytes.length - totalRead);
+            if (read == -1)
+            {
+                throw new EOFException();
+            }
+            totalRead += read;
+        }
+    }
+
     /**
      * Reads 2 bytes from stream and interprets them as UINT16.<br>
      *
@@ -390,9 +438,11 @@ public class Utils
      */
     public static int readUINT16(InputStream stream) throws IOException
     {
-        int result = stream.read();
-        result |= stream.read() << 8;
-        return result;
+        if (stream instanceof LittleEndianSource)
+        {
+            return ((LittleEndianSource) stream).readUINT16();
+        }
+        return (int) readLittleEndian(stream, 2);
     }
 
     /**
@@ -404,16 +454,11 @@ public class Utils
      */
     public static long readUINT32(InputStream stream) throws IOException
     {
-        long result = 0;
-        for (int i = 0; i <= 24; i += 8)
+        if (stream instanceof LittleEndianSource)
         {
-            // Warning, always cast to long here. Otherwise it will be
-            // shifted as int, which may produce a negative value, which will
-            // then be extended to long and assign the long variable a negative
-            // value.
-            result |= (long) stream.read() << i;
+            return ((LittleEndianSource) stream).readUINT32();
         }
-        return result;
+        return readLittleEndian(stream, 4);
     }
 
     /**
@@ -425,16 +470,11 @@ public class Utils
      */
     public static long readUINT64(InputStream stream) throws IOException
     {
-        long result = 0;
-        for (int i = 0; i <= 56; i += 8)
+        if (stream instanceof LittleEndianSource)
         {
-            // Warning, always cast to long here. Otherwise it will be
-            // shifted as int, which may produce a negative value, which will
-            // then be extended to long and assign the long variable a negative
-            // value.
-            result |= (long) stream.read() << i;
+            return ((LittleEndianSource) stream).readUINT64();
         }
-        return result;
+        return readLittleEndian(stream, 8);
     }
 
     /**
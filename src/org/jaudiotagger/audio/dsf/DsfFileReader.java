@@ -4,6 +4,8 @@
  */
 package org.jaudiotagger.audio.dsf;
 
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.ReadOptions;
 import org.jaudiotagger.audio.exceptions.CannotReadException;
 import org.jaudiotagger.audio.generic.AudioFileReader2;
 import org.jaudiotagger.audio.generic.GenericAudioHeader;
@@ -42,16 +44,7 @@ public class DsfFileReader extends AudioFileReader2
             DsdChunk dsd = DsdChunk.readChunk(Utils.readFileDataIntoBufferLE(fc, DsdChunk.DSD_HEADER_LENGTH));
             if (dsd != null)
             {
-                ByteBuffer fmtChunkBuffer = Utils.readFileDataIntoBufferLE(fc, IffHeaderChunk.SIGNATURE_LENGTH + CHUNKSIZE_LENGTH);
-                FmtChunk fmt = FmtChunk.readChunkHeader(fmtChunkBuffer);
-                if (fmt != null)
-                {
-                    return fmt.readChunkData(dsd, fc);
-                }
-                else
-                {
-                    throw new CannotReadException(file + " Not a valid dsf file. Content does not include 'fmt ' chunk");
-                }
+                return readEncodingInfo(fc, dsd, file.toString());
             }
             else
             {
@@ -77,6 +70,57 @@ public class DsfFileReader extends AudioFileReader2
         }
     }
 
+    /**
+     * Open the file once and read the dsd chunk once, then read the encoding info from the 'fmt ' chunk and the tag
+     * from the metadata offset given in the dsd chunk
+     */
+    @Override
+    protected AudioFile readAudioFile(File file, ReadOptions options) throws CannotReadException, IOException
+    {
+        if (options != ReadOptions.HEADER_AND_TAG)
+        {
+            return super.readAudioFile(file, options);
+        }
+
+        try(FileChannel fc = new RandomAccessFile(file, "r").getChannel())
+        {
+            DsdChunk dsd = DsdChunk.readChunk(Utils.readFileDataIntoBufferLE(fc, DsdChunk.DSD_HEADER_LENGTH));
+            if (dsd != null)
+            {
+                GenericAudioHeader info = readEncodingInfo(fc, dsd, file.toString());
+                return new AudioFile(file, info, readTag(fc, dsd, file.toString()));
+            }
+            else
+            {
+                throw new CannotReadException(file + " Not a valid dsf file. Content does not start with 'DSD '");
+            }
+        }
+    }
+
+    /**
+     * Reads the encoding info from the 'fmt ' chunk that follows the dsd chunk
+     *
+     * @param fc the filechannel from which to read, positioned after the dsd chunk
+     * @param dsd  the dsd chunk
+     * @param fileName
+     * @return
+     * @throws CannotReadException if there is no 'fmt ' chunk
+     * @throws IOException if cannot read file.
+     */
+    private GenericAudioHeader readEncodingInfo(FileChannel fc, DsdChunk dsd, String fileName) throws CannotReadException, IOException
+    {
+        ByteBuffer fmtChunkBuffer = Utils.readFileDataIntoBufferLE(fc, IffHeaderChunk.SIGNATURE_LENGTH + CHUNKSIZE_LENGTH);
+        FmtChunk fmt = FmtChunk.readChunkHeader(fmtChunkBuffer);
+        if (fmt != null)
+        {
+            return fmt.readChunkData(dsd, fc);
+        }
+        else
+        {
+            throw new CannotReadException(fileName + " Not a valid dsf file. Content does not include 'fmt ' chunk");
+        }
+    }
+
     /**
      * Reads the ID3v2 tag starting at the {@code tagOffset} position in the
      * supplied file.
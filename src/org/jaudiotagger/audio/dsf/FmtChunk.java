@@ -44,7 +44,39 @@ public class FmtChunk
     {
         long sizeExcludingChunkHeader = chunkSizeLength - (IffHeaderChunk.SIGNATURE_LENGTH + CHUNKSIZE_LENGTH);
         ByteBuffer audioData = Utils.readFileDataIntoBufferLE(fc, (int)sizeExcludingChunkHeader);
-        return readAudioInfo(dsd, audioData);
+        GenericAudioHeader audioHeader = readAudioInfo(dsd, audioData);
+        readDataChunkPosition(audioHeader, fc);
+        return audioHeader;
+    }
+
+    /**
+     * The 'data' chunk follows the 'fmt ' chunk, record where its sample data is
+     *
+     * @param audioHeader
+     * @param fc positioned at the start of the data chunk
+     * @throws IOException
+     */
+    private void readDataChunkPosition(GenericAudioHeader audioHeader, FileChannel fc) throws IOException
+    {
+        long dataChunkStart = fc.position();
+        if (fc.size() - dataChunkStart < IffHeaderChunk.SIGNATURE_LENGTH + CHUNKSIZE_LENGTH)
+        {
+            return;
+        }
+        ByteBuffer dataChunkHeader = Utils.readFileDataIntoBufferLE(fc, IffHeaderChunk.SIGNATURE_LENGTH + CHUNKSIZE_LENGTH);
+        if (DsfChunkType.DATA.getCode().equals(Utils.readFourBytesAsChars(dataChunkHeader)))
+        {
+            //Chunk size includes the chunk header
+            long dataChunkSize = dataChunkHeader.getLong();
+            long dataStart = dataChunkStart + IffHeaderChunk.SIGNATURE_LENGTH + CHUNKSIZE_LENGTH;
+            long dataEnd = Math.min(dataChunkStart + dataChunkSize, fc.size());
+            if (dataEnd >= dataStart)
+            {
+                audioHeader.setAudioDataStartPosition(dataStart);
+                audioHeader.setAudioDataEndPosition(dataEnd);
+                audioHeader.setAudioDataLength(dataEnd - dataStart);
+            }
+        }
     }
 
     /**
@@ -18,13 +18,23 @@
  */
 package org.jaudiotagger.audio.flac;
 
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.ReadOptions;
 import org.jaudiotagger.audio.exceptions.CannotReadException;
+import org.jaudiotagger.audio.flac.metadatablock.MetadataBlockDataPicture;
+import org.jaudiotagger.audio.flac.metadatablock.MetadataBlockDataStreamInfo;
+import org.jaudiotagger.audio.flac.metadatablock.MetadataBlockHeader;
 import org.jaudiotagger.audio.generic.AudioFileReader2;
 import org.jaudiotagger.audio.generic.GenericAudioHeader;
 import org.jaudiotagger.tag.Tag;
+import org.jaudiotagger.tag.vorbiscomment.VorbisCommentTag;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Read encoding and tag info for Flac file (open source lossless encoding)
@@ -44,4 +54,63 @@ public class FlacFileReader extends AudioFileReader2
     {
         return tr.read(path);
     }
+
+    /**
+     * Open the file once and walk the metadata blocks once, reading the StreamInfo block for the encoding info and
+     * the vorbis comment and picture blocks for the tag
+     */
+    @Override
+    protected AudioFile readAudioFile(File path, ReadOptions options) throws CannotReadException, IOException
+    {
+        if (options != ReadOptions.HEADER_AND_TAG)
+        {
+            return super.readAudioFile(path, options);
+        }
+
+        try (FileChannel fc = new RandomAccessFile(path, "r").getChannel())
+        {
+            FlacStreamReader flacStream = new FlacStreamReader(fc, path.toString() + " ");
+            flacStream.findStream();
+
+            MetadataBlockDataStreamInfo mbdsi = null;
+            VorbisCommentTag tag = null;
+            List<MetadataBlockDataPicture> images = new ArrayList<MetadataBlockDataPicture>();
+            boolean isLastBlock = false;
+            while (!isLastBlock)
+            {
+                MetadataBlockHeader mbh = MetadataBlockHeader.readHeader(fc);
+                if (mbh.getBlockType() == null)
+                {
+                    fc.position(fc.position() + mbh.getDataLength());
+                }
+                else
+                {
+                    switch (mbh.getBlockType())
+                    {
+                        case STREAMINFO:
+                            mbdsi = ir.readStreamInfo(mbh, fc, path);
+                            break;
+
+                        case VORBIS_COMMENT:
+                        case PICTURE:
+                            VorbisCommentTag comment = tr.readMetadataBlock(mbh, fc, path, images);
+                            if (comment != null)
+                            {
+                                tag = comment;
+                            }
+                            break;
+
+                        default:
+                            fc.position(fc.position() + mbh.getDataLength());
+                            break;
+                    }
+                }
+                isLastBlock = mbh.isLastBlock();
+            }
+
+            //Audio continues from the end of the metadata blocks to end of file
+            FlacAudioHeader info = ir.createAudioHeader(mbdsi, fc.position(), fc.size(), path);
+            return new AudioFile(path, info, tr.createTag(tag, images));
+        }
+    }
 }
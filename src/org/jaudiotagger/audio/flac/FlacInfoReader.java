@@ -60,11 +60,7 @@ public class FlacInfoReader
                 logger.info(path.toString() + " "  + mbh.toString());
                 if (mbh.getBlockType() == BlockType.STREAMINFO)
                 {
-                    mbdsi = new MetadataBlockDataStreamInfo(mbh, fc);
-                    if (!mbdsi.isValid())
-                    {
-                        throw new CannotReadException(path + ":FLAC StreamInfo not valid");
-                    }
+                    mbdsi = readStreamInfo(mbh, fc, path);
                 }
                 else
                 {
@@ -74,28 +70,61 @@ public class FlacInfoReader
             }
 
             //Audio continues from this point to end of file (normally - TODO might need to allow for an ID3v1 tag at file end ?)
-            long streamStart = fc.position();
+            return createAudioHeader(mbdsi, fc.position(), fc.size(), path);
+        }
+    }
 
-            if (mbdsi == null)
-            {
-                throw new CannotReadException(path + ":Unable to find Flac StreamInfo");
-            }
+    /**
+     * Read the StreamInfo block, the channel is positioned at the start of its data
+     *
+     * @param mbh
+     * @param fc
+     * @param path
+     * @return
+     * @throws CannotReadException
+     * @throws IOException
+     */
+    MetadataBlockDataStreamInfo readStreamInfo(MetadataBlockHeader mbh, FileChannel fc, File path) throws CannotReadException, IOException
+    {
+        MetadataBlockDataStreamInfo mbdsi = new MetadataBlockDataStreamInfo(mbh, fc);
+        if (!mbdsi.isValid())
+        {
+            throw new CannotReadException(path + ":FLAC StreamInfo not valid");
+        }
+        return mbdsi;
+    }
 
-            FlacAudioHeader info = new FlacAudioHeader();
-            info.setNoOfSamples(mbdsi.getNoOfSamples());
-            info.setPreciseLength(mbdsi.getPreciseLength());
-            info.setChannelNumber(mbdsi.getNoOfChannels());
-            info.setSamplingRate(mbdsi.getSamplingRate());
-            info.setBitsPerSample(mbdsi.getBitsPerSample());
-            info.setEncodingType(mbdsi.getEncodingType());
-            info.setLossless(true);
-            info.setMd5(mbdsi.getMD5Signature());
-            info.setAudioDataLength(fc.size() - streamStart);
-            info.setAudioDataStartPosition(streamStart);
-            info.setAudioDataEndPosition(fc.size());
-            info.setBitRate(computeBitrate(info.getAudioDataLength(), mbdsi.getPreciseLength()));
-            return info;
+    /**
+     * Create the audio header once all the metadata blocks have been walked
+     *
+     * @param mbdsi
+     * @param streamStart start of the audio frames, straight after the last metadata block
+     * @param fileSize
+     * @param path
+     * @return
+     * @throws CannotReadException
+     */
+    FlacAudioHeader createAudioHeader(MetadataBlockDataStreamInfo mbdsi, long streamStart, long fileSize, File path) throws CannotReadException
+    {
+        if (mbdsi == null)
+        {
+            throw new CannotReadException(path + ":Unable to find Flac StreamInfo");
         }
+
+        FlacAudioHeader info = new FlacAudioHeader();
+        info.setNoOfSamples(mbdsi.getNoOfSamples());
+        info.setPreciseLength(mbdsi.getPreciseLength());
+        info.setChannelNumber(mbdsi.getNoOfChannels());
+        info.setSamplingRate(mbdsi.getSamplingRate());
+        info.setBitsPerSample(mbdsi.getBitsPerSample());
+        info.setEncodingType(mbdsi.getEncodingType());
+        info.setLossless(true);
+        info.setMd5(mbdsi.getMD5Signature());
+        info.setAudioDataLength(fileSize - streamStart);
+        info.setAudioDataStartPosition(streamStart);
+        info.setAudioDataEndPosition(fileSize);
+        info.setBitRate(computeBitrate(info.getAudioDataLength(), mbdsi.getPreciseLength()));
+        return info;
     }
 
     private int computeBitrate(long size, float length )
@@ -79,59 +79,93 @@ public class FlacTagReader
                     logger.config(path + " Reading MetadataBlockHeader:" + mbh.toString() + " ending at " + fc.position());
                 }
 
-                //Is it one containing some sort of metadata, therefore interested in it?
-
-                //JAUDIOTAGGER-466:CBlocktype can be null
-                if (mbh.getBlockType() != null)
+                VorbisCommentTag comment = readMetadataBlock(mbh, fc, path, images);
+                if (comment != null)
                 {
-                    switch (mbh.getBlockType())
-                    {
-                        //We got a vorbiscomment comment block, parse it
-                        case VORBIS_COMMENT:
-                            ByteBuffer commentHeaderRawPacket = ByteBuffer.allocate(mbh.getDataLength());
-                            fc.read(commentHeaderRawPacket);
-                            tag = vorbisCommentReader.read(commentHeaderRawPacket.array(), false);
-                            break;
-
-                        case PICTURE:
-                            try
-                            {
-                                MetadataBlockDataPicture mbdp = new MetadataBlockDataPicture(mbh, fc);
-                                images.add(mbdp);
-                            }
-                            catch (IOException ioe)
-                            {
-                                logger.warning(path + "Unable to read picture metablock, ignoring:" + ioe.getMessage());
-                            }
-                            catch (InvalidFrameException ive)
-                            {
-                                logger.warning(path + "Unable to read picture metablock, ignoring" + ive.getMessage());
-                            }
-
-                            break;
-
-                        //This is not a metadata block we are interested in so we skip to next block
-                        default:
-                            if (logger.isLoggable(Level.CONFIG))
-                            {
-                                logger.config(path + "Ignoring MetadataBlock:" + mbh.getBlockType());
-                            }
-                            fc.position(fc.position() + mbh.getDataLength());
-                            break;
-                    }
+                    tag = comment;
                 }
                 isLastBlock = mbh.isLastBlock();
             }
+            return createTag(tag, images);
+        }
+    }
+
+    /**
+     * Read the metadata block if it is part of the tag, otherwise skip over it
+     *
+     * @param mbh
+     * @param fc positioned at the start of the block data
+     * @param path
+     * @param images picture blocks are added to this
+     * @return the vorbis comment if this is the vorbis comment block, otherwise null
+     * @throws CannotReadException
+     * @throws IOException
+     */
+    VorbisCommentTag readMetadataBlock(MetadataBlockHeader mbh, FileChannel fc, File path, List<MetadataBlockDataPicture> images) throws CannotReadException, IOException
+    {
+        VorbisCommentTag tag = null;
 
-            //Note there may not be either a tag or any images, no problem this is valid however to make it easier we
-            //just initialize Flac with an empty VorbisTag
-            if (tag == null)
+        //Is it one containing some sort of metadata, therefore interested in it?
+
+        //JAUDIOTAGGER-466:CBlocktype can be null
+        if (mbh.getBlockType() != null)
+        {
+            switch (mbh.getBlockType())
             {
-                tag = VorbisCommentTag.createNewTag();
+                //We got a vorbiscomment comment block, parse it
+                case VORBIS_COMMENT:
+                    ByteBuffer commentHeaderRawPacket = ByteBuffer.allocate(mbh.getDataLength());
+                    fc.read(commentHeaderRawPacket);
+                    tag = vorbisCommentReader.read(commentHeaderRawPacket.array(), false);
+                    break;
+
+                case PICTURE:
+                    try
+                    {
+                        MetadataBlockDataPicture mbdp = new MetadataBlockDataPicture(mbh, fc);
+                        images.add(mbdp);
+                    }
+                    catch (IOException ioe)
+                    {
+                        logger.warning(path + "Unable to read picture metablock, ignoring:" + ioe.getMessage());
+                    }
+                    catch (InvalidFrameException ive)
+                    {
+                        logger.warning(path + "Unable to read picture metablock, ignoring" + ive.getMessage());
+                    }
+
+                    break;
+
+                //This is not a metadata block we are interested in so we skip to next block
+                default:
+                    if (logger.isLoggable(Level.CONFIG))
+                    {
+                        logger.config(path + "Ignoring MetadataBlock:" + mbh.getBlockType());
+                    }
+                    fc.position(fc.position() + mbh.getDataLength());
+                    break;
             }
-            FlacTag flacTag = new FlacTag(tag, images);
-            return flacTag;
         }
+        return tag;
+    }
+
+    /**
+     * Create the tag once all the metadata blocks have been walked
+     *
+     * @param tag the vorbis comment, or null if the file does not have one
+     * @param images
+     * @return
+     */
+    FlacTag createTag(VorbisCommentTag tag, List<MetadataBlockDataPicture> images)
+    {
+        //Note there may not be either a tag or any images, no problem this is valid however to make it easier we
+        //just initialize Flac with an empty VorbisTag
+        if (tag == null)
+        {
+            tag = VorbisCommentTag.createNewTag();
+        }
+        FlacTag flacTag = new FlacTag(tag, images);
+        return flacTag;
     }
 }
 
@@ -30,25 +30,23 @@ import org.jaudiotagger.audio.flac.metadatablock.MetadataBlockDataPicture;
 import org.jaudiotagger.audio.flac.metadatablock.MetadataBlockDataSeekTable;
 import org.jaudiotagger.audio.flac.metadatablock.MetadataBlockDataStreamInfo;
 import org.jaudiotagger.audio.flac.metadatablock.MetadataBlockHeader;
+import org.jaudiotagger.audio.generic.FileChannelShifter;
+import org.jaudiotagger.audio.generic.PaddingPolicy;
+import org.jaudiotagger.audio.generic.Utils;
 import org.jaudiotagger.tag.Tag;
 import org.jaudiotagger.tag.TagOptionSingleton;
 import org.jaudiotagger.tag.flac.FlacTag;
-import org.jaudiotagger.utils.DirectByteBufferUtils;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.io.UnsupportedEncodingException;
 import java.nio.ByteBuffer;
-import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
-import java.nio.channels.FileChannel.MapMode;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.logging.Logger;
 
-import static org.jaudiotagger.utils.PrimitiveUtils.safeLongToInt;
-
 
 /**
  * Write Flac Tag
@@ -59,6 +57,9 @@ public class FlacTagWriter
     public static Logger logger = Logger.getLogger("org.jaudiotagger.audio.flac");
     private FlacTagCreator tc = new FlacTagCreator();
 
+    //Largest padding block, block data length is held in 24 bits
+    private static final int MAX_PADDING_SIZE = 0xFFFFFF + MetadataBlockHeader.HEADER_LENGTH;
+
     /**
      * @param tag
      * @param file
@@ -82,6 +83,8 @@ public class FlacTagWriter
     }
 
     /**
+     * Write the tag, the file is only opened for writing if the metadata it holds would change
+     *
      * @param tag
      * @param file
      * @throws CannotWriteException
@@ -90,112 +93,58 @@ public class FlacTagWriter
     public void write(Tag tag, File file) throws CannotWriteException
     {
         logger.config(file + " Writing tag");
-        try (FileChannel fc = new RandomAccessFile(file, "rw").getChannel())
+        try
         {
             MetadataBlockInfo blockInfo = new MetadataBlockInfo();
-
-            //Read existing data
-            FlacStreamReader flacStream = new FlacStreamReader(fc, file.toString() + " ");
-            try
+            FlacStreamReader flacStream;
+            int availableRoom;
+            int neededRoom;
+            ByteBuffer inPlaceMetadata = null;
+            try (FileChannel fc = new RandomAccessFile(file, "r").getChannel())
             {
-                flacStream.findStream();
-            }
-            catch (CannotReadException cre)
-            {
-                throw new CannotWriteException(cre.getMessage());
-            }
+                //Read existing data
+                flacStream = readMetadataBlocks(fc, file, blockInfo);
 
-            boolean isLastBlock = false;
-            while (!isLastBlock)
-            {
-                try
+                //Number of bytes in the existing file available before audio data
+                availableRoom = computeAvailableRoom(blockInfo);
+
+                //Minimum Size of the New tag data without padding
+                int newTagSize = tc.convert(tag).limit();
+                //Number of bytes required for new tagdata and other metadata blocks
+                neededRoom = newTagSize + computeNeededRoom(blockInfo);
+
+                logger.config(file + "Writing tag available bytes:" + availableRoom + ":needed bytes:" + neededRoom);
+
+                //There is enough room to fit the tag without moving the audio just need to
+                //adjust padding accordingly need to allow space for padding header if padding required
+                if ((availableRoom == neededRoom) || (availableRoom > neededRoom + MetadataBlockHeader.HEADER_LENGTH))
                 {
-                    MetadataBlockHeader mbh = MetadataBlockHeader.readHeader(fc);
-                    if (mbh.getBlockType() != null)
+                    inPlaceMetadata = createMetadataBlocks(tag, blockInfo, availableRoom - neededRoom);
+                    if (Utils.isFileContentEqual(fc, getStartOfMetadataBlocks(flacStream), inPlaceMetadata))
                     {
-                        switch (mbh.getBlockType())
-                        {
-                            case STREAMINFO:
-                            {
-                                blockInfo.streamInfoBlock = new MetadataBlock(mbh, new MetadataBlockDataStreamInfo(mbh, fc));
-                                break;
-                            }
-
-                            case VORBIS_COMMENT:
-                            case PADDING:
-                            case PICTURE:
-                            {
-                                //All these will be replaced by the new metadata so we just treat as padding in order
-                                //to determine how much space is already allocated in the file
-                                fc.position(fc.position() + mbh.getDataLength());
-                                MetadataBlockData mbd = new MetadataBlockDataPadding(mbh.getDataLength());
-                                blockInfo.metadataBlockPadding.add(new MetadataBlock(mbh, mbd));
-                                break;
-                            }
-                            case APPLICATION:
-                            {
-                                MetadataBlockData mbd = new MetadataBlockDataApplication(mbh, fc);
-                                blockInfo.metadataBlockApplication.add(new MetadataBlock(mbh, mbd));
-                                break;
-                            }
-                            case SEEKTABLE:
-                            {
-                                MetadataBlockData mbd = new MetadataBlockDataSeekTable(mbh, fc);
-                                blockInfo.metadataBlockSeekTable.add(new MetadataBlock(mbh, mbd));
-                                break;
-                            }
-                            case CUESHEET:
-                            {
-                                MetadataBlockData mbd = new MetadataBlockDataCueSheet(mbh, fc);
-                                blockInfo.metadataBlockCueSheet.add(new MetadataBlock(mbh, mbd));
-                                break;
-                            }
-                            default:
-                            {
-                                //What are the consequences of doing this
-                                fc.position(fc.position() + mbh.getDataLength());
-                                break;
-                            }
-                        }
+                        logger.config(file + ":Metadata unchanged, not writing");
+                        return;
                     }
-                    isLastBlock = mbh.isLastBlock();
-                }
-                catch (CannotReadException cre)
-                {
-                    throw new CannotWriteException(cre.getMessage());
                 }
             }
 
-            //Number of bytes in the existing file available before audio data
-            int availableRoom = computeAvailableRoom(blockInfo);
-
-            //Minimum Size of the New tag data without padding
-            int newTagSize = tc.convert(tag).limit();
-            //Number of bytes required for new tagdata and other metadata blocks
-            int neededRoom = newTagSize + computeNeededRoom(blockInfo);
-
-            //Go to start of Flac within file
-            fc.position(flacStream.getStartOfFlacInFile());
-
-            logger.config(file + "Writing tag available bytes:" + availableRoom + ":needed bytes:" + neededRoom);
-
-            //There is enough room to fit the tag without moving the audio just need to
-            //adjust padding accordingly need to allow space for padding header if padding required
-            if ((availableRoom == neededRoom) || (availableRoom > neededRoom + MetadataBlockHeader.HEADER_LENGTH))
+            try (FileChannel fc = new RandomAccessFile(file, "rw").getChannel())
             {
-                logger.config(file + "Room to Rewrite");
-                //Jump over Id3 (if exists) and flac header
-                fc.position(flacStream.getStartOfFlacInFile() + FlacStreamReader.FLAC_STREAM_IDENTIFIER_LENGTH);
-                writeOtherMetadataBlocks(fc, blockInfo);
-
-                //Write tag (and padding)
-                fc.write(tc.convert(tag, availableRoom - neededRoom));
-            }
-            //Need to move audio
-            else
-            {
-                logger.config(file + " No Room to Rewrite");
-                insertTagAndShiftViaMappedByteBuffer(tag, fc, blockInfo, flacStream, neededRoom, availableRoom);
+                if (inPlaceMetadata != null)
+                {
+                    logger.config(file + "Room to Rewrite");
+                    //Jump over Id3 (if exists) and flac header
+                    fc.position(getStartOfMetadataBlocks(flacStream));
+                    fc.write(inPlaceMetadata);
+                    TagOptionSingleton.getInstance().getPaddingPolicy().writeCompleted(PaddingPolicy.WriteMode.IN_PLACE, neededRoom);
+                }
+                //Need to move audio
+                else
+                {
+                    logger.config(file + " No Room to Rewrite");
+                    insertTagAndShift(tag, fc, blockInfo, flacStream, neededRoom, availableRoom);
+                    TagOptionSingleton.getInstance().getPaddingPolicy().writeCompleted(PaddingPolicy.WriteMode.REWRITE, neededRoom);
+                }
             }
         }
         catch (IOException ioe)
@@ -207,98 +156,180 @@ public class FlacTagWriter
         }
     }
 
-    private void insertTagAndShiftViaMappedByteBuffer(Tag tag, FileChannel fc, MetadataBlockInfo blockInfo, FlacStreamReader flacStream, int neededRoom, int availableRoom) throws IOException, UnsupportedEncodingException
+    /**
+     * Read the metadata blocks that are kept when the tag is written, the blocks that will be replaced by the tag
+     * are recorded as padding
+     *
+     * @param fc
+     * @param file
+     * @param blockInfo
+     * @return the stream
+     * @throws IOException
+     * @throws CannotWriteException
+     */
+    private FlacStreamReader readMetadataBlocks(FileChannel fc, File file, MetadataBlockInfo blockInfo) throws IOException, CannotWriteException
     {
-        //Find end of metadata bloacks (start of Audio)
-        int headerLength = flacStream.getStartOfFlacInFile() + FlacStreamReader.FLAC_STREAM_IDENTIFIER_LENGTH + MetadataBlockHeader.HEADER_LENGTH // this should be the length of the block header for the stream info
-                + MetadataBlockDataStreamInfo.STREAM_INFO_DATA_LENGTH;
-        long targetSizeBeforeAudioData = headerLength + neededRoom + FlacTagCreator.DEFAULT_PADDING;
-        long remainderTargetSize = fc.size() - (headerLength + availableRoom);
-        long totalTargetSize = targetSizeBeforeAudioData + remainderTargetSize;
-
-        int currentEndOfFilePosition = safeLongToInt(fc.size());
-
-        MappedByteBuffer mappedFile = fc.map(MapMode.READ_WRITE, 0, totalTargetSize);
-
-		/* 
-		 * First shift data to the 'right' of the tag to the end of the file, whose position is currentEndOfTagsPosition 
-		 */
-        int currentEndOfTagsPosition = safeLongToInt((targetSizeBeforeAudioData - FlacTagCreator.DEFAULT_PADDING) - neededRoom + availableRoom);
-        int lengthDiff = safeLongToInt(totalTargetSize - currentEndOfFilePosition);
-        final int BLOCK_SIZE = safeLongToInt(TagOptionSingleton.getInstance().getWriteChunkSize());
-        int currentPos = currentEndOfFilePosition - BLOCK_SIZE;
-        byte[] buffer = new byte[BLOCK_SIZE];
-        for (; currentPos >= currentEndOfTagsPosition; currentPos -= BLOCK_SIZE)
+        FlacStreamReader flacStream = new FlacStreamReader(fc, file.toString() + " ");
+        try
         {
-            mappedFile.position(currentPos);
-            mappedFile.get(buffer, 0, BLOCK_SIZE);
-            mappedFile.position(currentPos + lengthDiff);
-            mappedFile.put(buffer, 0, BLOCK_SIZE);
+            flacStream.findStream();
         }
-		
-		/*
-		 * Final movement of start bytes. This also covers cases where BLOCK_SIZE is larger than the audio data
-		 */
-        int remainder = (currentPos + BLOCK_SIZE) - currentEndOfTagsPosition;
-        if (remainder > 0)
+        catch (CannotReadException cre)
         {
-            mappedFile.position(currentEndOfTagsPosition);
-            mappedFile.get(buffer, 0, remainder);
-            mappedFile.position(currentEndOfTagsPosition + lengthDiff);
-            mappedFile.put(buffer, 0, remainder);
+            throw new CannotWriteException(cre.getMessage());
         }
 
-        DirectByteBufferUtils.release(mappedFile);
-		
-		/* Now overwrite the tag */
-        writeTags(tag, fc, blockInfo, flacStream);
+        boolean isLastBlock = false;
+        while (!isLastBlock)
+        {
+            try
+            {
+                MetadataBlockHeader mbh = MetadataBlockHeader.readHeader(fc);
+                if (mbh.getBlockType() != null)
+                {
+                    switch (mbh.getBlockType())
+                    {
+                        case STREAMINFO:
+                        {
+                            blockInfo.streamInfoBlock = new MetadataBlock(mbh, new MetadataBlockDataStreamInfo(mbh, fc));
+                            break;
+                        }
+
+                        case VORBIS_COMMENT:
+                        case PADDING:
+                        case PICTURE:
+                        {
+                            //All these will be replaced by the new metadata so we just treat as padding in order
+                            //to determine how much space is already allocated in the file
+                            fc.position(fc.position() + mbh.getDataLength());
+                            MetadataBlockData mbd = new MetadataBlockDataPadding(mbh.getDataLength());
+                            blockInfo.metadataBlockPadding.add(new MetadataBlock(mbh, mbd));
+                            break;
+                        }
+                        case APPLICATION:
+                        {
+                            MetadataBlockData mbd = new MetadataBlockDataApplication(mbh, fc);
+                            blockInfo.metadataBlockApplication.add(new MetadataBlock(mbh, mbd));
+                            break;
+                        }
+                        case SEEKTABLE:
+                        {
+                            MetadataBlockData mbd = new MetadataBlockDataSeekTable(mbh, fc);
+                            blockInfo.metadataBlockSeekTable.add(new MetadataBlock(mbh, mbd));
+                            break;
+                        }
+                        case CUESHEET:
+                        {
+                            MetadataBlockData mbd = new MetadataBlockDataCueSheet(mbh, fc);
+                            blockInfo.metadataBlockCueSheet.add(new MetadataBlock(mbh, mbd));
+                            break;
+                        }
+                        default:
+                        {
+                            //What are the consequences of doing this
+                            fc.position(fc.position() + mbh.getDataLength());
+                            break;
+                        }
+                    }
+                }
+                isLastBlock = mbh.isLastBlock();
+            }
+            catch (CannotReadException cre)
+            {
+                throw new CannotWriteException(cre.getMessage());
+            }
+        }
+        return flacStream;
     }
 
-    private void writeTags(Tag tag, FileChannel fc, MetadataBlockInfo blockInfo, FlacStreamReader flacStream) throws IOException, UnsupportedEncodingException
+    /**
+     * @param flacStream
+     * @return position of the first metadata block, after any Id3 tag and the flac header
+     */
+    private long getStartOfMetadataBlocks(FlacStreamReader flacStream)
     {
-        //Jump over Id3 (if exists) Flac Header
-        fc.position(flacStream.getStartOfFlacInFile() + FlacStreamReader.FLAC_STREAM_IDENTIFIER_LENGTH);
-        writeOtherMetadataBlocks(fc, blockInfo);
-
-        //Write tag (and add some default padding)
-        fc.write(tc.convert(tag, FlacTagCreator.DEFAULT_PADDING));
+        return flacStream.getStartOfFlacInFile() + FlacStreamReader.FLAC_STREAM_IDENTIFIER_LENGTH;
     }
 
     /**
-     * Write all metadata blocks except for the the actual tag metadata
-     * <p/>
-     * We always write blocks in this order
+     * Shift the audio along to make room for the new metadata, then write the metadata
+     *
+     * As the audio has to be moved anyway padding is added so later edits can fit without moving the audio again, the
+     * amount is decided by the {@link PaddingPolicy}, by default enough for the tag to grow again by as much as it
+     * just has.
      *
+     * @param tag
      * @param fc
      * @param blockInfo
+     * @param flacStream
+     * @param neededRoom
+     * @param availableRoom
      * @throws IOException
+     * @throws UnsupportedEncodingException
      */
-    private void writeOtherMetadataBlocks(FileChannel fc, MetadataBlockInfo blockInfo) throws IOException
+    private void insertTagAndShift(Tag tag, FileChannel fc, MetadataBlockInfo blockInfo, FlacStreamReader flacStream, int neededRoom, int availableRoom) throws IOException, UnsupportedEncodingException
     {
-        //Write StreamInfo, we always write this first even if wasn't first in original spec
-        fc.write(ByteBuffer.wrap(blockInfo.streamInfoBlock.getHeader().getBytesWithoutIsLastBlockFlag()));
-        fc.write(blockInfo.streamInfoBlock.getData().getBytes());
+        //Find end of metadata blocks (start of Audio)
+        long headerLength = flacStream.getStartOfFlacInFile() + FlacStreamReader.FLAC_STREAM_IDENTIFIER_LENGTH + MetadataBlockHeader.HEADER_LENGTH // this should be the length of the block header for the stream info
+                + MetadataBlockDataStreamInfo.STREAM_INFO_DATA_LENGTH;
+        long startOfAudio = headerLength + availableRoom;
 
-        //Write Application Blocks
-        for (MetadataBlock aMetadataBlockApplication : blockInfo.metadataBlockApplication)
+        int defaultPadding = Math.max(FlacTagCreator.DEFAULT_PADDING, neededRoom - availableRoom);
+        int paddingSize = TagOptionSingleton.getInstance().getPaddingPolicy().getPadding(neededRoom, fc.size(), defaultPadding);
+        //Padding block must at least have room for its header, and is needed if there is slightly too much room
+        if (paddingSize > 0 || availableRoom > neededRoom)
         {
-            fc.write(ByteBuffer.wrap(aMetadataBlockApplication.getHeader().getBytesWithoutIsLastBlockFlag()));
-            fc.write(aMetadataBlockApplication.getData().getBytes());
+            paddingSize = Math.min(Math.max(paddingSize, MetadataBlockHeader.HEADER_LENGTH), MAX_PADDING_SIZE);
         }
+        else
+        {
+            paddingSize = 0;
+        }
+        FileChannelShifter.shiftForward(fc, startOfAudio, neededRoom + paddingSize - availableRoom);
 
-        //Write Seek Table Blocks
-        for (MetadataBlock aMetadataBlockSeekTable : blockInfo.metadataBlockSeekTable)
+        /* Now overwrite the tag */
+        fc.position(getStartOfMetadataBlocks(flacStream));
+        fc.write(createMetadataBlocks(tag, blockInfo, paddingSize));
+    }
+
+    /**
+     * Create all the metadata blocks as they will be written to file
+     * <p/>
+     * We always write blocks in this order, StreamInfo first even if it wasn't first in the original, then application,
+     * seek table and cue sheet blocks, then the tag and padding
+     *
+     * @param tag
+     * @param blockInfo
+     * @param paddingSize
+     * @return
+     * @throws UnsupportedEncodingException
+     */
+    private ByteBuffer createMetadataBlocks(Tag tag, MetadataBlockInfo blockInfo, int paddingSize) throws UnsupportedEncodingException
+    {
+        ByteBuffer tagData = tc.convert(tag, paddingSize);
+        List<MetadataBlock> otherBlocks = new ArrayList<MetadataBlock>();
+        otherBlocks.add(blockInfo.streamInfoBlock);
+        otherBlocks.addAll(blockInfo.metadataBlockApplication);
+        otherBlocks.addAll(blockInfo.metadataBlockSeekTable);
+        otherBlocks.addAll(blockInfo.metadataBlockCueSheet);
+
+        int length = tagData.remaining();
+        for (MetadataBlock next : otherBlocks)
         {
-            fc.write(ByteBuffer.wrap(aMetadataBlockSeekTable.getHeader().getBytesWithoutIsLastBlockFlag()));
-            fc.write(aMetadataBlockSeekTable.getData().getBytes());
+            length += MetadataBlockHeader.HEADER_LENGTH + next.getData().getBytes().limit();
         }
 
-        //Write Cue sheet Blocks
-        for (MetadataBlock aMetadataBlockCueSheet : blockInfo.metadataBlockCueSheet)
+        ByteBuffer metadata = ByteBuffer.allocate(length);
+        for (MetadataBlock next : otherBlocks)
         {
-            fc.write(ByteBuffer.wrap(aMetadataBlockCueSheet.getHeader().getBytesWithoutIsLastBlockFlag()));
-            fc.write(aMetadataBlockCueSheet.getData().getBytes());
+            metadata.put(next.getHeader().getBytesWithoutIsLastBlockFlag());
+            ByteBuffer data = next.getData().getBytes().duplicate();
+            data.rewind();
+            metadata.put(data);
         }
+        metadata.put(tagData);
+        metadata.flip();
+        return metadata;
     }
 
     /**
@@ -0,0 +1,293 @@
+package org.jaudiotagger.audio.generic;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.logging.Logger;
+import java.util.zip.Checksum;
+
+/**
+ * Hashes the audio data of a file, as found by {@link org.jaudiotagger.audio.AudioFile#getAudioDataRanges()}, so that
+ * the hash does not change when the file is retagged.
+ *
+ * Any {@link MessageDigest} can be used, or a {@link Checksum} such as {@link java.util.zip.CRC32} where a fast non
+ * cryptographic hash is enough. The file is read with positional reads through a direct buffer. If an executor is
+ * set, audio data larger than the chunk size is hashed as separate chunks in parallel, each chunk with a clone of the
+ * digest, and the result is the digest of the chunk digests. This gives a different value to hashing sequentially, so
+ * the same executor setting and chunk size must be used for hashes that are to be compared.
+ *
+ * A hasher keeps no state between calls so can be used by many threads at once.
+ */
+public class AudioDataHasher
+{
+    // Logger Object
+    public static Logger logger = Logger.getLogger("org.jaudiotagger.audio.generic");
+
+    public static final int DEFAULT_BUFFER_SIZE = 1024 * 1024;
+    public static final long DEFAULT_CHUNK_SIZE = 64 * 1024 * 1024;
+
+    private int bufferSize = DEFAULT_BUFFER_SIZE;
+    private long chunkSize = DEFAULT_CHUNK_SIZE;
+    private Executor executor;
+
+    /**
+     * Hash the audio data
+     *
+     * @param file
+     * @param ranges where the audio data is in the file
+     * @param digest used for the hash, it is reset first
+     * @return
+     * @throws IOException
+     */
+    public byte[] hash(File file, AudioDataRanges ranges, MessageDigest digest) throws IOException
+    {
+        digest.reset();
+        try (FileChannel fc = new RandomAccessFile(file, "r").getChannel())
+        {
+            if (executor != null && ranges.getTotalLength() > chunkSize)
+            {
+                if (cloneDigest(digest) != null)
+                {
+                    return hashInChunks(fc, ranges, digest);
+                }
+                logger.warning("Digest " + digest.getAlgorithm() + " cannot be cloned, hashing " + file + " sequentially");
+            }
+            update(fc, ranges, 0, ranges.getTotalLength(), new DigestSink(digest));
+            return digest.digest();
+        }
+    }
+
+    /**
+     * Checksum the audio data, always done sequentially
+     *
+     * @param file
+     * @param ranges where the audio data is in the file
+     * @param checksum used for the checksum, it is reset first
+     * @return
+     * @throws IOException
+     */
+    public long checksum(File file, AudioDataRanges ranges, Checksum checksum) throws IOException
+    {
+        checksum.reset();
+        try (FileChannel fc = new RandomAccessFile(file, "r").getChannel())
+        {
+            update(fc, ranges, 0, ranges.getTotalLength(), new ChecksumSink(checksum));
+            return checksum.getValue();
+        }
+    }
+
+    private byte[] hashInChunks(final FileChannel fc, final AudioDataRanges ranges, MessageDigest digest) throws IOException
+    {
+        List<Future<byte[]>> chunkHashes = new ArrayList<Future<byte[]>>();
+        for (long start = 0; start < ranges.getTotalLength(); start += chunkSize)
+        {
+            final long chunkStart = start;
+            final long chunkLength = Math.min(chunkSize, ranges.getTotalLength() - start);
+            final MessageDigest chunkDigest = cloneDigest(digest);
+            FutureTask<byte[]> chunkHash = new FutureTask<byte[]>(new Callable<byte[]>()
+            {
+                public byte[] call() throws IOException
+                {
+                    update(fc, ranges, chunkStart, chunkLength, new DigestSink(chunkDigest));
+                    return chunkDigest.digest();
+                }
+            });
+            chunkHashes.add(chunkHash);
+            executor.execute(chunkHash);
+        }
+
+        try
+        {
+            for (Future<byte[]> chunkHash : chunkHashes)
+            {
+                digest.update(chunkHash.get());
+            }
+        }
+        catch (InterruptedException ie)
+        {
+            Thread.currentThread().interrupt();
+            cancel(chunkHashes);
+            throw new IOException("Interrupted hashing audio data", ie);
+        }
+        catch (ExecutionException ee)
+        {
+            cancel(chunkHashes);
+            if (ee.getCause() instanceof IOException)
+            {
+                throw (IOException) ee.getCause();
+            }
+            throw new IOException("Unable to hash audio data:" + ee.getCause().getMessage(), ee.getCause());
+        }
+        return digest.digest();
+    }
+
+    private void cancel(List<Future<byte[]>> chunkHashes)
+    {
+        for (Future<byte[]> chunkHash : chunkHashes)
+        {
+            chunkHash.cancel(true);
+        }
+    }
+
+    /**
+     * @param digest
+     * @return a copy of the digest, or null if it does not support cloning
+     */
+    private MessageDigest cloneDigest(MessageDigest digest)
+    {
+        try
+        {
+            return (MessageDigest) digest.clone();
+        }
+        catch (CloneNotSupportedException cnse)
+        {
+            return null;
+        }
+    }
+
+    /**
+     * Pass length bytes of the audio data, starting at offset bytes into the audio data, to the sink
+     */
+    private void update(FileChannel fc, AudioDataRanges ranges, long offset, long length, Sink sink) throws IOException
+    {
+        ByteBuffer buffer = sink.allocate((int) Math.max(1, Math.min(bufferSize, length)));
+        for (int i = 0; i < ranges.getCount() && length > 0; i++)
+        {
+            long rangeLength = ranges.getLength(i);
+            if (offset >= rangeLength)
+            {
+                offset -= rangeLength;
+                continue;
+            }
+
+            long position = ranges.getStart(i) + offset;
+            long end = ranges.getStart(i) + Math.min(rangeLength, offset + length);
+            length -= end - position;
+            offset = 0;
+            while (position < end)
+            {
+                buffer.clear();
+                buffer.limit((int) Math.min(buffer.capacity(), end - position));
+                while (buffer.hasRemaining())
+                {
+                    int read = fc.read(buffer, position + buffer.position());
+                    if (read < 0)
+                    {
+                        throw new EOFException("File ends before the end of the audio data at " + (position + buffer.position()));
+                    }
+                }
+                position += buffer.limit();
+                buffer.flip();
+                sink.update(buffer);
+            }
+        }
+    }
+
+    public int getBufferSize()
+    {
+        return bufferSize;
+    }
+
+    /**
+     * @param bufferSize size of each read from the file
+     */
+    public void setBufferSize(int bufferSize)
+    {
+        if (bufferSize < 1)
+        {
+            throw new IllegalArgumentException("Buffer size must be at least 1:" + bufferSize);
+        }
+        this.bufferSize = bufferSize;
+    }
+
+    public long getChunkSize()
+    {
+        return chunkSize;
+    }
+
+    /**
+     * @param chunkSize size of the chunks hashed in parallel when an executor is set
+     */
+    public void setChunkSize(long chunkSize)
+    {
+        if (chunkSize < 1)
+        {
+            throw new IllegalArgumentException("Chunk size must be at least 1:" + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+    }
+
+    public Executor getExecutor()
+    {
+        return executor;
+    }
+
+    /**
+     * @param executor hashes chunks of large files in parallel, if null files are hashed sequentially
+     */
+    public void setExecutor(Executor executor)
+    {
+        this.executor = executor;
+    }
+
+    private interface Sink
+    {
+        ByteBuffer allocate(int size);
+
+        void update(ByteBuffer buffer);
+    }
+
+    private static class DigestSink implements Sink
+    {
+        private final MessageDigest digest;
+
+        DigestSink(MessageDigest digest)
+        {
+            this.digest = digest;
+        }
+
+        public ByteBuffer allocate(int size)
+        {
+            return ByteBuffer.allocateDirect(size);
+        }
+
+        public void update(ByteBuffer buffer)
+        {
+            digest.update(buffer);
+        }
+    }
+
+    /**
+     * Checksum only accepts arrays so uses a heap buffer
+     */
+    private static class ChecksumSink implements Sink
+    {
+        private final Checksum checksum;
+
+        ChecksumSink(Checksum checksum)
+        {
+            this.checksum = checksum;
+        }
+
+        public ByteBuffer allocate(int size)
+        {
+            return ByteBuffer.allocate(size);
+        }
+
+        public void update(ByteBuffer buffer)
+        {
+            checksum.update(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package org.jaudiotagger.audio.generic;
+
+import java.util.Arrays;
+
+/**
+ * The regions of a file holding the audio data, in file order.
+ *
+ * Most formats hold their audio in one contiguous region, but some such as Ogg interleave it with page headers that
+ * can change when the file is retagged, so are described by many regions. Adjacent regions are merged as they are
+ * added.
+ */
+public class AudioDataRanges
+{
+    private long[] starts = new long[1];
+    private long[] lengths = new long[1];
+    private int count;
+    private long totalLength;
+
+    /**
+     * @param start  file position of the region
+     * @param length number of bytes in the region, regions of zero length are ignored
+     */
+    public void add(long start, long length)
+    {
+        if (start < 0 || length < 0)
+        {
+            throw new IllegalArgumentException("Invalid audio data range:" + start + ":" + length);
+        }
+        if (length == 0)
+        {
+            return;
+        }
+        totalLength += length;
+        if (count > 0 && starts[count - 1] + lengths[count - 1] == start)
+        {
+            lengths[count - 1] += length;
+            return;
+        }
+        if (count == starts.length)
+        {
+            starts = Arrays.copyOf(starts, count * 2);
+            lengths = Arrays.copyOf(lengths, count * 2);
+        }
+        starts[count] = start;
+        lengths[count] = length;
+        count++;
+    }
+
+    /**
+     * @return number of regions
+     */
+    public int getCount()
+    {
+        return count;
+    }
+
+    public long getStart(int index)
+    {
+        checkIndex(index);
+        return starts[index];
+    }
+
+    public long getLength(int index)
+    {
+        checkIndex(index);
+        return lengths[index];
+    }
+
+    /**
+     * @return total number of bytes of audio data
+     */
+    public long getTotalLength()
+    {
+        return totalLength;
+    }
+
+    private void checkIndex(int index)
+    {
+        if (index < 0 || index >= count)
+        {
+            throw new IndexOutOfBoundsException("Index:" + index + ":Count:" + count);
+        }
+    }
+
+    public String toString()
+    {
+        StringBuilder sb = new StringBuilder("AudioDataRanges:count:" + count + ":totalLength:" + totalLength);
+        if (count > 0)
+        {
+            sb.append(":first:").append(starts[0]).append(":last:").append(starts[count - 1] + lengths[count - 1]);
+        }
+        return sb.toString();
+    }
+}
@@ -19,6 +19,8 @@
 package org.jaudiotagger.audio.generic;
 
 import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.AudioHeader;
+import org.jaudiotagger.audio.ReadOptions;
 import org.jaudiotagger.audio.exceptions.CannotReadException;
 import org.jaudiotagger.audio.exceptions.InvalidAudioFrameException;
 import org.jaudiotagger.audio.exceptions.NoReadPermissionsException;
@@ -37,6 +39,10 @@ import java.util.logging.Logger;
  * This abstract class is the skeleton for tag readers. It handles the creation/closing of
  * the randomaccessfile objects and then call the subclass method getEncodingInfo and getTag.
  * These two method have to be implemented in the subclass.
+ *
+ * A reader instance is shared by every thread reading through the same AudioFileIO so implementations must be
+ * thread-safe, anything needed for one read must be held in local variables or objects created for that read,
+ * never in fields of the reader.
  * 
  *@author	Raphael Slinckx
  *@version	$Id$
@@ -73,6 +79,67 @@ public abstract class AudioFileReader
       */
     protected abstract Tag getTag(RandomAccessFile raf) throws CannotReadException, IOException;
 
+    /**
+     * Read the encoding info and/or tag from the open file
+     *
+     * Subclasses can override this if the encoding info and tag can share the work of parsing the file, rather than
+     * each parsing it from the start.
+     *
+     * @param f
+     * @param raf positioned at the start of the file
+     * @param options which parts of the file to read, the parts not read are null
+     * @return
+     * @throws CannotReadException
+     * @throws IOException
+     */
+    protected AudioFile readAudioFile(File f, RandomAccessFile raf, ReadOptions options) throws CannotReadException, IOException
+    {
+        GenericAudioHeader info = null;
+        Tag tag = null;
+        if (options.isReadHeader())
+        {
+            info = getEncodingInfo(raf);
+        }
+        if (options.isReadTag())
+        {
+            raf.seek(0);
+            tag = getTag(raf);
+        }
+        return new AudioFile(f, info, tag);
+    }
+
+    /**
+     * Find where the audio data is held in the file, so that it can be hashed without the metadata
+     *
+     * Uses the audio data start and end positions of the audio header, subclasses override this where the header
+     * does not record them or they include data other than the audio.
+     *
+     * @param f
+     * @return
+     * @throws CannotReadException if the audio data cannot be found
+     * @throws IOException
+     */
+    public AudioDataRanges getAudioDataRanges(File f) throws CannotReadException, IOException
+    {
+        AudioHeader audioHeader;
+        try
+        {
+            audioHeader = read(f, ReadOptions.HEADER_ONLY).getAudioHeader();
+        }
+        catch (TagException | ReadOnlyFileException | InvalidAudioFrameException e)
+        {
+            throw new CannotReadException(e.getMessage(), e);
+        }
+
+        if (audioHeader == null || audioHeader.getAudioDataStartPosition() == null || audioHeader.getAudioDataEndPosition() == null)
+        {
+            throw new CannotReadException(ErrorMessage.NO_AUDIO_DATA_FOUND.getMsg(f));
+        }
+        AudioDataRanges ranges = new AudioDataRanges();
+        ranges.add(audioHeader.getAudioDataStartPosition(), audioHeader.getAudioDataEndPosition() - audioHeader.getAudioDataStartPosition());
+        return ranges;
+    }
+
     /*
       * Reads the given file, and return an AudioFile object containing the Tag
       * and the encoding infos present in the file. If the file has no tag, an
@@ -82,6 +149,19 @@ public abstract class AudioFileReader
       * @exception CannotReadException If anything went bad during the read of this file
       */
     public AudioFile read(File f) throws CannotReadException, IOException, TagException, ReadOnlyFileException, InvalidAudioFrameException
+    {
+        return read(f, ReadOptions.HEADER_AND_TAG);
+    }
+
+    /**
+     * Reads the parts of the given file selected by options, the parts not read are null in the returned AudioFile
+     *
+     * @param f The file to read
+     * @param options which parts of the file to read
+     * @return
+     * @throws CannotReadException If anything went bad during the read of this file
+     */
+    public AudioFile read(File f, ReadOptions options) throws CannotReadException, IOException, TagException, ReadOnlyFileException, InvalidAudioFrameException
     {
         if(logger.isLoggable(Level.CONFIG))
         {
@@ -104,11 +184,9 @@ public abstract class AudioFileReader
         {
             raf = new RandomAccessFile(f, "r");
             raf.seek(0);
-
-            GenericAudioHeader info = getEncodingInfo(raf);
-            raf.seek(0);
-            Tag tag = getTag(raf);
-            return new AudioFile(f, info, tag);
+            AudioFile audioFile = readAudioFile(f, raf, options);
+            audioFile.setReadOptions(options);
+            return audioFile;
 
         }
         catch (CannotReadException cre)
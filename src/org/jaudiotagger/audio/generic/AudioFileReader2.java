@@ -1,6 +1,7 @@
 package org.jaudiotagger.audio.generic;
 
 import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.ReadOptions;
 import org.jaudiotagger.audio.exceptions.CannotReadException;
 import org.jaudiotagger.audio.exceptions.InvalidAudioFrameException;
 import org.jaudiotagger.audio.exceptions.NoReadPermissionsException;
@@ -25,10 +26,11 @@ public abstract class AudioFileReader2 extends AudioFileReader
    * empty one is returned. If the encodinginfo is not valid , an exception is thrown.
    *
    * @param f The file to read
+   * @param options which parts of the file to read, the parts not read are null
    * @exception NoReadPermissionsException if permissions prevent reading of file
    * @exception CannotReadException If anything went bad during the read of this file
    */
-    public AudioFile read(File f) throws CannotReadException, IOException, TagException, ReadOnlyFileException, InvalidAudioFrameException
+    public AudioFile read(File f, ReadOptions options) throws CannotReadException, IOException, TagException, ReadOnlyFileException, InvalidAudioFrameException
     {
         if(logger.isLoggable(Level.CONFIG))
         {
@@ -46,8 +48,27 @@ public abstract class AudioFileReader2 extends AudioFileReader
             throw new CannotReadException(ErrorMessage.GENERAL_READ_FAILED_FILE_TOO_SMALL.getMsg(f));
         }
 
-        GenericAudioHeader info = getEncodingInfo(f);
-        Tag tag = getTag(f);
+        AudioFile audioFile = readAudioFile(f, options);
+        audioFile.setReadOptions(options);
+        return audioFile;
+    }
+
+    /**
+     * Read the encoding info and/or tag from the file
+     *
+     * Subclasses can override this to open the file once and share the parsing of the file structure between the
+     * encoding info and the tag, rather than each opening and parsing the file from the start.
+     *
+     * @param f
+     * @param options which parts of the file to read, the parts not read are null
+     * @return
+     * @throws CannotReadException
+     * @throws IOException
+     */
+    protected AudioFile readAudioFile(File f, ReadOptions options) throws CannotReadException, IOException
+    {
+        GenericAudioHeader info = options.isReadHeader() ? getEncodingInfo(f) : null;
+        Tag tag = options.isReadTag() ? getTag(f) : null;
         return new AudioFile(f, info, tag);
     }
 
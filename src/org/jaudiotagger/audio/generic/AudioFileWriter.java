@@ -304,6 +304,21 @@ public abstract class AudioFileWriter
         }
     }
 
+    /**
+     * Writing a file read without its tag would replace the tag already in the file with the empty tag of the
+     * AudioFile, so it is not allowed
+     *
+     * @param af
+     * @throws CannotWriteException if the tag was not read
+     */
+    protected void checkTagRead(AudioFile af) throws CannotWriteException
+    {
+        if (!af.getReadOptions().isReadTag())
+        {
+            throw new CannotWriteException(ErrorMessage.GENERAL_WRITE_FAILED_BECAUSE_TAG_NOT_READ.getMsg(af.getFile().getPath()));
+        }
+    }
+
     /**
      * Write the tag (if not empty) present in the AudioFile in the associated
      * File
@@ -317,6 +332,8 @@ public abstract class AudioFileWriter
     {
         logger.config("Started writing tag data for file:" + af.getFile().getName());
 
+        checkTagRead(af);
+
         // Prechecks
         precheckWrite(af);
 
@@ -327,6 +344,36 @@ public abstract class AudioFileWriter
             return;
         }
 
+        //Nothing would change so no need to open the file for writing
+        if (isTagUnchanged(af))
+        {
+            logger.config(af.getFile() + ":Tag unchanged, not writing");
+            return;
+        }
+
+        //Try to write straight into the original file without needing a temporary file
+        try
+        {
+            if (writeTagInPlace(af, af.getTag(), createInPlaceWriteListener(af)))
+            {
+                if (this.modificationListener != null)
+                {
+                    this.modificationListener.fileModified(af, af.getFile());
+                    this.modificationListener.fileOperationFinished(af.getFile());
+                }
+                return;
+            }
+        }
+        catch (CannotWriteException cwe)
+        {
+            throw cwe;
+        }
+        catch (Exception e)
+        {
+            logger.log(Level.SEVERE, ErrorMessage.GENERAL_WRITE_FAILED_BECAUSE.getMsg(af.getFile(), e.getMessage()), e);
+            throw new CannotWriteException(ErrorMessage.GENERAL_WRITE_FAILED_BECAUSE.getMsg(af.getFile(), e.getMessage()));
+        }
+
         RandomAccessFile raf = null;
         RandomAccessFile rafTemp = null;
         File newFile;
@@ -618,6 +665,68 @@ public abstract class AudioFileWriter
         }
     }
 
+    /**
+     * Called before anything is written, formats that can compare the tag with what is already stored in the file
+     * should return true if writing the tag would not change the file so that no file is opened for writing.
+     *
+     * @param audioFile
+     * @return true if the file already holds the tag exactly as it would be written
+     * @throws CannotWriteException
+     */
+    protected boolean isTagUnchanged(AudioFile audioFile) throws CannotWriteException
+    {
+        return false;
+    }
+
+    /**
+     * Tells the modification listener, if any, that the file is about to be written in place
+     *
+     * @param audioFile
+     * @return
+     */
+    private InPlaceWriteListener createInPlaceWriteListener(final AudioFile audioFile)
+    {
+        return new InPlaceWriteListener()
+        {
+            public void beforeWrite() throws CannotWriteException
+            {
+                if (modificationListener != null)
+                {
+                    try
+                    {
+                        modificationListener.fileWillBeModified(audioFile, false);
+                    }
+                    catch (ModifyVetoException veto)
+                    {
+                        throw new CannotWriteException(veto);
+                    }
+                }
+            }
+        };
+    }
+
+    /**
+     * Called before a temporary file is created, formats that can write the tag into the original file without
+     * moving the audio data should do so and return true. If false is returned the file must not have been modified,
+     * the tag is then written using {@link #writeTag(AudioFile, Tag, RandomAccessFile, RandomAccessFile)}.
+     *
+     * Once it is certain the tag fits, and before anything is written, {@link InPlaceWriteListener#beforeWrite()} must
+     * be called so the modification listener is only told about writes that happen. It must not be called if false
+     * is returned.
+     *
+     * @param audioFile
+     * @param tag
+     * @param listener  to be told before the file is modified
+     * @return true if the tag was written
+     * @throws CannotReadException
+     * @throws CannotWriteException
+     * @throws IOException
+     */
+    protected boolean writeTagInPlace(AudioFile audioFile, Tag tag, InPlaceWriteListener listener) throws CannotReadException, CannotWriteException, IOException
+    {
+        return false;
+    }
+
     /**
      * This is called when a tag has to be written in a file. Three parameters
      * are provided, the tag to write (not empty) Two randomaccessfiles, the
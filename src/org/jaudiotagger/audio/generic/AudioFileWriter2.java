@@ -53,6 +53,7 @@ public abstract class AudioFileWriter2 extends AudioFileWriter
     @Override
     public void write(AudioFile af) throws CannotWriteException
     {
+        checkTagRead(af);
         File file = af.getFile();
 
         if (TagOptionSingleton.getInstance().isCheckIsWritable() && !file.canWrite())
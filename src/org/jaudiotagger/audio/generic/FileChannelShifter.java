@@ -0,0 +1,107 @@
+package org.jaudiotagger.audio.generic;
+
+import org.jaudiotagger.tag.TagOptionSingleton;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.logging.Logger;
+
+/**
+ * Moves the end of a file along to make room for larger metadata before it.
+ *
+ * Uses positional reads and writes on the FileChannel through a buffer of bounded size, so files of any size can be
+ * shifted without mapping them into memory and all offsets are 64 bit.
+ */
+public class FileChannelShifter
+{
+    // Logger Object
+    public static Logger logger = Logger.getLogger("org.jaudiotagger.audio.generic");
+
+    private FileChannelShifter()
+    {
+    }
+
+    /**
+     * Move everything from start to the end of the file forward by distance, using a buffer no larger than
+     * {@link TagOptionSingleton#getWriteChunkSize()}
+     *
+     * The file grows by distance, the bytes between start and start + distance are left unchanged for the caller to
+     * overwrite.
+     *
+     * @param fc
+     * @param start
+     * @param distance
+     * @throws IOException
+     */
+    public static void shiftForward(FileChannel fc, long start, long distance) throws IOException
+    {
+        shiftForward(fc, start, distance, (int) Math.min(TagOptionSingleton.getInstance().getWriteChunkSize(), Integer.MAX_VALUE));
+    }
+
+    /**
+     * Move everything from start to the end of the file forward by distance
+     *
+     * @param fc
+     * @param start
+     * @param distance
+     * @param maxBufferSize
+     * @throws IOException
+     */
+    public static void shiftForward(FileChannel fc, long start, long distance, int maxBufferSize) throws IOException
+    {
+        long end = fc.size();
+        if (start < 0 || start > end || distance < 0)
+        {
+            throw new IllegalArgumentException("Unable to shift from " + start + " by " + distance + " in file of size " + end);
+        }
+        if (distance == 0)
+        {
+            return;
+        }
+
+        logger.config("Shifting " + (end - start) + " bytes from " + start + " forward by " + distance);
+
+        //Copy from the end backwards so that nothing is overwritten before it has been moved
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.max(1, Math.min(maxBufferSize, end - start)));
+        long position = end;
+        while (position > start)
+        {
+            int length = (int) Math.min(buffer.capacity(), position - start);
+            position -= length;
+            buffer.clear();
+            buffer.limit(length);
+            readFully(fc, buffer, position);
+            buffer.flip();
+            writeFully(fc, buffer, position + distance);
+        }
+
+        //Nothing to move if start was the end of the file, but the file must still grow
+        if (fc.size() < end + distance)
+        {
+            writeFully(fc, ByteBuffer.allocate(1), end + distance - 1);
+        }
+    }
+
+    private static void readFully(FileChannel fc, ByteBuffer buffer, long position) throws IOException
+    {
+        while (buffer.hasRemaining())
+        {
+            int read = fc.read(buffer, position);
+            if (read < 0)
+            {
+                throw new EOFException("Unexpected end of file at " + position);
+            }
+            position += read;
+        }
+    }
+
+    private static void writeFully(FileChannel fc, ByteBuffer buffer, long position) throws IOException
+    {
+        while (buffer.hasRemaining())
+        {
+            position += fc.write(buffer, position);
+        }
+    }
+}
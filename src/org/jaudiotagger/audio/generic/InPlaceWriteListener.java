@@ -0,0 +1,16 @@
+package org.jaudiotagger.audio.generic;
+
+import org.jaudiotagger.audio.exceptions.CannotWriteException;
+
+/**
+ * Told when a tag is certain to be written into the original file, before the file is modified
+ */
+public interface InPlaceWriteListener
+{
+    /**
+     * Called once, after deciding the tag fits and before anything is written
+     *
+     * @throws CannotWriteException if the write should not go ahead, the file must then be left unchanged
+     */
+    void beforeWrite() throws CannotWriteException;
+}
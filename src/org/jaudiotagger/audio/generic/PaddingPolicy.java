@@ -0,0 +1,274 @@
+package org.jaudiotagger.audio.generic;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides how much padding to leave after the metadata when a writer has to move the audio to make room for it.
+ *
+ * Padding is only added when the audio is being moved anyway, if later edits then fit within the padding the
+ * metadata can be rewritten in place without moving the audio again. The policy in use is set with
+ * {@link org.jaudiotagger.tag.TagOptionSingleton#setPaddingPolicy(PaddingPolicy)} and is consulted by the ID3v2,
+ * Flac, Mp4 and Wav writers, which also report back whether each write was in place or not, so the counts can be
+ * used to tune the policy. A policy may be used from many threads at once.
+ */
+public abstract class PaddingPolicy
+{
+    /**
+     * How a write was done
+     */
+    public enum WriteMode
+    {
+        /** The metadata fitted in the space before the audio, the audio was not moved */
+        IN_PLACE,
+        /** The audio had to be moved to make room for the metadata */
+        REWRITE,
+    }
+
+    private final AtomicLong inPlaceWriteCount = new AtomicLong();
+    private final AtomicLong rewriteCount = new AtomicLong();
+
+    /**
+     * @param tagSize        size of the new metadata without any padding
+     * @param fileSize       size of the file before writing, or 0 if not known
+     * @param defaultPadding padding the writer would use if no policy was set
+     * @return number of bytes of padding to add, writers may round this up or down to fit the format
+     */
+    public abstract int getPadding(int tagSize, long fileSize, int defaultPadding);
+
+    /**
+     * Called by the writers after each write
+     *
+     * @param mode
+     * @param tagSize size of the metadata written without any padding
+     */
+    public void writeCompleted(WriteMode mode, int tagSize)
+    {
+        if (mode == WriteMode.IN_PLACE)
+        {
+            inPlaceWriteCount.incrementAndGet();
+        }
+        else
+        {
+            rewriteCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * @return number of writes where the metadata fitted without moving the audio
+     */
+    public long getInPlaceWriteCount()
+    {
+        return inPlaceWriteCount.get();
+    }
+
+    /**
+     * @return number of writes where the audio had to be moved
+     */
+    public long getRewriteCount()
+    {
+        return rewriteCount.get();
+    }
+
+    public void resetCounts()
+    {
+        inPlaceWriteCount.set(0);
+        rewriteCount.set(0);
+    }
+
+    /**
+     * @return policy using the padding each format has always used
+     */
+    public static PaddingPolicy formatDefault()
+    {
+        return new FormatDefault();
+    }
+
+    /**
+     * @param padding
+     * @return policy always adding the same amount of padding
+     */
+    public static PaddingPolicy fixed(int padding)
+    {
+        return new Fixed(padding);
+    }
+
+    /**
+     * @param ratio   padding as a proportion of the size of the metadata
+     * @param minimum
+     * @return policy adding padding in proportion to the size of the metadata, so tags holding artwork get more room
+     */
+    public static PaddingPolicy proportionalToTag(double ratio, int minimum)
+    {
+        return new ProportionalToTag(ratio, minimum);
+    }
+
+    /**
+     * @param ratio   padding as a proportion of the size of the file
+     * @param minimum
+     * @param maximum
+     * @return policy adding padding in proportion to the size of the file, as the cost of moving the audio again grows
+     * with the size of the file
+     */
+    public static PaddingPolicy proportionalToFile(double ratio, int minimum, int maximum)
+    {
+        return new ProportionalToFile(ratio, minimum, maximum);
+    }
+
+    /**
+     * @param minimum
+     * @return policy leaving enough padding for a tag to grow to the largest tag written so far, so that if artwork
+     * has been embedded in some files there is room to embed it in the others later
+     */
+    public static PaddingPolicy history(int minimum)
+    {
+        return new History(minimum);
+    }
+
+    /**
+     * Limit the padding returned by a policy so that it is not negative and adding it to the size of the metadata
+     * cannot overflow an int
+     *
+     * @param padding  padding returned by {@link #getPadding(int, long, int)}
+     * @param baseSize size the padding is added to
+     * @return padding between zero and the room left below {@link Integer#MAX_VALUE}
+     */
+    public static int limitPadding(int padding, long baseSize)
+    {
+        return (int) Math.max(0, Math.min(padding, Integer.MAX_VALUE - baseSize));
+    }
+
+    private static void checkNotNegative(String name, long value)
+    {
+        if (value < 0)
+        {
+            throw new IllegalArgumentException(name + " cannot be negative:" + value);
+        }
+    }
+
+    private static class FormatDefault extends PaddingPolicy
+    {
+        public int getPadding(int tagSize, long fileSize, int defaultPadding)
+        {
+            return defaultPadding;
+        }
+
+        public String toString()
+        {
+            return "FormatDefault";
+        }
+    }
+
+    private static class Fixed extends PaddingPolicy
+    {
+        private final int padding;
+
+        Fixed(int padding)
+        {
+            checkNotNegative("Padding", padding);
+            this.padding = padding;
+        }
+
+        public int getPadding(int tagSize, long fileSize, int defaultPadding)
+        {
+            return padding;
+        }
+
+        public String toString()
+        {
+            return "Fixed:" + padding;
+        }
+    }
+
+    private static class ProportionalToTag extends PaddingPolicy
+    {
+        private final double ratio;
+        private final int minimum;
+
+        ProportionalToTag(double ratio, int minimum)
+        {
+            checkNotNegative("Minimum", minimum);
+            if (!(ratio >= 0))
+            {
+                throw new IllegalArgumentException("Ratio must be zero or more:" + ratio);
+            }
+            this.ratio = ratio;
+            this.minimum = minimum;
+        }
+
+        public int getPadding(int tagSize, long fileSize, int defaultPadding)
+        {
+            return (int) Math.min(Integer.MAX_VALUE, Math.max(minimum, (long) (tagSize * ratio)));
+        }
+
+        public String toString()
+        {
+            return "ProportionalToTag:" + ratio + ":minimum:" + minimum;
+        }
+    }
+
+    private static class ProportionalToFile extends PaddingPolicy
+    {
+        private final double ratio;
+        private final int minimum;
+        private final int maximum;
+
+        ProportionalToFile(double ratio, int minimum, int maximum)
+        {
+            checkNotNegative("Minimum", minimum);
+            if (!(ratio >= 0))
+            {
+                throw new IllegalArgumentException("Ratio must be zero or more:" + ratio);
+            }
+            if (maximum < minimum)
+            {
+                throw new IllegalArgumentException("Maximum:" + maximum + " is less than minimum:" + minimum);
+            }
+            this.ratio = ratio;
+            this.minimum = minimum;
+            this.maximum = maximum;
+        }
+
+        public int getPadding(int tagSize, long fileSize, int defaultPadding)
+        {
+            return (int) Math.min(maximum, Math.max(minimum, (long) (fileSize * ratio)));
+        }
+
+        public String toString()
+        {
+            return "ProportionalToFile:" + ratio + ":minimum:" + minimum + ":maximum:" + maximum;
+        }
+    }
+
+    private static class History extends PaddingPolicy
+    {
+        private final int minimum;
+        private final AtomicInteger largestTagSize = new AtomicInteger();
+
+        History(int minimum)
+        {
+            checkNotNegative("Minimum", minimum);
+            this.minimum = minimum;
+        }
+
+        public int getPadding(int tagSize, long fileSize, int defaultPadding)
+        {
+            return Math.max(minimum, largestTagSize.get() - tagSize);
+        }
+
+        public void writeCompleted(WriteMode mode, int tagSize)
+        {
+            super.writeCompleted(mode, tagSize);
+            int largest = largestTagSize.get();
+            while (tagSize > largest && !largestTagSize.compareAndSet(largest, tagSize))
+            {
+                largest = largestTagSize.get();
+            }
+        }
+
+        public String toString()
+        {
+            return "History:minimum:" + minimum + ":largest:" + largestTagSize.get();
+        }
+    }
+}
@@ -42,6 +42,9 @@ public class Utils
     public  static int BITS_IN_BYTE_MULTIPLIER = 8;
     public static int KILOBYTE_MULTIPLIER = 1000;
 
+    //Size of the chunks read when comparing file content
+    private static final int COMPARE_BUFFER_SIZE = 65536;
+
     private static final Logger logger = Logger.getLogger("org.jaudiotagger.audio.generic.utils");
     private static final int MAX_BASE_TEMP_FILENAME_LENGTH = 20;
 
@@ -546,6 +549,64 @@ public class Utils
         } //Closeables closed exiting try block in all circumstances
     }
 
+    /**
+     * Check whether the file already holds exactly the given data starting at position, so writers can skip
+     * rewriting metadata that has not changed. The buffers are not modified.
+     *
+     * @param fc
+     * @param position
+     * @param data the data that would be written, in order
+     * @return true if the file content is identical
+     * @throws IOException
+     */
+    public static boolean isFileContentEqual(FileChannel fc, long position, ByteBuffer... data) throws IOException
+    {
+        long length = 0;
+        for (ByteBuffer next : data)
+        {
+            length += next.remaining();
+        }
+        if (position + length > fc.size())
+        {
+            return false;
+        }
+
+        ByteBuffer fileBuffer = ByteBuffer.allocate((int) Math.min(length, COMPARE_BUFFER_SIZE));
+        fileBuffer.flip();
+        for (ByteBuffer next : data)
+        {
+            ByteBuffer expected = next.duplicate();
+            while (expected.hasRemaining())
+            {
+                if (!fileBuffer.hasRemaining())
+                {
+                    fileBuffer.clear();
+                    fileBuffer.limit((int) Math.min(fileBuffer.capacity(), length));
+                    while (fileBuffer.hasRemaining())
+                    {
+                        int read = fc.read(fileBuffer, position);
+                        if (read < 0)
+                        {
+                            return false;
+                        }
+                        position += read;
+                    }
+                    fileBuffer.flip();
+                    length -= fileBuffer.limit();
+                }
+                int count = Math.min(expected.remaining(), fileBuffer.remaining());
+                for (int i = 0; i < count; i++)
+                {
+                    if (expected.get() != fileBuffer.get())
+                    {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
     /**
      *
      * @param length
@@ -21,7 +21,7 @@ public class ByteArrayMP3AudioHeader extends MP3AudioHeader
         boolean syncFound = false;
         do
         {
-            if (MPEGFrameHeader.isMPEGFrame(bb))
+            if (MPEGFrameHeader.isValidMPEGFrame(bb))
             {
                 try
                 {
@@ -86,7 +86,7 @@ public class ByteArrayMP3AudioHeader extends MP3AudioHeader
         int currentPosition = bb.position();
 
         bb.position(bb.position() + mp3FrameHeader.getFrameLength());
-        if (MPEGFrameHeader.isMPEGFrame(bb))
+        if (MPEGFrameHeader.isValidMPEGFrame(bb))
         {
             try
             {
@@ -75,6 +75,9 @@ public class MP3AudioHeader implements AudioHeader
     private long numberOfFramesEstimate;
     private long bitrate;
     private String encoder = "";
+    private MP3FrameIndex frameIndex;
+    private long bytesScanned;
+    private int framesToConfirm = 1;
 
     private static final SimpleDateFormat timeInFormat = new SimpleDateFormat("ss", Locale.UK);
     private static final SimpleDateFormat timeOutFormat = new SimpleDateFormat("mm:ss",Locale.UK);
@@ -95,6 +98,10 @@ public class MP3AudioHeader implements AudioHeader
     private final static int MIN_BUFFER_REMAINING_REQUIRED = MPEGFrameHeader.HEADER_SIZE + XingFrame.MAX_BUFFER_SIZE_NEEDED_TO_READ_XING;
     private static final int NO_SECONDS_IN_HOUR = 3600;
 
+    //Used to find a 0xFF byte within eight bytes at a time
+    private static final long LOW_BIT_OF_EACH_BYTE = 0x0101010101010101L;
+    private static final long HIGH_BIT_OF_EACH_BYTE = 0x8080808080808080L;
+
     public MP3AudioHeader()
     {
     }
@@ -142,6 +149,45 @@ public class MP3AudioHeader implements AudioHeader
         }
     }
 
+    /**
+     * Search for the first MP3Header in a file that is already open
+     *
+     * As {@link #MP3AudioHeader(File, long)}, but any data already read from the file starting at startByte is used
+     * before reading from the channel, the channel is not closed.
+     *
+     * @param fc
+     * @param startByte
+     * @param startData data read from the file starting at startByte, or null
+     * @param fileName  used for logging
+     * @throws IOException
+     * @throws InvalidAudioFrameException
+     */
+    public MP3AudioHeader(final FileChannel fc, long startByte, ByteBuffer startData, String fileName) throws IOException, InvalidAudioFrameException
+    {
+        this(fc, startByte, startData, fileName, 1);
+    }
+
+    /**
+     * Search for the first MP3Header in a file that is already open, requiring a possible header that is not
+     * followed by a Xing or VBRI frame to be followed by the given number of valid frames
+     *
+     * @param fc
+     * @param startByte
+     * @param startData       data read from the file starting at startByte, or null
+     * @param fileName        used for logging
+     * @param framesToConfirm number of valid frames that must follow the header, normally one
+     * @throws IOException
+     * @throws InvalidAudioFrameException
+     */
+    public MP3AudioHeader(final FileChannel fc, long startByte, ByteBuffer startData, String fileName, int framesToConfirm) throws IOException, InvalidAudioFrameException
+    {
+        this.framesToConfirm = framesToConfirm;
+        if (!seek(fc, startByte, startData, fileName))
+        {
+            throw new InvalidAudioFrameException(ErrorMessage.NO_AUDIO_HEADER_FOUND.getMsg(fileName));
+        }
+    }
+
     /**
      * Returns true if the first MP3 frame can be found for the MP3 file
      *
@@ -153,6 +199,25 @@ public class MP3AudioHeader implements AudioHeader
      * @throws IOException on any I/O error
      */
     public boolean seek(final File seekFile, long startByte) throws IOException
+    {
+        try (FileChannel fc = new FileInputStream(seekFile).getChannel())
+        {
+            return seek(fc, startByte, null, seekFile.getName());
+        }
+    }
+
+    /**
+     * Returns true if the first MP3 frame can be found for the MP3 file, the channel is only read using absolute
+     * positions and is not closed
+     *
+     * @param fc        channel of the MP3 file to seek
+     * @param startByte if there is an ID3v2tag we dont want to start reading from the start of the tag
+     * @param startData data read from the file starting at startByte, or null
+     * @param fileName  used for logging
+     * @return true if the first MP3 frame can be found
+     * @throws IOException on any I/O error
+     */
+    public boolean seek(final FileChannel fc, long startByte, ByteBuffer startData, String fileName) throws IOException
     {
         //References to Xing/VRbi Header
         ByteBuffer header;
@@ -160,20 +225,23 @@ public class MP3AudioHeader implements AudioHeader
         //This is substantially faster than updating the filechannels position
         long filePointerCount;
 
-        final FileInputStream fis = new FileInputStream(seekFile);
-        final FileChannel fc = fis.getChannel();
-
         //Read into Byte Buffer in Chunks
         ByteBuffer bb = ByteBuffer.allocateDirect(FILE_BUFFER_SIZE);
 
-        //Move FileChannel to the starting position (skipping over tag if any)
-        fc.position(startByte);
-
         //Update filePointerCount
         filePointerCount = startByte;
 
-        //Read from here into the byte buffer , doesn't move location of filepointer
-        fc.read(bb, startByte);
+        //Use the data we already have, then read the rest of the buffer from the file
+        if (startData != null)
+        {
+            ByteBuffer data = startData.duplicate();
+            data.limit(data.position() + Math.min(data.remaining(), bb.capacity()));
+            bb.put(data);
+        }
+        if (bb.hasRemaining())
+        {
+            fc.read(bb, startByte + bb.position());
+        }
         bb.flip();
 
         boolean syncFound = false;
@@ -187,8 +255,7 @@ public class MP3AudioHeader implements AudioHeader
                 if (bb.remaining() <= MIN_BUFFER_REMAINING_REQUIRED)
                 {
                     bb.clear();
-                    fc.position(filePointerCount);
-                    fc.read(bb, fc.position());
+                    fc.read(bb, filePointerCount);
                     bb.flip();
                     if (bb.limit() <= MIN_BUFFER_REMAINING_REQUIRED)
                     {
@@ -196,8 +263,18 @@ public class MP3AudioHeader implements AudioHeader
                         return false;
                     }
                 }
+
+                //Every header starts with 0xFF so skip straight to the next one
+                int syncPosition = findSyncByte(bb, bb.position(), bb.limit() - MIN_BUFFER_REMAINING_REQUIRED);
+                filePointerCount += syncPosition - bb.position();
+                bb.position(syncPosition);
+                if (bb.remaining() <= MIN_BUFFER_REMAINING_REQUIRED)
+                {
+                    continue;
+                }
+
                 //MP3File.logger.finest("fc:"+fc.position() + "bb"+bb.position());
-                if (MPEGFrameHeader.isMPEGFrame(bb))
+                if (MPEGFrameHeader.isValidMPEGFrame(bb))
                 {
                     try
                     {
@@ -256,7 +333,7 @@ public class MP3AudioHeader implements AudioHeader
                         // has been encoded with as Unicode LE because these have a BOM of 0xFF 0xFE
                         else
                         {
-                            syncFound = isNextFrameValid(seekFile, filePointerCount, bb, fc);
+                            syncFound = isNextFrameValid(fileName, filePointerCount, bb, fc);
                             if (syncFound)
                             {
                                 break;
@@ -291,25 +368,14 @@ public class MP3AudioHeader implements AudioHeader
             syncFound = false;
             throw iox;
         }
-        finally
-        {
-            if (fc != null)
-            {
-                fc.close();
-            }
-
-            if (fis != null)
-            {
-                fis.close();
-            }
-        }
 
         //Return to start of audio header
         if (MP3AudioHeader.logger.isLoggable(Level.FINEST))
         {
             MP3AudioHeader.logger.finer("Return found matching mp3 header starting at" + filePointerCount);
         }
-        setFileSize(seekFile.length());
+        bytesScanned = filePointerCount - startByte;
+        setFileSize(fc.size());
         setMp3StartByte(filePointerCount);
         setTimePerFrame();
         setNumberOfFrames();
@@ -327,18 +393,18 @@ public class MP3AudioHeader implements AudioHeader
     /**
      * Called in some circumstances to check the next frame to ensure we have the correct audio header
      *
-     * @param seekFile
+     * @param fileName
      * @param filePointerCount
      * @param bb
      * @param fc
      * @return true if frame is valid
      * @throws java.io.IOException
      */
-    private boolean isNextFrameValid(File seekFile, long filePointerCount, ByteBuffer bb, FileChannel fc) throws IOException
+    private boolean isNextFrameValid(String fileName, long filePointerCount, ByteBuffer bb, FileChannel fc) throws IOException
     {
         if (MP3AudioHeader.logger.isLoggable(Level.FINEST))
         {
-            MP3AudioHeader.logger.finer("Checking next frame" + seekFile.getName() + ":fpc:" + filePointerCount + "skipping to:" + (filePointerCount + mp3FrameHeader.getFrameLength()));
+            MP3AudioHeader.logger.finer("Checking next frame" + fileName + ":fpc:" + filePointerCount + "skipping to:" + (filePointerCount + mp3FrameHeader.getFrameLength()));
         }
         boolean result = false;
 
@@ -358,8 +424,7 @@ public class MP3AudioHeader implements AudioHeader
         {
             MP3AudioHeader.logger.finer("Buffer too small, need to reload, buffer size:" + bb.remaining());
             bb.clear();
-            fc.position(filePointerCount);
-            fc.read(bb, fc.position());
+            fc.read(bb, filePointerCount);
             bb.flip();
             //So now original buffer has been replaced, so set current position to start of buffer
             currentPosition = 0;
@@ -382,13 +447,13 @@ public class MP3AudioHeader implements AudioHeader
 
         //Position bb to the start of the alleged next frame
         bb.position(bb.position() + mp3FrameHeader.getFrameLength());
-        if (MPEGFrameHeader.isMPEGFrame(bb))
+        if (MPEGFrameHeader.isValidMPEGFrame(bb))
         {
             try
             {
-                MPEGFrameHeader.parseMPEGHeader(bb);
+                MPEGFrameHeader nextFrameHeader = MPEGFrameHeader.parseMPEGHeader(bb);
                 MP3AudioHeader.logger.finer("Check next frame confirms is an audio header ");
-                result = true;
+                result = framesToConfirm <= 1 || isFrameSequenceValid(fc, filePointerCount + mp3FrameHeader.getFrameLength() + nextFrameHeader.getFrameLength(), framesToConfirm - 1);
             }
             catch (InvalidAudioFrameException ex)
             {
@@ -398,13 +463,81 @@ public class MP3AudioHeader implements AudioHeader
         }
         else
         {
-            MP3AudioHeader.logger.finer("isMPEGFrame has identified this is not an audio header");
+            MP3AudioHeader.logger.finer("isValidMPEGFrame has identified this is not an audio header");
         }
         //Set back to the start of the previous frame
         bb.position(currentPosition);
         return result;
     }
 
+    /**
+     * @param fc
+     * @param position
+     * @param count
+     * @return true if count valid frames follow one another starting at position
+     * @throws IOException
+     */
+    private static boolean isFrameSequenceValid(FileChannel fc, long position, int count) throws IOException
+    {
+        ByteBuffer header = ByteBuffer.allocate(MPEGFrameHeader.HEADER_SIZE);
+        for (int i = 0; i < count; i++)
+        {
+            header.clear();
+            while (header.hasRemaining())
+            {
+                if (fc.read(header, position + header.position()) < 0)
+                {
+                    return false;
+                }
+            }
+            int value = header.getInt(0);
+            if (!MPEGFrameHeader.isValidHeader(value))
+            {
+                MP3AudioHeader.logger.finer("Frame " + (i + 2) + " after possible header is not valid");
+                return false;
+            }
+            position += MPEGFrameHeader.getFrameLength(value);
+        }
+        return true;
+    }
+
+    /**
+     * Find the next 0xFF byte, which every frame header starts with
+     *
+     * Eight bytes are checked at a time, a long has a 0xFF byte if its inverse has a zero byte.
+     *
+     * @param bb
+     * @param from
+     * @param to
+     * @return position of the first 0xFF byte from position from, or to if there is none before to
+     */
+    static int findSyncByte(ByteBuffer bb, int from, int to)
+    {
+        int position = from;
+        while (position + 8 <= to)
+        {
+            long inverted = ~bb.getLong(position);
+            if (((inverted - LOW_BIT_OF_EACH_BYTE) & ~inverted & HIGH_BIT_OF_EACH_BYTE) != 0)
+            {
+                break;
+            }
+            position += 8;
+        }
+        while (position < to && bb.get(position) != (byte) 0xFF)
+        {
+            position++;
+        }
+        return position;
+    }
+
+    /**
+     * @return number of bytes searched to find the first frame, from where the search started
+     */
+    public long getBytesScanned()
+    {
+        return bytesScanned;
+    }
+
     /**
      * Set the location of where the Audio file begins in the file
      *
@@ -451,6 +584,72 @@ public class MP3AudioHeader implements AudioHeader
 
     }
 
+    /**
+     * Walk every frame to get the exact frame count, track length and bitrate, replacing the values calculated from
+     * the first frame
+     *
+     * @param seekFile
+     * @param endByte        end of the audio data, before any ID3v1 tag
+     * @param buildSeekIndex true to also record the position of every frame
+     * @return the frame index
+     * @throws IOException
+     */
+    public MP3FrameIndex scanFrames(final File seekFile, long endByte, boolean buildSeekIndex) throws IOException
+    {
+        try (FileChannel fc = new FileInputStream(seekFile).getChannel())
+        {
+            return scanFrames(seekFile, fc, endByte, buildSeekIndex);
+        }
+    }
+
+    /**
+     * As {@link #scanFrames(File, long, boolean)} but reading from a file that is already open
+     *
+     * @param seekFile
+     * @param fc       channel of seekFile, is not closed
+     * @param endByte
+     * @param buildSeekIndex
+     * @return the frame index
+     * @throws IOException
+     */
+    public MP3FrameIndex scanFrames(final File seekFile, FileChannel fc, long endByte, boolean buildSeekIndex) throws IOException
+    {
+        MP3FrameIndex index = MP3FrameIndex.scan(seekFile, fc, startByte, endByte, mp3XingFrame != null || mp3VbriFrame != null, buildSeekIndex);
+        setFrameIndex(index);
+        return index;
+    }
+
+    /**
+     * Use the exact values from a frame index, such as one read back from a cache
+     *
+     * @param frameIndex
+     */
+    public void setFrameIndex(MP3FrameIndex frameIndex)
+    {
+        if (frameIndex.getStartByte() != startByte)
+        {
+            logger.warning("Frame index starts at " + frameIndex.getStartByte() + " but audio starts at " + startByte + ", ignoring");
+            return;
+        }
+        if (frameIndex.getFrameCount() == 0)
+        {
+            logger.warning("Frame index has no frames, ignoring");
+            return;
+        }
+        this.frameIndex = frameIndex;
+        numberOfFrames = frameIndex.getFrameCount();
+        trackLength = frameIndex.getPreciseTrackLength();
+        bitrate = frameIndex.getBitRate();
+    }
+
+    /**
+     * @return the frame index if the frames have been scanned, otherwise null
+     */
+    public MP3FrameIndex getFrameIndex()
+    {
+        return frameIndex;
+    }
+
     /**
      * @return The number of frames within the Audio File, calculated as accurately as possible
      */
@@ -638,7 +837,11 @@ public class MP3AudioHeader implements AudioHeader
      */
     public String getBitRate()
     {
-        if (mp3XingFrame != null && mp3XingFrame.isVbr())
+        if (frameIndex != null && frameIndex.isVariableBitRate())
+        {
+            return isVbrIdentifier + String.valueOf(bitrate);
+        }
+        else if (mp3XingFrame != null && mp3XingFrame.isVbr())
         {
             return isVbrIdentifier + String.valueOf(bitrate);
         }
@@ -723,7 +926,11 @@ public class MP3AudioHeader implements AudioHeader
      */
     public boolean isVariableBitRate()
     {
-        if (mp3XingFrame != null)
+        if (frameIndex != null && frameIndex.isVariableBitRate())
+        {
+            return true;
+        }
+        else if (mp3XingFrame != null)
         {
             return mp3XingFrame.isVbr();
         }
@@ -0,0 +1,94 @@
+package org.jaudiotagger.audio.mp3;
+
+/**
+ * How the start of the audio was found when an MP3 file was read, useful for finding files with incorrect ID3v2 tag
+ * sizes and seeing how much work it took to find their audio.
+ */
+public class MP3AudioStartDiagnostics
+{
+    private final long tagSizeReportedByHeader;
+    private long tagFramesEnd;
+    private long audioStartByte;
+    private long bytesScanned;
+    private int searchCount;
+
+    public MP3AudioStartDiagnostics(long tagSizeReportedByHeader)
+    {
+        this.tagSizeReportedByHeader = tagSizeReportedByHeader;
+    }
+
+    /**
+     * Record a search for the first audio frame
+     *
+     * @param audioHeader the header found by the search
+     */
+    void addSearch(MP3AudioHeader audioHeader)
+    {
+        searchCount++;
+        bytesScanned += audioHeader.getBytesScanned();
+    }
+
+    void setTagFramesEnd(long tagFramesEnd)
+    {
+        this.tagFramesEnd = tagFramesEnd;
+    }
+
+    void setAudioStartByte(long audioStartByte)
+    {
+        this.audioStartByte = audioStartByte;
+    }
+
+    /**
+     * @return size of the ID3v2 tag including its header as recorded in the tag header, or zero if there is no tag
+     */
+    public long getTagSizeReportedByHeader()
+    {
+        return tagSizeReportedByHeader;
+    }
+
+    /**
+     * @return where the frames of the ID3v2 tag end, only worked out if the audio does not start straight after the
+     * tag, zero if not known
+     */
+    public long getTagFramesEnd()
+    {
+        return tagFramesEnd;
+    }
+
+    /**
+     * @return where the audio was found to start
+     */
+    public long getAudioStartByte()
+    {
+        return audioStartByte;
+    }
+
+    /**
+     * @return total number of bytes searched over all searches for the first audio frame
+     */
+    public long getBytesScanned()
+    {
+        return bytesScanned;
+    }
+
+    /**
+     * @return number of searches made for the first audio frame, one unless the tag size was wrong
+     */
+    public int getSearchCount()
+    {
+        return searchCount;
+    }
+
+    /**
+     * @return true if the audio starts straight after the ID3v2 tag, or at the start of the file if there is no tag
+     */
+    public boolean isTagSizeCorrect()
+    {
+        return tagSizeReportedByHeader == audioStartByte;
+    }
+
+    public String toString()
+    {
+        return "tagSize:" + tagSizeReportedByHeader + ":tagFramesEnd:" + tagFramesEnd + ":audioStart:" + audioStartByte + ":searches:" + searchCount + ":bytesScanned:" + bytesScanned;
+    }
+}
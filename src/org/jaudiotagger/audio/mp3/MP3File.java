@@ -29,7 +29,10 @@ import org.jaudiotagger.audio.exceptions.InvalidAudioFrameException;
 import org.jaudiotagger.audio.exceptions.NoWritePermissionsException;
 import org.jaudiotagger.audio.exceptions.ReadOnlyFileException;
 import org.jaudiotagger.audio.exceptions.UnableToModifyFileException;
+import org.jaudiotagger.audio.generic.AudioDataHasher;
+import org.jaudiotagger.audio.generic.AudioDataRanges;
 import org.jaudiotagger.audio.generic.Permissions;
+import org.jaudiotagger.audio.generic.Utils;
 import org.jaudiotagger.logging.*;
 import org.jaudiotagger.tag.Tag;
 import org.jaudiotagger.tag.TagException;
@@ -55,6 +58,22 @@ public class MP3File extends AudioFile
 {
     private static final int MINIMUM_FILESIZE = 150;
 
+    /**
+     * Read from the start of the file in one go, enough for the ID3v2 tag of most files and the first audio frames
+     */
+    private static final int FILE_START_READ_SIZE = 65536;
+
+    /**
+     * How much of the audio is read along with the ID3v2 tag, to find the first audio frame
+     */
+    private static final int AUDIO_START_READ_SIZE = 8192;
+
+    /**
+     * Number of valid frames that must follow a header when searching again for the start of the audio because the
+     * ID3v2 tag size looks wrong
+     */
+    private static final int FRAMES_TO_CONFIRM_AUDIO_START = 3;
+
     protected static AbstractTagDisplayFormatter tagFormatter;
 
     /**
@@ -63,10 +82,20 @@ public class MP3File extends AudioFile
     private AbstractID3v2Tag id3v2tag = null;
 
     /**
-     * Representation of the idv2 tag as a idv24 tag
+     * How the start of the audio was found
+     */
+    private MP3AudioStartDiagnostics audioStartDiagnostics = null;
+
+    /**
+     * Representation of the idv2 tag as a idv24 tag, only created when first asked for unless the tag is already v24
      */
     private ID3v24Tag id3v2Asv24tag = null;
 
+    /**
+     * Whether the v24 representation can be created when asked for
+     */
+    private boolean id3v2Asv24tagAvailable = false;
+
     /**
      * The Lyrics3 tag that this file contains.
      */
@@ -114,6 +143,12 @@ public class MP3File extends AudioFile
 
     public static final int LOAD_ALL = LOAD_IDV1TAG | LOAD_IDV2TAG | LOAD_LYRICS3;
 
+    /**
+     * Only load the tags, the audio is not searched for so there is no audio header and the ID3v2 tag is read
+     * using the size given in its header
+     */
+    public static final int SKIP_AUDIO_HEADER = 16;
+
     /**
      * Creates a new MP3File dataType and parse the tag from the given file
      * Object, files must be writable to use this constructor.
@@ -134,18 +169,17 @@ public class MP3File extends AudioFile
      * Read v1 tag
      *
      * @param file
-     * @param newFile
+     * @param fileEnd the end of the file, or null if the file is too small to have a v1 tag
      * @param loadOptions
-     * @throws IOException
      */
-    private void readV1Tag(File file, RandomAccessFile newFile, int loadOptions) throws IOException
+    private void readV1Tag(File file, ByteBuffer fileEnd, int loadOptions)
     {
-        if ((loadOptions & LOAD_IDV1TAG) != 0)
+        if ((loadOptions & LOAD_IDV1TAG) != 0 && fileEnd != null)
         {
             logger.finer("Attempting to read id3v1tags");
             try
             {
-                id3v1tag = new ID3v11Tag(newFile, file.getName());
+                id3v1tag = new ID3v11Tag(fileEnd, file.getName());
             }
             catch (TagNotFoundException ex)
             {
@@ -156,7 +190,7 @@ public class MP3File extends AudioFile
             {
                 if (id3v1tag == null)
                 {
-                    id3v1tag = new ID3v1Tag(newFile, file.getName());
+                    id3v1tag = new ID3v1Tag(fileEnd, file.getName());
                 }
             }
             catch (TagNotFoundException ex)
@@ -172,42 +206,43 @@ public class MP3File extends AudioFile
      * TODO:shouldn't we be handing TagExceptions:when will they be thrown
      *
      * @param file
+     * @param fc
+     * @param fileStart data already read from the start of the file
      * @param loadOptions
      * @throws IOException
      * @throws TagException
      */
-    private void readV2Tag(File file, int loadOptions, int startByte) throws IOException, TagException
+    private void readV2Tag(File file, FileChannel fc, ByteBuffer fileStart, int loadOptions, int startByte) throws IOException, TagException
     {
+        if ((loadOptions & LOAD_IDV2TAG) == 0)
+        {
+            return;
+        }
+
         //We know where the actual Audio starts so load all the file from start to that point into
         //a buffer then we can read the IDv2 information without needing any more File I/O
         if (startByte >= AbstractID3v2Tag.TAG_HEADER_LENGTH)
         {
             logger.finer("Attempting to read id3v2tags");
-            FileInputStream fis = null;
-            FileChannel fc = null;
             ByteBuffer bb;
-            try
-            {
-                fis = new FileInputStream(file);
-                fc = fis.getChannel();
-                bb = fc.map(FileChannel.MapMode.READ_ONLY,0,startByte);
-            }
-            //#JAUDIOTAGGER-419:If reading networked file map can fail so just copy bytes instead
-            catch(IOException ioe)
+            if (startByte <= fileStart.limit())
             {
-                bb =  ByteBuffer.allocate(startByte);
-                fc.read(bb,0);
+                bb = fileStart.duplicate();
+                bb.position(0);
+                bb.limit(startByte);
+                bb = bb.slice();
             }
-            finally
+            else
             {
-                if (fc != null)
+                try
                 {
-                    fc.close();
+                    bb = fc.map(FileChannel.MapMode.READ_ONLY, 0, startByte);
                 }
-
-                if (fis != null)
+                //#JAUDIOTAGGER-419:If reading networked file map can fail so just copy bytes instead
+                catch (IOException ioe)
                 {
-                    fis.close();
+                    bb = ByteBuffer.allocate(startByte);
+                    readFully(fc, bb, 0);
                 }
             }
 
@@ -215,42 +250,23 @@ public class MP3File extends AudioFile
             {
                 bb.rewind();
 
-                if ((loadOptions & LOAD_IDV2TAG) != 0)
+                logger.config("Attempting to read id3v2tags");
+                try
                 {
-                    logger.config("Attempting to read id3v2tags");
-                    try
+                    AbstractID3v2Tag v2tag = AbstractID3v2Tag.readTag(bb, file.getName());
+                    if (v2tag != null)
                     {
-                        this.setID3v2Tag(new ID3v24Tag(bb, file.getName()));
+                        this.setID3v2Tag(v2tag);
                     }
-                    catch (TagNotFoundException ex)
+                    else
                     {
-                        logger.config("No id3v24 tag found");
-                    }
-
-                    try
-                    {
-                        if (id3v2tag == null)
-                        {
-                            this.setID3v2Tag(new ID3v23Tag(bb, file.getName()));
-                        }
-                    }
-                    catch (TagNotFoundException ex)
-                    {
-                        logger.config("No id3v23 tag found");
-                    }
-
-                    try
-                    {
-                        if (id3v2tag == null)
-                        {
-                            this.setID3v2Tag(new ID3v22Tag(bb, file.getName()));
-                        }
-                    }
-                    catch (TagNotFoundException ex)
-                    {
-                        logger.config("No id3v22 tag found");
+                        logger.config("No id3v2 tag found");
                     }
                 }
+                catch (TagNotFoundException ex)
+                {
+                    logger.config("No id3v2 tag found");
+                }
             }
             finally
             {
@@ -309,36 +325,17 @@ public class MP3File extends AudioFile
      * @return true if all the bytes between in the file between startByte and endByte are null, false
      * otherwise
      */
-    private boolean isFilePortionNull(int startByte, int endByte) throws IOException
+    private boolean isFilePortionNull(FileChannel fc, int startByte, int endByte) throws IOException
     {
         logger.config("Checking file portion:" + Hex.asHex(startByte) + ":" + Hex.asHex(endByte));
-        FileInputStream fis=null;
-        FileChannel     fc=null;
-        try
-        {
-            fis = new FileInputStream(file);
-            fc = fis.getChannel();
-            fc.position(startByte);
-            ByteBuffer bb = ByteBuffer.allocateDirect(endByte - startByte);
-            fc.read(bb);
-            while(bb.hasRemaining())
-            {
-                if(bb.get()!=0)
-                {
-                    return false;
-                }
-            }
-        }
-        finally
+        ByteBuffer bb = ByteBuffer.allocateDirect(endByte - startByte);
+        fc.read(bb, startByte);
+        bb.flip();
+        while(bb.hasRemaining())
         {
-            if (fc != null)
-            {
-                fc.close();
-            }
-
-            if (fis != null)
+            if(bb.get()!=0)
             {
-                fis.close();
+                return false;
             }
         }
         return true;
@@ -347,24 +344,47 @@ public class MP3File extends AudioFile
      * Regets the audio header starting from start of file, and write appropriate logging to indicate
      * potential problem to user.
      *
+     * The search starts where the frames of the ID3v2 tag end rather than the start of the file when the tag frames
+     * can be walked, so audio-like data inside the tag frames is not mistaken for the start of the audio.
+     *
+     * @param fc
+     * @param fileStart data already read from the start of the file
      * @param startByte
      * @param firstHeaderAfterTag
+     * @param diagnostics records the searches made
      * @return
      * @throws IOException
      * @throws InvalidAudioFrameException
      */
-    private MP3AudioHeader checkAudioStart(long startByte, MP3AudioHeader firstHeaderAfterTag) throws IOException, InvalidAudioFrameException
+    private MP3AudioHeader checkAudioStart(FileChannel fc, ByteBuffer fileStart, long startByte, MP3AudioHeader firstHeaderAfterTag, MP3AudioStartDiagnostics diagnostics) throws IOException, InvalidAudioFrameException
     {
         MP3AudioHeader headerOne;
         MP3AudioHeader headerTwo;
 
         logger.warning(ErrorMessage.MP3_ID3TAG_LENGTH_INCORRECT.getMsg(file.getPath(), Hex.asHex(startByte), Hex.asHex(firstHeaderAfterTag.getMp3StartByte())));
 
-        //because we cant agree on start location we reread the audioheader from the start of the file, at least
-        //this way we cant overwrite the audio although we might overwrite part of the tag if we write this file
-        //back later
-        headerOne = new MP3AudioHeader(file, 0);
-        logger.config("Checking from start:" + headerOne);
+        //because we cant agree on start location we reread the audioheader from the end of the tag frames (or the
+        //start of the file if they cannot be walked), at least this way we cant overwrite the audio although we might
+        //overwrite part of the tag if we write this file back later
+        long searchStartByte = AbstractID3v2Tag.getV2TagFramesEnd(fc);
+        if (searchStartByte > firstHeaderAfterTag.getMp3StartByte())
+        {
+            searchStartByte = 0;
+        }
+        diagnostics.setTagFramesEnd(searchStartByte);
+        try
+        {
+            headerOne = new MP3AudioHeader(fc, searchStartByte, getFileData(fileStart, searchStartByte), file.getName(), FRAMES_TO_CONFIRM_AUDIO_START);
+        }
+        catch (InvalidAudioFrameException iafe)
+        {
+            //Too few frames to confirm the start this way, so search as before
+            searchStartByte = 0;
+            diagnostics.setTagFramesEnd(searchStartByte);
+            headerOne = new MP3AudioHeader(fc, searchStartByte, getFileData(fileStart, searchStartByte), file.getName());
+        }
+        diagnostics.addSearch(headerOne);
+        logger.config("Checking from " + Hex.asHex(searchStartByte) + ":" + headerOne);
 
         //Although the id3 tag size appears to be incorrect at least we have found the same location for the start
         //of audio whether we start searching from start of file or at the end of the alleged of file so no real
@@ -393,14 +413,15 @@ public class MP3File extends AudioFile
             //If the size reported by the tag header is a little short and there is only nulls between the recorded value
             //and the start of the first audio found then we stick with the original header as more likely that currentHeader
             //DataInputStream not really a header
-            if(isFilePortionNull((int) startByte,(int) firstHeaderAfterTag.getMp3StartByte()))
+            if(isFilePortionNull(fc, (int) startByte,(int) firstHeaderAfterTag.getMp3StartByte()))
             {
                 return firstHeaderAfterTag;
             }
 
             //Skip to the next header (header 2, counting from start of file)
-            headerTwo = new MP3AudioHeader(file, headerOne.getMp3StartByte()
-                    + headerOne.mp3FrameHeader.getFrameLength());
+            long headerTwoStartByte = headerOne.getMp3StartByte() + headerOne.mp3FrameHeader.getFrameLength();
+            headerTwo = new MP3AudioHeader(fc, headerTwoStartByte, getFileData(fileStart, headerTwoStartByte), file.getName());
+            diagnostics.addSearch(headerTwo);
 
             //It matches the header we found when doing the original search from after the ID3Tag therefore it
             //seems that newAudioHeader was a false match and the original header was correct
@@ -448,26 +469,49 @@ public class MP3File extends AudioFile
         {
             this.file = file;
 
-            //Check File accessibility
+            //Check File accessibility, everything is then read from this one open file
             newFile = checkFilePermissions(file, readOnly);
+            FileChannel fc = newFile.getChannel();
+
+            //Read the start of the file once, it holds the ID3v2 tag and the first audio frames
+            ByteBuffer fileStart = readFileStart(fc, (loadOptions & LOAD_IDV2TAG) != 0);
 
             //Read ID3v2 tag size (if tag exists) to allow audioHeader parsing to skip over tag
-            long tagSizeReportedByHeader = AbstractID3v2Tag.getV2TagSizeIfExists(file);
+            long tagSizeReportedByHeader = AbstractID3v2Tag.getV2TagSizeIfExists(fileStart);
             logger.config("TagHeaderSize:" + Hex.asHex(tagSizeReportedByHeader));
-            audioHeader = new MP3AudioHeader(file, tagSizeReportedByHeader);
 
-            //If the audio header is not straight after the end of the tag then search from start of file
-            if (tagSizeReportedByHeader != ((MP3AudioHeader) audioHeader).getMp3StartByte())
+            long v2TagEnd;
+            if ((loadOptions & SKIP_AUDIO_HEADER) != 0)
             {
-                logger.config("First header found after tag:" + audioHeader);
-                audioHeader = checkAudioStart(tagSizeReportedByHeader, (MP3AudioHeader) audioHeader);
+                v2TagEnd = Math.min(tagSizeReportedByHeader, fc.size());
+            }
+            else
+            {
+                audioStartDiagnostics = new MP3AudioStartDiagnostics(tagSizeReportedByHeader);
+                audioHeader = new MP3AudioHeader(fc, tagSizeReportedByHeader, getFileData(fileStart, tagSizeReportedByHeader), file.getName());
+                audioStartDiagnostics.addSearch((MP3AudioHeader) audioHeader);
+
+                //If the audio header is not straight after the end of the tag then search from start of file
+                if (tagSizeReportedByHeader != ((MP3AudioHeader) audioHeader).getMp3StartByte())
+                {
+                    logger.config("First header found after tag:" + audioHeader);
+                    audioHeader = checkAudioStart(fc, fileStart, tagSizeReportedByHeader, (MP3AudioHeader) audioHeader, audioStartDiagnostics);
+                }
+                v2TagEnd = ((MP3AudioHeader) audioHeader).getMp3StartByte();
+                audioStartDiagnostics.setAudioStartByte(v2TagEnd);
             }
 
-            //Read v1 tags (if any)
-            readV1Tag(file, newFile, loadOptions);
+            //Read the end of the file once, it holds the v1 tag (if any)
+            ByteBuffer fileEnd = readFileEnd(fc);
+            readV1Tag(file, fileEnd, loadOptions);
+
+            if (audioHeader != null && TagOptionSingleton.getInstance().isMp3ExactDuration())
+            {
+                ((MP3AudioHeader) audioHeader).scanFrames(file, fc, getAudioEndByte(fc.size(), fileEnd), false);
+            }
 
             //Read v2 tags (if any)
-            readV2Tag(file, loadOptions, (int)((MP3AudioHeader) audioHeader).getMp3StartByte());
+            readV2Tag(file, fc, fileStart, loadOptions, (int) v2TagEnd);
 
             //If we have a v2 tag use that, if we do not but have v1 tag use that
             //otherwise use nothing
@@ -491,6 +535,14 @@ public class MP3File extends AudioFile
         }
     }
 
+    /**
+     * @return how the start of the audio was found when the file was read, or null if the audio header was not read
+     */
+    public MP3AudioStartDiagnostics getAudioStartDiagnostics()
+    {
+        return audioStartDiagnostics;
+    }
+
     /**
      * Used by tags when writing to calculate the location of the music file
      *
@@ -501,16 +553,18 @@ public class MP3File extends AudioFile
      */
     public long getMP3StartByte(File file) throws InvalidAudioFrameException, IOException
     {
-        try
+        try (FileChannel fc = new FileInputStream(file).getChannel())
         {
+            ByteBuffer fileStart = readFileStart(fc, false);
+
             //Read ID3v2 tag size (if tag exists) to allow audio header parsing to skip over tag
-            long startByte = AbstractID3v2Tag.getV2TagSizeIfExists(file);
+            long startByte = AbstractID3v2Tag.getV2TagSizeIfExists(fileStart);
 
-            MP3AudioHeader audioHeader = new MP3AudioHeader(file, startByte);
+            MP3AudioHeader audioHeader = new MP3AudioHeader(fc, startByte, getFileData(fileStart, startByte), file.getName());
             if (startByte != audioHeader.getMp3StartByte())
             {
                 logger.config("First header found after tag:" + audioHeader);
-                audioHeader = checkAudioStart(startByte, audioHeader);
+                audioHeader = checkAudioStart(fc, fileStart, startByte, audioHeader, new MP3AudioStartDiagnostics(startByte));
             }
             return audioHeader.getMp3StartByte();
         }
@@ -524,6 +578,29 @@ public class MP3File extends AudioFile
         }
     }
 
+    /**
+     * Where the audio starts, from the audio header if it was read, otherwise found by searching the file
+     *
+     * @param file the file to search if the audio header was not read
+     * @return the location within the file that the audio starts
+     * @throws IOException if the file cannot be read or has no audio
+     */
+    private long getAudioStartByte(File file) throws IOException
+    {
+        if (audioHeader instanceof MP3AudioHeader)
+        {
+            return ((MP3AudioHeader) audioHeader).getMp3StartByte();
+        }
+        try
+        {
+            return getMP3StartByte(file);
+        }
+        catch (InvalidAudioFrameException iafe)
+        {
+            throw new IOException(iafe.getMessage(), iafe);
+        }
+    }
+
     /**
      * Extracts the raw ID3v2 tag data into a file.
      *
@@ -538,7 +615,7 @@ public class MP3File extends AudioFile
      */
     public File extractID3v2TagDataIntoFile(File outputFile) throws TagNotFoundException, IOException
     {
-        int startByte = (int) ((MP3AudioHeader) audioHeader).getMp3StartByte();
+        int startByte = (int) getAudioStartByte(file);
         if (startByte >= 0)
         {
 
@@ -719,41 +796,173 @@ public class MP3File extends AudioFile
 
     public byte[] getHash(String algorithm, int bufferSize) throws InvalidAudioFrameException, IOException, NoSuchAlgorithmException
     {
-    	File mp3File = getFile();
-    	long startByte = getMP3StartByte(mp3File);
-
-    	int id3v1TagSize = 0;
-		if (hasID3v1Tag()){
-		ID3v1Tag id1tag= getID3v1Tag();
-		id3v1TagSize  = id1tag.getSize();
-		}
-
-		InputStream inStream = new FileInputStream(mp3File);
-
-		byte[] buffer = new byte[bufferSize];
+        AudioDataHasher hasher = new AudioDataHasher();
+        hasher.setBufferSize(bufferSize);
+        return hasher.hash(getFile(), readAudioDataRanges(), MessageDigest.getInstance(algorithm));
+    }
 
-		MessageDigest digest = MessageDigest.getInstance(algorithm);
+    /**
+     * The audio data runs from the first mp3 frame up to the ID3v1 tag, if the file has one
+     *
+     * @return
+     * @throws CannotReadException if no mp3 frames can be found
+     * @throws IOException
+     */
+    @Override
+    public AudioDataRanges getAudioDataRanges() throws CannotReadException, IOException
+    {
+        try
+        {
+            return readAudioDataRanges();
+        }
+        catch (InvalidAudioFrameException iafe)
+        {
+            throw new CannotReadException(iafe.getMessage(), iafe);
+        }
+    }
 
-		inStream.skip(startByte);
+    private AudioDataRanges readAudioDataRanges() throws InvalidAudioFrameException, IOException
+    {
+        long startByte = audioHeader instanceof MP3AudioHeader ? ((MP3AudioHeader) audioHeader).getMp3StartByte() : getMP3StartByte(file);
+        long endByte;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r"))
+        {
+            endByte = getAudioEndByte(raf);
+        }
+        AudioDataRanges ranges = new AudioDataRanges();
+        ranges.add(startByte, Math.max(0, endByte - startByte));
+        return ranges;
+    }
 
-		int read;
-		long totalSize = mp3File.length() - startByte - id3v1TagSize;
-		int pointer  = buffer.length;
+    /**
+     * @param raf
+     * @return the end of the audio data, before the ID3v1 tag if the file has one
+     * @throws IOException
+     */
+    private long getAudioEndByte(RandomAccessFile raf) throws IOException
+    {
+        return getAudioEndByte(raf.length(), readFileEnd(raf.getChannel()));
+    }
 
-		while (pointer <= totalSize ) {
+    /**
+     * @param fileSize
+     * @param fileEnd the end of the file, or null if the file is too small to have a v1 tag
+     * @return the end of the audio data, before the ID3v1 tag if the file has one
+     */
+    private static long getAudioEndByte(long fileSize, ByteBuffer fileEnd)
+    {
+        if (fileEnd != null && AbstractID3v1Tag.seekForV1OrV11Tag(fileEnd.duplicate()))
+        {
+            return fileSize - AbstractID3v1Tag.TAG_LENGTH;
+        }
+        logger.finest("No id3v1 tag found");
+        return fileSize;
+    }
 
-			read = inStream.read(buffer);
+    /**
+     * Read the start of the file in a single read, if the ID3v2 tag is to be loaded but is too large to be read with
+     * the first audio frames the rest of it is read with a second read. If the tag is not loaded a large tag is not
+     * read, the search for the audio then starts after the tag reading from the file.
+     *
+     * @param fc
+     * @param readTag whether the whole ID3v2 tag is needed
+     * @return data from the start of the file, positioned at the start
+     * @throws IOException
+     */
+    private static ByteBuffer readFileStart(FileChannel fc, boolean readTag) throws IOException
+    {
+        long fileSize = fc.size();
+        ByteBuffer fileStart = ByteBuffer.allocate((int) Math.min(fileSize, FILE_START_READ_SIZE));
+        readFully(fc, fileStart, 0);
+        fileStart.flip();
+
+        //Ignore the tag size if it cannot be right, the audio header search will read what it needs
+        long tagSize = AbstractID3v2Tag.getV2TagSizeIfExists(fileStart);
+        long requiredSize = Math.min(fileSize, tagSize + AUDIO_START_READ_SIZE);
+        if (readTag && tagSize < fileSize && requiredSize > fileStart.limit())
+        {
+            ByteBuffer largerFileStart = ByteBuffer.allocate((int) requiredSize);
+            largerFileStart.put(fileStart);
+            readFully(fc, largerFileStart, largerFileStart.position());
+            largerFileStart.flip();
+            return largerFileStart;
+        }
+        return fileStart;
+    }
 
-			digest.update(buffer, 0, read);
-			pointer += buffer.length;
-			}
-		read = inStream.read(buffer,0,(int)totalSize - pointer + buffer.length);
-		digest.update(buffer, 0, read);
+    /**
+     * @param fc
+     * @return the end of the file where an ID3v1 tag would be, or null if the file is too small to have one
+     * @throws IOException
+     */
+    private static ByteBuffer readFileEnd(FileChannel fc) throws IOException
+    {
+        long fileSize = fc.size();
+        if (fileSize < AbstractID3v1Tag.TAG_LENGTH)
+        {
+            return null;
+        }
+        ByteBuffer fileEnd = ByteBuffer.allocate(AbstractID3v1Tag.TAG_LENGTH);
+        readFully(fc, fileEnd, fileSize - AbstractID3v1Tag.TAG_LENGTH);
+        fileEnd.flip();
+        return fileEnd;
+    }
 
-		byte[] hash = digest.digest();
+    /**
+     * @param fileStart data from the start of the file
+     * @param position
+     * @return the data from position onwards, or null if the data does not reach that far
+     */
+    private static ByteBuffer getFileData(ByteBuffer fileStart, long position)
+    {
+        if (position >= fileStart.limit())
+        {
+            return null;
+        }
+        ByteBuffer data = fileStart.duplicate();
+        data.position((int) position);
+        return data;
+    }
 
+    /**
+     * Read from position until the buffer is full or the end of the file is reached
+     *
+     * @param fc
+     * @param bb
+     * @param position
+     * @throws IOException
+     */
+    private static void readFully(FileChannel fc, ByteBuffer bb, long position) throws IOException
+    {
+        while (bb.hasRemaining())
+        {
+            int read = fc.read(bb, position);
+            if (read < 0)
+            {
+                break;
+            }
+            position += read;
+        }
+    }
 
-        return hash;
+    /**
+     * Walk every mp3 frame to get the exact frame count, track length and bitrate, which are otherwise estimated from
+     * the first frame if the file has no Xing or VBRI header. The audio header is updated with the results.
+     *
+     * @param buildSeekIndex true to also record the position of every frame
+     * @return the frame index, which can be cached and later applied with {@link MP3AudioHeader#setFrameIndex(MP3FrameIndex)}
+     * @throws IOException
+     */
+    public MP3FrameIndex scanFrames(boolean buildSeekIndex) throws IOException
+    {
+        if (!(audioHeader instanceof MP3AudioHeader))
+        {
+            throw new IllegalStateException("No mp3 audio header has been read for " + file.getName());
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r"))
+        {
+            return ((MP3AudioHeader) audioHeader).scanFrames(file, raf.getChannel(), getAudioEndByte(raf), buildSeekIndex);
+        }
     }
 
     /**
@@ -772,21 +981,23 @@ public class MP3File extends AudioFile
 
     /**
      * Sets the v2 tag to the v2 tag provided as an argument.
-     * Also store a v24 version of tag as v24 is the interface to be used
-     * when talking with client applications.
+     * Also allow a v24 version of tag as v24 is the interface to be used
+     * when talking with client applications, converting a v22 or v23 tag copies all its frames so this is not done
+     * until the v24 version is first asked for.
      *
      * @param id3v2tag
      */
     public void setID3v2Tag(AbstractID3v2Tag id3v2tag)
     {
         this.id3v2tag = id3v2tag;
+        this.id3v2Asv24tagAvailable = true;
         if (id3v2tag instanceof ID3v24Tag)
         {
             this.id3v2Asv24tag = (ID3v24Tag) this.id3v2tag;
         }
         else
         {
-            this.id3v2Asv24tag = new ID3v24Tag(id3v2tag);
+            this.id3v2Asv24tag = null;
         }
     }
 
@@ -801,6 +1012,7 @@ public class MP3File extends AudioFile
     {
         this.id3v2tag = id3v2tag;
         this.id3v2Asv24tag = null;
+        this.id3v2Asv24tagAvailable = false;
     }
 
     /**
@@ -814,10 +1026,17 @@ public class MP3File extends AudioFile
     }
 
     /**
+     * A v22 or v23 tag is converted the first time this is called, so the conversion holds any changes made to the
+     * v2 tag up to then.
+     *
      * @return a representation of tag as v24
      */
     public ID3v24Tag getID3v2TagAsv24()
     {
+        if (id3v2Asv24tag == null && id3v2Asv24tagAvailable && id3v2tag != null)
+        {
+            id3v2Asv24tag = new ID3v24Tag(id3v2tag);
+        }
         return id3v2Asv24tag;
     }
 
@@ -949,6 +1168,32 @@ public class MP3File extends AudioFile
         }
     }
 
+    /**
+     * @param file
+     * @return true if the end of the file already holds the ID3v1 tag exactly as it would be written, or if there is
+     * no ID3v1 tag and none is to be written
+     * @throws IOException
+     */
+    private boolean isID3v1TagUnchanged(File file) throws IOException
+    {
+        try (FileChannel fc = new FileInputStream(file).getChannel())
+        {
+            if (fc.size() < ID3v1Tag.TAG_LENGTH)
+            {
+                return false;
+            }
+            long tagStart = fc.size() - ID3v1Tag.TAG_LENGTH;
+            if (id3v1tag == null)
+            {
+                ByteBuffer existingTag = ByteBuffer.allocate(ID3v1Tag.TAG_LENGTH);
+                fc.read(existingTag, tagStart);
+                existingTag.flip();
+                return !AbstractID3v1Tag.seekForV1OrV11Tag(existingTag);
+            }
+            return Utils.isFileContentEqual(fc, tagStart, ByteBuffer.wrap(id3v1tag.getRawContent()));
+        }
+    }
+
     /**
      * Saves the tags in this dataType to the file argument. It will be saved as
      * TagConstants.MP3_FILE_SAVE_WRITE
@@ -964,6 +1209,12 @@ public class MP3File extends AudioFile
 
         logger.config("Saving  : " + file.getPath());
 
+        //Saving would delete the tags in the file that were never read
+        if (!readOptions.isReadTag())
+        {
+            throw new IOException(ErrorMessage.GENERAL_WRITE_FAILED_BECAUSE_TAG_NOT_READ.getMsg(file.getPath()));
+        }
+
         //Checks before starting write
         precheck(file);
 
@@ -975,38 +1226,50 @@ public class MP3File extends AudioFile
             {
                 if (id3v2tag == null)
                 {
-                    rfile = new RandomAccessFile(file, "rw");
-                    (new ID3v24Tag()).delete(rfile);
-                    (new ID3v23Tag()).delete(rfile);
-                    (new ID3v22Tag()).delete(rfile);
-                    logger.config("Deleting ID3v2 tag:"+file.getName());
-                    rfile.close();
+                    //Only open for writing if there is a tag to delete
+                    if (AbstractID3v2Tag.getV2TagSizeIfExists(file) > 0)
+                    {
+                        rfile = new RandomAccessFile(file, "rw");
+                        (new ID3v24Tag()).delete(rfile);
+                        (new ID3v23Tag()).delete(rfile);
+                        (new ID3v22Tag()).delete(rfile);
+                        logger.config("Deleting ID3v2 tag:" + file.getName());
+                        rfile.close();
+                    }
                 }
                 else
                 {
                     logger.config("Writing ID3v2 tag:"+file.getName());
-                    final MP3AudioHeader mp3AudioHeader = (MP3AudioHeader) this.getAudioHeader();
-                    final long mp3StartByte = mp3AudioHeader.getMp3StartByte();
+                    final long mp3StartByte = getAudioStartByte(file);
                     final long newMp3StartByte = id3v2tag.write(file, mp3StartByte);
                     if (mp3StartByte != newMp3StartByte) {
                         logger.config("New mp3 start byte: " + newMp3StartByte);
-                        mp3AudioHeader.setMp3StartByte(newMp3StartByte);
+                        if (audioHeader instanceof MP3AudioHeader)
+                        {
+                            ((MP3AudioHeader) audioHeader).setMp3StartByte(newMp3StartByte);
+                        }
                     }
 
                 }
             }
+
+            //Lyrics3 and ID3v1 tags are at the end of the file, only open for writing if they would change it
+            boolean isLyrics3Write = TagOptionSingleton.getInstance().isLyrics3Save() && lyrics3tag != null;
+            boolean isId3v1Write = TagOptionSingleton.getInstance().isId3v1Save() && (isLyrics3Write || !isID3v1TagUnchanged(file));
+            if (!isLyrics3Write && !isId3v1Write)
+            {
+                logger.config("ID3v1 tag unchanged:" + file.getName());
+                return;
+            }
             rfile = new RandomAccessFile(file, "rw");
 
             //Lyrics 3 Tag
-            if (TagOptionSingleton.getInstance().isLyrics3Save())
+            if (isLyrics3Write)
             {
-                if (lyrics3tag != null)
-                {
-                    lyrics3tag.write(rfile);
-                }
+                lyrics3tag.write(rfile);
             }
             //ID3v1 tag
-            if (TagOptionSingleton.getInstance().isId3v1Save())
+            if (isId3v1Write)
             {
                 logger.config("Processing ID3v1");
                 if (id3v1tag == null)
@@ -1,9 +1,11 @@
 package org.jaudiotagger.audio.mp3;
 
 import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.ReadOptions;
 import org.jaudiotagger.audio.exceptions.CannotReadException;
 import org.jaudiotagger.audio.exceptions.InvalidAudioFrameException;
 import org.jaudiotagger.audio.exceptions.ReadOnlyFileException;
+import org.jaudiotagger.audio.generic.AudioDataRanges;
 import org.jaudiotagger.audio.generic.AudioFileReader;
 import org.jaudiotagger.audio.generic.GenericAudioHeader;
 import org.jaudiotagger.tag.Tag;
@@ -31,15 +33,45 @@ public class MP3FileReader extends AudioFileReader
 
     /**
      * @param f
+     * @param options
      * @return
      */
     //Override because we read mp3s differently to the entagged code
-    public AudioFile read(File f) throws IOException, TagException, ReadOnlyFileException, CannotReadException, InvalidAudioFrameException
+    public AudioFile read(File f, ReadOptions options) throws IOException, TagException, ReadOnlyFileException, CannotReadException, InvalidAudioFrameException
     {
-        MP3File mp3File = new MP3File(f, MP3File.LOAD_IDV1TAG | MP3File.LOAD_IDV2TAG, true);
+        int loadOptions = 0;
+        if (options.isReadTag())
+        {
+            loadOptions |= MP3File.LOAD_IDV1TAG | MP3File.LOAD_IDV2TAG;
+        }
+        if (!options.isReadHeader())
+        {
+            loadOptions |= MP3File.SKIP_AUDIO_HEADER;
+        }
+        MP3File mp3File = new MP3File(f, loadOptions, true);
+        mp3File.setReadOptions(options);
         return mp3File;
     }
 
+    /**
+     * @param f
+     * @return the audio data from the first mp3 frame up to the ID3v1 tag, if any
+     * @throws CannotReadException
+     * @throws IOException
+     */
+    @Override
+    public AudioDataRanges getAudioDataRanges(File f) throws CannotReadException, IOException
+    {
+        try
+        {
+            return new MP3File(f, 0, true).getAudioDataRanges();
+        }
+        catch (TagException | ReadOnlyFileException | InvalidAudioFrameException e)
+        {
+            throw new CannotReadException(e.getMessage(), e);
+        }
+    }
+
     /**
      * Read
      *
@@ -1,6 +1,7 @@
 package org.jaudiotagger.audio.mp3;
 
 import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.ReadOptions;
 import org.jaudiotagger.audio.exceptions.CannotReadException;
 import org.jaudiotagger.audio.exceptions.CannotWriteException;
 import org.jaudiotagger.audio.generic.AudioFileWriter;
@@ -39,7 +40,9 @@ public class MP3FileWriter extends AudioFileWriter
     public synchronized void delete(AudioFile af) throws CannotReadException, CannotWriteException
     {
         ((MP3File)af).setID3v1Tag(null);
-        ((MP3File)af).setID3v2Tag(null);                
+        ((MP3File)af).setID3v2Tag(null);
+        //Nothing is lost by deleting tags that were not read
+        af.setReadOptions(ReadOptions.HEADER_AND_TAG);
         af.commit();
     }
 
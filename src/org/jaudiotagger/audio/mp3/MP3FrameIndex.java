@@ -0,0 +1,492 @@
+package org.jaudiotagger.audio.mp3;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.logging.Logger;
+
+/**
+ * The result of walking every MPEG frame header in a file, giving the exact number of frames, duration and average
+ * bitrate where the first frame alone is not enough, such as a variable bitrate file without a Xing or VBRI header.
+ *
+ * Only the four header bytes of each frame are looked at, the file is read through a large buffer and frames are
+ * stepped over using the length from their header. Data between frames, such as junk or an APE tag, is skipped by
+ * searching for the next header that is followed by another frame.
+ *
+ * Optionally a seek index is built holding the position of every frame. Positions are held as the int difference from
+ * the previous frame, with the absolute position of every {@link #SEEK_INDEX_INTERVAL}th frame, so costs just over
+ * four bytes a frame. An index can be written to a cache with {@link #write(DataOutput)} and read back with
+ * {@link #read(DataInput)}, {@link #isValidFor(File)} checks it still matches the file.
+ */
+public class MP3FrameIndex
+{
+    // Logger Object
+    public static Logger logger = Logger.getLogger("org.jaudiotagger.audio.mp3");
+
+    public static final int DEFAULT_BUFFER_SIZE = 1024 * 1024;
+
+    /**
+     * Every this many frames the absolute position is held in the seek index
+     */
+    public static final int SEEK_INDEX_INTERVAL = 64;
+
+    private static final int CACHE_FORMAT_VERSION = 1;
+    private static final int CONVERTS_BYTE_TO_BITS = 8;
+    private static final int CONVERT_TO_KILOBITS = 1000;
+
+    private long fileLength;
+    private long lastModified;
+    private long startByte;
+    private long endByte;
+    private long frameCount;
+    private long audioSize;
+    private long skippedBytes;
+    private int samplingRate;
+    private int samplesPerFrame;
+    private boolean variableBitRate;
+
+    private long[] seekPositions;
+    private int[] seekDeltas;
+
+    private MP3FrameIndex()
+    {
+    }
+
+    /**
+     * Walk the frames of the file
+     *
+     * @param file
+     * @param startByte       position of the first frame
+     * @param endByte         end of the audio data, before any ID3v1 tag
+     * @param skipFirstFrame  true if the first frame is a Xing or VBRI frame, which holds no audio
+     * @param buildSeekIndex  true to record the position of every frame
+     * @return the index, with a frame count of zero if there is no valid frame at startByte
+     * @throws IOException
+     */
+    public static MP3FrameIndex scan(File file, long startByte, long endByte, boolean skipFirstFrame, boolean buildSeekIndex) throws IOException
+    {
+        try (FileChannel fc = new RandomAccessFile(file, "r").getChannel())
+        {
+            return scan(file, fc, startByte, endByte, skipFirstFrame, buildSeekIndex);
+        }
+    }
+
+    /**
+     * Walk the frames of a file that is already open
+     *
+     * @param file
+     * @param fc              channel of the file, is not closed
+     * @param startByte       position of the first frame
+     * @param endByte         end of the audio data, before any ID3v1 tag
+     * @param skipFirstFrame  true if the first frame is a Xing or VBRI frame, which holds no audio
+     * @param buildSeekIndex  true to record the position of every frame
+     * @return the index, with a frame count of zero if there is no valid frame at startByte
+     * @throws IOException
+     */
+    public static MP3FrameIndex scan(File file, FileChannel fc, long startByte, long endByte, boolean skipFirstFrame, boolean buildSeekIndex) throws IOException
+    {
+        MP3FrameIndex index = new MP3FrameIndex();
+        index.fileLength = fc.size();
+        index.lastModified = file.lastModified();
+        index.startByte = startByte;
+        index.endByte = Math.min(endByte, index.fileLength);
+        if (buildSeekIndex)
+        {
+            index.seekPositions = new long[16];
+            index.seekDeltas = new int[1024];
+        }
+
+        new Scanner(fc, index.endByte, DEFAULT_BUFFER_SIZE).scan(index, skipFirstFrame);
+        if (buildSeekIndex)
+        {
+            index.seekPositions = Arrays.copyOf(index.seekPositions, (int) ((index.frameCount + SEEK_INDEX_INTERVAL - 1) / SEEK_INDEX_INTERVAL));
+            index.seekDeltas = Arrays.copyOf(index.seekDeltas, (int) index.frameCount);
+        }
+        logger.config(file.getName() + ":" + index);
+        return index;
+    }
+
+    private void addFrame(long position, long previousPosition, int frameLength, int header)
+    {
+        if (seekPositions != null)
+        {
+            if (frameCount >= Integer.MAX_VALUE)
+            {
+                throw new IllegalStateException("Too many frames to index:" + frameCount);
+            }
+            int frame = (int) frameCount;
+            if (frame % SEEK_INDEX_INTERVAL == 0)
+            {
+                int slot = frame / SEEK_INDEX_INTERVAL;
+                if (slot == seekPositions.length)
+                {
+                    seekPositions = Arrays.copyOf(seekPositions, slot * 2);
+                }
+                seekPositions[slot] = position;
+            }
+            if (frame == seekDeltas.length)
+            {
+                seekDeltas = Arrays.copyOf(seekDeltas, frame * 2);
+            }
+            seekDeltas[frame] = (int) (position - previousPosition);
+        }
+        if (frameCount == 0)
+        {
+            samplingRate = MPEGFrameHeader.getSamplingRate(header);
+            samplesPerFrame = MPEGFrameHeader.getSamplesPerFrame(header);
+        }
+        frameCount++;
+        audioSize += frameLength;
+    }
+
+    /**
+     * Walks the frames, holding the current part of the file in a buffer
+     */
+    private static class Scanner
+    {
+        private final FileChannel fc;
+        private final long endByte;
+        private final ByteBuffer buffer;
+        private final byte[] bytes;
+        private long bufferStart;
+        private int bufferLength;
+
+        Scanner(FileChannel fc, long endByte, int bufferSize)
+        {
+            this.fc = fc;
+            this.endByte = endByte;
+            this.bytes = new byte[bufferSize];
+            this.buffer = ByteBuffer.wrap(bytes);
+        }
+
+        void scan(MP3FrameIndex index, boolean skipFirstFrame) throws IOException
+        {
+            long position = index.startByte;
+            if (!hasHeader(position) || !MPEGFrameHeader.isValidHeader(getHeader(position)))
+            {
+                return;
+            }
+            int firstHeader = getHeader(position);
+            int firstBitRate = MPEGFrameHeader.getBitRate(firstHeader);
+            if (skipFirstFrame)
+            {
+                position += MPEGFrameHeader.getFrameLength(firstHeader);
+                firstBitRate = -1;
+            }
+
+            long previousPosition = index.startByte;
+            while (hasHeader(position))
+            {
+                int header = getHeader(position);
+                if (!isFrame(header, firstHeader, position))
+                {
+                    long next = findNextFrame(position + 1, firstHeader);
+                    index.skippedBytes += next - position;
+                    position = next;
+                    continue;
+                }
+                int frameLength = MPEGFrameHeader.getFrameLength(header);
+                int bitRate = MPEGFrameHeader.getBitRate(header);
+                if (firstBitRate == -1)
+                {
+                    firstBitRate = bitRate;
+                }
+                else if (bitRate != firstBitRate)
+                {
+                    index.variableBitRate = true;
+                }
+                index.addFrame(position, previousPosition, frameLength, header);
+                previousPosition = position;
+                position += frameLength;
+            }
+            //Only a partial header left
+            index.skippedBytes += Math.max(0, endByte - position);
+        }
+
+        /**
+         * @return true if there is a frame of the stream at position, that ends within the audio data
+         */
+        private boolean isFrame(int header, int firstHeader, long position)
+        {
+            return MPEGFrameHeader.isValidHeader(header)
+                    && MPEGFrameHeader.isSameStream(header, firstHeader)
+                    && position + MPEGFrameHeader.getFrameLength(header) <= endByte;
+        }
+
+        /**
+         * Search for a frame followed by another frame, or by the end of the audio data, to avoid being fooled by
+         * junk that happens to look like a header
+         *
+         * @return position of the next frame, or the end of the audio data if there are no more frames
+         */
+        private long findNextFrame(long position, int firstHeader) throws IOException
+        {
+            for (; hasHeader(position); position++)
+            {
+                int header = getHeader(position);
+                if (isFrame(header, firstHeader, position))
+                {
+                    long next = position + MPEGFrameHeader.getFrameLength(header);
+                    if (next == endByte || (hasHeader(next) && isFrame(getHeader(next), firstHeader, next)))
+                    {
+                        return position;
+                    }
+                }
+            }
+            return Math.max(position, endByte);
+        }
+
+        /**
+         * @return true if the four bytes at position are within the audio data, loading them into the buffer if they
+         * are not already there
+         */
+        private boolean hasHeader(long position) throws IOException
+        {
+            if (position + MPEGFrameHeader.HEADER_SIZE > endByte)
+            {
+                return false;
+            }
+            if (position < bufferStart || position + MPEGFrameHeader.HEADER_SIZE > bufferStart + bufferLength)
+            {
+                buffer.clear();
+                buffer.limit((int) Math.min(bytes.length, endByte - position));
+                while (buffer.hasRemaining())
+                {
+                    if (fc.read(buffer, position + buffer.position()) < 0)
+                    {
+                        break;
+                    }
+                }
+                bufferStart = position;
+                bufferLength = buffer.position();
+                return bufferLength >= MPEGFrameHeader.HEADER_SIZE;
+            }
+            return true;
+        }
+
+        private int getHeader(long position)
+        {
+            int offset = (int) (position - bufferStart);
+            return (bytes[offset] & 0xFF) << 24
+                    | (bytes[offset + 1] & 0xFF) << 16
+                    | (bytes[offset + 2] & 0xFF) << 8
+                    | (bytes[offset + 3] & 0xFF);
+        }
+    }
+
+    /**
+     * Write the index so it can be cached with the file
+     *
+     * @param out
+     * @throws IOException
+     */
+    public void write(DataOutput out) throws IOException
+    {
+        out.writeByte(CACHE_FORMAT_VERSION);
+        out.writeLong(fileLength);
+        out.writeLong(lastModified);
+        out.writeLong(startByte);
+        out.writeLong(endByte);
+        out.writeLong(frameCount);
+        out.writeLong(audioSize);
+        out.writeLong(skippedBytes);
+        out.writeInt(samplingRate);
+        out.writeInt(samplesPerFrame);
+        out.writeBoolean(variableBitRate);
+        out.writeBoolean(hasSeekIndex());
+        if (hasSeekIndex())
+        {
+            for (int i = 0; i < frameCount; i++)
+            {
+                out.writeInt(seekDeltas[i]);
+            }
+        }
+    }
+
+    /**
+     * Read an index written by {@link #write(DataOutput)}
+     *
+     * @param in
+     * @return
+     * @throws IOException if the data is not a cached index
+     */
+    public static MP3FrameIndex read(DataInput in) throws IOException
+    {
+        int formatVersion = in.readByte();
+        if (formatVersion != CACHE_FORMAT_VERSION)
+        {
+            throw new IOException("Unsupported frame index format:" + formatVersion);
+        }
+        MP3FrameIndex index = new MP3FrameIndex();
+        index.fileLength = in.readLong();
+        index.lastModified = in.readLong();
+        index.startByte = in.readLong();
+        index.endByte = in.readLong();
+        index.frameCount = in.readLong();
+        index.audioSize = in.readLong();
+        index.skippedBytes = in.readLong();
+        index.samplingRate = in.readInt();
+        index.samplesPerFrame = in.readInt();
+        index.variableBitRate = in.readBoolean();
+        if (in.readBoolean())
+        {
+            if (index.frameCount > Integer.MAX_VALUE)
+            {
+                throw new IOException("Invalid frame count:" + index.frameCount);
+            }
+            int count = (int) index.frameCount;
+            index.seekDeltas = new int[count];
+            index.seekPositions = new long[(count + SEEK_INDEX_INTERVAL - 1) / SEEK_INDEX_INTERVAL];
+            long position = index.startByte;
+            for (int i = 0; i < count; i++)
+            {
+                index.seekDeltas[i] = in.readInt();
+                position += index.seekDeltas[i];
+                if (i % SEEK_INDEX_INTERVAL == 0)
+                {
+                    index.seekPositions[i / SEEK_INDEX_INTERVAL] = position;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * @param file
+     * @return true if the file has the same length and modification time as when the index was built
+     */
+    public boolean isValidFor(File file)
+    {
+        return file.length() == fileLength && file.lastModified() == lastModified;
+    }
+
+    /**
+     * @return number of audio frames, not counting any Xing or VBRI frame
+     */
+    public long getFrameCount()
+    {
+        return frameCount;
+    }
+
+    /**
+     * @return total bytes of the audio frames
+     */
+    public long getAudioSize()
+    {
+        return audioSize;
+    }
+
+    /**
+     * @return bytes between the frames that did not belong to any frame
+     */
+    public long getSkippedBytes()
+    {
+        return skippedBytes;
+    }
+
+    public int getSamplingRate()
+    {
+        return samplingRate;
+    }
+
+    public long getNoOfSamples()
+    {
+        return frameCount * samplesPerFrame;
+    }
+
+    /**
+     * @return the exact track length in seconds
+     */
+    public double getPreciseTrackLength()
+    {
+        if (samplingRate == 0)
+        {
+            return 0;
+        }
+        return (double) getNoOfSamples() / samplingRate;
+    }
+
+    /**
+     * @return average bitrate in kbps
+     */
+    public long getBitRate()
+    {
+        double trackLength = getPreciseTrackLength();
+        if (trackLength == 0)
+        {
+            return 0;
+        }
+        return Math.round(audioSize * CONVERTS_BYTE_TO_BITS / (trackLength * CONVERT_TO_KILOBITS));
+    }
+
+    /**
+     * @return true if the frames do not all have the same bitrate
+     */
+    public boolean isVariableBitRate()
+    {
+        return variableBitRate;
+    }
+
+    public long getStartByte()
+    {
+        return startByte;
+    }
+
+    public long getEndByte()
+    {
+        return endByte;
+    }
+
+    public boolean hasSeekIndex()
+    {
+        return seekDeltas != null;
+    }
+
+    /**
+     * @param frame
+     * @return position in the file of the frame
+     * @throws IllegalStateException if the index was built without a seek index
+     */
+    public long getFramePosition(long frame)
+    {
+        if (!hasSeekIndex())
+        {
+            throw new IllegalStateException("Frame index was built without a seek index");
+        }
+        if (frame < 0 || frame >= frameCount)
+        {
+            throw new IndexOutOfBoundsException("Frame:" + frame + ":FrameCount:" + frameCount);
+        }
+        int checkpoint = (int) (frame / SEEK_INDEX_INTERVAL);
+        long position = seekPositions[checkpoint];
+        for (int i = checkpoint * SEEK_INDEX_INTERVAL + 1; i <= frame; i++)
+        {
+            position += seekDeltas[i];
+        }
+        return position;
+    }
+
+    /**
+     * @param seconds
+     * @return the frame playing at the given time, the last frame if after the end
+     */
+    public long getFrameAt(double seconds)
+    {
+        if (frameCount == 0)
+        {
+            throw new IllegalStateException("No frames");
+        }
+        long frame = (long) (Math.max(0, seconds) * samplingRate / samplesPerFrame);
+        return Math.min(frame, frameCount - 1);
+    }
+
+    public String toString()
+    {
+        return "MP3FrameIndex:frameCount:" + frameCount + ":audioSize:" + audioSize + ":skippedBytes:" + skippedBytes + ":trackLength:" + getPreciseTrackLength() + ":bitRate:" + getBitRate() + ":vbr:" + variableBitRate;
+    }
+}
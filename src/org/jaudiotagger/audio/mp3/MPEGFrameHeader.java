@@ -43,8 +43,6 @@ public class MPEGFrameHeader
     public static final int SYNC_BYTE2 = 0xE0;
     public static final int SYNC_BIT_ANDSAMPING_BYTE3 = 0xFC;
 
-    private static final byte[] header = new byte[HEADER_SIZE];
-
 
     /**
      * Constants for MPEG Version
@@ -84,102 +82,103 @@ public class MPEGFrameHeader
     public final static int LAYER_III_SLOT_SIZE = 1;
 
     /**
-     * Bit Rates, the setBitrate varies for different Version and Layer
+     * Bit Rates in kbps, the bitrate varies for different Version and Layer, indexed by the bitrate bits, the low bit
+     * of the version and the layer bits as returned by {@link #getBitrateIndex(int)}. Zero marks an invalid bitrate.
      */
-    private static final Map<Integer, Integer> bitrateMap = new HashMap<Integer, Integer>();
+    private static final int[] BITRATE_TABLE = new int[256];
 
     static
     {
         // MPEG-1, Layer I (E)
-        bitrateMap.put(0x1E, 32);
-        bitrateMap.put(0x2E, 64);
-        bitrateMap.put(0x3E, 96);
-        bitrateMap.put(0x4E, 128);
-        bitrateMap.put(0x5E, 160);
-        bitrateMap.put(0x6E, 192);
-        bitrateMap.put(0x7E, 224);
-        bitrateMap.put(0x8E, 256);
-        bitrateMap.put(0x9E, 288);
-        bitrateMap.put(0xAE, 320);
-        bitrateMap.put(0xBE, 352);
-        bitrateMap.put(0xCE, 384);
-        bitrateMap.put(0xDE, 416);
-        bitrateMap.put(0xEE, 448);
+        BITRATE_TABLE[0x1E] = 32;
+        BITRATE_TABLE[0x2E] = 64;
+        BITRATE_TABLE[0x3E] = 96;
+        BITRATE_TABLE[0x4E] = 128;
+        BITRATE_TABLE[0x5E] = 160;
+        BITRATE_TABLE[0x6E] = 192;
+        BITRATE_TABLE[0x7E] = 224;
+        BITRATE_TABLE[0x8E] = 256;
+        BITRATE_TABLE[0x9E] = 288;
+        BITRATE_TABLE[0xAE] = 320;
+        BITRATE_TABLE[0xBE] = 352;
+        BITRATE_TABLE[0xCE] = 384;
+        BITRATE_TABLE[0xDE] = 416;
+        BITRATE_TABLE[0xEE] = 448;
         // MPEG-1, Layer II (C)
-        bitrateMap.put(0x1C, 32);
-        bitrateMap.put(0x2C, 48);
-        bitrateMap.put(0x3C, 56);
-        bitrateMap.put(0x4C, 64);
-        bitrateMap.put(0x5C, 80);
-        bitrateMap.put(0x6C, 96);
-        bitrateMap.put(0x7C, 112);
-        bitrateMap.put(0x8C, 128);
-        bitrateMap.put(0x9C, 160);
-        bitrateMap.put(0xAC, 192);
-        bitrateMap.put(0xBC, 224);
-        bitrateMap.put(0xCC, 256);
-        bitrateMap.put(0xDC, 320);
-        bitrateMap.put(0xEC, 384);
+        BITRATE_TABLE[0x1C] = 32;
+        BITRATE_TABLE[0x2C] = 48;
+        BITRATE_TABLE[0x3C] = 56;
+        BITRATE_TABLE[0x4C] = 64;
+        BITRATE_TABLE[0x5C] = 80;
+        BITRATE_TABLE[0x6C] = 96;
+        BITRATE_TABLE[0x7C] = 112;
+        BITRATE_TABLE[0x8C] = 128;
+        BITRATE_TABLE[0x9C] = 160;
+        BITRATE_TABLE[0xAC] = 192;
+        BITRATE_TABLE[0xBC] = 224;
+        BITRATE_TABLE[0xCC] = 256;
+        BITRATE_TABLE[0xDC] = 320;
+        BITRATE_TABLE[0xEC] = 384;
         // MPEG-1, Layer III (A)
-        bitrateMap.put(0x1A, 32);
-        bitrateMap.put(0x2A, 40);
-        bitrateMap.put(0x3A, 48);
-        bitrateMap.put(0x4A, 56);
-        bitrateMap.put(0x5A, 64);
-        bitrateMap.put(0x6A, 80);
-        bitrateMap.put(0x7A, 96);
-        bitrateMap.put(0x8A, 112);
-        bitrateMap.put(0x9A, 128);
-        bitrateMap.put(0xAA, 160);
-        bitrateMap.put(0xBA, 192);
-        bitrateMap.put(0xCA, 224);
-        bitrateMap.put(0xDA, 256);
-        bitrateMap.put(0xEA, 320);
+        BITRATE_TABLE[0x1A] = 32;
+        BITRATE_TABLE[0x2A] = 40;
+        BITRATE_TABLE[0x3A] = 48;
+        BITRATE_TABLE[0x4A] = 56;
+        BITRATE_TABLE[0x5A] = 64;
+        BITRATE_TABLE[0x6A] = 80;
+        BITRATE_TABLE[0x7A] = 96;
+        BITRATE_TABLE[0x8A] = 112;
+        BITRATE_TABLE[0x9A] = 128;
+        BITRATE_TABLE[0xAA] = 160;
+        BITRATE_TABLE[0xBA] = 192;
+        BITRATE_TABLE[0xCA] = 224;
+        BITRATE_TABLE[0xDA] = 256;
+        BITRATE_TABLE[0xEA] = 320;
         // MPEG-2, Layer I (6)
-        bitrateMap.put(0x16, 32);
-        bitrateMap.put(0x26, 48);
-        bitrateMap.put(0x36, 56);
-        bitrateMap.put(0x46, 64);
-        bitrateMap.put(0x56, 80);
-        bitrateMap.put(0x66, 96);
-        bitrateMap.put(0x76, 112);
-        bitrateMap.put(0x86, 128);
-        bitrateMap.put(0x96, 144);
-        bitrateMap.put(0xA6, 160);
-        bitrateMap.put(0xB6, 176);
-        bitrateMap.put(0xC6, 192);
-        bitrateMap.put(0xD6, 224);
-        bitrateMap.put(0xE6, 256);
+        BITRATE_TABLE[0x16] = 32;
+        BITRATE_TABLE[0x26] = 48;
+        BITRATE_TABLE[0x36] = 56;
+        BITRATE_TABLE[0x46] = 64;
+        BITRATE_TABLE[0x56] = 80;
+        BITRATE_TABLE[0x66] = 96;
+        BITRATE_TABLE[0x76] = 112;
+        BITRATE_TABLE[0x86] = 128;
+        BITRATE_TABLE[0x96] = 144;
+        BITRATE_TABLE[0xA6] = 160;
+        BITRATE_TABLE[0xB6] = 176;
+        BITRATE_TABLE[0xC6] = 192;
+        BITRATE_TABLE[0xD6] = 224;
+        BITRATE_TABLE[0xE6] = 256;
         // MPEG-2, Layer II (4)
-        bitrateMap.put(0x14, 8);
-        bitrateMap.put(0x24, 16);
-        bitrateMap.put(0x34, 24);
-        bitrateMap.put(0x44, 32);
-        bitrateMap.put(0x54, 40);
-        bitrateMap.put(0x64, 48);
-        bitrateMap.put(0x74, 56);
-        bitrateMap.put(0x84, 64);
-        bitrateMap.put(0x94, 80);
-        bitrateMap.put(0xA4, 96);
-        bitrateMap.put(0xB4, 112);
-        bitrateMap.put(0xC4, 128);
-        bitrateMap.put(0xD4, 144);
-        bitrateMap.put(0xE4, 160);
+        BITRATE_TABLE[0x14] = 8;
+        BITRATE_TABLE[0x24] = 16;
+        BITRATE_TABLE[0x34] = 24;
+        BITRATE_TABLE[0x44] = 32;
+        BITRATE_TABLE[0x54] = 40;
+        BITRATE_TABLE[0x64] = 48;
+        BITRATE_TABLE[0x74] = 56;
+        BITRATE_TABLE[0x84] = 64;
+        BITRATE_TABLE[0x94] = 80;
+        BITRATE_TABLE[0xA4] = 96;
+        BITRATE_TABLE[0xB4] = 112;
+        BITRATE_TABLE[0xC4] = 128;
+        BITRATE_TABLE[0xD4] = 144;
+        BITRATE_TABLE[0xE4] = 160;
         // MPEG-2, Layer III (2)
-        bitrateMap.put(0x12, 8);
-        bitrateMap.put(0x22, 16);
-        bitrateMap.put(0x32, 24);
-        bitrateMap.put(0x42, 32);
-        bitrateMap.put(0x52, 40);
-        bitrateMap.put(0x62, 48);
-        bitrateMap.put(0x72, 56);
-        bitrateMap.put(0x82, 64);
-        bitrateMap.put(0x92, 80);
-        bitrateMap.put(0xA2, 96);
-        bitrateMap.put(0xB2, 112);
-        bitrateMap.put(0xC2, 128);
-        bitrateMap.put(0xD2, 144);
-        bitrateMap.put(0xE2, 160);
+        BITRATE_TABLE[0x12] = 8;
+        BITRATE_TABLE[0x22] = 16;
+        BITRATE_TABLE[0x32] = 24;
+        BITRATE_TABLE[0x42] = 32;
+        BITRATE_TABLE[0x52] = 40;
+        BITRATE_TABLE[0x62] = 48;
+        BITRATE_TABLE[0x72] = 56;
+        BITRATE_TABLE[0x82] = 64;
+        BITRATE_TABLE[0x92] = 80;
+        BITRATE_TABLE[0xA2] = 96;
+        BITRATE_TABLE[0xB2] = 112;
+        BITRATE_TABLE[0xC2] = 128;
+        BITRATE_TABLE[0xD2] = 144;
+        BITRATE_TABLE[0xE2] = 160;
     }
 
     /**
@@ -242,57 +241,44 @@ public class MPEGFrameHeader
         modeExtensionLayerIIIMap.put(MODE_EXTENSION_ON_ON, "on-on");
     }
 
+
     /**
-     * Sampling Rate in Hz
+     * Sampling Rate in Hz, indexed by {@link #getVersionIndex(int, int)} of the version and the sampling rate bits. Zero
+     * marks an invalid sampling rate.
      */
-    private static final Map<Integer, Map<Integer, Integer>> samplingRateMap = new HashMap<Integer, Map<Integer, Integer>>();
-    private static final Map<Integer, Integer> samplingV1Map = new HashMap<Integer, Integer>();
-    private static final Map<Integer, Integer> samplingV2Map = new HashMap<Integer, Integer>();
-    private static final Map<Integer, Integer> samplingV25Map = new HashMap<Integer, Integer>();
+    private static final int[] SAMPLING_RATE_TABLE = new int[16];
 
     static
     {
-        samplingV1Map.put(0, 44100);
-        samplingV1Map.put(1, 48000);
-        samplingV1Map.put(2, 32000);
+        SAMPLING_RATE_TABLE[getVersionIndex(VERSION_1, 0)] = 44100;
+        SAMPLING_RATE_TABLE[getVersionIndex(VERSION_1, 1)] = 48000;
+        SAMPLING_RATE_TABLE[getVersionIndex(VERSION_1, 2)] = 32000;
 
-        samplingV2Map.put(0, 22050);
-        samplingV2Map.put(1, 24000);
-        samplingV2Map.put(2, 16000);
+        SAMPLING_RATE_TABLE[getVersionIndex(VERSION_2, 0)] = 22050;
+        SAMPLING_RATE_TABLE[getVersionIndex(VERSION_2, 1)] = 24000;
+        SAMPLING_RATE_TABLE[getVersionIndex(VERSION_2, 2)] = 16000;
 
-        samplingV25Map.put(0, 11025);
-        samplingV25Map.put(1, 12000);
-        samplingV25Map.put(2, 8000);
-
-        samplingRateMap.put(VERSION_1, samplingV1Map);
-        samplingRateMap.put(VERSION_2, samplingV2Map);
-        samplingRateMap.put(VERSION_2_5, samplingV25Map);
+        SAMPLING_RATE_TABLE[getVersionIndex(VERSION_2_5, 0)] = 11025;
+        SAMPLING_RATE_TABLE[getVersionIndex(VERSION_2_5, 1)] = 12000;
+        SAMPLING_RATE_TABLE[getVersionIndex(VERSION_2_5, 2)] = 8000;
     }
 
-    /* Samples Per Frame */
-    private static final Map<Integer, Map<Integer, Integer>> samplesPerFrameMap = new HashMap<Integer, Map<Integer, Integer>>();
-    private static final Map<Integer, Integer> samplesPerFrameV1Map = new HashMap<Integer, Integer>();
-    private static final Map<Integer, Integer> samplesPerFrameV2Map = new HashMap<Integer, Integer>();
-    private static final Map<Integer, Integer> samplesPerFrameV25Map = new HashMap<Integer, Integer>();
+    /* Samples Per Frame, indexed by {@link #getVersionIndex(int, int)} of the version and the layer */
+    private static final int[] SAMPLES_PER_FRAME_TABLE = new int[16];
 
     static
     {
-        samplesPerFrameV1Map.put(LAYER_I, 384);
-        samplesPerFrameV1Map.put(LAYER_II, 1152);
-        samplesPerFrameV1Map.put(LAYER_III, 1152);
-
-        samplesPerFrameV2Map.put(LAYER_I, 384);
-        samplesPerFrameV2Map.put(LAYER_II, 1152);
-        samplesPerFrameV2Map.put(LAYER_III, 1152);
+        SAMPLES_PER_FRAME_TABLE[getVersionIndex(VERSION_1, LAYER_I)] = 384;
+        SAMPLES_PER_FRAME_TABLE[getVersionIndex(VERSION_1, LAYER_II)] = 1152;
+        SAMPLES_PER_FRAME_TABLE[getVersionIndex(VERSION_1, LAYER_III)] = 1152;
 
-        samplesPerFrameV25Map.put(LAYER_I, 384);
-        samplesPerFrameV25Map.put(LAYER_II, 1152);
-        samplesPerFrameV25Map.put(LAYER_III, 1152);
-
-        samplesPerFrameMap.put(VERSION_1, samplesPerFrameV1Map);
-        samplesPerFrameMap.put(VERSION_2, samplesPerFrameV2Map);
-        samplesPerFrameMap.put(VERSION_2_5, samplesPerFrameV25Map);
+        SAMPLES_PER_FRAME_TABLE[getVersionIndex(VERSION_2, LAYER_I)] = 384;
+        SAMPLES_PER_FRAME_TABLE[getVersionIndex(VERSION_2, LAYER_II)] = 1152;
+        SAMPLES_PER_FRAME_TABLE[getVersionIndex(VERSION_2, LAYER_III)] = 1152;
 
+        SAMPLES_PER_FRAME_TABLE[getVersionIndex(VERSION_2_5, LAYER_I)] = 384;
+        SAMPLES_PER_FRAME_TABLE[getVersionIndex(VERSION_2_5, LAYER_II)] = 1152;
+        SAMPLES_PER_FRAME_TABLE[getVersionIndex(VERSION_2_5, LAYER_III)] = 1152;
     }
 
 
@@ -302,72 +288,50 @@ public class MPEGFrameHeader
     private static final int LAYER_III_FRAME_SIZE_COEFFICIENT = 144;
 
     /**
-     * MP3 Frame Header bit mask
-     */
-    private static final int MASK_MP3_ID = FileConstants.BIT3;
-
-    /**
-     * MP3 version, confusingly for MP3s the version is 1.
-     */
-    private static final int MASK_MP3_VERSION = FileConstants.BIT4 | FileConstants.BIT3;
-
-    /**
-     * MP3 Layer, for MP3s the Layer is 3
-     */
-    private static final int MASK_MP3_LAYER = FileConstants.BIT2 | FileConstants.BIT1;
-
-    /**
-     * Does it include a CRC Checksum at end of header, this can be used to check the header.
-     */
-    private static final int MASK_MP3_PROTECTION = FileConstants.BIT0;
-
-    /**
-     * The setBitrate of this MP3
+     * The 11 sync bits at the start of the 32 bit frame header
      */
-    private static final int MASK_MP3_BITRATE = FileConstants.BIT7 | FileConstants.BIT6 | FileConstants.BIT5 | FileConstants.BIT4;
+    private static final int MASK_MP3_SYNC = 0xFFE00000;
 
     /**
-     * The sampling/frequency rate
+     * Shifts of the fields within the 32 bit frame header, AAAAAAAA AAABBCCD EEEEFFGH IIJJKLMM
      */
-    private static final int MASK_MP3_FREQUENCY = FileConstants.BIT3 + FileConstants.BIT2;
+    private static final int SHIFT_MP3_VERSION = 19;
+    private static final int SHIFT_MP3_LAYER = 17;
+    private static final int SHIFT_MP3_PROTECTION = 16;
+    private static final int SHIFT_MP3_BITRATE = 12;
+    private static final int SHIFT_MP3_FREQUENCY = 10;
+    private static final int SHIFT_MP3_PADDING = 9;
+    private static final int SHIFT_MP3_PRIVACY = 8;
+    private static final int SHIFT_MP3_MODE = 6;
+    private static final int SHIFT_MP3_MODE_EXTENSION = 4;
+    private static final int SHIFT_MP3_COPY = 3;
+    private static final int SHIFT_MP3_HOME = 2;
 
     /**
-     * An extra padding bit is sometimes used to make sure frames are exactly the right length
+     * The version, layer and sampling rate bits, which do not change within a stream
      */
-    private static final int MASK_MP3_PADDING = FileConstants.BIT1;
+    private static final int MASK_MP3_STREAM = 0x001E0C00;
 
     /**
-     * Private bit set, for application specific
+     * Two bit fields once shifted
      */
-    private static final int MASK_MP3_PRIVACY = FileConstants.BIT0;
+    private static final int MASK_TWO_BITS = 0x03;
 
     /**
-     * Channel Mode, Stero/Mono/Dual Channel
+     * Four bit bitrate field once shifted
      */
-    private static final int MASK_MP3_MODE = FileConstants.BIT7 | FileConstants.BIT6;
+    private static final int MASK_FOUR_BITS = 0x0F;
 
     /**
-     * MP3 Frame Header bit mask
+     * The low version bit, set only for version 1, chooses the bitrate
      */
-    private static final int MASK_MP3_MODE_EXTENSION = FileConstants.BIT5 | FileConstants.BIT4;
+    private static final int MASK_MP3_ID = FileConstants.BIT0;
 
-    /**
-     * MP3 Frame Header bit mask
-     */
-    private static final int MASK_MP3_COPY = FileConstants.BIT3;
 
     /**
-     * MP3 Frame Header bit mask
+     * The four header bytes as a big endian int
      */
-    private static final int MASK_MP3_HOME = FileConstants.BIT2;
-
-    /**
-     * MP3 Frame Header bit mask
-     */
-    private static final int MASK_MP3_EMPHASIS = FileConstants.BIT1 | FileConstants.BIT0;
-
-
-    private byte[] mpegBytes;
+    private int mpegHeader;
 
     /**
      * The version of this MPEG frame (see the constants)
@@ -385,7 +349,7 @@ public class MPEGFrameHeader
     /**
      * Bitrate of this frame
      */
-    private Integer bitRate;
+    private int bitRate;
 
     /**
      * Channel Mode of this Frame (see constants)
@@ -438,185 +402,164 @@ public class MPEGFrameHeader
      */
     private boolean isPrivate;
 
-    private Integer samplingRate;
-
+    private int samplingRate;
 
     /**
-     * Gets the layerVersion attribute of the MPEGFrame object
-     *
-     * @return The layerVersion value
+     * @param version
+     * @param field layer or sampling rate bits
+     * @return index into the tables that vary by version
      */
-    public int getLayer()
+    private static int getVersionIndex(int version, int field)
     {
-        return layer;
-    }
-
-    public String getLayerAsString()
-    {
-        return layerAsString;
+        return version << 2 | field;
     }
 
     /**
-     * Gets the copyrighted attribute of the MPEGFrame object
+     * @param header
+     * @return index into the bitrate table, made from the bitrate bits, the low bit of the version and the layer bits
      */
-    private void setCopyrighted()
+    private static int getBitrateIndex(int header)
     {
-        isCopyrighted = (mpegBytes[BYTE_4] & MASK_MP3_COPY) != 0;
+        int version = (header >>> SHIFT_MP3_VERSION) & MASK_TWO_BITS;
+        int layer = (header >>> SHIFT_MP3_LAYER) & MASK_TWO_BITS;
+        int bitrate = (header >>> SHIFT_MP3_BITRATE) & MASK_FOUR_BITS;
+        return bitrate << 4 | (version & MASK_MP3_ID) << 3 | layer << 1;
     }
 
-
     /**
-     * Set the version of this frame as an int value (see constants)
-     * @throws org.jaudiotagger.audio.exceptions.InvalidAudioFrameException
+     * @param header
+     * @return the reason the fields of the header are invalid, or null if they are valid
      */
-    private void setVersion() throws InvalidAudioFrameException
+    private static String checkFields(int header)
     {
-        //MPEG Version
-        version = (byte) ((mpegBytes[BYTE_2] & MASK_MP3_VERSION) >> 3);
-        versionAsString = mpegVersionMap.get(version);
-        if (versionAsString == null)
+        if (BITRATE_TABLE[getBitrateIndex(header)] == 0)
         {
-            throw new InvalidAudioFrameException("Invalid mpeg version");
+            return "Invalid bitrate";
         }
+        int version = (header >>> SHIFT_MP3_VERSION) & MASK_TWO_BITS;
+        if (version == 1)
+        {
+            return "Invalid mpeg version";
+        }
+        if (((header >>> SHIFT_MP3_LAYER) & MASK_TWO_BITS) == 0)
+        {
+            return "Invalid Layer";
+        }
+        if (SAMPLING_RATE_TABLE[getVersionIndex(version, (header >>> SHIFT_MP3_FREQUENCY) & MASK_TWO_BITS)] == 0)
+        {
+            return "Invalid sampling rate";
+        }
+        return null;
     }
 
     /**
-     * Sets the original attribute of the MPEGFrame object
+     * Check whether four bytes are a valid frame header, without creating any objects, so can be called at every
+     * position when searching for the first frame.
+     *
+     * @param header the four header bytes as a big endian int
+     * @return true if the sync bits are set and the version, layer, bitrate and sampling rate are all valid
      */
-    private void setOriginal()
+    public static boolean isValidHeader(int header)
     {
-        isOriginal = (mpegBytes[BYTE_4] & MASK_MP3_HOME) != 0;
+        int version = (header >>> SHIFT_MP3_VERSION) & MASK_TWO_BITS;
+        return (header & MASK_MP3_SYNC) == MASK_MP3_SYNC
+                && version != 1
+                && ((header >>> SHIFT_MP3_LAYER) & MASK_TWO_BITS) != 0
+                && BITRATE_TABLE[getBitrateIndex(header)] != 0
+                && SAMPLING_RATE_TABLE[getVersionIndex(version, (header >>> SHIFT_MP3_FREQUENCY) & MASK_TWO_BITS)] != 0;
     }
 
     /**
-     * Sets the protected attribute of the MPEGFrame object
+     * @param bb
+     * @param position
+     * @return the four bytes at position as a big endian int, regardless of the byte order of the buffer
      */
-    private void setProtected()
+    private static int getHeader(ByteBuffer bb, int position)
     {
-        isProtected = (mpegBytes[BYTE_2] & MASK_MP3_PROTECTION) == 0x00;
+        return (bb.get(position) & 0xFF) << 24
+                | (bb.get(position + 1) & 0xFF) << 16
+                | (bb.get(position + 2) & 0xFF) << 8
+                | (bb.get(position + 3) & 0xFF);
     }
 
     /**
-     * Sets the private attribute of the MPEGFrame object
+     * @param header
+     * @param other
+     * @return true if both headers have the same version, layer and sampling rate, as all frames of a stream should
      */
-    private void setPrivate()
+    static boolean isSameStream(int header, int other)
     {
-        isPrivate = (mpegBytes[BYTE_3] & MASK_MP3_PRIVACY) != 0;
+        return ((header ^ other) & MASK_MP3_STREAM) == 0;
     }
 
     /**
-     * Get the setBitrate of this frame
-     * @throws org.jaudiotagger.audio.exceptions.InvalidAudioFrameException
+     * @param header a valid header
+     * @return bitrate in kbps
      */
-    private void setBitrate() throws InvalidAudioFrameException
+    static int getBitRate(int header)
     {
-        /* BitRate, get by checking header setBitrate bits and MPEG Version and Layer */
-        int bitRateIndex = mpegBytes[BYTE_3] & MASK_MP3_BITRATE | mpegBytes[BYTE_2] & MASK_MP3_ID | mpegBytes[BYTE_2] & MASK_MP3_LAYER;
-
-        bitRate = bitrateMap.get(bitRateIndex);
-        if (bitRate == null)
-        {
-            throw new InvalidAudioFrameException("Invalid bitrate");
-        }
+        return BITRATE_TABLE[getBitrateIndex(header)];
     }
 
-
     /**
-     * Set the Mpeg channel mode of this frame as a constant (see constants)
-     * @throws org.jaudiotagger.audio.exceptions.InvalidAudioFrameException
+     * @param header a valid header
+     * @return sampling rate in Hz
      */
-    private void setChannelMode() throws InvalidAudioFrameException
+    static int getSamplingRate(int header)
     {
-        channelMode = (mpegBytes[BYTE_4] & MASK_MP3_MODE) >>> 6;
-        channelModeAsString = modeMap.get(channelMode);
-        if (channelModeAsString == null)
-        {
-            throw new InvalidAudioFrameException("Invalid channel mode");
-        }
+        int version = (header >>> SHIFT_MP3_VERSION) & MASK_TWO_BITS;
+        return SAMPLING_RATE_TABLE[getVersionIndex(version, (header >>> SHIFT_MP3_FREQUENCY) & MASK_TWO_BITS)];
     }
 
     /**
-     * Get the setEmphasis mode of this frame in a string representation
-     * @throws org.jaudiotagger.audio.exceptions.InvalidAudioFrameException
+     * The number of samples in a frame as defined by the specification, MPEG-2 and 2.5 Layer III frames only hold
+     * 576 samples.
+     *
+     * @param header a valid header
+     * @return samples per channel in the frame
      */
-    private void setEmphasis() throws InvalidAudioFrameException
+    static int getSamplesPerFrame(int header)
     {
-        emphasis = mpegBytes[BYTE_4] & MASK_MP3_EMPHASIS;
-        emphasisAsString = emphasisMap.get(emphasis);
-        if (getEmphasisAsString() == null)
+        int version = (header >>> SHIFT_MP3_VERSION) & MASK_TWO_BITS;
+        int layer = (header >>> SHIFT_MP3_LAYER) & MASK_TWO_BITS;
+        if (layer == LAYER_III && version != VERSION_1)
         {
-            throw new InvalidAudioFrameException("Invalid emphasis");
+            return SAMPLES_PER_FRAME_TABLE[getVersionIndex(version, layer)] / 2;
         }
+        return SAMPLES_PER_FRAME_TABLE[getVersionIndex(version, layer)];
     }
 
-
     /**
-     * Set whether this frame uses padding bytes
-     */
-    private void setPadding()
-    {
-        isPadding = (mpegBytes[BYTE_3] & MASK_MP3_PADDING) != 0;
-    }
-
-
-    /**
-     * Get the layer version of this frame as a constant int value (see constants)
-     * @throws org.jaudiotagger.audio.exceptions.InvalidAudioFrameException
+     * The length of a frame as defined by the specification, so the next frame starts this many bytes on. Unlike
+     * {@link #getFrameLength()} this does not depend on the channel mode.
+     *
+     * @param header a valid header
+     * @return length of the frame in bytes, including the header
      */
-    private void setLayer() throws InvalidAudioFrameException
+    static int getFrameLength(int header)
     {
-        layer = (mpegBytes[BYTE_2] & MASK_MP3_LAYER) >>> 1;
-        layerAsString = mpegLayerMap.get(layer);
-        if (layerAsString == null)
+        int padding = (header >>> SHIFT_MP3_PADDING) & 1;
+        int scaledBitRate = getBitRate(header) * SCALE_BY_THOUSAND;
+        if (((header >>> SHIFT_MP3_LAYER) & MASK_TWO_BITS) == LAYER_I)
         {
-            throw new InvalidAudioFrameException("Invalid Layer");
+            return (LAYER_I_FRAME_SIZE_COEFFICIENT * scaledBitRate / getSamplingRate(header) + padding) * LAYER_I_SLOT_SIZE;
         }
+        return getSamplesPerFrame(header) / 8 * scaledBitRate / getSamplingRate(header) + padding;
     }
 
-
     /**
-     * Sets the string representation of the mode extension of this frame
-     * @throws org.jaudiotagger.audio.exceptions.InvalidAudioFrameException
+     * Gets the layerVersion attribute of the MPEGFrame object
+     *
+     * @return The layerVersion value
      */
-    private void setModeExtension() throws InvalidAudioFrameException
+    public int getLayer()
     {
-        int index = (mpegBytes[BYTE_4] & MASK_MP3_MODE_EXTENSION) >> 4;
-        if (layer == LAYER_III)
-        {
-            modeExtension = modeExtensionLayerIIIMap.get(index);
-            if (getModeExtension() == null)
-            {
-                throw new InvalidAudioFrameException("Invalid Mode Extension");
-            }
-        }
-        else
-        {
-            modeExtension = modeExtensionMap.get(index);
-            if (getModeExtension() == null)
-            {
-                throw new InvalidAudioFrameException("Invalid Mode Extension");
-            }
-        }
+        return layer;
     }
 
-    /**
-     * set the sampling rate in Hz of this frame
-     * @throws org.jaudiotagger.audio.exceptions.InvalidAudioFrameException
-     */
-    private void setSamplingRate() throws InvalidAudioFrameException
+    public String getLayerAsString()
     {
-        //Frequency
-        int index = (mpegBytes[BYTE_3] & MASK_MP3_FREQUENCY) >>> 2;
-        Map<Integer, Integer> samplingRateMapForVersion = samplingRateMap.get(version);
-        if (samplingRateMapForVersion == null)
-        {
-            throw new InvalidAudioFrameException("Invalid version");
-        }
-        samplingRate = samplingRateMapForVersion.get(index);
-        if (samplingRate == null)
-        {
-            throw new InvalidAudioFrameException("Invalid sampling rate");
-        }
+        return layerAsString;
     }
 
     /**
@@ -710,19 +653,19 @@ public class MPEGFrameHeader
                 switch (layer)
                 {
                     case LAYER_I:
-                        return (LAYER_I_FRAME_SIZE_COEFFICIENT * (getBitRate() * SCALE_BY_THOUSAND) / getSamplingRate() + getPaddingLength()) * LAYER_I_SLOT_SIZE;
+                        return (LAYER_I_FRAME_SIZE_COEFFICIENT * (bitRate * SCALE_BY_THOUSAND) / samplingRate + getPaddingLength()) * LAYER_I_SLOT_SIZE;
 
                     case LAYER_II:
-                        return (LAYER_II_FRAME_SIZE_COEFFICIENT ) * (getBitRate() * SCALE_BY_THOUSAND) / getSamplingRate() + getPaddingLength() * LAYER_II_SLOT_SIZE;
+                        return (LAYER_II_FRAME_SIZE_COEFFICIENT ) * (bitRate * SCALE_BY_THOUSAND) / samplingRate + getPaddingLength() * LAYER_II_SLOT_SIZE;
 
                     case LAYER_III:
                         if (this.getChannelMode() == MODE_MONO)
                         {
-                            return (LAYER_III_FRAME_SIZE_COEFFICIENT / 2 ) * (getBitRate() * SCALE_BY_THOUSAND) / getSamplingRate() + getPaddingLength() * LAYER_III_SLOT_SIZE;
+                            return (LAYER_III_FRAME_SIZE_COEFFICIENT / 2 ) * (bitRate * SCALE_BY_THOUSAND) / samplingRate + getPaddingLength() * LAYER_III_SLOT_SIZE;
                         }
                         else
                         {
-                            return (LAYER_III_FRAME_SIZE_COEFFICIENT) * (getBitRate() * SCALE_BY_THOUSAND) / getSamplingRate() + getPaddingLength() * LAYER_III_SLOT_SIZE;
+                            return (LAYER_III_FRAME_SIZE_COEFFICIENT) * (bitRate * SCALE_BY_THOUSAND) / samplingRate + getPaddingLength() * LAYER_III_SLOT_SIZE;
                         }
 
 
@@ -736,13 +679,13 @@ public class MPEGFrameHeader
                 switch (layer)
                 {
                     case LAYER_I:
-                        return (LAYER_I_FRAME_SIZE_COEFFICIENT * (getBitRate() * SCALE_BY_THOUSAND) / getSamplingRate() + getPaddingLength()) * LAYER_I_SLOT_SIZE;
+                        return (LAYER_I_FRAME_SIZE_COEFFICIENT * (bitRate * SCALE_BY_THOUSAND) / samplingRate + getPaddingLength()) * LAYER_I_SLOT_SIZE;
 
                     case LAYER_II:
-                        return LAYER_II_FRAME_SIZE_COEFFICIENT * (getBitRate() * SCALE_BY_THOUSAND) / getSamplingRate() + getPaddingLength() * LAYER_II_SLOT_SIZE;
+                        return LAYER_II_FRAME_SIZE_COEFFICIENT * (bitRate * SCALE_BY_THOUSAND) / samplingRate + getPaddingLength() * LAYER_II_SLOT_SIZE;
 
                     case LAYER_III:
-                        return LAYER_III_FRAME_SIZE_COEFFICIENT * (getBitRate() * SCALE_BY_THOUSAND) / getSamplingRate() + getPaddingLength() * LAYER_III_SLOT_SIZE;
+                        return LAYER_III_FRAME_SIZE_COEFFICIENT * (bitRate * SCALE_BY_THOUSAND) / samplingRate + getPaddingLength() * LAYER_III_SLOT_SIZE;
 
                     default:
                         throw new RuntimeException("Mp3 Unknown Layer:" + layer);
@@ -762,8 +705,7 @@ public class MPEGFrameHeader
      */
     public int getNoOfSamples()
     {
-        Integer noOfSamples = samplesPerFrameMap.get(version).get(layer);
-        return noOfSamples;
+        return SAMPLES_PER_FRAME_TABLE[getVersionIndex(version, layer)];
     }
 
 
@@ -823,27 +765,46 @@ public class MPEGFrameHeader
     }
 
     /**
-     * Try and create a new MPEG frame with the given byte array and decodes its contents
+     * Try and create a new MPEG frame with the given header and decodes its contents
      * If decoding header causes a problem it is not a valid header
      *
-     * @param b the array of bytes representing this mpeg frame
+     * @param header the four bytes of this mpeg frame header as a big endian int
      * @throws InvalidAudioFrameException if does not match expected format
      */
-    private MPEGFrameHeader(byte[] b) throws InvalidAudioFrameException
+    private MPEGFrameHeader(int header) throws InvalidAudioFrameException
     {
-        mpegBytes = b;
-        setBitrate();
-        setVersion();
-        setLayer();
-        setProtected();
-        setSamplingRate();
-        setPadding();
-        setPrivate();
-        setChannelMode();
-        setModeExtension();
-        setCopyrighted();
-        setOriginal();
-        setEmphasis();
+        String invalidReason = checkFields(header);
+        if (invalidReason != null)
+        {
+            throw new InvalidAudioFrameException(invalidReason);
+        }
+
+        mpegHeader = header;
+        version = (header >>> SHIFT_MP3_VERSION) & MASK_TWO_BITS;
+        versionAsString = mpegVersionMap.get(version);
+        layer = (header >>> SHIFT_MP3_LAYER) & MASK_TWO_BITS;
+        layerAsString = mpegLayerMap.get(layer);
+        bitRate = BITRATE_TABLE[getBitrateIndex(header)];
+        samplingRate = SAMPLING_RATE_TABLE[getVersionIndex(version, (header >>> SHIFT_MP3_FREQUENCY) & MASK_TWO_BITS)];
+        isProtected = ((header >>> SHIFT_MP3_PROTECTION) & 1) == 0;
+        isPadding = ((header >>> SHIFT_MP3_PADDING) & 1) != 0;
+        isPrivate = ((header >>> SHIFT_MP3_PRIVACY) & 1) != 0;
+        channelMode = (header >>> SHIFT_MP3_MODE) & MASK_TWO_BITS;
+        channelModeAsString = modeMap.get(channelMode);
+
+        int modeExtensionIndex = (header >>> SHIFT_MP3_MODE_EXTENSION) & MASK_TWO_BITS;
+        if (layer == LAYER_III)
+        {
+            modeExtension = modeExtensionLayerIIIMap.get(modeExtensionIndex);
+        }
+        else
+        {
+            modeExtension = modeExtensionMap.get(modeExtensionIndex);
+        }
+        isCopyrighted = ((header >>> SHIFT_MP3_COPY) & 1) != 0;
+        isOriginal = ((header >>> SHIFT_MP3_HOME) & 1) != 0;
+        emphasis = header & MASK_TWO_BITS;
+        emphasisAsString = emphasisMap.get(emphasis);
     }
 
     /**
@@ -855,12 +816,11 @@ public class MPEGFrameHeader
      */
     public static MPEGFrameHeader parseMPEGHeader(ByteBuffer bb) throws InvalidAudioFrameException
     {
-        int position = bb.position();
-        bb.get(header, 0, HEADER_SIZE);
-        bb.position(position);
-        MPEGFrameHeader frameHeader = new MPEGFrameHeader(header);
-
-        return frameHeader;
+        if (bb.remaining() < HEADER_SIZE)
+        {
+            throw new InvalidAudioFrameException("Not enough bytes for a header");
+        }
+        return new MPEGFrameHeader(getHeader(bb, bb.position()));
     }
 
     /**
@@ -877,12 +837,25 @@ public class MPEGFrameHeader
                 && ((bb.get(position + 2) & SYNC_BIT_ANDSAMPING_BYTE3) != SYNC_BIT_ANDSAMPING_BYTE3));
     }
 
+    /**
+     * Check for a valid frame header at the current position of the buffer, {@link #parseMPEGHeader(ByteBuffer)} will
+     * not fail if this returns true. Unlike parsing this creates no objects, so should be used when searching for a
+     * header.
+     *
+     * @param bb
+     * @return true if there is a valid frame header at the current position
+     */
+    public static boolean isValidMPEGFrame(ByteBuffer bb)
+    {
+        int position = bb.position();
+        return bb.limit() - position >= HEADER_SIZE && isValidHeader(getHeader(bb, position));
+    }
+
     /**
      * @return a string represntation
      */
     public String toString()
     {
-        return " mpeg frameheader:" + " frame length:" + getFrameLength() + " version:" + versionAsString + " layer:" + layerAsString + " channelMode:" + channelModeAsString + " noOfSamples:" + getNoOfSamples() + " samplingRate:" + samplingRate + " isPadding:" + isPadding + " isProtected:" + isProtected + " isPrivate:" + isPrivate + " isCopyrighted:" + isCopyrighted + " isOriginal:" + isCopyrighted + " isVariableBitRate" + this.isVariableBitRate() + " header as binary:" + AbstractTagDisplayFormatter.displayAsBinary(mpegBytes[BYTE_1]) + " " + AbstractTagDisplayFormatter.displayAsBinary(mpegBytes[BYTE_2]) + " " + AbstractTagDisplayFormatter.displayAsBinary(mpegBytes[BYTE_3]) + " " + AbstractTagDisplayFormatter.displayAsBinary(mpegBytes[BYTE_4]);
+        return " mpeg frameheader:" + " frame length:" + getFrameLength() + " version:" + versionAsString + " layer:" + layerAsString + " channelMode:" + channelModeAsString + " noOfSamples:" + getNoOfSamples() + " samplingRate:" + samplingRate + " isPadding:" + isPadding + " isProtected:" + isProtected + " isPrivate:" + isPrivate + " isCopyrighted:" + isCopyrighted + " isOriginal:" + isCopyrighted + " isVariableBitRate" + this.isVariableBitRate() + " header as binary:" + AbstractTagDisplayFormatter.displayAsBinary((byte) (mpegHeader >>> 24)) + " " + AbstractTagDisplayFormatter.displayAsBinary((byte) (mpegHeader >>> 16)) + " " + AbstractTagDisplayFormatter.displayAsBinary((byte) (mpegHeader >>> 8)) + " " + AbstractTagDisplayFormatter.displayAsBinary((byte) mpegHeader);
     }
 }
-
@@ -26,9 +26,9 @@ import java.util.logging.Logger;
  * it would be impossible to create a complete tree for any file without understanding all the nodes because
  * some atoms such as meta contain data and children and therefore need to be specially preprocessed)
  *
- * This class is currently only used when writing tags because it better handles the difficulties of mdat and free
- * atoms being optional/multiple places then the older sequential method. It is expected this class will eventually
- * be used when reading tags as well.
+ * This class better handles the difficulties of mdat and free atoms being optional/multiple places then the older
+ * sequential method. When reading, the tree is built once and its moov buffer is shared by {@link Mp4InfoReader} and
+ * {@link Mp4TagReader} so the moov atom is only read from file once.
  *
  * Uses a TreeModel for the tree, with convenience methods holding onto references to most common nodes so they
  * can be used without having to traverse the tree again.
@@ -37,6 +37,7 @@ public class Mp4AtomTree
 {
     private DefaultMutableTreeNode rootNode;
     private DefaultTreeModel dataTree;
+    private DefaultMutableTreeNode ftypNode;
     private DefaultMutableTreeNode moovNode;
     private DefaultMutableTreeNode mdatNode;
     private DefaultMutableTreeNode stcoNode;
@@ -51,6 +52,7 @@ public class Mp4AtomTree
     private List<DefaultMutableTreeNode> trakNodes = new ArrayList<DefaultMutableTreeNode>();
 
     private Mp4StcoBox stco;
+    private List<Mp4StcoBox> chunkOffsetBoxes = new ArrayList<Mp4StcoBox>();
     private ByteBuffer moovBuffer; //Contains all the data under moov
     private Mp4BoxHeader moovHeader;
 
@@ -172,6 +174,13 @@ public class Mp4AtomTree
                     //Might be multiple in different locations
                     freeNodes.add(newAtom);
                 }
+                else if (boxHeader.getId().equals(Mp4AtomIdentifier.FTYP.getFieldName()))
+                {
+                    if (ftypNode == null)
+                    {
+                        ftypNode = newAtom;
+                    }
+                }
                 else if (boxHeader.getId().equals(Mp4AtomIdentifier.MDAT.getFieldName()))
                 {
                     //mdatNode always points to the last mDatNode, normally there is just one mdatnode but do have
@@ -311,11 +320,15 @@ public class Mp4AtomTree
                 {
                     tagsNode = newAtom;
                 }
-                else if (boxHeader.getId().equals(Mp4AtomIdentifier.STCO.getFieldName()))
+                else if (boxHeader.getId().equals(Mp4AtomIdentifier.STCO.getFieldName())
+                        || boxHeader.getId().equals(Mp4AtomIdentifier.CO64.getFieldName()))
                 {
+                    //Every track has its own, all must be adjusted if the audio is moved
+                    Mp4StcoBox chunkOffsetBox = new Mp4StcoBox(boxHeader, moovBuffer);
+                    chunkOffsetBoxes.add(chunkOffsetBox);
                     if (stco == null)
                     {
-                        stco = new Mp4StcoBox(boxHeader, moovBuffer);
+                        stco = chunkOffsetBox;
                         stcoNode = newAtom;
                     }
                 }
@@ -375,6 +388,15 @@ public class Mp4AtomTree
     }
 
 
+    /**
+     *
+     * @return
+     */
+    public DefaultMutableTreeNode getFtypNode()
+    {
+        return ftypNode;
+    }
+
     /**
      *
      * @return
@@ -497,6 +519,14 @@ public class Mp4AtomTree
         return stco;
     }
 
+    /**
+     * @return the stco and co64 boxes of every track
+     */
+    public List<Mp4StcoBox> getChunkOffsetBoxes()
+    {
+        return chunkOffsetBoxes;
+    }
+
     /**
      *
      * @return
@@ -18,13 +18,22 @@
  */
 package org.jaudiotagger.audio.mp4;
 
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.ReadOptions;
 import org.jaudiotagger.audio.exceptions.CannotReadException;
+import org.jaudiotagger.audio.generic.AudioDataRanges;
 import org.jaudiotagger.audio.generic.AudioFileReader;
+import org.jaudiotagger.audio.mp4.atom.Mp4BoxHeader;
+import org.jaudiotagger.logging.ErrorMessage;
 import org.jaudiotagger.audio.generic.GenericAudioHeader;
 import org.jaudiotagger.tag.Tag;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 
 /**
  * Mp4 File Reader
@@ -33,6 +42,9 @@ import java.io.RandomAccessFile;
  */
 public class Mp4FileReader extends AudioFileReader
 {
+    //Size of the 64 bit length that follows the header when the 32 bit length is 1
+    private static final int LARGE_SIZE_LENGTH = 8;
+
     private Mp4InfoReader ir = new Mp4InfoReader();
     private Mp4TagReader tr = new Mp4TagReader();
 
@@ -45,4 +57,72 @@ public class Mp4FileReader extends AudioFileReader
     {
         return tr.read(raf);
     }
+
+    /**
+     * Build the atom tree once, reading the moov atom a single time, and use it for encoding info and/or tag
+     */
+    @Override
+    protected AudioFile readAudioFile(File f, RandomAccessFile raf, ReadOptions options) throws CannotReadException, IOException
+    {
+        Mp4AtomTree atomTree = new Mp4AtomTree(raf, false);
+        GenericAudioHeader info = options.isReadHeader() ? ir.read(atomTree, raf) : null;
+        Tag tag = options.isReadTag() ? tr.read(atomTree) : null;
+        return new AudioFile(f, info, tag);
+    }
+
+    /**
+     * The audio data is the data of every top level mdat atom, walks the top level atoms without reading moov
+     */
+    @Override
+    public AudioDataRanges getAudioDataRanges(File f) throws CannotReadException, IOException
+    {
+        AudioDataRanges ranges = new AudioDataRanges();
+        try (FileChannel fc = new RandomAccessFile(f, "r").getChannel())
+        {
+            ByteBuffer headerBuffer = ByteBuffer.allocate(Mp4BoxHeader.HEADER_LENGTH + LARGE_SIZE_LENGTH);
+            long position = 0;
+            long fileSize = fc.size();
+            while (position + Mp4BoxHeader.HEADER_LENGTH <= fileSize)
+            {
+                headerBuffer.clear();
+                fc.read(headerBuffer, position);
+                headerBuffer.flip();
+                if (headerBuffer.remaining() < Mp4BoxHeader.HEADER_LENGTH)
+                {
+                    break;
+                }
+
+                long length = headerBuffer.getInt() & 0xFFFFFFFFL;
+                String id = new String(headerBuffer.array(), Mp4BoxHeader.IDENTIFIER_POS, Mp4BoxHeader.IDENTIFIER_LENGTH, StandardCharsets.ISO_8859_1);
+                headerBuffer.position(Mp4BoxHeader.HEADER_LENGTH);
+                int headerLength = Mp4BoxHeader.HEADER_LENGTH;
+                if (length == 1 && headerBuffer.remaining() >= LARGE_SIZE_LENGTH)
+                {
+                    length = headerBuffer.getLong();
+                    headerLength += LARGE_SIZE_LENGTH;
+                }
+                else if (length == 0)
+                {
+                    //Atom extends to the end of the file
+                    length = fileSize - position;
+                }
+
+                if (length < headerLength || position + length > fileSize)
+                {
+                    throw new CannotReadException(ErrorMessage.MP4_UNABLE_TO_FIND_NEXT_ATOM_BECAUSE_LENGTH_IS_INVALID.getMsg(id, length));
+                }
+                if (Mp4AtomIdentifier.MDAT.getFieldName().equals(id))
+                {
+                    ranges.add(position + headerLength, length - headerLength);
+                }
+                position += length;
+            }
+        }
+
+        if (ranges.getCount() == 0)
+        {
+            throw new CannotReadException(ErrorMessage.NO_AUDIO_DATA_FOUND.getMsg(f));
+        }
+        return ranges;
+    }
 }
@@ -21,7 +21,9 @@ package org.jaudiotagger.audio.mp4;
 import org.jaudiotagger.audio.AudioFile;
 import org.jaudiotagger.audio.exceptions.CannotWriteException;
 import org.jaudiotagger.audio.generic.AudioFileWriter;
+import org.jaudiotagger.audio.generic.InPlaceWriteListener;
 import org.jaudiotagger.tag.Tag;
+import org.jaudiotagger.tag.TagOptionSingleton;
 
 import java.io.IOException;
 import java.io.RandomAccessFile;
@@ -37,6 +39,30 @@ public class Mp4FileWriter extends AudioFileWriter
     private Mp4TagWriter tw = new Mp4TagWriter();
 
 
+    protected boolean isTagUnchanged(AudioFile audioFile) throws CannotWriteException
+    {
+        try (RandomAccessFile raf = new RandomAccessFile(audioFile.getFile(), "r"))
+        {
+            return tw.isTagUnchanged(audioFile.getTag(), raf);
+        }
+        catch (IOException ioe)
+        {
+            throw new CannotWriteException(audioFile.getFile() + ":" + ioe.getMessage());
+        }
+    }
+
+    protected boolean writeTagInPlace(AudioFile audioFile, Tag tag, InPlaceWriteListener listener) throws CannotWriteException, IOException
+    {
+        if (!TagOptionSingleton.getInstance().isMp4WriteInPlace())
+        {
+            return false;
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(audioFile.getFile(), "rw"))
+        {
+            return tw.writeInPlace(tag, raf, listener);
+        }
+    }
+
     protected void writeTag(AudioFile audioFile, Tag tag, RandomAccessFile raf, RandomAccessFile rafTemp) throws CannotWriteException, IOException
     {
         tw.write(tag, raf, rafTemp);
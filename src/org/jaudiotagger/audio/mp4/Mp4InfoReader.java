@@ -87,33 +87,47 @@ public class Mp4InfoReader
     }
 
     public GenericAudioHeader read(RandomAccessFile raf) throws CannotReadException, IOException
+    {
+        return read(new Mp4AtomTree(raf, false), raf);
+    }
+
+    /**
+     * Read audio info using the atom tree, the moov atom has already been read into memory by the tree so
+     * only the ftyp atom is read from file
+     *
+     * @param atomTree
+     * @param raf
+     * @return
+     * @throws CannotReadException
+     * @throws IOException
+     */
+    public GenericAudioHeader read(Mp4AtomTree atomTree, RandomAccessFile raf) throws CannotReadException, IOException
     {
         FileChannel fc = raf.getChannel();
         Mp4AudioHeader info = new Mp4AudioHeader();
 
         //File Identification
-        Mp4BoxHeader ftypHeader = Mp4BoxHeader.seekWithinLevel(fc, Mp4AtomIdentifier.FTYP.getFieldName());
+        Mp4BoxHeader ftypHeader = atomTree.getBoxHeader(atomTree.getFtypNode());
         if (ftypHeader == null)
         {
             throw new CannotReadException(ErrorMessage.MP4_FILE_NOT_CONTAINER.getMsg());
         }
-        ByteBuffer ftypBuffer = ByteBuffer.allocate(ftypHeader.getLength() - Mp4BoxHeader.HEADER_LENGTH);
-        fc.read(ftypBuffer);
+        ByteBuffer ftypBuffer = ByteBuffer.allocate(ftypHeader.getDataLength());
+        fc.read(ftypBuffer, ftypHeader.getFilePos() + Mp4BoxHeader.HEADER_LENGTH);
         ftypBuffer.rewind();
         Mp4FtypBox ftyp = new Mp4FtypBox(ftypHeader, ftypBuffer);
         ftyp.processData();
         info.setBrand(ftyp.getMajorBrand());
 
-        //Get to the facts everything we are interested in is within the moov box, so just load data from file
-        //once so no more file I/O needed
-        Mp4BoxHeader moovHeader = Mp4BoxHeader.seekWithinLevel(fc, Mp4AtomIdentifier.MOOV.getFieldName());
+        //Get to the facts everything we are interested in is within the moov box, this has already been loaded
+        //by the atom tree, use our own view of it so we dont disturb anyone else using it
+        Mp4BoxHeader moovHeader = atomTree.getMoovHeader();
         if (moovHeader == null)
         {
             throw new CannotReadException(ErrorMessage.MP4_FILE_NOT_AUDIO.getMsg());
         }
-        ByteBuffer moovBuffer = ByteBuffer.allocate(moovHeader.getLength() - Mp4BoxHeader.HEADER_LENGTH);
+        ByteBuffer moovBuffer = atomTree.getMoovBuffer().duplicate();
         moovBuffer.order(ByteOrder.LITTLE_ENDIAN);
-        fc.read(moovBuffer);
         moovBuffer.rewind();
 
         //Level 2-Searching for "mvhd" somewhere within "moov", we make a slice after finding header
@@ -294,10 +308,15 @@ public class Mp4InfoReader
         //Level 6-Searching for "stco within "stbl" to get size of audio data
         mvhdBuffer.position(positionBeforeStsdSearch);
         boxHeader = Mp4BoxHeader.seekWithinLevel(mvhdBuffer, Mp4AtomIdentifier.STCO.getFieldName());
+        if (boxHeader == null)
+        {
+            mvhdBuffer.position(positionBeforeStsdSearch);
+            boxHeader = Mp4BoxHeader.seekWithinLevel(mvhdBuffer, Mp4AtomIdentifier.CO64.getFieldName());
+        }
         if (boxHeader != null)
         {
             Mp4StcoBox stco = new Mp4StcoBox(boxHeader, mvhdBuffer);
-            info.setAudioDataStartPosition((long)stco.getFirstOffSet());
+            info.setAudioDataStartPosition(stco.getFirstOffSet());
             info.setAudioDataEndPosition((long)fc.size());
             info.setAudioDataLength(fc.size() - stco.getFirstOffSet());
         }
@@ -347,9 +366,6 @@ public class Mp4InfoReader
                 break;
             }
         }
-
-        //Build AtomTree to ensure it is valid, this means we can detect any problems early on
-        new Mp4AtomTree(raf,false);
         return info;
     }
 
@@ -86,7 +86,6 @@ public class Mp4TagReader
     public Mp4Tag read(RandomAccessFile raf) throws CannotReadException, IOException
     {
         FileChannel fc = raf.getChannel();
-        Mp4Tag tag = new Mp4Tag();
 
         //Get to the facts everything we are interested in is within the moov box, so just load data from file
         //once so no more file I/O needed
@@ -98,6 +97,40 @@ public class Mp4TagReader
         ByteBuffer moovBuffer = ByteBuffer.allocate(moovHeader.getLength() - Mp4BoxHeader.HEADER_LENGTH);
         raf.getChannel().read(moovBuffer);
         moovBuffer.rewind();
+        return read(moovBuffer);
+    }
+
+    /**
+     * Read the tag from the moov atom already read into memory by the atom tree
+     *
+     * @param atomTree
+     * @return
+     * @throws CannotReadException
+     * @throws IOException
+     */
+    public Mp4Tag read(Mp4AtomTree atomTree) throws CannotReadException, IOException
+    {
+        if (atomTree.getMoovHeader() == null)
+        {
+            throw new CannotReadException(ErrorMessage.MP4_FILE_NOT_CONTAINER.getMsg());
+        }
+        //Use our own view of the buffer so we dont disturb anyone else using it
+        ByteBuffer moovBuffer = atomTree.getMoovBuffer().duplicate();
+        moovBuffer.rewind();
+        return read(moovBuffer);
+    }
+
+    /**
+     * Read the tag from the contents of the moov atom
+     *
+     * @param moovBuffer data within moov atom, positioned at start
+     * @return
+     * @throws CannotReadException
+     * @throws IOException
+     */
+    private Mp4Tag read(ByteBuffer moovBuffer) throws CannotReadException, IOException
+    {
+        Mp4Tag tag = new Mp4Tag();
 
         //Level 2-Searching for "udta" within "moov"
         Mp4BoxHeader boxHeader = Mp4BoxHeader.seekWithinLevel(moovBuffer, Mp4AtomIdentifier.UDTA.getFieldName());
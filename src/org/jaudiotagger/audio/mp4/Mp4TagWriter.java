@@ -20,6 +20,10 @@ package org.jaudiotagger.audio.mp4;
 
 import org.jaudiotagger.audio.exceptions.CannotReadException;
 import org.jaudiotagger.audio.exceptions.CannotWriteException;
+import org.jaudiotagger.audio.generic.FileChannelShifter;
+import org.jaudiotagger.audio.generic.InPlaceWriteListener;
+import org.jaudiotagger.audio.generic.PaddingPolicy;
+import org.jaudiotagger.audio.generic.Utils;
 import org.jaudiotagger.audio.mp4.atom.*;
 import org.jaudiotagger.logging.ErrorMessage;
 import org.jaudiotagger.tag.Tag;
@@ -32,6 +36,7 @@ import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
+import java.util.List;
 import java.util.logging.Logger;
 
 
@@ -194,12 +199,12 @@ public class Mp4TagWriter
      * @param neroTagsHeader
      * @param moovBuffer
      * @param newIlstData
-     * @param stco
+     * @param chunkOffsetBoxes
      * @param sizeOfExistingMetaLevelFreeAtom
      * @throws IOException
      * @throws CannotWriteException
      */
-    private void writeOldMetadataLargerThanNewMetadata(FileChannel fileReadChannel, FileChannel fileWriteChannel, Mp4BoxHeader moovHeader, Mp4BoxHeader udtaHeader, Mp4BoxHeader metaHeader, Mp4BoxHeader ilstHeader, Mp4BoxHeader mdatHeader, Mp4BoxHeader neroTagsHeader, ByteBuffer moovBuffer, ByteBuffer newIlstData, Mp4StcoBox stco, int sizeOfExistingMetaLevelFreeAtom) throws IOException, CannotWriteException
+    private void writeOldMetadataLargerThanNewMetadata(FileChannel fileReadChannel, FileChannel fileWriteChannel, Mp4BoxHeader moovHeader, Mp4BoxHeader udtaHeader, Mp4BoxHeader metaHeader, Mp4BoxHeader ilstHeader, Mp4BoxHeader mdatHeader, Mp4BoxHeader neroTagsHeader, ByteBuffer moovBuffer, ByteBuffer newIlstData, List<Mp4StcoBox> chunkOffsetBoxes, int sizeOfExistingMetaLevelFreeAtom) throws IOException, CannotWriteException
     {
         logger.config("Writing:Option 1:Smaller Size");
 
@@ -259,7 +264,7 @@ public class Mp4TagWriter
                 //unless mdat is at start of file
                 if (mdatHeader.getFilePos() > moovHeader.getFilePos())
                 {
-                    stco.adjustOffsets(-sizeReducedBy);
+                    adjustChunkOffsets(chunkOffsetBoxes, -sizeReducedBy);
                 }
 
                 //Edit and rewrite the Moov,Udta and Meta header in moov buffer
@@ -309,19 +314,85 @@ public class Mp4TagWriter
     }
 
     /**
-     * Write tag to rafTemp file
+     * Is the tag already stored in the file exactly as it would be written
+     *
+     * Files with Nero tags are never unchanged because writing the tag replaces the Nero tags with a free atom.
+     *
+     * @param tag tag data
+     * @param raf current file, only needs to be open for reading
+     * @return true if writing the tag would not change the file
+     * @throws CannotWriteException
+     * @throws IOException
+     */
+    public boolean isTagUnchanged(Tag tag, RandomAccessFile raf) throws CannotWriteException, IOException
+    {
+        Mp4AtomTree atomTree;
+        try
+        {
+            atomTree = new Mp4AtomTree(raf, false);
+        }
+        catch (CannotReadException cre)
+        {
+            throw new CannotWriteException(cre.getMessage());
+        }
+
+        Mp4BoxHeader ilstHeader = atomTree.getBoxHeader(atomTree.getIlstNode());
+        if (ilstHeader == null || atomTree.getTagsNode() != null)
+        {
+            return false;
+        }
+        ByteBuffer newIlstData = tc.convert(tag);
+        newIlstData.rewind();
+        return ilstHeader.getLength() == newIlstData.limit() && Utils.isFileContentEqual(raf.getChannel(), ilstHeader.getFilePos(), newIlstData);
+    }
+
+    /**
+     * Write tag to rafTemp file, or to the current file if it fits within the existing metadata
      *
      * @param tag     tag data
      * @param raf     current file
      * @param rafTemp temporary file for writing
+     * @return true
      * @throws CannotWriteException
      * @throws IOException
      */
-    public void write(Tag tag, RandomAccessFile raf, RandomAccessFile rafTemp) throws CannotWriteException, IOException
+    public boolean write(Tag tag, RandomAccessFile raf, RandomAccessFile rafTemp) throws CannotWriteException, IOException
+    {
+        return write(tag, raf, rafTemp, null);
+    }
+
+    /**
+     * Write tag to the current file only if it can be done without moving the audio data, that is if it fits within
+     * the existing ilst and free atoms, the top level free atom after moov, or moov is at the end of the file
+     *
+     * @param tag      tag data
+     * @param raf      current file
+     * @param listener told before the file is modified, not called if false is returned
+     * @return true if the tag was written, false if the file was not modified
+     * @throws CannotWriteException
+     * @throws IOException
+     */
+    public boolean writeInPlace(Tag tag, RandomAccessFile raf, InPlaceWriteListener listener) throws CannotWriteException, IOException
+    {
+        return write(tag, raf, null, listener);
+    }
+
+    /**
+     * @param tag      tag data
+     * @param raf      current file
+     * @param rafTemp  temporary file for writing, if null the tag is only written if it can be written in place
+     *                 without moving the audio data
+     * @param listener told before writing in place, may be null
+     * @return true if the tag was written, only false if there was no temporary file and the tag could not be written
+     * in place
+     * @throws CannotWriteException
+     * @throws IOException
+     */
+    private boolean write(Tag tag, RandomAccessFile raf, RandomAccessFile rafTemp, InPlaceWriteListener listener) throws CannotWriteException, IOException
     {
         logger.config("Started writing tag data");
         FileChannel fileReadChannel = raf.getChannel();
-        FileChannel fileWriteChannel = rafTemp.getChannel();
+        FileChannel fileWriteChannel = rafTemp != null ? rafTemp.getChannel() : null;
 
         int sizeOfExistingIlstAtom = 0;
         int sizeRequiredByNewIlstAtom;
@@ -361,6 +432,7 @@ public class Mp4TagWriter
         //Moov Box header
         Mp4BoxHeader moovHeader = atomTree.getBoxHeader(atomTree.getMoovNode());
         Mp4StcoBox stco = atomTree.getStco();
+        List<Mp4StcoBox> chunkOffsetBoxes = atomTree.getChunkOffsetBoxes();
         Mp4BoxHeader ilstHeader = atomTree.getBoxHeader(atomTree.getIlstNode());
         Mp4BoxHeader udtaHeader = atomTree.getBoxHeader(atomTree.getUdtaNode());
         Mp4BoxHeader metaHeader = atomTree.getBoxHeader(atomTree.getMetaNode());
@@ -465,6 +537,48 @@ public class Mp4TagWriter
         }
 
         logger.config("Read header successfully ready for writing");
+        if (TagOptionSingleton.getInstance().isMp4WriteInPlace() && udtaHeader != null && metaHeader != null)
+        {
+            PaddingPolicy.WriteMode writeMode = writeInPlace(fileReadChannel,
+                    atomTree,
+                    moovHeader,
+                    udtaHeader,
+                    metaHeader,
+                    mdatHeader,
+                    neroTagsHeader,
+                    moovBuffer,
+                    chunkOffsetBoxes,
+                    newIlstData,
+                    positionInExistingFileOfWhereNewIlstAtomShouldBeWritten,
+                    positionOfNewIlstAtomRelativeToMoovAtom,
+                    sizeOfExistingIlstAtom,
+                    sizeOfExistingMetaLevelFreeAtom,
+                    rafTemp != null,
+                    listener);
+            if (writeMode != null)
+            {
+                //Nothing written to rafTemp so the original file is kept, ensure we have written correctly
+                try
+                {
+                    checkAtomTree(raf, mdatHeader, stco);
+                }
+                finally
+                {
+                    fileReadChannel.close();
+                    raf.close();
+                }
+                TagOptionSingleton.getInstance().getPaddingPolicy().writeCompleted(writeMode, sizeRequiredByNewIlstAtom);
+                return true;
+            }
+        }
+
+        if (rafTemp == null)
+        {
+            logger.config("Cannot write in place, requires temporary file");
+            return false;
+        }
+
+        boolean isMdatDataMoved = false;
         //The easiest option since no difference in the size of the metadata so all we have to do is
         //create a new file identical to first file but with replaced ilst
         if (sizeOfExistingIlstAtom == sizeRequiredByNewIlstAtom)
@@ -485,7 +599,7 @@ public class Mp4TagWriter
                     neroTagsHeader,
                     moovBuffer,
                     newIlstData,
-                    stco,
+                    chunkOffsetBoxes,
                     sizeOfExistingMetaLevelFreeAtom);
         }
         //Size of metadata has increased, the most complex situation, more atoms affected
@@ -508,17 +622,30 @@ public class Mp4TagWriter
             {
                 int additionalMetaSizeThatWontFitWithinMetaAtom = additionalSpaceRequiredForMetadata - (sizeOfExistingMetaLevelFreeAtom);
 
+                //If the audio has to be moved anyway leave a free atom after ilst so later edits can fit without moving it again
+                if (isMdatDataMovedBy(sizeOfExistingTopLevelFreeAtom, topLevelFreeAtomComesBeforeMdatAtomAndAfterMetadata, additionalMetaSizeThatWontFitWithinMetaAtom, moovHeader, mdatHeader))
+                {
+                    int paddingSize = TagOptionSingleton.getInstance().getPaddingPolicy().getPadding(sizeRequiredByNewIlstAtom, raf.length(), 0);
+                    paddingSize = PaddingPolicy.limitPadding(paddingSize, (long) moovHeader.getLength() + additionalMetaSizeThatWontFitWithinMetaAtom + Mp4BoxHeader.HEADER_LENGTH);
+                    if (paddingSize > 0)
+                    {
+                        paddingSize = Math.max(paddingSize, Mp4BoxHeader.HEADER_LENGTH);
+                        newIlstData = addMetaLevelFreeAtom(newIlstData, paddingSize);
+                        additionalMetaSizeThatWontFitWithinMetaAtom += paddingSize;
+                    }
+                }
+
                 //Write stuff before Moov (ftyp)
                 writeUpToMoovHeader(fileReadChannel, fileWriteChannel, moovHeader);
                 if (udtaHeader == null)
                 {
-                    writeNoExistingUdtaAtom(fileReadChannel,
+                    isMdatDataMoved = writeNoExistingUdtaAtom(fileReadChannel,
                                             fileWriteChannel,
                                             newIlstData,
                                             moovHeader,
                                             moovBuffer,
                                             mdatHeader,
-                                            stco,
+                                            chunkOffsetBoxes,
                                             sizeOfExistingTopLevelFreeAtom,
                                             topLevelFreeAtomComesBeforeMdatAtomAndAfterMetadata,
                                             neroTagsHeader,
@@ -530,7 +657,7 @@ public class Mp4TagWriter
                 }
                 else if (metaHeader == null)
                 {
-                    writeNoExistingMetaAtom(
+                    isMdatDataMoved = writeNoExistingMetaAtom(
                             udtaHeader,
                             fileReadChannel,
                             fileWriteChannel,
@@ -538,7 +665,7 @@ public class Mp4TagWriter
                             moovHeader,
                             moovBuffer,
                             mdatHeader,
-                            stco,
+                            chunkOffsetBoxes,
                             sizeOfExistingTopLevelFreeAtom,
                             topLevelFreeAtomComesBeforeMdatAtomAndAfterMetadata,
                             neroTagsHeader,
@@ -550,7 +677,7 @@ public class Mp4TagWriter
                 }
                 else
                 {
-                    writeHaveExistingMetadata(udtaHeader,
+                    isMdatDataMoved = writeHaveExistingMetadata(udtaHeader,
                             metaHeader,
                             fileReadChannel,
                             fileWriteChannel,
@@ -558,7 +685,7 @@ public class Mp4TagWriter
                             moovHeader,
                             moovBuffer,
                             mdatHeader,
-                            stco,
+                            chunkOffsetBoxes,
                             additionalMetaSizeThatWontFitWithinMetaAtom,
                             sizeOfExistingTopLevelFreeAtom,
                             topLevelFreeAtomComesBeforeMdatAtomAndAfterMetadata,
@@ -577,6 +704,212 @@ public class Mp4TagWriter
 
         //Ensure we have written correctly, reject if not
         checkFileWrittenCorrectly(rafTemp, mdatHeader, fileWriteChannel, stco);
+        TagOptionSingleton.getInstance().getPaddingPolicy().writeCompleted(isMdatDataMoved ? PaddingPolicy.WriteMode.REWRITE : PaddingPolicy.WriteMode.IN_PLACE, sizeRequiredByNewIlstAtom);
+        return true;
+    }
+
+    /**
+     * Add a free atom after the new ilst data, it is written as part of the ilst data so ends up as the meta level
+     * free atom immediately after ilst
+     *
+     * @param newIlstData
+     * @param freeAtomSize size of free atom including its header
+     * @return
+     */
+    private ByteBuffer addMetaLevelFreeAtom(ByteBuffer newIlstData, int freeAtomSize)
+    {
+        Mp4FreeBox freeBox = new Mp4FreeBox(freeAtomSize - Mp4BoxHeader.HEADER_LENGTH);
+        ByteBuffer ilstAndFree = ByteBuffer.allocate(newIlstData.limit() + freeAtomSize);
+        ilstAndFree.put(newIlstData);
+        ilstAndFree.put(freeBox.getHeader().getHeaderData());
+        ilstAndFree.put(freeBox.getData());
+        ilstAndFree.flip();
+        return ilstAndFree;
+    }
+
+    /**
+     * Write the new ilst data directly into the original file rather than copying the whole file to the temporary file
+     * <p/>
+     * If the new ilst fits within the existing ilst and the meta level free atom after it only those bytes are
+     * overwritten. Otherwise the moov atom is grown in place, using the top level free atom immediately after moov if
+     * it is large enough, if not and it is allowed everything after moov is moved along within the file and the chunk
+     * offsets adjusted, so the audio is never copied to another file.
+     *
+     * @param fc channel of the original file
+     * @param atomTree
+     * @param moovHeader
+     * @param udtaHeader
+     * @param metaHeader
+     * @param mdatHeader
+     * @param neroTagsHeader
+     * @param moovBuffer
+     * @param chunkOffsetBoxes
+     * @param newIlstData
+     * @param positionInExistingFileOfWhereNewIlstAtomShouldBeWritten
+     * @param positionOfNewIlstAtomRelativeToMoovAtom
+     * @param sizeOfExistingIlstAtom
+     * @param sizeOfExistingMetaLevelFreeAtom
+     * @param isDataMoveAllowed if false null is returned rather than moving the data after moov
+     * @param listener told before anything is written, may be null
+     * @return whether the audio was moved, or null if the metadata cannot be written in place and nothing was written
+     * @throws CannotWriteException
+     * @throws IOException
+     */
+    private PaddingPolicy.WriteMode writeInPlace(FileChannel fc,
+                                                 Mp4AtomTree atomTree,
+                                                 Mp4BoxHeader moovHeader,
+                                                 Mp4BoxHeader udtaHeader,
+                                                 Mp4BoxHeader metaHeader,
+                                                 Mp4BoxHeader mdatHeader,
+                                                 Mp4BoxHeader neroTagsHeader,
+                                                 ByteBuffer moovBuffer,
+                                                 List<Mp4StcoBox> chunkOffsetBoxes,
+                                                 ByteBuffer newIlstData,
+                                                 int positionInExistingFileOfWhereNewIlstAtomShouldBeWritten,
+                                                 int positionOfNewIlstAtomRelativeToMoovAtom,
+                                                 int sizeOfExistingIlstAtom,
+                                                 int sizeOfExistingMetaLevelFreeAtom,
+                                                 boolean isDataMoveAllowed,
+                                                 InPlaceWriteListener listener) throws CannotWriteException, IOException
+    {
+        int existingSize = sizeOfExistingIlstAtom + sizeOfExistingMetaLevelFreeAtom;
+        int newSize = newIlstData.limit();
+
+        //Fits exactly, or leaves enough room for a free atom so no other atoms change size
+        if (newSize == existingSize || existingSize - newSize >= Mp4BoxHeader.HEADER_LENGTH)
+        {
+            logger.config("Writing:In place:Fits within existing ilst and free atom");
+            if (newSize < existingSize)
+            {
+                newIlstData = addMetaLevelFreeAtom(newIlstData, existingSize - newSize);
+            }
+            if (listener != null)
+            {
+                listener.beforeWrite();
+            }
+            writeFully(fc, newIlstData, positionInExistingFileOfWhereNewIlstAtomShouldBeWritten);
+            if (neroTagsHeader != null)
+            {
+                Mp4FreeBox freeBox = new Mp4FreeBox(neroTagsHeader.getDataLength());
+                writeFully(fc, freeBox.getHeader().getHeaderData(), neroTagsHeader.getFilePos());
+                writeFully(fc, freeBox.getData(), neroTagsHeader.getFilePos() + Mp4BoxHeader.HEADER_LENGTH);
+            }
+            return PaddingPolicy.WriteMode.IN_PLACE;
+        }
+
+        //Smaller by less than the size of a free atom header, leave to the normal write
+        if (newSize < existingSize)
+        {
+            return null;
+        }
+
+        int additionalSize = newSize - existingSize;
+        long endOfMoov = moovHeader.getFileEndPos();
+        int topLevelFreeSize = 0;
+        for (DefaultMutableTreeNode freeNode : atomTree.getFreeNodes())
+        {
+            Mp4BoxHeader freeHeader = (Mp4BoxHeader) freeNode.getUserObject();
+            if (((DefaultMutableTreeNode) freeNode.getParent()).isRoot() && freeHeader.getFilePos() == endOfMoov)
+            {
+                topLevelFreeSize = freeHeader.getLength();
+                break;
+            }
+        }
+        boolean isFreeAtomUsed = topLevelFreeSize - Mp4BoxHeader.HEADER_LENGTH >= additionalSize || topLevelFreeSize == additionalSize;
+        boolean isDataAfterMoovMoved = !isFreeAtomUsed && endOfMoov < fc.size();
+        if (isDataAfterMoovMoved && !isDataMoveAllowed)
+        {
+            return null;
+        }
+
+        //If data has to be moved anyway leave a free atom after ilst so later edits can fit without moving it again
+        if (isDataAfterMoovMoved)
+        {
+            int paddingSize = TagOptionSingleton.getInstance().getPaddingPolicy().getPadding(newSize, fc.size(), 0);
+            paddingSize = PaddingPolicy.limitPadding(paddingSize, (long) moovHeader.getLength() + additionalSize + Mp4BoxHeader.HEADER_LENGTH);
+            if (paddingSize > 0)
+            {
+                paddingSize = Math.max(paddingSize, Mp4BoxHeader.HEADER_LENGTH);
+                newIlstData = addMetaLevelFreeAtom(newIlstData, paddingSize);
+                additionalSize += paddingSize;
+            }
+            if (mdatHeader.getFilePos() > moovHeader.getFilePos())
+            {
+                adjustChunkOffsets(chunkOffsetBoxes, additionalSize);
+            }
+        }
+
+        //Build the new moov atom in memory, it is small compared to the audio
+        if (neroTagsHeader != null)
+        {
+            Mp4FreeBox freeBox = new Mp4FreeBox(neroTagsHeader.getDataLength());
+            moovBuffer.limit(moovBuffer.capacity());
+            moovBuffer.position((int) (neroTagsHeader.getFilePos() - moovHeader.getFilePos() - Mp4BoxHeader.HEADER_LENGTH));
+            moovBuffer.put(freeBox.getHeader().getHeaderData());
+            moovBuffer.put(freeBox.getData());
+        }
+        adjustSizeOfMoovHeader(moovHeader, moovBuffer, additionalSize, udtaHeader, metaHeader);
+        ByteBuffer newMoovData = ByteBuffer.allocate(moovHeader.getLength());
+        newMoovData.put(moovHeader.getHeaderData());
+        moovBuffer.rewind();
+        moovBuffer.limit(positionOfNewIlstAtomRelativeToMoovAtom);
+        newMoovData.put(moovBuffer);
+        newMoovData.put(newIlstData);
+        moovBuffer.limit(moovBuffer.capacity());
+        moovBuffer.position(positionOfNewIlstAtomRelativeToMoovAtom + existingSize);
+        newMoovData.put(moovBuffer);
+        newMoovData.flip();
+
+        if (listener != null)
+        {
+            listener.beforeWrite();
+        }
+        if (isFreeAtomUsed)
+        {
+            logger.config("Writing:In place:Larger Size can use top free atom");
+            writeFully(fc, newMoovData, moovHeader.getFilePos());
+            if (topLevelFreeSize != additionalSize)
+            {
+                Mp4FreeBox freeBox = new Mp4FreeBox(topLevelFreeSize - Mp4BoxHeader.HEADER_LENGTH - additionalSize);
+                writeFully(fc, freeBox.getHeader().getHeaderData(), endOfMoov + additionalSize);
+                writeFully(fc, freeBox.getData(), endOfMoov + additionalSize + Mp4BoxHeader.HEADER_LENGTH);
+            }
+            return PaddingPolicy.WriteMode.IN_PLACE;
+        }
+
+        if (isDataAfterMoovMoved)
+        {
+            logger.config("Writing:In place:Larger Size moving data after moov by:" + additionalSize);
+            FileChannelShifter.shiftForward(fc, endOfMoov, additionalSize);
+        }
+        else
+        {
+            logger.config("Writing:In place:Larger Size moov at end of file");
+        }
+        writeFully(fc, newMoovData, moovHeader.getFilePos());
+        return isDataAfterMoovMoved ? PaddingPolicy.WriteMode.REWRITE : PaddingPolicy.WriteMode.IN_PLACE;
+    }
+
+    private void writeFully(FileChannel fc, ByteBuffer buffer, long position) throws IOException
+    {
+        while (buffer.hasRemaining())
+        {
+            position += fc.write(buffer, position);
+        }
+    }
+
+    /**
+     * Adjust the offsets in every stco and co64 box, there is one for each track
+     *
+     * @param chunkOffsetBoxes
+     * @param adjustment
+     */
+    private void adjustChunkOffsets(List<Mp4StcoBox> chunkOffsetBoxes, int adjustment)
+    {
+        for (Mp4StcoBox chunkOffsetBox : chunkOffsetBoxes)
+        {
+            chunkOffsetBox.adjustOffsets(adjustment);
+        }
     }
 
     private void writeUpToMoovHeader(FileChannel fileReadChannel,
@@ -728,6 +1061,28 @@ public class Mp4TagWriter
      * @throws IOException
      */
     private void checkFileWrittenCorrectly(RandomAccessFile rafTemp, Mp4BoxHeader mdatHeader, FileChannel fileWriteChannel, Mp4StcoBox stco) throws CannotWriteException, IOException
+    {
+        try
+        {
+            checkAtomTree(rafTemp, mdatHeader, stco);
+        }
+        finally
+        {
+            //Close references to new file
+            rafTemp.close();
+            fileWriteChannel.close();
+        }
+    }
+
+    /**
+     * Check the file has been written correctly, leaving it open
+     *
+     * @param raf        the written file
+     * @param mdatHeader mdat header of the original file
+     * @param stco       first chunk offset box of the original file
+     * @throws CannotWriteException
+     */
+    private void checkAtomTree(RandomAccessFile raf, Mp4BoxHeader mdatHeader, Mp4StcoBox stco) throws CannotWriteException
     {
 
         logger.config("Checking file has been written correctly");
@@ -736,7 +1091,7 @@ public class Mp4TagWriter
         {
             //Create a tree from the new file
             Mp4AtomTree newAtomTree;
-            newAtomTree = new Mp4AtomTree(rafTemp, false);
+            newAtomTree = new Mp4AtomTree(raf, false);
 
             //Check we still have audio data file, and check length
             Mp4BoxHeader newMdatHeader = newAtomTree.getBoxHeader(newAtomTree.getMdatNode());
@@ -792,12 +1147,6 @@ public class Mp4TagWriter
                 throw new CannotWriteException(ErrorMessage.MP4_CHANGES_TO_FILE_FAILED.getMsg() + ":" + e.getMessage());
             }
         }
-        finally
-        {
-            //Close references to new file
-            rafTemp.close();
-            fileWriteChannel.close();
-        }
         logger.config("File has been written correctly");
     }
 
@@ -834,19 +1183,20 @@ public class Mp4TagWriter
      * @param moovHeader
      * @param moovBuffer
      * @param mdatHeader
-     * @param stco
+     * @param chunkOffsetBoxes
      * @param sizeOfExistingTopLevelFreeAtom
      * @param topLevelFreeAtomComesBeforeMdatAtomAndAfterMetadata
+     * @return true if the mdat atom was moved
      * @throws IOException
      * @throws CannotWriteException
      */
-    private void writeNoExistingUdtaAtom(FileChannel fileReadChannel,
+    private boolean writeNoExistingUdtaAtom(FileChannel fileReadChannel,
                                          FileChannel fileWriteChannel,
                                          ByteBuffer newIlstData,
                                          Mp4BoxHeader moovHeader,
                                          ByteBuffer moovBuffer,
                                          Mp4BoxHeader mdatHeader,
-                                         Mp4StcoBox stco,
+                                         List<Mp4StcoBox> chunkOffsetBoxes,
                                          int sizeOfExistingTopLevelFreeAtom,
                                          boolean topLevelFreeAtomComesBeforeMdatAtomAndAfterMetadata,
                                          Mp4BoxHeader neroTagsHeader,
@@ -865,7 +1215,7 @@ public class Mp4TagWriter
         Mp4BoxHeader udtaHeader = new Mp4BoxHeader(Mp4AtomIdentifier.UDTA.getFieldName());
         udtaHeader.setLength(Mp4BoxHeader.HEADER_LENGTH + metaBox.getHeader().getLength());
 
-        boolean isMdatDataMoved = adjustStcoIfNoSuitableTopLevelAtom(sizeOfExistingTopLevelFreeAtom, topLevelFreeAtomComesBeforeMdatAtomAndAfterMetadata, udtaHeader.getLength(), stco, moovHeader, mdatHeader);
+        boolean isMdatDataMoved = adjustStcoIfNoSuitableTopLevelAtom(sizeOfExistingTopLevelFreeAtom, topLevelFreeAtomComesBeforeMdatAtomAndAfterMetadata, udtaHeader.getLength(), chunkOffsetBoxes, moovHeader, mdatHeader);
 
         //Edit the Moov header to length and rewrite to account for new udta atom
         moovHeader.setLength(moovHeader.getLength() + udtaHeader.getLength());
@@ -908,6 +1258,7 @@ public class Mp4TagWriter
             logger.config("Writing:Option 9;Top Level Free comes after Mdat or before Metadata or not large enough");
         }
         writeDataInChunks(fileReadChannel, fileWriteChannel);
+        return isMdatDataMoved;
     }
 
     /**
@@ -919,20 +1270,21 @@ public class Mp4TagWriter
      * @param moovHeader
      * @param moovBuffer
      * @param mdatHeader
-     * @param stco
+     * @param chunkOffsetBoxes
      * @param sizeOfExistingTopLevelFreeAtom
      * @param topLevelFreeAtomComesBeforeMdatAtomAndAfterMetadata
+     * @return true if the mdat atom was moved
      * @throws IOException
      * @throws CannotWriteException
      */
-    private void writeNoExistingMetaAtom(Mp4BoxHeader udtaHeader,
+    private boolean writeNoExistingMetaAtom(Mp4BoxHeader udtaHeader,
                                          FileChannel fileReadChannel,
                                          FileChannel fileWriteChannel,
                                          ByteBuffer newIlstData,
                                          Mp4BoxHeader moovHeader,
                                          ByteBuffer moovBuffer,
                                          Mp4BoxHeader mdatHeader,
-                                         Mp4StcoBox stco,
+                                         List<Mp4StcoBox> chunkOffsetBoxes,
                                          int sizeOfExistingTopLevelFreeAtom,
                                          boolean topLevelFreeAtomComesBeforeMdatAtomAndAfterMetadata,
                                          Mp4BoxHeader neroTagsHeader,
@@ -962,7 +1314,7 @@ public class Mp4TagWriter
 
         int increaseInSizeOfUdtaAtom = udtaHeader.getDataLength() - existingUdtaDataLength;
 
-        boolean isMdatDataMoved = adjustStcoIfNoSuitableTopLevelAtom(sizeOfExistingTopLevelFreeAtom, topLevelFreeAtomComesBeforeMdatAtomAndAfterMetadata, increaseInSizeOfUdtaAtom, stco, moovHeader, mdatHeader);
+        boolean isMdatDataMoved = adjustStcoIfNoSuitableTopLevelAtom(sizeOfExistingTopLevelFreeAtom, topLevelFreeAtomComesBeforeMdatAtomAndAfterMetadata, increaseInSizeOfUdtaAtom, chunkOffsetBoxes, moovHeader, mdatHeader);
 
         //Edit and rewrite the Moov header upto start of Udta
         moovHeader.setLength(moovHeader.getLength() + increaseInSizeOfUdtaAtom);
@@ -1016,6 +1368,7 @@ public class Mp4TagWriter
             logger.config("Writing:Option 9;Top Level Free comes after Mdat or before Metadata or not large enough");
         }
         writeDataInChunks(fileReadChannel, fileWriteChannel);
+        return isMdatDataMoved;
     }
 
     /**
@@ -1027,14 +1380,15 @@ public class Mp4TagWriter
      * @param moovHeader
      * @param moovBuffer
      * @param mdatHeader
-     * @param stco
+     * @param chunkOffsetBoxes
      * @param additionalMetaSizeThatWontFitWithinMetaAtom
      * @param topLevelFreeSize
      * @param topLevelFreeAtomComesBeforeMdatAtomAndAfterMetadata
+     * @return true if the mdat atom was moved
      * @throws IOException
      * @throws CannotWriteException
      */
-    private void  writeHaveExistingMetadata(Mp4BoxHeader udtaHeader,
+    private boolean writeHaveExistingMetadata(Mp4BoxHeader udtaHeader,
                                            Mp4BoxHeader metaHeader,
                                            FileChannel fileReadChannel,
                                            FileChannel fileWriteChannel,
@@ -1042,7 +1396,7 @@ public class Mp4TagWriter
                                            Mp4BoxHeader moovHeader,
                                            ByteBuffer moovBuffer,
                                            Mp4BoxHeader mdatHeader,
-                                           Mp4StcoBox stco,
+                                           List<Mp4StcoBox> chunkOffsetBoxes,
                                            int additionalMetaSizeThatWontFitWithinMetaAtom,
                                            int topLevelFreeSize,
                                            boolean topLevelFreeAtomComesBeforeMdatAtomAndAfterMetadata,
@@ -1055,7 +1409,7 @@ public class Mp4TagWriter
     {
         logger.config("Writing:Option 5.3;udta and meta atom exists");
 
-        boolean isMdatDataMoved = adjustStcoIfNoSuitableTopLevelAtom(topLevelFreeSize, topLevelFreeAtomComesBeforeMdatAtomAndAfterMetadata, additionalMetaSizeThatWontFitWithinMetaAtom, stco, moovHeader, mdatHeader);
+        boolean isMdatDataMoved = adjustStcoIfNoSuitableTopLevelAtom(topLevelFreeSize, topLevelFreeAtomComesBeforeMdatAtomAndAfterMetadata, additionalMetaSizeThatWontFitWithinMetaAtom, chunkOffsetBoxes, moovHeader, mdatHeader);
 
         long endOfMoov = moovHeader.getFileEndPos();
 
@@ -1096,6 +1450,7 @@ public class Mp4TagWriter
             logger.config("Writing:Option 9;Top Level Free comes after Mdat or before Metadata or not large enough");
         }
         writeDataInChunks(fileReadChannel, fileWriteChannel);
+        return isMdatDataMoved;
     }
 
     /**
@@ -1166,7 +1521,7 @@ public class Mp4TagWriter
      * @param topLevelFreeSize
      * @param topLevelFreeAtomComesBeforeMdatAtomAndAfterMetadata
      * @param additionalSizeRequired
-     * @param stco
+     * @param chunkOffsetBoxes
      * @param moovHeader
      * @param mdatHeader
      *
@@ -1175,25 +1530,40 @@ public class Mp4TagWriter
     private boolean adjustStcoIfNoSuitableTopLevelAtom(int topLevelFreeSize,
                                                     boolean topLevelFreeAtomComesBeforeMdatAtomAndAfterMetadata,
                                                     int additionalSizeRequired,
-                                                    Mp4StcoBox stco,
+                                                    List<Mp4StcoBox> chunkOffsetBoxes,
                                                     Mp4BoxHeader moovHeader,
                                                     Mp4BoxHeader mdatHeader)
     {
         //We don't bother using the top level free atom coz not big enough anyway, we need to adjust offsets
         //by the amount mdat is going to be shifted as long as mdat is after moov
-        if (mdatHeader.getFilePos() > moovHeader.getFilePos())
+        if (isMdatDataMovedBy(topLevelFreeSize, topLevelFreeAtomComesBeforeMdatAtomAndAfterMetadata, additionalSizeRequired, moovHeader, mdatHeader))
         {
-            //Edit stco atom within moov header, if the free atom comes after mdat OR
-            //(there is not enough space in the top level free atom
-            //or special case (of not matching exactly the free atom plus header so could remove free atom completely)
-            if ((!topLevelFreeAtomComesBeforeMdatAtomAndAfterMetadata) ||
-                    ((topLevelFreeSize - Mp4BoxHeader.HEADER_LENGTH < additionalSizeRequired)
-                            && (topLevelFreeSize != additionalSizeRequired)))
-            {
-                stco.adjustOffsets(additionalSizeRequired);
-                return true;
-            }
+            adjustChunkOffsets(chunkOffsetBoxes, additionalSizeRequired);
+            return true;
         }
         return false;
     }
+
+    /**
+     * @param topLevelFreeSize
+     * @param topLevelFreeAtomComesBeforeMdatAtomAndAfterMetadata
+     * @param additionalSizeRequired
+     * @param moovHeader
+     * @param mdatHeader
+     * @return true if the mdat atom has to be shifted further down to fit in the additional size
+     */
+    private boolean isMdatDataMovedBy(int topLevelFreeSize,
+                                      boolean topLevelFreeAtomComesBeforeMdatAtomAndAfterMetadata,
+                                      int additionalSizeRequired,
+                                      Mp4BoxHeader moovHeader,
+                                      Mp4BoxHeader mdatHeader)
+    {
+        //Only moved if mdat is after moov, and the free atom comes after mdat OR
+        //(there is not enough space in the top level free atom
+        //or special case (of not matching exactly the free atom plus header so could remove free atom completely)
+        return mdatHeader.getFilePos() > moovHeader.getFilePos()
+                && ((!topLevelFreeAtomComesBeforeMdatAtomAndAfterMetadata) ||
+                    ((topLevelFreeSize - Mp4BoxHeader.HEADER_LENGTH < additionalSizeRequired)
+                            && (topLevelFreeSize != additionalSizeRequired)));
+    }
 }
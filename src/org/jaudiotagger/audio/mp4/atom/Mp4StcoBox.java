@@ -12,6 +12,8 @@ import java.nio.channels.FileChannel;
 
 /**
  * StcoBox ( media (stream) header), holds offsets into the Audio data
+ *
+ * Also used for the co64 box which holds the same offsets as 64 bit values for files larger than 4GB
  */
 public class Mp4StcoBox extends AbstractMp4Box
 {
@@ -24,8 +26,10 @@ public class Mp4StcoBox extends AbstractMp4Box
     public static final int OTHER_FLAG_LENGTH = 3;
     public static final int NO_OF_OFFSETS_LENGTH = 4;
     public static final int OFFSET_LENGTH = 4;
+    public static final int CO64_OFFSET_LENGTH = 8;
     private int noOfOffSets = 0;
-    private int firstOffSet;
+    private long firstOffSet;
+    private boolean isCo64;
 
     /**
      * Construct box from data and show contents
@@ -47,7 +51,8 @@ public class Mp4StcoBox extends AbstractMp4Box
         this.noOfOffSets = dataBuffer.getInt();
 
         //First Offset, useful for sanity checks
-        firstOffSet = dataBuffer.getInt();
+        isCo64 = Mp4AtomIdentifier.CO64.getFieldName().equals(header.getId());
+        firstOffSet = isCo64 ? dataBuffer.getLong() : (dataBuffer.getInt() & 0xFFFFFFFFL);
     }
 
     public void printTotalOffset()
@@ -90,15 +95,32 @@ public class Mp4StcoBox extends AbstractMp4Box
         dataBuffer.position(dataBuffer.position() + VERSION_FLAG_LENGTH + OTHER_FLAG_LENGTH + NO_OF_OFFSETS_LENGTH);
         for (int i = 0; i < noOfOffSets; i++)
         {
-            int offset = dataBuffer.getInt();
-
-            //Calculate new offset and update buffer
-            offset = offset + adjustment;
-            dataBuffer.position(dataBuffer.position() - OFFSET_LENGTH);
-            dataBuffer.putInt(offset);
+            if (isCo64)
+            {
+                long offset = dataBuffer.getLong();
+                dataBuffer.position(dataBuffer.position() - CO64_OFFSET_LENGTH);
+                dataBuffer.putLong(offset + adjustment);
+            }
+            else
+            {
+                int offset = dataBuffer.getInt();
+
+                //Calculate new offset and update buffer
+                offset = offset + adjustment;
+                dataBuffer.position(dataBuffer.position() - OFFSET_LENGTH);
+                dataBuffer.putInt(offset);
+            }
         }
     }
 
+    /**
+     * @return true if this is a co64 box holding 64 bit offsets
+     */
+    public boolean isCo64()
+    {
+        return isCo64;
+    }
+
     /**
      * Construct box from data and adjust offets accordingly
      *
@@ -145,7 +167,7 @@ public class Mp4StcoBox extends AbstractMp4Box
      *
      * @return
      */
-    public int getFirstOffSet()
+    public long getFirstOffSet()
     {
         return firstOffSet;
     }
@@ -19,11 +19,15 @@
 package org.jaudiotagger.audio.ogg;
 
 import org.jaudiotagger.audio.exceptions.CannotReadException;
+import org.jaudiotagger.audio.generic.AudioDataRanges;
 import org.jaudiotagger.audio.generic.AudioFileReader;
 import org.jaudiotagger.audio.generic.GenericAudioHeader;
 import org.jaudiotagger.audio.ogg.util.OggInfoReader;
+import org.jaudiotagger.audio.ogg.util.OggPageChecksumVerifier;
 import org.jaudiotagger.audio.ogg.util.OggPageHeader;
+import org.jaudiotagger.logging.ErrorMessage;
 import org.jaudiotagger.tag.Tag;
+import org.jaudiotagger.tag.TagOptionSingleton;
 
 import java.io.File;
 import java.io.IOException;
@@ -40,6 +44,9 @@ public class OggFileReader extends AudioFileReader
     // Logger Object
     public static Logger logger = Logger.getLogger("org.jaudiotagger.audio.ogg");
 
+    //Identification, comment and setup headers
+    private static final int VORBIS_HEADER_PACKET_COUNT = 3;
+
     private OggInfoReader ir;
     private OggVorbisTagReader vtr;
 
@@ -51,6 +58,10 @@ public class OggFileReader extends AudioFileReader
 
     protected GenericAudioHeader getEncodingInfo(RandomAccessFile raf) throws CannotReadException, IOException
     {
+        if (TagOptionSingleton.getInstance().isVerifyOggPageChecksums())
+        {
+            new OggPageChecksumVerifier().verify(raf);
+        }
         return ir.read(raf);
     }
 
@@ -59,6 +70,57 @@ public class OggFileReader extends AudioFileReader
         return vtr.read(raf);
     }
 
+    /**
+     * The audio data is the data of every page after the three vorbis header packets, the page headers are excluded
+     * because their sequence numbers and checksums change when the comment header is rewritten onto a different
+     * number of pages
+     *
+     * @param f
+     * @return
+     * @throws CannotReadException
+     * @throws IOException
+     */
+    @Override
+    public AudioDataRanges getAudioDataRanges(File f) throws CannotReadException, IOException
+    {
+        AudioDataRanges ranges = new AudioDataRanges();
+        try (RandomAccessFile raf = new RandomAccessFile(f, "r"))
+        {
+            int headerPacketsRemaining = VORBIS_HEADER_PACKET_COUNT;
+            while (raf.getFilePointer() < raf.length())
+            {
+                OggPageHeader pageHeader = OggPageHeader.read(raf);
+                long pageDataStart = raf.getFilePointer();
+                long pageDataEnd = Math.min(pageDataStart + pageHeader.getPageLength(), raf.length());
+                long audioStart = pageDataStart;
+
+                //A packet ends with the first segment shorter than the maximum segment size
+                byte[] segmentTable = pageHeader.getSegmentTable();
+                for (int i = 0; i < segmentTable.length && headerPacketsRemaining > 0; i++)
+                {
+                    int segmentSize = segmentTable[i] & 0xFF;
+                    audioStart += segmentSize;
+                    if (segmentSize < OggPageHeader.MAXIMUM_SEGMENT_SIZE)
+                    {
+                        headerPacketsRemaining--;
+                    }
+                }
+
+                if (headerPacketsRemaining == 0)
+                {
+                    ranges.add(audioStart, Math.max(0, pageDataEnd - audioStart));
+                }
+                raf.seek(pageDataEnd);
+            }
+        }
+
+        if (ranges.getCount() == 0)
+        {
+            throw new CannotReadException(ErrorMessage.NO_AUDIO_DATA_FOUND.getMsg(f));
+        }
+        return ranges;
+    }
+
     /**
      * Return count Ogg Page header, count starts from zero
      *
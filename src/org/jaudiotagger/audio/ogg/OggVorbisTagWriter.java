@@ -24,6 +24,8 @@ import org.jaudiotagger.audio.exceptions.CannotWriteException;
 import org.jaudiotagger.audio.generic.Utils;
 import org.jaudiotagger.audio.ogg.util.OggCRCFactory;
 import org.jaudiotagger.audio.ogg.util.OggPageHeader;
+import org.jaudiotagger.audio.ogg.util.OggPageReverseScanner;
+import org.jaudiotagger.logging.ErrorMessage;
 import org.jaudiotagger.tag.Tag;
 import org.jaudiotagger.tag.id3.AbstractID3v1Tag;
 import org.jaudiotagger.tag.vorbiscomment.VorbisCommentTag;
@@ -33,6 +35,8 @@ import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.logging.Logger;
 
@@ -46,6 +50,9 @@ public class OggVorbisTagWriter
     // Logger Object
     public static Logger logger = Logger.getLogger("org.jaudiotagger.audio.ogg");
 
+    //Size of buffer used to renumber the audio pages, holds many pages so they can be written in large batches
+    private static final int PAGE_REWRITE_BUFFER_SIZE = 16 * OggPageHeader.MAXIMUM_PAGE_SIZE;
+
     private OggVorbisCommentTagCreator tc = new OggVorbisCommentTagCreator();
     private OggVorbisTagReader reader = new OggVorbisTagReader();
 
@@ -149,15 +156,8 @@ public class OggVorbisTagWriter
      */
     private void calculateChecksumOverPage(ByteBuffer page)
     {           
-        //CRC should be zero before calculating it
-        page.putInt(OggPageHeader.FIELD_PAGE_CHECKSUM_POS, 0);
-
-        //Compute CRC over the  page  //TODO shouldnt really use array();
-        byte[] crc = OggCRCFactory.computeCRC(page.array());
-        for (int i = 0; i < crc.length; i++)
-        {
-            page.put(OggPageHeader.FIELD_PAGE_CHECKSUM_POS + i, crc[i]);
-        }
+        //Compute CRC over the page, treating the CRC field itself as zero
+        OggCRCFactory.writePageCRC(page, 0, page.capacity());
 
         //Rewind to start of Page
         page.rewind();
@@ -436,6 +436,11 @@ public class OggVorbisTagWriter
     /**
      * Write all the remaining pages as they are except that the page sequence needs to be modified.
      *
+     * Pages are read through a fixed size buffer, the page sequence number and checksum are patched in place and
+     * the buffer is written out in one operation each time it is filled, so memory use does not depend on the size
+     * of the file. If the remaining pages are already numbered correctly they are copied without being read into
+     * memory at all.
+     *
      * @param pageSequence
      * @param raf
      * @param rafTemp
@@ -448,61 +453,234 @@ public class OggVorbisTagWriter
         long startAudio = raf.getFilePointer();
         long startAudioWritten = rafTemp.getFilePointer();
 
-        //TODO there is a risk we wont have enough memory to create these buffers
-        ByteBuffer bb       = ByteBuffer.allocate((int) (raf.length() - raf.getFilePointer()));
-        ByteBuffer bbTemp   = ByteBuffer.allocate((int)(raf.length() - raf.getFilePointer()));
+        long bytesToDiscard;
+        if (isRemainingPagesSequenceUnchanged(pageSequence, raf))
+        {
+            bytesToDiscard = transferRemainingPages(raf, rafTemp);
+        }
+        else
+        {
+            bytesToDiscard = rewriteRemainingPages(pageSequence, raf, rafTemp);
+        }
+
+        //Check we have written all the data (minus any invalid Tag at end)
+        if ((raf.length() - startAudio) != ((rafTemp.length() + bytesToDiscard) - startAudioWritten))
+        {
+            throw new CannotWriteException("File written counts don't match, file not written:"
+                    +"origAudioLength:"+(raf.length() - startAudio)
+                    +":newAudioLength:"+((rafTemp.length() + bytesToDiscard) - startAudioWritten)
+                    +":bytesDiscarded:"+bytesToDiscard);
+        }
+    }
+
+    /**
+     * @param pageSequence sequence number of the last page written
+     * @param raf positioned at the start of the first remaining page
+     * @return true if the first remaining page already follows on from pageSequence, so no renumbering is needed
+     * @throws IOException
+     */
+    private boolean isRemainingPagesSequenceUnchanged(int pageSequence, RandomAccessFile raf) throws IOException
+    {
+        long start = raf.getFilePointer();
+        if (raf.length() - start < OggPageHeader.OGG_PAGE_HEADER_FIXED_LENGTH)
+        {
+            return false;
+        }
+        ByteBuffer header = ByteBuffer.allocate(OggPageHeader.OGG_PAGE_HEADER_FIXED_LENGTH);
+        header.order(ByteOrder.LITTLE_ENDIAN);
+        raf.getChannel().read(header, start);
+        return header.get(0) == OggPageHeader.CAPTURE_PATTERN[0]
+                && header.get(1) == OggPageHeader.CAPTURE_PATTERN[1]
+                && header.get(2) == OggPageHeader.CAPTURE_PATTERN[2]
+                && header.get(3) == OggPageHeader.CAPTURE_PATTERN[3]
+                && header.getInt(OggPageHeader.FIELD_PAGE_SEQUENCE_NO_POS) == pageSequence + 1;
+    }
+
+    /**
+     * Copy the remaining pages unchanged using a channel transfer, discarding any ID3v1 tag found after the last page
+     *
+     * @param raf positioned at the start of the first remaining page
+     * @param rafTemp
+     * @return number of bytes discarded from the end of the file
+     * @throws IOException
+     * @throws CannotWriteException
+     */
+    private long transferRemainingPages(RandomAccessFile raf, RandomAccessFile rafTemp) throws IOException, CannotWriteException
+    {
+        logger.fine("Remaining pages need no renumbering, transferring unchanged");
+        long start = raf.getFilePointer();
+        long end = raf.length();
+
+        //#117:Ogg file with invalid ID3v1 tag at end remove and save
+        OggPageHeader lastPageHeader = new OggPageReverseScanner().findLastPageHeader(raf.getChannel(), start);
+        if (lastPageHeader != null)
+        {
+            long lastPageEnd = lastPageHeader.getStartByte() + lastPageHeader.getRawHeaderData().length + lastPageHeader.getPageLength();
+            if (lastPageEnd < end)
+            {
+                ByteBuffer tagId = ByteBuffer.allocate(AbstractID3v1Tag.TAG.length());
+                raf.getChannel().read(tagId, lastPageEnd);
+                tagId.flip();
+                if (Utils.readThreeBytesAsChars(tagId).equals(AbstractID3v1Tag.TAG))
+                {
+                    end = lastPageEnd;
+                }
+            }
+        }
+
+        FileChannel in = raf.getChannel();
+        FileChannel out = rafTemp.getChannel();
+        long position = start;
+        while (position < end)
+        {
+            long transferred = in.transferTo(position, end - position, out);
+            if (transferred <= 0)
+            {
+                throw new CannotWriteException("Unable to transfer remaining pages at:" + position);
+            }
+            position += transferred;
+        }
+        raf.seek(raf.length());
+        return raf.length() - end;
+    }
 
-        //Read in the rest of the data into bytebuffer and rewind it to start
-        raf.getChannel().read(bb);
-        bb.rewind();
+    /**
+     * Renumber and write the remaining pages through a bounded buffer
+     *
+     * @param pageSequence sequence number of the last page written
+     * @param raf positioned at the start of the first remaining page
+     * @param rafTemp
+     * @return number of bytes discarded from the end of the file
+     * @throws IOException
+     * @throws CannotReadException
+     */
+    private long rewriteRemainingPages(int pageSequence, RandomAccessFile raf, RandomAccessFile rafTemp) throws IOException, CannotReadException
+    {
+        FileChannel in = raf.getChannel();
+        FileChannel out = rafTemp.getChannel();
+        long readPosition = raf.getFilePointer();
+        long end = raf.length();
         long bytesToDiscard = 0;
-        while(bb.hasRemaining())
+
+        ByteBuffer window = ByteBuffer.allocate((int) Math.min(PAGE_REWRITE_BUFFER_SIZE, Math.max(end - readPosition, 0)));
+        window.order(ByteOrder.LITTLE_ENDIAN);
+
+        pageLoop:
+        while (readPosition < end || window.position() > 0)
         {
-            OggPageHeader nextPage=null;
-            try
+            //Fill the window from the file, after any partial page left over from the last pass
+            while (window.hasRemaining() && readPosition < end)
             {
-                nextPage = OggPageHeader.read(bb);
+                int read = in.read(window, readPosition);
+                if (read < 0)
+                {
+                    break;
+                }
+                readPosition += read;
             }
-            catch(CannotReadException cre)
+            window.flip();
+
+            //Patch each complete page held in the window
+            while (window.hasRemaining())
             {
-                //Go back to where were
-                bb.position(bb.position() - OggPageHeader.CAPTURE_PATTERN.length);
-                //#117:Ogg file with invalid ID3v1 tag at end remove and save
-                if(Utils.readThreeBytesAsChars(bb).equals(AbstractID3v1Tag.TAG))
+                int pageStart = window.position();
+                if (window.remaining() < OggPageHeader.CAPTURE_PATTERN.length && readPosition < end)
                 {
-                    bytesToDiscard = bb.remaining() + AbstractID3v1Tag.TAG.length();
                     break;
                 }
-                else
+                if (!isCapturePattern(window, pageStart))
+                {
+                    //#117:Ogg file with invalid ID3v1 tag at end remove and save
+                    if (isID3v1Tag(window, pageStart))
+                    {
+                        bytesToDiscard = (end - readPosition) + window.limit() - pageStart;
+                        window.position(0);
+                        window.limit(pageStart);
+                        writeWindow(window, out);
+                        break pageLoop;
+                    }
+                    byte[] b = new byte[Math.min(OggPageHeader.CAPTURE_PATTERN.length, window.remaining())];
+                    window.get(b);
+                    throw new CannotReadException(ErrorMessage.OGG_HEADER_CANNOT_BE_FOUND.getMsg(new String(b, StandardCharsets.ISO_8859_1)));
+                }
+
+                int pageLength = getPageLength(window, pageStart);
+                if (pageLength < 0 || window.remaining() < pageLength)
                 {
-                    throw cre;
+                    if (readPosition >= end)
+                    {
+                        throw new CannotReadException("Ogg page at:" + (readPosition - window.limit() + pageStart) + " is truncated by end of file");
+                    }
+                    break;
                 }
+
+                window.putInt(pageStart + OggPageHeader.FIELD_PAGE_SEQUENCE_NO_POS, ++pageSequence);
+                OggCRCFactory.writePageCRC(window, pageStart, pageLength);
+                window.position(pageStart + pageLength);
             }
-            //Create buffer large enough for next page (header and data) and set byte order to LE so we can use
-            //putInt method
-            ByteBuffer nextPageHeaderBuffer = ByteBuffer.allocate(nextPage.getRawHeaderData().length + nextPage.getPageLength());
-            nextPageHeaderBuffer.order(ByteOrder.LITTLE_ENDIAN);
-            nextPageHeaderBuffer.put(nextPage.getRawHeaderData());
-            ByteBuffer data = bb.slice();
-            data.limit(nextPage.getPageLength());
-            nextPageHeaderBuffer.put(data);
-            nextPageHeaderBuffer.putInt(OggPageHeader.FIELD_PAGE_SEQUENCE_NO_POS, ++pageSequence);
-            calculateChecksumOverPage(nextPageHeaderBuffer);
-            bb.position(bb.position() + nextPage.getPageLength());
-
-            nextPageHeaderBuffer.rewind();
-            bbTemp.put(nextPageHeaderBuffer);
-        }
-        //Now just write as a single IO operation
-        bbTemp.flip();
-        rafTemp.getChannel().write(bbTemp);
-        //Check we have written all the data (minus any invalid Tag at end)
-        if ((raf.length() - startAudio) != ((rafTemp.length() + bytesToDiscard) - startAudioWritten))
+
+            //Write all the complete pages as a single IO operation and keep any partial page for the next pass
+            int processedEnd = window.position();
+            int limit = window.limit();
+            window.position(0);
+            window.limit(processedEnd);
+            writeWindow(window, out);
+            window.limit(limit);
+            window.position(processedEnd);
+            window.compact();
+        }
+        raf.seek(end);
+        return bytesToDiscard;
+    }
+
+    private static boolean isCapturePattern(ByteBuffer bb, int pos)
+    {
+        return bb.limit() - pos >= OggPageHeader.CAPTURE_PATTERN.length
+                && bb.get(pos) == OggPageHeader.CAPTURE_PATTERN[0]
+                && bb.get(pos + 1) == OggPageHeader.CAPTURE_PATTERN[1]
+                && bb.get(pos + 2) == OggPageHeader.CAPTURE_PATTERN[2]
+                && bb.get(pos + 3) == OggPageHeader.CAPTURE_PATTERN[3];
+    }
+
+    private static boolean isID3v1Tag(ByteBuffer bb, int pos)
+    {
+        if (bb.limit() - pos < AbstractID3v1Tag.TAG.length())
         {
-            throw new CannotWriteException("File written counts don't match, file not written:"
-                    +"origAudioLength:"+(raf.length() - startAudio)
-                    +":newAudioLength:"+((rafTemp.length() + bytesToDiscard) - startAudioWritten)
-                    +":bytesDiscarded:"+bytesToDiscard);
+            return false;
+        }
+        ByteBuffer tagId = bb.duplicate();
+        tagId.position(pos);
+        return Utils.readThreeBytesAsChars(tagId).equals(AbstractID3v1Tag.TAG);
+    }
+
+    /**
+     * @return total length of the page (header and data) starting at pos, or -1 if the header is not yet all in the buffer
+     */
+    private static int getPageLength(ByteBuffer bb, int pos)
+    {
+        if (bb.limit() - pos < OggPageHeader.OGG_PAGE_HEADER_FIXED_LENGTH)
+        {
+            return -1;
+        }
+        int pageSegments = bb.get(pos + OggPageHeader.FIELD_PAGE_SEGMENTS_POS) & 0xFF;
+        int headerLength = OggPageHeader.OGG_PAGE_HEADER_FIXED_LENGTH + pageSegments;
+        if (bb.limit() - pos < headerLength)
+        {
+            return -1;
+        }
+        int pageLength = headerLength;
+        for (int i = 0; i < pageSegments; i++)
+        {
+            pageLength += bb.get(pos + OggPageHeader.FIELD_SEGMENT_TABLE_POS + i) & 0xFF;
+        }
+        return pageLength;
+    }
+
+    private static void writeWindow(ByteBuffer window, FileChannel out) throws IOException
+    {
+        while (window.hasRemaining())
+        {
+            out.write(window);
         }
     }
 
@@ -18,12 +18,19 @@
  */
 package org.jaudiotagger.audio.ogg.util;
 
+import java.nio.ByteBuffer;
 import java.util.logging.Logger;
 
 
 /**
  * OffCRC Calculations
  *
+ * Ogg uses a non reflected CRC32 with polynomial 0x04c11db7, an initial value of zero and no final xor. The crc is
+ * calculated over the whole page with the checksum field set to zero.
+ *
+ * The calculation works on int registers using slicing-by-8 lookup tables so eight bytes are processed per step,
+ * and can be updated incrementally over arrays or heap and direct ByteBuffers without allocating.
+ *
  * $Id$
  *
  * @author Raphael Slinckx (KiKiDonK)
@@ -34,71 +41,212 @@ public class OggCRCFactory
     // Logger Object
     public static Logger logger = Logger.getLogger("org.jaudiotagger.audio.ogg");
 
-    private static long[] crc_lookup = new long[256];
-    private static boolean init = false;
+    private static final int POLYNOMIAL = 0x04c11db7;
 
+    //crcTables[k][i] is the crc of byte i followed by k zero bytes
+    private static final int[][] crcTables = new int[8][256];
 
-    public static void init()
+    static
     {
         for (int i = 0; i < 256; i++)
         {
-            long r = i << 24;
-
+            int r = i << 24;
             for (int j = 0; j < 8; j++)
             {
-                if ((r & 0x80000000L) != 0)
+                if ((r & 0x80000000) != 0)
                 {
-                    r = (r << 1) ^ 0x04c11db7L;
+                    r = (r << 1) ^ POLYNOMIAL;
                 }
                 else
                 {
                     r <<= 1;
                 }
             }
-
-            crc_lookup[i] = (r);
+            crcTables[0][i] = r;
+        }
+        for (int k = 1; k < 8; k++)
+        {
+            for (int i = 0; i < 256; i++)
+            {
+                int r = crcTables[k - 1][i];
+                crcTables[k][i] = (r << 8) ^ crcTables[0][r >>> 24];
+            }
         }
-        init = true;
     }
 
+    /**
+     * Lookup tables are now created when the class is loaded, retained so existing callers still work
+     */
+    public static void init()
+    {
+    }
 
+    /**
+     * @param data page with checksum field set to zero
+     * @param crc expected checksum in the byte order it is stored in the page
+     * @return true if the checksum of data matches crc
+     */
     public boolean checkCRC(byte[] data, byte[] crc)
     {
-        return new String(crc).equals(new String(computeCRC(data)));
+        if (crc.length != OggPageHeader.FIELD_PAGE_CHECKSUM_LENGTH)
+        {
+            return false;
+        }
+        int expected = (crc[0] & 0xff) | ((crc[1] & 0xff) << 8) | ((crc[2] & 0xff) << 16) | ((crc[3] & 0xff) << 24);
+        return update(0, data, 0, data.length) == expected;
     }
 
     public static byte[] computeCRC(byte[] data)
     {
+        return computeCRC(data, 0, data.length);
+    }
+
+    /**
+     * Compute CRC over part of an array, so a page held within a larger buffer does not need copying first
+     *
+     * @param data
+     * @param offset start of page within data
+     * @param length length of page
+     * @return
+     */
+    public static byte[] computeCRC(byte[] data, int offset, int length)
+    {
+        int crc = update(0, data, offset, length);
+
+        byte[] sum = new byte[4];
+
+        sum[0] = (byte) crc;
+        sum[1] = (byte) (crc >>> 8);
+        sum[2] = (byte) (crc >>> 16);
+        sum[3] = (byte) (crc >>> 24);
+
+        return sum;
+    }
 
-        if (!init)
+    /**
+     * Continue a crc calculation over part of an array
+     *
+     * @param crc value so far, zero to start a new calculation
+     * @param data
+     * @param offset
+     * @param length
+     * @return updated crc
+     */
+    public static int update(int crc, byte[] data, int offset, int length)
+    {
+        int[] t0 = crcTables[0], t1 = crcTables[1], t2 = crcTables[2], t3 = crcTables[3];
+        int[] t4 = crcTables[4], t5 = crcTables[5], t6 = crcTables[6], t7 = crcTables[7];
+        int i = offset;
+        int end = offset + length;
+        for (; i <= end - 8; i += 8)
         {
-            init();
+            crc ^= ((data[i] & 0xff) << 24) | ((data[i + 1] & 0xff) << 16) | ((data[i + 2] & 0xff) << 8) | (data[i + 3] & 0xff);
+            crc = t7[crc >>> 24] ^ t6[(crc >>> 16) & 0xff] ^ t5[(crc >>> 8) & 0xff] ^ t4[crc & 0xff]
+                    ^ t3[data[i + 4] & 0xff] ^ t2[data[i + 5] & 0xff] ^ t1[data[i + 6] & 0xff] ^ t0[data[i + 7] & 0xff];
         }
+        for (; i < end; i++)
+        {
+            crc = (crc << 8) ^ t0[(crc >>> 24) ^ (data[i] & 0xff)];
+        }
+        return crc;
+    }
 
-        long crc_reg = 0;
-
-        for (byte aData : data)
+    /**
+     * Continue a crc calculation over part of a heap or direct buffer, the buffer position and limit are not changed
+     *
+     * @param crc value so far, zero to start a new calculation
+     * @param bb
+     * @param offset absolute position in bb
+     * @param length
+     * @return updated crc
+     */
+    public static int update(int crc, ByteBuffer bb, int offset, int length)
+    {
+        if (bb.hasArray())
         {
-            int tmp = (int) (((crc_reg >>> 24) & 0xff) ^ u(aData));
+            return update(crc, bb.array(), bb.arrayOffset() + offset, length);
+        }
 
-            crc_reg = (crc_reg << 8) ^ crc_lookup[tmp];
-            crc_reg &= 0xffffffff;
+        int[] t0 = crcTables[0], t1 = crcTables[1], t2 = crcTables[2], t3 = crcTables[3];
+        int[] t4 = crcTables[4], t5 = crcTables[5], t6 = crcTables[6], t7 = crcTables[7];
+        int i = offset;
+        int end = offset + length;
+        for (; i <= end - 8; i += 8)
+        {
+            crc ^= ((bb.get(i) & 0xff) << 24) | ((bb.get(i + 1) & 0xff) << 16) | ((bb.get(i + 2) & 0xff) << 8) | (bb.get(i + 3) & 0xff);
+            crc = t7[crc >>> 24] ^ t6[(crc >>> 16) & 0xff] ^ t5[(crc >>> 8) & 0xff] ^ t4[crc & 0xff]
+                    ^ t3[bb.get(i + 4) & 0xff] ^ t2[bb.get(i + 5) & 0xff] ^ t1[bb.get(i + 6) & 0xff] ^ t0[bb.get(i + 7) & 0xff];
+        }
+        for (; i < end; i++)
+        {
+            crc = (crc << 8) ^ t0[(crc >>> 24) ^ (bb.get(i) & 0xff)];
         }
+        return crc;
+    }
 
-        byte[] sum = new byte[4];
+    /**
+     * Continue a crc calculation over a number of zero bytes
+     *
+     * @param crc
+     * @param length
+     * @return updated crc
+     */
+    private static int updateZeros(int crc, int length)
+    {
+        for (int i = 0; i < length; i++)
+        {
+            crc = (crc << 8) ^ crcTables[0][crc >>> 24];
+        }
+        return crc;
+    }
 
-        sum[0] = (byte) (crc_reg & 0xffL);
-        sum[1] = (byte) ((crc_reg >>> 8) & 0xffL);
-        sum[2] = (byte) ((crc_reg >>> 16) & 0xffL);
-        sum[3] = (byte) ((crc_reg >>> 24) & 0xffL);
+    /**
+     * Compute the crc of a page held in a buffer as if its checksum field was zero, without modifying the buffer
+     *
+     * @param bb
+     * @param pageStart absolute position of the start of the page in bb
+     * @param pageLength length of the page header and data
+     * @return crc of the page
+     */
+    public static int computePageCRC(ByteBuffer bb, int pageStart, int pageLength)
+    {
+        int afterChecksum = OggPageHeader.FIELD_PAGE_CHECKSUM_POS + OggPageHeader.FIELD_PAGE_CHECKSUM_LENGTH;
+        int crc = update(0, bb, pageStart, OggPageHeader.FIELD_PAGE_CHECKSUM_POS);
+        crc = updateZeros(crc, OggPageHeader.FIELD_PAGE_CHECKSUM_LENGTH);
+        return update(crc, bb, pageStart + afterChecksum, pageLength - afterChecksum);
+    }
 
-        return sum;
+    /**
+     * @return the checksum stored in the page header of the page held in a buffer
+     */
+    public static int getPageCRC(ByteBuffer bb, int pageStart)
+    {
+        int pos = pageStart + OggPageHeader.FIELD_PAGE_CHECKSUM_POS;
+        return (bb.get(pos) & 0xff) | ((bb.get(pos + 1) & 0xff) << 8) | ((bb.get(pos + 2) & 0xff) << 16) | ((bb.get(pos + 3) & 0xff) << 24);
     }
 
+    /**
+     * Calculate the crc of a page held in a buffer and store it in the page checksum field
+     *
+     * @param bb
+     * @param pageStart absolute position of the start of the page in bb
+     * @param pageLength length of the page header and data
+     */
+    public static void writePageCRC(ByteBuffer bb, int pageStart, int pageLength)
+    {
+        int crc = computePageCRC(bb, pageStart, pageLength);
+        int pos = pageStart + OggPageHeader.FIELD_PAGE_CHECKSUM_POS;
+        bb.put(pos, (byte) crc);
+        bb.put(pos + 1, (byte) (crc >>> 8));
+        bb.put(pos + 2, (byte) (crc >>> 16));
+        bb.put(pos + 3, (byte) (crc >>> 24));
+    }
 
-    private static int u(int n)
+    /**
+     * @return true if the checksum stored in the page header matches the crc of the page
+     */
+    public static boolean isPageCRCValid(ByteBuffer bb, int pageStart, int pageLength)
     {
-        return n & 0xff;
+        return computePageCRC(bb, pageStart, pageLength) == getPageCRC(bb, pageStart);
     }
 }
-
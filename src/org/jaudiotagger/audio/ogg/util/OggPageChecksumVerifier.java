@@ -0,0 +1,122 @@
+package org.jaudiotagger.audio.ogg.util;
+
+import org.jaudiotagger.audio.exceptions.CannotReadException;
+import org.jaudiotagger.logging.ErrorMessage;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.logging.Logger;
+
+/**
+ * Verifies the checksum of every page in an Ogg file
+ *
+ * Pages are read through a fixed size buffer and the checksum is calculated in place, so memory use does not
+ * depend on the size of the file. Verification stops at the first data that is not an Ogg page, such as an
+ * ID3v1 tag at the end of the file.
+ */
+public class OggPageChecksumVerifier
+{
+    // Logger Object
+    public static Logger logger = Logger.getLogger("org.jaudiotagger.audio.ogg");
+
+    //Size of buffer used to read the pages
+    private static final int BUFFER_SIZE = 16 * OggPageHeader.MAXIMUM_PAGE_SIZE;
+
+    /**
+     * Verify all pages from the first Ogg page in the file, the file pointer is left unchanged
+     *
+     * @param raf
+     * @return number of pages verified
+     * @throws CannotReadException if a page has an invalid checksum
+     * @throws IOException
+     */
+    public int verify(RandomAccessFile raf) throws CannotReadException, IOException
+    {
+        long filePointer = raf.getFilePointer();
+        raf.seek(0);
+        long readPosition = OggPageHeader.read(raf).getStartByte();
+        raf.seek(filePointer);
+
+        FileChannel fc = raf.getChannel();
+        long end = fc.size();
+        ByteBuffer window = ByteBuffer.allocate((int) Math.min(BUFFER_SIZE, end - readPosition));
+        int count = 0;
+        while (readPosition < end || window.position() > 0)
+        {
+            while (window.hasRemaining() && readPosition < end)
+            {
+                int read = fc.read(window, readPosition);
+                if (read < 0)
+                {
+                    break;
+                }
+                readPosition += read;
+            }
+            window.flip();
+
+            while (window.remaining() >= OggPageHeader.OGG_PAGE_HEADER_FIXED_LENGTH)
+            {
+                int pageStart = window.position();
+                if (!isCapturePattern(window, pageStart))
+                {
+                    logger.warning("Stopped verifying Ogg pages at offset:" + (readPosition - window.limit() + pageStart) + " because no Ogg page found");
+                    return count;
+                }
+
+                int pageSegments = window.get(pageStart + OggPageHeader.FIELD_PAGE_SEGMENTS_POS) & 0xFF;
+                int pageLength = OggPageHeader.OGG_PAGE_HEADER_FIXED_LENGTH + pageSegments;
+                if (window.remaining() < pageLength)
+                {
+                    break;
+                }
+                for (int i = 0; i < pageSegments; i++)
+                {
+                    pageLength += window.get(pageStart + OggPageHeader.FIELD_SEGMENT_TABLE_POS + i) & 0xFF;
+                }
+                if (window.remaining() < pageLength)
+                {
+                    break;
+                }
+
+                int expected = OggCRCFactory.getPageCRC(window, pageStart);
+                int calculated = OggCRCFactory.computePageCRC(window, pageStart, pageLength);
+                if (expected != calculated)
+                {
+                    int pageSequence = window.get(pageStart + OggPageHeader.FIELD_PAGE_SEQUENCE_NO_POS) & 0xFF
+                            | (window.get(pageStart + OggPageHeader.FIELD_PAGE_SEQUENCE_NO_POS + 1) & 0xFF) << 8
+                            | (window.get(pageStart + OggPageHeader.FIELD_PAGE_SEQUENCE_NO_POS + 2) & 0xFF) << 16
+                            | (window.get(pageStart + OggPageHeader.FIELD_PAGE_SEQUENCE_NO_POS + 3) & 0xFF) << 24;
+                    throw new CannotReadException(ErrorMessage.OGG_PAGE_CHECKSUM_INVALID.getMsg(
+                            pageSequence,
+                            readPosition - window.limit() + pageStart,
+                            Integer.toHexString(expected),
+                            Integer.toHexString(calculated)));
+                }
+                count++;
+                window.position(pageStart + pageLength);
+            }
+
+            if (readPosition >= end)
+            {
+                if (window.hasRemaining())
+                {
+                    logger.warning("Stopped verifying Ogg pages, " + window.remaining() + " bytes at end of file are not a complete Ogg page");
+                }
+                break;
+            }
+            window.compact();
+        }
+        logger.config("Verified checksum of " + count + " Ogg pages");
+        return count;
+    }
+
+    private static boolean isCapturePattern(ByteBuffer bb, int pos)
+    {
+        return bb.get(pos) == OggPageHeader.CAPTURE_PATTERN[0]
+                && bb.get(pos + 1) == OggPageHeader.CAPTURE_PATTERN[1]
+                && bb.get(pos + 2) == OggPageHeader.CAPTURE_PATTERN[2]
+                && bb.get(pos + 3) == OggPageHeader.CAPTURE_PATTERN[3];
+    }
+}
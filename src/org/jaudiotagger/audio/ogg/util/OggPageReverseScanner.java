@@ -0,0 +1,185 @@
+package org.jaudiotagger.audio.ogg.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Locates the last Ogg page in a file by scanning backwards from the end of the file.
+ *
+ * The tail of the file is read in large blocks using positional reads on the channel, the capture pattern is
+ * searched for within the block and each candidate is validated in place before a page header is constructed.
+ * Further blocks are only read if no valid page header is found in the blocks read so far.
+ *
+ * Positional reads are used so the file pointer of the underlying file is left unchanged.
+ */
+public class OggPageReverseScanner
+{
+    // Logger Object
+    public static Logger logger = Logger.getLogger("org.jaudiotagger.audio.ogg.atom");
+
+    //Size of each block read from the end of the file, large enough to hold the largest possible Ogg page
+    public static final int DEFAULT_BLOCK_SIZE = 64 * 1024;
+
+    private final int blockSize;
+    private long bytesScanned;
+
+    public OggPageReverseScanner()
+    {
+        this(DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * @param blockSize size of each block read, must be larger than the capture pattern
+     */
+    public OggPageReverseScanner(int blockSize)
+    {
+        if (blockSize <= OggPageHeader.CAPTURE_PATTERN.length)
+        {
+            throw new IllegalArgumentException("Block size too small:" + blockSize);
+        }
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Find the last valid page header between start and the end of the file
+     *
+     * @param fc
+     * @param start position in file that the search should not go before, i.e start of first Ogg page
+     * @return the last page header with its start byte set, or null if no page header could be found
+     * @throws IOException
+     */
+    public OggPageHeader findLastPageHeader(FileChannel fc, long start) throws IOException
+    {
+        bytesScanned = 0;
+        long fileSize = fc.size();
+        ByteBuffer block = ByteBuffer.allocate((int) Math.min(blockSize, Math.max(fileSize - start, 0)));
+        long blockEnd = fileSize;
+        while (blockEnd - start >= OggPageHeader.CAPTURE_PATTERN.length)
+        {
+            long blockStart = Math.max(start, blockEnd - blockSize);
+            block.clear();
+            block.limit((int) (blockEnd - blockStart));
+            readFully(fc, block, blockStart);
+            bytesScanned += block.limit();
+
+            for (int i = block.limit() - OggPageHeader.CAPTURE_PATTERN.length; i >= 0; i--)
+            {
+                if (isCapturePattern(block, i))
+                {
+                    OggPageHeader pageHeader = readPageHeader(fc, block, blockStart, i, fileSize);
+                    if (pageHeader != null)
+                    {
+                        if (logger.isLoggable(Level.CONFIG))
+                        {
+                            logger.config("Found last Ogg page at:" + pageHeader.getStartByte() + ":after scanning:" + bytesScanned + " bytes");
+                        }
+                        return pageHeader;
+                    }
+                }
+            }
+
+            if (blockStart == start)
+            {
+                break;
+            }
+            //Overlap blocks so a capture pattern spanning the block boundary is not missed
+            blockEnd = blockStart + OggPageHeader.CAPTURE_PATTERN.length - 1;
+        }
+        logger.config("No Ogg page found after scanning:" + bytesScanned + " bytes");
+        return null;
+    }
+
+    /**
+     * @return number of bytes read from the file by the last call to findLastPageHeader
+     */
+    public long getBytesScanned()
+    {
+        return bytesScanned;
+    }
+
+    private static boolean isCapturePattern(ByteBuffer block, int pos)
+    {
+        return block.get(pos) == OggPageHeader.CAPTURE_PATTERN[0]
+                && block.get(pos + 1) == OggPageHeader.CAPTURE_PATTERN[1]
+                && block.get(pos + 2) == OggPageHeader.CAPTURE_PATTERN[2]
+                && block.get(pos + 3) == OggPageHeader.CAPTURE_PATTERN[3];
+    }
+
+    /**
+     * Validate the candidate page header, using the data already in the block where possible
+     *
+     * @return the page header or null if the candidate is not a valid page header
+     */
+    private OggPageHeader readPageHeader(FileChannel fc, ByteBuffer block, long blockStart, int pos, long fileSize) throws IOException
+    {
+        long pageStart = blockStart + pos;
+        if (pageStart + OggPageHeader.OGG_PAGE_HEADER_FIXED_LENGTH > fileSize)
+        {
+            return null;
+        }
+
+        ByteBuffer fixedHeader;
+        if (pos + OggPageHeader.OGG_PAGE_HEADER_FIXED_LENGTH <= block.limit())
+        {
+            fixedHeader = block;
+        }
+        else
+        {
+            fixedHeader = ByteBuffer.allocate(OggPageHeader.OGG_PAGE_HEADER_FIXED_LENGTH);
+            readFully(fc, fixedHeader, pageStart);
+            bytesScanned += fixedHeader.limit();
+            pos = 0;
+        }
+
+        //Only stream structure version 0 is defined, and only the lowest three bits of the header type are used
+        if (fixedHeader.get(pos + OggPageHeader.FIELD_STREAM_STRUCTURE_VERSION_POS) != 0)
+        {
+            return null;
+        }
+        if ((fixedHeader.get(pos + OggPageHeader.FIELD_HEADER_TYPE_FLAG_POS) & 0xF8) != 0)
+        {
+            return null;
+        }
+
+        int pageSegments = fixedHeader.get(pos + OggPageHeader.FIELD_PAGE_SEGMENTS_POS) & 0xFF;
+        int headerLength = OggPageHeader.OGG_PAGE_HEADER_FIXED_LENGTH + pageSegments;
+        if (pageStart + headerLength > fileSize)
+        {
+            return null;
+        }
+
+        byte[] rawHeader = new byte[headerLength];
+        if (fixedHeader == block && pos + headerLength <= block.limit())
+        {
+            ByteBuffer header = block.duplicate();
+            header.position(pos);
+            header.get(rawHeader);
+        }
+        else
+        {
+            ByteBuffer header = ByteBuffer.wrap(rawHeader);
+            readFully(fc, header, pageStart);
+            bytesScanned += headerLength;
+        }
+
+        OggPageHeader pageHeader = new OggPageHeader(rawHeader);
+        pageHeader.setStartByte(pageStart);
+        return pageHeader;
+    }
+
+    private static void readFully(FileChannel fc, ByteBuffer bb, long position) throws IOException
+    {
+        while (bb.hasRemaining())
+        {
+            int read = fc.read(bb, position + bb.position());
+            if (read < 0)
+            {
+                break;
+            }
+        }
+        bb.flip();
+    }
+}
@@ -18,6 +18,8 @@
  */
 package org.jaudiotagger.audio.wav;
 
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.ReadOptions;
 import org.jaudiotagger.audio.exceptions.CannotReadException;
 import org.jaudiotagger.audio.generic.AudioFileReader2;
 import org.jaudiotagger.audio.generic.GenericAudioHeader;
@@ -27,6 +29,8 @@ import org.jaudiotagger.tag.wav.WavTag;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
 
 /**
  * Reads Audio and Metadata information contained in Wav file.
@@ -46,7 +50,37 @@ public class WavFileReader extends AudioFileReader2
     @Override
     protected Tag getTag(File path) throws IOException, CannotReadException
     {           
-        WavTag tag =  new WavTagReader(path.toString()).read(path);
+        return syncTag(new WavTagReader(path.toString()).read(path));
+    }
+
+    /**
+     * Open the file once and read both the encoding info and the tag from it
+     */
+    @Override
+    protected AudioFile readAudioFile(File path, ReadOptions options) throws CannotReadException, IOException
+    {
+        if (options != ReadOptions.HEADER_AND_TAG)
+        {
+            return super.readAudioFile(path, options);
+        }
+
+        try(FileChannel fc = new RandomAccessFile(path, "r").getChannel())
+        {
+            GenericAudioHeader info = new WavInfoReader(path.toString()).read(fc);
+            fc.position(0);
+            WavTag tag = new WavTagReader(path.toString()).read(fc);
+            return new AudioFile(path, info, syncTag(tag));
+        }
+    }
+
+    /**
+     * Sync the INFO and ID3 tags if required by the wav options
+     *
+     * @param tag
+     * @return
+     */
+    private Tag syncTag(WavTag tag)
+    {
         switch (TagOptionSingleton.getInstance().getWavOptions())
         {
             case READ_ID3_ONLY_AND_SYNC:
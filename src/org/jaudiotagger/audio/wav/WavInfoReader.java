@@ -52,23 +52,36 @@ public class WavInfoReader
 
     public GenericAudioHeader read(File path) throws CannotReadException, IOException
     {
-        GenericAudioHeader info = new GenericAudioHeader();
         try(FileChannel fc = new RandomAccessFile(path, "r").getChannel())
         {
-            if(WavRIFFHeader.isValidHeader(fc))
+            return read(fc);
+        }
+    }
+
+    /**
+     * Read the audio header from an open file
+     *
+     * @param fc positioned at the start of the file
+     * @return
+     * @throws CannotReadException
+     * @throws IOException
+     */
+    public GenericAudioHeader read(FileChannel fc) throws CannotReadException, IOException
+    {
+        GenericAudioHeader info = new GenericAudioHeader();
+        if(WavRIFFHeader.isValidHeader(fc))
+        {
+            while (fc.position() < fc.size())
             {
-                while (fc.position() < fc.size())
+                if (!readChunk(fc, info))
                 {
-                    if (!readChunk(fc, info))
-                    {
-                        break;
-                    }
+                    break;
                 }
             }
-            else
-            {
-                throw new CannotReadException(loggingName + " Wav RIFF Header not valid");
-            }
+        }
+        else
+        {
+            throw new CannotReadException(loggingName + " Wav RIFF Header not valid");
         }
         calculateTrackLength(info);
         return info;
@@ -62,25 +62,38 @@ public class WavTagReader
      * @throws IOException
      */
     public WavTag read(File path) throws CannotReadException, IOException
+    {
+        try(FileChannel fc = new RandomAccessFile(path, "r").getChannel())
+        {
+            return read(fc);
+        }
+    }
+
+    /**
+     * Read tag metadata from an open file
+     *
+     * @param fc positioned at the start of the file
+     * @return
+     * @throws CannotReadException
+     * @throws IOException
+     */
+    public WavTag read(FileChannel fc) throws CannotReadException, IOException
     {
         logger.config(loggingName + " Read Tag:start");
         WavTag tag = new WavTag(TagOptionSingleton.getInstance().getWavOptions());
-        try(FileChannel fc = new RandomAccessFile(path, "r").getChannel())
+        if (WavRIFFHeader.isValidHeader(fc))
         {
-            if (WavRIFFHeader.isValidHeader(fc))
+            while (fc.position() < fc.size())
             {
-                while (fc.position() < fc.size())
+                if (!readChunk(fc, tag))
                 {
-                    if (!readChunk(fc, tag))
-                    {
-                        break;
-                    }
+                    break;
                 }
             }
-            else
-            {
-                throw new CannotReadException(loggingName+ " Wav RIFF Header not valid");
-            }
+        }
+        else
+        {
+            throw new CannotReadException(loggingName+ " Wav RIFF Header not valid");
         }
         createDefaultMetadataTagsIfMissing(tag);
         logger.config(loggingName + " Read Tag:end");
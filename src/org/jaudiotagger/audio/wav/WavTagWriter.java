@@ -21,6 +21,7 @@ package org.jaudiotagger.audio.wav;
 import org.jaudiotagger.audio.exceptions.CannotReadException;
 import org.jaudiotagger.audio.exceptions.CannotWriteException;
 import org.jaudiotagger.audio.exceptions.NoWritePermissionsException;
+import org.jaudiotagger.audio.generic.PaddingPolicy;
 import org.jaudiotagger.audio.generic.Utils;
 import org.jaudiotagger.audio.iff.ChunkHeader;
 import org.jaudiotagger.audio.iff.ChunkSummary;
@@ -57,6 +58,10 @@ public class WavTagWriter
 {
     //For logging
     private String loggingName;
+
+    //Whether chunks after a metadata chunk had to be moved during the write, and size of the metadata chunks written
+    private boolean isChunksMoved;
+    private int metadataSize;
     public WavTagWriter(String loggingName)
     {
         this.loggingName = loggingName;
@@ -296,6 +301,7 @@ public class WavTagWriter
      */
     private void deleteTagChunk(final FileChannel fc, int endOfExistingChunk, final int lengthTagChunk) throws IOException
     {
+        isChunksMoved = true;
         //Position for reading after the tag
         fc.position(endOfExistingChunk);
 
@@ -357,6 +363,7 @@ public class WavTagWriter
                 throw new RuntimeException(loggingName + " No setting for:WavSaveOptions");
             }
             rewriteRiffHeaderSize(fc);
+            TagOptionSingleton.getInstance().getPaddingPolicy().writeCompleted(isChunksMoved ? PaddingPolicy.WriteMode.REWRITE : PaddingPolicy.WriteMode.IN_PLACE, metadataSize);
         }
         catch(IOException ioe)
         {
@@ -406,6 +413,7 @@ public class WavTagWriter
         listHeaderBuffer.putInt((int) chunkSize);
         listHeaderBuffer.flip();
         fc.write(listHeaderBuffer);
+        metadataSize += bb.limit();
 
         //Now write actual data
         fc.write(bb);
@@ -446,6 +454,7 @@ public class WavTagWriter
         listBuffer.putInt(bb.limit());
         listBuffer.flip();
         fc.write(listBuffer);
+        metadataSize += bb.limit();
 
         //Now write actual data
         fc.write(bb);
@@ -916,6 +925,11 @@ public class WavTagWriter
                     {
                         writeInfoChunk(fc, existingTag.getInfoTag(), infoTagBuffer);
                     }
+                    //Fits within the existing chunk so no need to move the chunks after it
+                    else if (existingTag.getInfoTag().getSizeOfTag() >= newInfoTagSize)
+                    {
+                        writeInfoChunk(fc, existingTag.getInfoTag(), infoTagBuffer);
+                    }
                     else
                     {
                         deleteInfoTagChunk(fc, existingTag, infoChunkHeader);
@@ -970,6 +984,11 @@ public class WavTagWriter
                     {
                         writeID3DataToFile(fc, id3TagBuffer);
                     }
+                    //Padding within the ID3 tag let it fit the existing chunk so no need to move the chunks after it
+                    else if (id3TagBuffer.limit() == id3ChunkHeader.getSize() + (id3ChunkHeader.getSize() & 1))
+                    {
+                        writeID3DataToFile(fc, id3TagBuffer);
+                    }
                     else
                     {
                         deleteId3TagChunk(fc, existingTag, id3ChunkHeader);
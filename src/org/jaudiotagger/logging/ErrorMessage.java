@@ -34,6 +34,7 @@ public enum ErrorMessage
     GENERAL_WRITE_FAILED_NEW_FILE_DOESNT_EXIST("New file {0} does not appear to exist"),
     GENERAL_WRITE_FAILED_BECAUSE("Cannot make changes to file {0} because {1}"),
     GENERAL_WRITE_FAILED_BECAUSE_FILE_NOT_FOUND("Cannot make changes to file {0} because the file cannot be found"),
+    GENERAL_WRITE_FAILED_BECAUSE_TAG_NOT_READ("Cannot make changes to file {0} because it was read without its tag"),
     GENERAL_WRITE_WARNING_UNABLE_TO_DELETE_BACKUP_FILE("Unable to delete the backup file {0}"),        
     GENERAL_WRITE_PROBLEM_CLOSING_FILE_HANDLE("Problem closing file handles for file {0} because {1}"),
     GENERAL_DELETE_FAILED("Cannot delete file {0} because not writable"),
@@ -118,6 +119,8 @@ public enum ErrorMessage
     NO_AUDIO_HEADER_FOUND("No audio header found within {0}"),
     NOT_STANDARD_MP$_GENRE("This is not a standard genre value, use custom genre field instead"),
     FLAC_NO_BLOCKTYPE("Flac file has invalid block type {0}"),
+    OGG_PAGE_CHECKSUM_INVALID("Ogg page {0} at offset {1} has invalid checksum {2}, calculated {3}"),
+    NO_AUDIO_DATA_FOUND("Unable to find the audio data within {0}"),
     ;
 
 
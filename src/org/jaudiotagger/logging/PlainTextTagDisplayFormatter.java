@@ -25,8 +25,6 @@ package org.jaudiotagger.logging;
 */
 public class PlainTextTagDisplayFormatter extends AbstractTagDisplayFormatter
 {
-    private static PlainTextTagDisplayFormatter formatter;
-
     StringBuffer sb = new StringBuffer();
     StringBuffer indent = new StringBuffer();
 
@@ -88,12 +86,13 @@ public class PlainTextTagDisplayFormatter extends AbstractTagDisplayFormatter
         return sb.toString();
     }
 
+    private static class InstanceHolder
+    {
+        private static final PlainTextTagDisplayFormatter INSTANCE = new PlainTextTagDisplayFormatter();
+    }
+
     public static AbstractTagDisplayFormatter getInstanceOf()
     {
-        if (formatter == null)
-        {
-            formatter = new PlainTextTagDisplayFormatter();
-        }
-        return formatter;
+        return InstanceHolder.INSTANCE;
     }
 }
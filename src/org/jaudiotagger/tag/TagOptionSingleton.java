@@ -24,6 +24,7 @@
  */
 package org.jaudiotagger.tag;
 
+import org.jaudiotagger.audio.generic.PaddingPolicy;
 import org.jaudiotagger.audio.wav.WavOptions;
 import org.jaudiotagger.audio.wav.WavSaveOptions;
 import org.jaudiotagger.audio.wav.WavSaveOrder;
@@ -43,6 +44,7 @@ import org.jaudiotagger.tag.vorbiscomment.VorbisAlbumArtistSaveOptions;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class TagOptionSingleton
 {
@@ -107,9 +109,9 @@ public class TagOptionSingleton
     }
 
     /**
-     *
+     * Concurrent because options are looked up by every thread reading files
      */
-    private static HashMap<String, TagOptionSingleton> tagOptionTable = new HashMap<String, TagOptionSingleton>();
+    private static ConcurrentHashMap<String, TagOptionSingleton> tagOptionTable = new ConcurrentHashMap<String, TagOptionSingleton>();
 
     /**
      *
@@ -356,6 +358,34 @@ public class TagOptionSingleton
      */
     private boolean checkIsWritable = false;
 
+    /**
+     * Whether the checksum of every Ogg page should be verified when the file is read, useful when auditing
+     * files for corruption but requires reading the whole file
+     */
+    private boolean verifyOggPageChecksums = false;
+
+    /**
+     * Whether decoding of ID3v2 frame bodies is deferred until each frame is first accessed, frames that are never
+     * accessed are written back unchanged
+     */
+    private boolean lazyID3v2FrameBodyDecoding = false;
+
+    /**
+     * How much padding to leave after the metadata when the audio has to be moved to make room for it
+     */
+    private PaddingPolicy paddingPolicy = PaddingPolicy.formatDefault();
+
+    /**
+     * Whether mp4 metadata is written directly into the original file when possible rather than through a temporary
+     * copy of the whole file
+     */
+    private boolean mp4WriteInPlace = true;
+
+    /**
+     * Whether every mp3 frame is read to get the exact track length and bitrate
+     */
+    private boolean mp3ExactDuration = false;
+
     /**
      * 
      */
@@ -389,7 +419,11 @@ public class TagOptionSingleton
         if (tagOptions == null)
         {
             tagOptions = new TagOptionSingleton();
-            tagOptionTable.put(instanceKey, tagOptions);
+            TagOptionSingleton existing = tagOptionTable.putIfAbsent(instanceKey, tagOptions);
+            if (existing != null)
+            {
+                tagOptions = existing;
+            }
         }
 
         return tagOptions;
@@ -903,6 +937,11 @@ public class TagOptionSingleton
         padNumberTotalLength = PadNumberOption.PAD_ONE_ZERO;
         id3v2Version = ID3V2Version.ID3_V23;
         checkIsWritable = false;
+        verifyOggPageChecksums = false;
+        lazyID3v2FrameBodyDecoding = false;
+        paddingPolicy = PaddingPolicy.formatDefault();
+        mp4WriteInPlace = true;
+        mp3ExactDuration = false;
         //default all lyrics3 fields to save. id3v1 fields are individual
         // settings. id3v2 fields are always looked at to save.
         Iterator<String> iterator = Lyrics3v2Fields.getInstanceOf().getIdToValueMap().keySet().iterator();
@@ -1327,5 +1366,80 @@ public class TagOptionSingleton
 	public void setCheckIsWritable(boolean checkIsWritable) {
 		this.checkIsWritable = checkIsWritable;
 	}
-    
+
+    /**
+     * Whether the checksum of every Ogg page should be verified when the file is read, useful when auditing
+     * files for corruption but requires reading the whole file
+     */
+    public boolean isVerifyOggPageChecksums()
+    {
+        return verifyOggPageChecksums;
+    }
+
+    public void setVerifyOggPageChecksums(boolean verifyOggPageChecksums)
+    {
+        this.verifyOggPageChecksums = verifyOggPageChecksums;
+    }
+
+    /**
+     * Whether decoding of ID3v2 frame bodies is deferred until each frame is first accessed, frames that are never
+     * accessed are written back unchanged. Compressed and encrypted frames are always decoded when read.
+     */
+    public boolean isLazyID3v2FrameBodyDecoding()
+    {
+        return lazyID3v2FrameBodyDecoding;
+    }
+
+    public void setLazyID3v2FrameBodyDecoding(boolean lazyID3v2FrameBodyDecoding)
+    {
+        this.lazyID3v2FrameBodyDecoding = lazyID3v2FrameBodyDecoding;
+    }
+
+    /**
+     * How much padding to leave after the metadata when the audio has to be moved to make room for it, also counts
+     * how many writes were done in place
+     */
+    public PaddingPolicy getPaddingPolicy()
+    {
+        return paddingPolicy;
+    }
+
+    public void setPaddingPolicy(PaddingPolicy paddingPolicy)
+    {
+        if (paddingPolicy == null)
+        {
+            throw new IllegalArgumentException("Padding policy cannot be null");
+        }
+        this.paddingPolicy = paddingPolicy;
+    }
+
+    /**
+     * Whether mp4 metadata is written directly into the original file when possible, only the metadata and the
+     * chunk offsets are rewritten and if the moov atom has to grow the data after it is moved along within the same
+     * file. Disable to always write through a temporary copy so the original file is untouched if the write fails.
+     */
+    public boolean isMp4WriteInPlace()
+    {
+        return mp4WriteInPlace;
+    }
+
+    public void setMp4WriteInPlace(boolean mp4WriteInPlace)
+    {
+        this.mp4WriteInPlace = mp4WriteInPlace;
+    }
+
+    /**
+     * Whether every frame of an mp3 is read to get the exact frame count, track length and bitrate. Otherwise these
+     * come from the Xing or VBRI header if there is one, or are estimated from the first frame, which is wrong for a
+     * variable bitrate file without either header. Reading every frame header is fast but still reads the whole file.
+     */
+    public boolean isMp3ExactDuration()
+    {
+        return mp3ExactDuration;
+    }
+
+    public void setMp3ExactDuration(boolean mp3ExactDuration)
+    {
+        this.mp3ExactDuration = mp3ExactDuration;
+    }
 }
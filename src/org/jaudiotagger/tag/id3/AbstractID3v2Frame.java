@@ -19,6 +19,7 @@ import org.jaudiotagger.audio.mp3.MP3File;
 import org.jaudiotagger.tag.*;
 import org.jaudiotagger.tag.id3.framebody.AbstractID3v2FrameBody;
 import org.jaudiotagger.tag.id3.framebody.FrameBodyEncrypted;
+import org.jaudiotagger.tag.id3.framebody.FrameBodyFactory;
 import org.jaudiotagger.tag.id3.framebody.FrameBodyUnsupported;
 import org.jaudiotagger.tag.id3.valuepair.TextEncoding;
 import org.jaudiotagger.utils.EqualsUtil;
@@ -55,6 +56,12 @@ public abstract class AbstractID3v2Frame extends AbstractTagFrame implements Tag
     //when processing many files
     private String loggingFilename = "";
 
+    //Copy of the frame as read from the tag buffer whilst decoding of the body is deferred, null once the body is
+    //decoded or the frame has been written
+    private ByteBuffer rawFrameBuffer;
+    private int rawBodyOffset;
+    private String rawBodyIdentifier;
+
     /**
      *
      * @return size in bytes of the frameid field
@@ -119,30 +126,12 @@ public abstract class AbstractID3v2Frame extends AbstractTagFrame implements Tag
         logger.config("Creating empty frame of type" + identifier);
         this.identifier = identifier;
 
-        // Use reflection to map id to frame body, which makes things much easier
-        // to keep things up to date.
-        try
-        {
-            Class<AbstractID3v2FrameBody> c = (Class<AbstractID3v2FrameBody>) Class.forName("org.jaudiotagger.tag.id3.framebody.FrameBody" + identifier);
-            frameBody = c.newInstance();
-        }
-        catch (ClassNotFoundException cnfe)
+        frameBody = FrameBodyFactory.createFrameBody(identifier);
+        if (frameBody == null)
         {
-            logger.severe(cnfe.getMessage());
+            logger.severe("No frame body for identifier:" + identifier);
             frameBody = new FrameBodyUnsupported(identifier);
         }
-        //Instantiate Interface/Abstract should not happen
-        catch (InstantiationException ie)
-        {
-            logger.log(Level.SEVERE, "InstantiationException:" + identifier, ie);
-            throw new RuntimeException(ie);
-        }
-        //Private Constructor shouild not happen
-        catch (IllegalAccessException iae)
-        {
-            logger.log(Level.SEVERE, "IllegalAccessException:" + identifier, iae);
-            throw new RuntimeException(iae);
-        }
         frameBody.setHeader(this);
         if (this instanceof ID3v24Frame)
         {
@@ -254,92 +243,154 @@ public abstract class AbstractID3v2Frame extends AbstractTagFrame implements Tag
      * @return a newly created FrameBody
      * @throws InvalidFrameException unable to construct a framebody from the data
      */
-    @SuppressWarnings("unchecked")
-    //TODO using reflection is rather slow perhaps we should change this
     protected AbstractID3v2FrameBody readBody(String identifier, ByteBuffer byteBuffer, int frameSize)
             throws InvalidFrameException, InvalidDataTypeException
     {
-        //Use reflection to map id to frame body, which makes things much easier
-        //to keep things up to date,although slight performance hit.
         logger.finest("Creating framebody:start");
 
         AbstractID3v2FrameBody frameBody;
         try
         {
-            Class<AbstractID3v2FrameBody> c = (Class<AbstractID3v2FrameBody>) Class.forName("org.jaudiotagger.tag.id3.framebody.FrameBody" + identifier);
-            Class<?>[] constructorParameterTypes = {Class.forName("java.nio.ByteBuffer"), Integer.TYPE};
-            Object[] constructorParameterValues = {byteBuffer, frameSize};
-            Constructor<AbstractID3v2FrameBody> construct = c.getConstructor(constructorParameterTypes);
-            frameBody = (construct.newInstance(constructorParameterValues));
-        }
-        //No class defined for this frame type,use FrameUnsupported
-        catch (ClassNotFoundException cex)
-        {
-            logger.config(getLoggingFilename() + ":" + "Identifier not recognised:" + identifier + " using FrameBodyUnsupported");
-            try
+            frameBody = FrameBodyFactory.createFrameBody(identifier, byteBuffer, frameSize);
+
+            //No frame body defined for this frame type,use FrameUnsupported
+            if (frameBody == null)
             {
+                logger.config(getLoggingFilename() + ":" + "Identifier not recognised:" + identifier + " using FrameBodyUnsupported");
                 frameBody = new FrameBodyUnsupported(byteBuffer, frameSize);
             }
-            //Should only throw InvalidFrameException but unfortunately legacy hierachy forces
-            //read method to declare it can throw InvalidtagException
-            catch (InvalidFrameException ife)
-            {
-                throw ife;
-            }
-            catch (InvalidTagException te)
-            {
-                throw new InvalidFrameException(te.getMessage());
-            }
         }
-        //An error has occurred during frame instantiation, if underlying cause is an unchecked exception or error
-        //propagate it up otherwise mark this frame as invalid
-        catch (InvocationTargetException ite)
+        catch (InvalidFrameException ife)
         {
-            logger.severe(getLoggingFilename() + ":" + "An error occurred within abstractID3v2FrameBody for identifier:" + identifier + ":" + ite.getCause().getMessage());
-            if (ite.getCause() instanceof Error)
-            {
-                throw (Error) ite.getCause();
-            }
-            else if (ite.getCause() instanceof RuntimeException)
-            {
-                throw (RuntimeException) ite.getCause();
-            }
-            else if(ite.getCause() instanceof  InvalidFrameException )
-            {
-                throw (InvalidFrameException)ite.getCause();
-            }
-            else if(ite.getCause() instanceof  InvalidDataTypeException )
-            {
-                throw (InvalidDataTypeException)ite.getCause();
-            }
-            else
-            {
-                throw new InvalidFrameException(ite.getCause().getMessage());
-            }
+            logger.severe(getLoggingFilename() + ":" + "An error occurred within abstractID3v2FrameBody for identifier:" + identifier + ":" + ife.getMessage());
+            throw ife;
         }
-        //No Such Method should not happen
-        catch (NoSuchMethodException sme)
+        catch (InvalidDataTypeException idte)
         {
-            logger.log(Level.SEVERE, getLoggingFilename() + ":" + "No such method:" + sme.getMessage(), sme);
-            throw new RuntimeException(sme.getMessage());
-        }
-        //Instantiate Interface/Abstract should not happen
-        catch (InstantiationException ie)
-        {
-            logger.log(Level.SEVERE, getLoggingFilename() + ":" + "Instantiation exception:" + ie.getMessage(), ie);
-            throw new RuntimeException(ie.getMessage());
+            logger.severe(getLoggingFilename() + ":" + "An error occurred within abstractID3v2FrameBody for identifier:" + identifier + ":" + idte.getMessage());
+            throw idte;
         }
-        //Private Constructor shouild not happen
-        catch (IllegalAccessException iae)
+        //Should only throw InvalidFrameException but unfortunately legacy hierachy forces
+        //read method to declare it can throw InvalidtagException
+        catch (InvalidTagException te)
         {
-            logger.log(Level.SEVERE, getLoggingFilename() + ":" + "Illegal access exception :" + iae.getMessage(), iae);
-            throw new RuntimeException(iae.getMessage());
+            logger.severe(getLoggingFilename() + ":" + "An error occurred within abstractID3v2FrameBody for identifier:" + identifier + ":" + te.getMessage());
+            throw new InvalidFrameException(te.getMessage());
         }
         logger.finest(getLoggingFilename() + ":" + "Created framebody:end" + frameBody.getIdentifier());
         frameBody.setHeader(this);
         return frameBody;
     }
 
+    /**
+     * Defer decoding of the frame body until it is first accessed
+     *
+     * The frame is copied out of the tag buffer because the tag buffer may be mapped from the file, which can change
+     * when the tag is written. The main buffer is moved to the end of the frame
+     *
+     * @param byteBuffer tag buffer positioned at the start of the body data
+     * @param frameStart position of the start of the frame header within the tag buffer
+     * @param bodyIdentifier identifier used to find the frame body class
+     * @param bodySize size of the body data
+     */
+    protected void deferBody(ByteBuffer byteBuffer, int frameStart, String bodyIdentifier, int bodySize)
+    {
+        ByteBuffer frameBuffer = byteBuffer.duplicate();
+        frameBuffer.position(frameStart);
+        frameBuffer.limit(byteBuffer.position() + bodySize);
+        byte[] frameData = new byte[frameBuffer.remaining()];
+        frameBuffer.get(frameData);
+        rawFrameBuffer = ByteBuffer.wrap(frameData);
+        rawBodyOffset = byteBuffer.position() - frameStart;
+        rawBodyIdentifier = bodyIdentifier;
+        byteBuffer.position(byteBuffer.position() + bodySize);
+        logger.finest(getLoggingFilename() + ":" + "Deferred decoding of body:" + identifier);
+    }
+
+    /**
+     * Decode the frame body from the body data, called when decoding has been deferred
+     *
+     * @param bodyIdentifier identifier used to find the frame body class
+     * @param frameBodyBuffer contains only the body data
+     * @throws InvalidFrameException
+     * @throws InvalidDataTypeException
+     */
+    protected abstract void decodeBody(String bodyIdentifier, ByteBuffer frameBodyBuffer)
+            throws InvalidFrameException, InvalidDataTypeException;
+
+    /**
+     * @return false if decoding of the body has been deferred and the body has not been accessed yet
+     */
+    public boolean isBodyDecoded()
+    {
+        return rawFrameBuffer == null;
+    }
+
+    /**
+     * Returns the body, decoding it first if decoding was deferred when the frame was read
+     *
+     * If the deferred body cannot be decoded it is kept as an unsupported body so the data is not lost
+     *
+     * @return the body datatype
+     */
+    public AbstractTagFrameBody getBody()
+    {
+        if (rawFrameBuffer != null)
+        {
+            ByteBuffer frameBodyBuffer = rawFrameBuffer.duplicate();
+            frameBodyBuffer.position(rawBodyOffset);
+            frameBodyBuffer = frameBodyBuffer.slice();
+            rawFrameBuffer = null;
+            try
+            {
+                decodeBody(rawBodyIdentifier, frameBodyBuffer);
+            }
+            catch (InvalidTagException ite)
+            {
+                logger.warning(getLoggingFilename() + ":" + "Unable to decode deferred body:" + identifier + ":" + ite.getMessage());
+                frameBodyBuffer.rewind();
+                byte[] data = new byte[frameBodyBuffer.remaining()];
+                frameBodyBuffer.get(data);
+                frameBody = new FrameBodyUnsupported(identifier, data);
+                frameBody.setHeader(this);
+            }
+        }
+        return frameBody;
+    }
+
+    public void setBody(AbstractTagFrameBody frameBody)
+    {
+        rawFrameBuffer = null;
+        super.setBody(frameBody);
+    }
+
+    /**
+     * @return size of the frame as read, only valid if decoding of the body has been deferred
+     */
+    protected int getRawFrameSize()
+    {
+        return rawFrameBuffer.limit();
+    }
+
+    /**
+     * Write the frame exactly as it was read if its body has never been decoded, the body is then decoded so the
+     * frame no longer depends on the data as read
+     *
+     * @param tagBuffer
+     * @return true if the frame was written
+     */
+    protected boolean writeRawFrame(ByteArrayOutputStream tagBuffer)
+    {
+        if (rawFrameBuffer == null)
+        {
+            return false;
+        }
+        logger.config("Writing undecoded frame to buffer:" + getIdentifier());
+        tagBuffer.write(rawFrameBuffer.array(), rawFrameBuffer.arrayOffset(), rawFrameBuffer.limit());
+        getBody();
+        return true;
+    }
+
     /**
      * Get the next frame id, throwing an exception if unable to do this and check against just having padded data
      * 
@@ -457,12 +508,34 @@ public abstract class AbstractID3v2Frame extends AbstractTagFrame implements Tag
 
     public byte[] getRawContent()
     {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        write(baos);
-        return baos.toByteArray();
+        ID3v2TagBuffer frameBuffer = new ID3v2TagBuffer(getSize());
+        write(frameBuffer);
+        return frameBuffer.toByteArray();
+    }
+
+    /**
+     * Write the frame to tagBuffer
+     *
+     * @param tagBuffer
+     */
+    public void write(ByteArrayOutputStream tagBuffer)
+    {
+        if (tagBuffer instanceof ID3v2TagBuffer)
+        {
+            write((ID3v2TagBuffer) tagBuffer);
+            return;
+        }
+        ID3v2TagBuffer frameBuffer = new ID3v2TagBuffer(getSize());
+        write(frameBuffer);
+        tagBuffer.write(frameBuffer.toByteBuffer().array(), 0, frameBuffer.size());
     }
 
-    public abstract void write(ByteArrayOutputStream tagBuffer);
+    /**
+     * Write the frame header and body directly into tagBuffer
+     *
+     * @param tagBuffer
+     */
+    public abstract void write(ID3v2TagBuffer tagBuffer);
 
     /**
      * @param b
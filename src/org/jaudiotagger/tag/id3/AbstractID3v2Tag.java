@@ -21,6 +21,7 @@ import org.jaudiotagger.audio.exceptions.NoWritePermissionsException;
 import org.jaudiotagger.audio.exceptions.UnableToCreateFileException;
 import org.jaudiotagger.audio.exceptions.UnableToModifyFileException;
 import org.jaudiotagger.audio.exceptions.UnableToRenameFileException;
+import org.jaudiotagger.audio.generic.PaddingPolicy;
 import org.jaudiotagger.audio.generic.Utils;
 import org.jaudiotagger.audio.mp3.MP3File;
 import org.jaudiotagger.logging.ErrorMessage;
@@ -39,6 +40,7 @@ import java.nio.ByteBuffer;
 import java.nio.channels.Channels;
 import java.nio.channels.FileChannel;
 import java.nio.channels.FileLock;
+import java.nio.channels.GatheringByteChannel;
 import java.nio.channels.WritableByteChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
@@ -88,6 +90,10 @@ public abstract class AbstractID3v2Tag extends AbstractID3Tag implements Tag
     //The max size we try to write in one go to avoid out of memory errors (10mb)
     private static final long MAXIMUM_WRITABLE_CHUNK_SIZE = 10000000;
 
+    //Padding is written from slices of this buffer of zeroes, it is read only so can be shared
+    private static final int PADDING_BUFFER_SIZE = 16384;
+    private static final ByteBuffer PADDING_BUFFER = ByteBuffer.allocate(PADDING_BUFFER_SIZE).asReadOnlyBuffer();
+
     /**
      * Map of all frames for this tag
      */
@@ -208,6 +214,46 @@ public abstract class AbstractID3v2Tag extends AbstractID3Tag implements Tag
         return true;
     }
 
+    /**
+     * Read an ID3v2 tag from the start of the buffer
+     *
+     * The tag header is only checked once, the major version is used to pick the tag class so a tag of the wrong
+     * version is never attempted.
+     *
+     * @param buffer starting with the tag
+     * @param loggingFilename
+     * @return the tag, or null if the buffer does not start with an ID3v2.2, ID3v2.3 or ID3v2.4 tag header
+     * @throws TagException if the tag header was found but the tag could not be read
+     */
+    public static AbstractID3v2Tag readTag(ByteBuffer buffer, String loggingFilename) throws TagException
+    {
+        if (buffer.limit() < TAG_HEADER_LENGTH)
+        {
+            return null;
+        }
+
+        for (int i = 0; i < FIELD_TAGID_LENGTH; i++)
+        {
+            if (buffer.get(i) != TAG_ID[i])
+            {
+                return null;
+            }
+        }
+
+        switch (buffer.get(FIELD_TAG_MAJOR_VERSION_POS))
+        {
+            case ID3v24Tag.MAJOR_VERSION:
+                return new ID3v24Tag(buffer, loggingFilename);
+            case ID3v23Tag.MAJOR_VERSION:
+                return new ID3v23Tag(buffer, loggingFilename);
+            case ID3v22Tag.MAJOR_VERSION:
+                return new ID3v22Tag(buffer, loggingFilename);
+            default:
+                logger.config(loggingFilename + ":" + "Unsupported ID3v2 major version:" + buffer.get(FIELD_TAG_MAJOR_VERSION_POS));
+                return null;
+        }
+    }
+
     /**
      * Empty Constructor
      */
@@ -1178,18 +1224,60 @@ public abstract class AbstractID3v2Tag extends AbstractID3Tag implements Tag
     }
 
 
-    /** Write paddings byte to the channel
+    /**
+     * Write the tag header, body and padding to the channel
+     *
+     * <p>Padding is taken from a shared buffer of zeroes rather than being allocated for each write, and if the
+     * channel supports it everything is written with a single gathering write.
      *
      * @param channel
+     * @param headerBuffer
+     * @param bodyBuffer
      * @param padding
      * @throws IOException
      */
-    protected void writePadding(WritableByteChannel channel, int padding) throws IOException
+    protected void writeBuffersToChannel(WritableByteChannel channel, ByteBuffer headerBuffer, ByteBuffer bodyBuffer, int padding) throws IOException
+    {
+        ByteBuffer[] buffers = createTagBuffers(headerBuffer, bodyBuffer, padding);
+        if (channel instanceof GatheringByteChannel)
+        {
+            long remaining = headerBuffer.remaining() + bodyBuffer.remaining() + padding;
+            while (remaining > 0)
+            {
+                remaining -= ((GatheringByteChannel) channel).write(buffers);
+            }
+        }
+        else
+        {
+            for (ByteBuffer next : buffers)
+            {
+                while (next.hasRemaining())
+                {
+                    channel.write(next);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param headerBuffer
+     * @param bodyBuffer
+     * @param padding
+     * @return the header, body and padding buffers that make up the tag as it is written
+     */
+    private static ByteBuffer[] createTagBuffers(ByteBuffer headerBuffer, ByteBuffer bodyBuffer, int padding)
     {
-        if(padding>0)
+        int paddingBuffers = (padding + PADDING_BUFFER_SIZE - 1) / PADDING_BUFFER_SIZE;
+        ByteBuffer[] buffers = new ByteBuffer[2 + paddingBuffers];
+        buffers[0] = headerBuffer;
+        buffers[1] = bodyBuffer;
+        for (int i = 0; i < paddingBuffers; i++)
         {
-            channel.write(ByteBuffer.wrap(new byte[padding]));
+            ByteBuffer paddingBuffer = PADDING_BUFFER.duplicate();
+            paddingBuffer.limit(Math.min(PADDING_BUFFER_SIZE, padding - i * PADDING_BUFFER_SIZE));
+            buffers[2 + i] = paddingBuffer;
         }
+        return buffers;
     }
 
     /**
@@ -1216,10 +1304,6 @@ public abstract class AbstractID3v2Tag extends AbstractID3Tag implements Tag
             bb = ByteBuffer.allocate(TAG_HEADER_LENGTH);
             fc.read(bb);
             bb.flip();
-            if (bb.limit() < (TAG_HEADER_LENGTH))
-            {
-                return 0;
-            }
         }
         finally
         {
@@ -1233,6 +1317,23 @@ public abstract class AbstractID3v2Tag extends AbstractID3Tag implements Tag
                 fis.close();
             }
         }
+        return getV2TagSizeIfExists(bb);
+    }
+
+    /**
+     * As {@link #getV2TagSizeIfExists(File)} but reading the tag header from the start of the file that has
+     * already been read into the buffer
+     *
+     * @param fileStart data from the start of the file, from its position to its limit, the position is not changed
+     * @return the end of the tag in the file or zero if no tag exists.
+     */
+    public static long getV2TagSizeIfExists(ByteBuffer fileStart)
+    {
+        if (fileStart.remaining() < TAG_HEADER_LENGTH)
+        {
+            return 0;
+        }
+        ByteBuffer bb = fileStart.duplicate();
 
         //ID3 identifier
         byte[] tagIdentifier = new byte[FIELD_TAGID_LENGTH];
@@ -1263,6 +1364,121 @@ public abstract class AbstractID3v2Tag extends AbstractID3Tag implements Tag
         return frameSize;
     }
 
+    /**
+     * Find where the frames of the tag at the start of the file end by walking the frame headers, the frame bodies
+     * are skipped over without being read.
+     *
+     * This is used to find the audio when the size in the tag header is wrong. The end is only trusted if the last
+     * frame is followed by padding or by what could be the sync of an audio frame.
+     *
+     * @param fc
+     * @return position after the last frame, or zero if there is no tag or its frames cannot be walked
+     * @throws IOException
+     */
+    public static long getV2TagFramesEnd(FileChannel fc) throws IOException
+    {
+        ByteBuffer tagHeader = ByteBuffer.allocate(TAG_HEADER_LENGTH);
+        if (!readFully(fc, tagHeader, 0) || getV2TagSizeIfExists(tagHeader) == 0)
+        {
+            return 0;
+        }
+        byte majorVersion = tagHeader.get(FIELD_TAGID_LENGTH);
+        byte flags = tagHeader.get(FIELD_TAGID_LENGTH + FIELD_TAG_MAJOR_VERSION_LENGTH + FIELD_TAG_MINOR_VERSION_LENGTH);
+        boolean isV22 = majorVersion == ID3v22Tag.MAJOR_VERSION;
+        boolean isV24 = majorVersion == ID3v24Tag.MAJOR_VERSION;
+
+        //Unsynchronizing the whole tag changes the frame sizes, and v2.2 compression was never defined
+        if (!isV24 && (flags & ID3v23Tag.MASK_V23_UNSYNCHRONIZATION) != 0)
+        {
+            return 0;
+        }
+        long position = TAG_HEADER_LENGTH;
+        if ((flags & ID3v23Tag.MASK_V23_EXTENDED_HEADER) != 0)
+        {
+            ByteBuffer extendedHeaderSize = ByteBuffer.allocate(ID3SyncSafeInteger.INTEGRAL_SIZE);
+            if (isV22 || !readFully(fc, extendedHeaderSize, position))
+            {
+                return 0;
+            }
+            //v2.3 size excludes itself, v2.4 size includes itself
+            position += isV24 ? ID3SyncSafeInteger.bufferToValue(extendedHeaderSize) : ID3SyncSafeInteger.INTEGRAL_SIZE + (extendedHeaderSize.getInt() & 0xFFFFFFFFL);
+        }
+
+        int frameIdLength = isV22 ? ID3v22Frame.FRAME_ID_SIZE : ID3v23Frame.FRAME_ID_SIZE;
+        ByteBuffer frameHeader = ByteBuffer.allocate(isV22 ? ID3v22Frame.FRAME_HEADER_SIZE : ID3v23Frame.FRAME_HEADER_SIZE);
+        long fileSize = fc.size();
+        while (readFully(fc, frameHeader, position))
+        {
+            if (!isFrameIdentifier(frameHeader, frameIdLength))
+            {
+                //Trust the end if followed by padding or the start of the audio
+                byte next = frameHeader.get(0);
+                return next == 0 || next == (byte) 0xFF ? position : 0;
+            }
+            frameHeader.position(frameIdLength);
+            long frameSize;
+            if (isV22)
+            {
+                frameSize = ((frameHeader.get() & 0xFF) << 16) | ((frameHeader.get() & 0xFF) << 8) | (frameHeader.get() & 0xFF);
+            }
+            else if (isV24 && !ID3SyncSafeInteger.isBufferNotSyncSafe(frameHeader))
+            {
+                frameSize = ID3SyncSafeInteger.bufferToValue(frameHeader);
+            }
+            else
+            {
+                frameSize = frameHeader.getInt() & 0xFFFFFFFFL;
+            }
+            if (frameSize <= 0 || position + frameHeader.capacity() + frameSize > fileSize)
+            {
+                return 0;
+            }
+            position += frameHeader.capacity() + frameSize;
+        }
+        return position;
+    }
+
+    /**
+     * @param frameHeader
+     * @param frameIdLength
+     * @return true if the frame header starts with characters that can make up a frame identifier
+     */
+    private static boolean isFrameIdentifier(ByteBuffer frameHeader, int frameIdLength)
+    {
+        for (int i = 0; i < frameIdLength; i++)
+        {
+            byte next = frameHeader.get(i);
+            if (!((next >= 'A' && next <= 'Z') || (next >= '0' && next <= '9')))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Read from position until the buffer is full
+     *
+     * @param fc
+     * @param bb is cleared first, and flipped ready to be read if filled
+     * @param position
+     * @return false if the end of the file was reached first
+     * @throws IOException
+     */
+    private static boolean readFully(FileChannel fc, ByteBuffer bb, long position) throws IOException
+    {
+        bb.clear();
+        while (bb.hasRemaining())
+        {
+            if (fc.read(bb, position + bb.position()) < 0)
+            {
+                return false;
+            }
+        }
+        bb.flip();
+        return true;
+    }
+
     /**
      * Does a tag of the correct version exist in this file.
      *
@@ -1301,6 +1517,20 @@ public abstract class AbstractID3v2Tag extends AbstractID3Tag implements Tag
      * @return
      */
     protected int calculateTagSize(int tagSize, int preferredSize)
+    {
+        return calculateTagSize(tagSize, preferredSize, 0);
+    }
+
+    /**
+     * As {@link #calculateTagSize(int, int)}, when the tag does not fit the padding added is decided by the
+     * {@link org.jaudiotagger.audio.generic.PaddingPolicy}
+     *
+     * @param tagSize
+     * @param preferredSize
+     * @param fileSize size of the file, or 0 if not known
+     * @return
+     */
+    protected int calculateTagSize(int tagSize, int preferredSize, long fileSize)
     {
         /** We can fit in the tag so no adjustments required */
         if (tagSize <= preferredSize)
@@ -1310,7 +1540,8 @@ public abstract class AbstractID3v2Tag extends AbstractID3Tag implements Tag
         /** There is not enough room as we need to move the audio file we might
          *  as well increase it more than neccessary for future changes
          */
-        return tagSize + TAG_SIZE_INCREMENT;
+        int padding = TagOptionSingleton.getInstance().getPaddingPolicy().getPadding(tagSize, fileSize, TAG_SIZE_INCREMENT);
+        return tagSize + PaddingPolicy.limitPadding(padding, tagSize);
     }
 
     /**
@@ -1478,33 +1709,48 @@ public abstract class AbstractID3v2Tag extends AbstractID3Tag implements Tag
     /**
      * Write the data from the buffer to the file
      *
+     * If the tag fits in the space already used by the existing tag and the file already starts with exactly the
+     * same data nothing is written, and the file is never opened for writing.
+     *
      * @param file
      * @param headerBuffer
-     * @param bodyByteBuffer
+     * @param bodyBuffer
      * @param padding
      * @param sizeIncPadding
      * @param audioStartLocation
      * @throws IOException
      */
-    protected void writeBufferToFile(File file, ByteBuffer headerBuffer, byte[] bodyByteBuffer, int padding, int sizeIncPadding, long audioStartLocation) throws IOException
+    protected void writeBufferToFile(File file, ByteBuffer headerBuffer, ByteBuffer bodyBuffer, int padding, int sizeIncPadding, long audioStartLocation) throws IOException
     {
         FileChannel fc = null;
         FileLock fileLock = null;
 
         //We need to adjust location of audio file if true
+        PaddingPolicy.WriteMode writeMode = PaddingPolicy.WriteMode.IN_PLACE;
         if (sizeIncPadding > audioStartLocation)
         {
             logger.finest("Adjusting Padding");
             adjustPadding(file, sizeIncPadding, audioStartLocation);
+            writeMode = PaddingPolicy.WriteMode.REWRITE;
+        }
+        else
+        {
+            try (FileChannel readChannel = new FileInputStream(file).getChannel())
+            {
+                if (Utils.isFileContentEqual(readChannel, 0, createTagBuffers(headerBuffer, bodyBuffer, padding)))
+                {
+                    logger.config(getLoggingFilename() + ":Tag unchanged, not writing");
+                    return;
+                }
+            }
         }
 
         try
         {
             fc = new RandomAccessFile(file, "rw").getChannel();
             fileLock = getFileLockForWriting(fc, file.getPath());
-            fc.write(headerBuffer);
-            fc.write(ByteBuffer.wrap(bodyByteBuffer));
-            fc.write(ByteBuffer.wrap(new byte[padding]));
+            writeBuffersToChannel(fc, headerBuffer, bodyBuffer, padding);
+            TagOptionSingleton.getInstance().getPaddingPolicy().writeCompleted(writeMode, sizeIncPadding - padding);
         }
         catch (FileNotFoundException fe)
         {
@@ -1658,7 +1904,8 @@ public abstract class AbstractID3v2Tag extends AbstractID3Tag implements Tag
      */
     protected void loadFrameIntoMap(String frameId, AbstractID3v2Frame next)
     {
-        if (next.getBody() instanceof FrameBodyEncrypted)
+        //Encrypted frames are never deferred so no need to decode deferred frames to check
+        if (next.isBodyDecoded() && next.getBody() instanceof FrameBodyEncrypted)
         {
             loadFrameIntoSpecifiedMap(encryptedFrameMap, frameId, next);
         }
@@ -1776,12 +2023,14 @@ public abstract class AbstractID3v2Tag extends AbstractID3Tag implements Tag
      * <p>Currently Write all frames, defaults to the order in which they were loaded, newly
      * created frames will be at end of tag.
      *
+     * <p>The buffer is sized from the current size of the frames so that it rarely has to grow.
+     *
      * @return ByteBuffer Contains all the frames written within the tag ready for writing to file
      * @throws IOException
      */
-    protected ByteArrayOutputStream writeFramesToBuffer() throws IOException
+    protected ID3v2TagBuffer writeFramesToBuffer() throws IOException
     {
-        ByteArrayOutputStream bodyBuffer = new ByteArrayOutputStream();
+        ID3v2TagBuffer bodyBuffer = new ID3v2TagBuffer(getSize());
         writeFramesToBufferStream(frameMap, bodyBuffer);
         writeFramesToBufferStream(encryptedFrameMap, bodyBuffer);
         return bodyBuffer;
@@ -1794,7 +2043,7 @@ public abstract class AbstractID3v2Tag extends AbstractID3Tag implements Tag
      * @param bodyBuffer
      * @throws IOException
      */
-    private void writeFramesToBufferStream(Map map, ByteArrayOutputStream bodyBuffer) throws IOException
+    private void writeFramesToBufferStream(Map map, ID3v2TagBuffer bodyBuffer) throws IOException
     {
         //Sort keys into Preferred Order
         TreeSet<String> sortedWriteOrder = new TreeSet<String>(getPreferredFrameOrderComparator());
@@ -2,7 +2,6 @@ package org.jaudiotagger.tag.id3;
 
 import org.jaudiotagger.audio.mp3.MPEGFrameHeader;
 
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.nio.ByteBuffer;
 import java.util.logging.Level;
@@ -28,13 +27,27 @@ public class ID3Unsynchronization
      */
     public static boolean requiresUnsynchronization(byte[] abySource)
     {
-        for (int i = 0; i < abySource.length - 1; i++)
+        return requiresUnsynchronization(abySource, 0, abySource.length);
+    }
+
+    /**
+     * Check if part of a byte array will require unsynchronization before being written as a tag.
+     *
+     * @param abySource the byte array to be examined
+     * @param offset start of the range
+     * @param length length of the range
+     * @return true if unsynchronization is required, false otherwise
+     */
+    public static boolean requiresUnsynchronization(byte[] abySource, int offset, int length)
+    {
+        int end = offset + length;
+        for (int i = offset; i < end - 1; i++)
         {
             if (((abySource[i] & MPEGFrameHeader.SYNC_BYTE1) == MPEGFrameHeader.SYNC_BYTE1) && ((abySource[i + 1] & MPEGFrameHeader.SYNC_BYTE2) == MPEGFrameHeader.SYNC_BYTE2))
             {
                 if (logger.isLoggable(Level.FINEST))
                 {
-                    logger.finest("Unsynchronisation required found bit at:" + i);
+                    logger.finest("Unsynchronisation required found bit at:" + (i - offset));
                 }
                 return true;
             }
@@ -57,53 +70,64 @@ public class ID3Unsynchronization
      */
     public static byte[] unsynchronize(byte[] abySource)
     {
-        ByteArrayInputStream input = new ByteArrayInputStream(abySource);
-        ByteArrayOutputStream output = new ByteArrayOutputStream(abySource.length);
+        return unsynchronize(abySource, 0, abySource.length);
+    }
 
+    /**
+     * Unsynchronize part of an array of bytes
+     *
+     * The size of the result is counted first so that it can be written straight into an array of the exact size.
+     *
+     * @param abySource a byte array containing the data to be unsynchronized
+     * @param offset start of the range
+     * @param length length of the range
+     * @return a unsynchronized representation of the range
+     */
+    public static byte[] unsynchronize(byte[] abySource, int offset, int length)
+    {
+        int end = offset + length;
+        int size = length;
+        for (int i = offset; i < end; i++)
+        {
+            if (isUnsynchronizationByteRequired(abySource, i, end))
+            {
+                size++;
+            }
+        }
+
+        byte[] output = new byte[size];
         int count = 0;
-        while (input.available() > 0)
+        for (int i = offset; i < end; i++)
         {
-            int firstByte = input.read();
-            count++;
-            output.write(firstByte);
-            if ((firstByte & MPEGFrameHeader.SYNC_BYTE1) == MPEGFrameHeader.SYNC_BYTE1)
+            output[count++] = abySource[i];
+            if (isUnsynchronizationByteRequired(abySource, i, end))
             {
-                // if byte is $FF, we must check the following byte if there is one
-                if (input.available() > 0)
+                // we need to unsynchronize here
+                if (logger.isLoggable(Level.FINEST))
                 {
-                    input.mark(1);  // remember where we were, if we don't need to unsynchronize
-                    int secondByte = input.read();
-                    if ((secondByte & MPEGFrameHeader.SYNC_BYTE2) == MPEGFrameHeader.SYNC_BYTE2)
-                    {
-                        // we need to unsynchronize here
-                        if (logger.isLoggable(Level.FINEST))
-                        {
-                            logger.finest("Writing unsynchronisation bit at:" + count);
-                        }
-                        output.write(0);
-
-                    }
-                    else if (secondByte == 0)
-                    {
-                        // we need to unsynchronize here
-                        if (logger.isLoggable(Level.FINEST))
-                        {
-                            logger.finest("Inserting zero unsynchronisation bit at:" + count);
-                        }
-                        output.write(0);
-                    }
-                    input.reset();
+                    logger.finest("Writing unsynchronisation bit at:" + count);
                 }
+                count++;
             }
         }
-        // if we needed to unsynchronize anything, and this tag ends with 0xff, we have to append a zero byte,
-        // which will be removed on de-unsynchronization later
-        if ((abySource[abySource.length - 1] & MPEGFrameHeader.SYNC_BYTE1) == MPEGFrameHeader.SYNC_BYTE1)
+        return output;
+    }
+
+    /**
+     * A zero byte has to be inserted after $FF if it is followed by a byte >=224 or by $00, or if it is the last
+     * byte because the data that follows is unknown, the zero is removed on de-unsynchronization later
+     */
+    private static boolean isUnsynchronizationByteRequired(byte[] abySource, int i, int end)
+    {
+        if ((abySource[i] & MPEGFrameHeader.SYNC_BYTE1) != MPEGFrameHeader.SYNC_BYTE1)
+        {
+            return false;
+        }
+        if (i + 1 == end)
         {
-            logger.finest("Adding unsynchronisation bit at end of stream");
-            output.write(0);
+            return true;
         }
-        return output.toByteArray();
+        return ((abySource[i + 1] & MPEGFrameHeader.SYNC_BYTE2) == MPEGFrameHeader.SYNC_BYTE2) || abySource[i + 1] == 0;
     }
 
 
@@ -216,6 +216,19 @@ public class ID3v11Tag extends ID3v1Tag
         }
     }
 
+    /**
+     * Creates a new ID3v11 datatype from the end of the file that has already been read
+     *
+     * @param byteBuffer holding the last 128 bytes of the file
+     * @param loggingFilename
+     * @throws TagNotFoundException
+     */
+    public ID3v11Tag(ByteBuffer byteBuffer, String loggingFilename) throws TagNotFoundException
+    {
+        setLoggingFilename(loggingFilename);
+        read(byteBuffer.duplicate());
+    }
+
     /**
      * Creates a new ID3v11 datatype.
      *
@@ -544,11 +557,22 @@ public class ID3v11Tag extends ID3v1Tag
     public void write(RandomAccessFile file) throws IOException
     {
         logger.config("Saving ID3v11 tag to file");
+        byte[] buffer = getRawContent();
+        delete(file);
+        file.seek(file.length());
+        file.write(buffer);
+
+        logger.config("Saved ID3v11 tag to file");
+    }
+
+    /**
+     * @return the tag exactly as it is written to the end of the file
+     */
+    public byte[] getRawContent()
+    {
         byte[] buffer = new byte[TAG_LENGTH];
         int i;
         String str;
-        delete(file);
-        file.seek(file.length());
         System.arraycopy(TAG_ID, FIELD_TAGID_POS, buffer, FIELD_TAGID_POS, TAG_ID.length);
         int offset = FIELD_TITLE_POS;
         if (TagOptionSingleton.getInstance().isId3v1SaveTitle())
@@ -602,9 +626,7 @@ public class ID3v11Tag extends ID3v1Tag
         {
             buffer[offset] = genre;
         }
-        file.write(buffer);
-
-        logger.config("Saved ID3v11 tag to file");
+        return buffer;
     }
 
 
@@ -175,6 +175,19 @@ public class ID3v1Tag extends AbstractID3v1Tag implements Tag
         }
     }
 
+    /**
+     * Creates a new ID3v1 datatype from the end of the file that has already been read
+     *
+     * @param byteBuffer holding the last 128 bytes of the file
+     * @param loggingFilename
+     * @throws TagNotFoundException
+     */
+    public ID3v1Tag(ByteBuffer byteBuffer, String loggingFilename) throws TagNotFoundException
+    {
+        setLoggingFilename(loggingFilename);
+        read(byteBuffer.duplicate());
+    }
+
     /**
      * Creates a new ID3v1 datatype.
      *
@@ -982,11 +995,21 @@ public class ID3v1Tag extends AbstractID3v1Tag implements Tag
     public void write(RandomAccessFile file) throws IOException
     {
         logger.config("Saving ID3v1 tag to file");
+        byte[] buffer = getRawContent();
+        delete(file);
+        file.seek(file.length());
+        file.write(buffer);
+        logger.config("Saved ID3v1 tag to file");
+    }
+
+    /**
+     * @return the tag exactly as it is written to the end of the file
+     */
+    public byte[] getRawContent()
+    {
         byte[] buffer = new byte[TAG_LENGTH];
         int i;
         String str;
-        delete(file);
-        file.seek(file.length());
         //Copy the TAGID into new buffer
         System.arraycopy(TAG_ID, FIELD_TAGID_POS, buffer, FIELD_TAGID_POS, TAG_ID.length);
         int offset = FIELD_TITLE_POS;
@@ -1039,8 +1062,7 @@ public class ID3v1Tag extends AbstractID3v1Tag implements Tag
         {
             buffer[offset] = genre;
         }
-        file.write(buffer);
-        logger.config("Saved ID3v1 tag to file");
+        return buffer;
     }
 
     /**
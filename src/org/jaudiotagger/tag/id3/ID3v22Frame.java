@@ -20,19 +20,18 @@ import org.jaudiotagger.tag.EmptyFrameException;
 import org.jaudiotagger.tag.InvalidDataTypeException;
 import org.jaudiotagger.tag.InvalidFrameException;
 import org.jaudiotagger.tag.InvalidFrameIdentifierException;
+import org.jaudiotagger.tag.TagOptionSingleton;
 import org.jaudiotagger.tag.id3.framebody.AbstractID3v2FrameBody;
 import org.jaudiotagger.tag.id3.framebody.FrameBodyDeprecated;
+import org.jaudiotagger.tag.id3.framebody.FrameBodyFactory;
 import org.jaudiotagger.tag.id3.framebody.FrameBodyUnsupported;
 import org.jaudiotagger.tag.id3.valuepair.TextEncoding;
 import org.jaudiotagger.utils.EqualsUtil;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.math.BigInteger;
 import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
-import java.util.logging.Level;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -116,7 +115,6 @@ public class ID3v22Frame extends AbstractID3v2Frame
      * create a new frame from scratch using user values
      * @param identifier
      */
-    @SuppressWarnings("unchecked")
     public ID3v22Frame(String identifier)
     {
 
@@ -152,30 +150,12 @@ public class ID3v22Frame extends AbstractID3v2Frame
             }
         }
 
-        // Use reflection to map id to frame body, which makes things much easier
-        // to keep things up to date.
-        try
+        frameBody = FrameBodyFactory.createFrameBody(bodyIdentifier);
+        if (frameBody == null)
         {
-            Class<AbstractID3v2FrameBody> c = (Class<AbstractID3v2FrameBody>) Class.forName("org.jaudiotagger.tag.id3.framebody.FrameBody" + bodyIdentifier);
-            frameBody = c.newInstance();
-        }
-        catch (ClassNotFoundException cnfe)
-        {
-            logger.log(Level.SEVERE, cnfe.getMessage(), cnfe);
+            logger.severe("No frame body for identifier:" + bodyIdentifier);
             frameBody = new FrameBodyUnsupported(identifier);
         }
-        //Instantiate Interface/Abstract should not happen
-        catch (InstantiationException ie)
-        {
-            logger.log(Level.SEVERE, ie.getMessage(), ie);
-            throw new RuntimeException(ie);
-        }
-        //Private Constructor shouild not happen
-        catch (IllegalAccessException iae)
-        {
-            logger.log(Level.SEVERE, iae.getMessage(), iae);
-            throw new RuntimeException(iae);
-        }
         frameBody.setHeader(this);
         logger.config("Created empty frame of type" + this.identifier + "with frame body of" + bodyIdentifier);
 
@@ -304,6 +284,10 @@ public class ID3v22Frame extends AbstractID3v2Frame
      */
     public int getSize()
     {
+        if (!isBodyDecoded())
+        {
+            return getRawFrameSize();
+        }
         return frameBody.getSize() + getFrameHeaderSize();
     }
 
@@ -329,6 +313,7 @@ public class ID3v22Frame extends AbstractID3v2Frame
      */
     public void read(ByteBuffer byteBuffer) throws InvalidFrameException, InvalidDataTypeException
     {
+        int frameStart = byteBuffer.position();
         String identifier = readIdentifier(byteBuffer);
 
         byte[] buffer = new byte[getFrameSizeSize()];
@@ -384,6 +369,12 @@ public class ID3v22Frame extends AbstractID3v2Frame
             }
             logger.fine("Identifier was:" + identifier + " reading using:" + id);
 
+            if (TagOptionSingleton.getInstance().isLazyID3v2FrameBodyDecoding())
+            {
+                deferBody(byteBuffer, frameStart, id, frameSize);
+                return;
+            }
+
             //Create Buffer that only contains the body of this frame rather than the remainder of tag
             ByteBuffer frameBodyBuffer = byteBuffer.slice();
             frameBodyBuffer.limit(frameSize);
@@ -400,6 +391,12 @@ public class ID3v22Frame extends AbstractID3v2Frame
         }
     }
 
+    protected void decodeBody(String bodyIdentifier, ByteBuffer frameBodyBuffer)
+            throws InvalidFrameException, InvalidDataTypeException
+    {
+        frameBody = readBody(bodyIdentifier, frameBodyBuffer, frameBodyBuffer.limit());
+    }
+
     /**
      * Read Frame Size, which has to be decoded
      * @param buffer
@@ -418,38 +415,31 @@ public class ID3v22Frame extends AbstractID3v2Frame
 
 
     /**
-     * Write Frame raw data
+     * Write Frame raw data, the body is written directly after space reserved for the header
      *
      */
-    public void write(ByteArrayOutputStream tagBuffer)
+    public void write(ID3v2TagBuffer tagBuffer)
     {
+        if (writeRawFrame(tagBuffer))
+        {
+            return;
+        }
+
         logger.config("Write Frame to Buffer" + getIdentifier());
-        //This is where we will write header, move position to where we can
-        //write body
-        ByteBuffer headerBuffer = ByteBuffer.allocate(getFrameHeaderSize());
+        //Reserve space for the header, we write it once we know the size of the body
+        int headerPosition = tagBuffer.reserve(getFrameHeaderSize());
 
         //Write Frame Body Data
-        ByteArrayOutputStream bodyOutputStream = new ByteArrayOutputStream();
-        ((AbstractID3v2FrameBody) frameBody).write(bodyOutputStream);
+        ((AbstractID3v2FrameBody) frameBody).write(tagBuffer);
 
         //Write Frame Header
         //Write Frame ID must adjust can only be 3 bytes long
+        ByteBuffer headerBuffer = ByteBuffer.allocate(getFrameHeaderSize());
         headerBuffer.put(getIdentifier().getBytes(StandardCharsets.ISO_8859_1), 0, getFrameIdSize());
         encodeSize(headerBuffer, frameBody.getSize());
 
-        //Add header to the Byte Array Output Stream
-        try
-        {
-            tagBuffer.write(headerBuffer.array());
-
-            //Add body to the Byte Array Output Stream
-            tagBuffer.write(bodyOutputStream.toByteArray());
-        }
-        catch (IOException ioe)
-        {
-            //This could never happen coz not writing to file, so convert to RuntimeException
-            throw new RuntimeException(ioe);
-        }
+        //Add header to the space reserved for it
+        tagBuffer.put(headerPosition, headerBuffer.array());
     }
 
     /**
@@ -486,7 +476,7 @@ public class ID3v22Frame extends AbstractID3v2Frame
     {
         MP3File.getStructureFormatter().openHeadingElement(TYPE_FRAME, getIdentifier());
         MP3File.getStructureFormatter().addElement(TYPE_FRAME_SIZE, frameSize);
-        frameBody.createStructure();
+        getBody().createStructure();
         MP3File.getStructureFormatter().closeHeadingElement(TYPE_FRAME);
     }
 
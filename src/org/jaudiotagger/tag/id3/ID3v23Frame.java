@@ -22,6 +22,7 @@ import org.jaudiotagger.tag.EmptyFrameException;
 import org.jaudiotagger.tag.InvalidDataTypeException;
 import org.jaudiotagger.tag.InvalidFrameException;
 import org.jaudiotagger.tag.InvalidFrameIdentifierException;
+import org.jaudiotagger.tag.TagOptionSingleton;
 import org.jaudiotagger.tag.id3.framebody.AbstractID3v2FrameBody;
 import org.jaudiotagger.tag.id3.framebody.FrameBodyDeprecated;
 import org.jaudiotagger.tag.id3.framebody.FrameBodyUnsupported;
@@ -30,7 +31,6 @@ import org.jaudiotagger.tag.id3.valuepair.TextEncoding;
 import org.jaudiotagger.utils.EqualsUtil;
 
 import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
@@ -300,6 +300,10 @@ public class ID3v23Frame extends AbstractID3v2Frame
      */
     public int getSize()
     {
+        if (!isBodyDecoded())
+        {
+            return getRawFrameSize();
+        }
         return frameBody.getSize() + ID3v23Frame.FRAME_HEADER_SIZE;
     }
 
@@ -340,6 +344,7 @@ public class ID3v23Frame extends AbstractID3v2Frame
      */
     public void read(ByteBuffer byteBuffer) throws InvalidFrameException,  InvalidDataTypeException
     {
+        int frameStart = byteBuffer.position();
         String identifier = readIdentifier(byteBuffer);
         if (!isValidID3v2FrameIdentifier(identifier))
         {
@@ -444,6 +449,15 @@ public class ID3v23Frame extends AbstractID3v2Frame
             throw new InvalidFrameException(identifier + " is invalid frame, realframeSize is:" + realFrameSize);
         }
 
+        //Compressed and encrypted frames are always decoded straight away
+        if (TagOptionSingleton.getInstance().isLazyID3v2FrameBodyDecoding()
+                && !((EncodingFlags) encodingFlags).isCompression()
+                && !((EncodingFlags) encodingFlags).isEncryption())
+        {
+            deferBody(byteBuffer, frameStart, id, realFrameSize);
+            return;
+        }
+
         ByteBuffer frameBodyBuffer;
         //Read the body data
         try
@@ -487,20 +501,52 @@ public class ID3v23Frame extends AbstractID3v2Frame
         }
     }
 
+    protected void decodeBody(String bodyIdentifier, ByteBuffer frameBodyBuffer)
+            throws InvalidFrameException, InvalidDataTypeException
+    {
+        frameBody = readBody(bodyIdentifier, frameBodyBuffer, frameBodyBuffer.limit());
+        if (!(frameBody instanceof ID3v23FrameBody))
+        {
+            logger.config(getLoggingFilename() + ":Converted frameBody with:" + identifier + " to deprecated frameBody");
+            frameBody = new FrameBodyDeprecated((AbstractID3v2FrameBody) frameBody);
+        }
+    }
+
     /**
-     * Write the frame to bufferOutputStream
+     * Write the frame to tagBuffer, the body is written directly after space reserved for the header
      *
      */
-    public void write(ByteArrayOutputStream tagBuffer)
+    public void write(ID3v2TagBuffer tagBuffer)
     {
+        if (writeRawFrame(tagBuffer))
+        {
+            return;
+        }
+
         logger.config("Writing frame to buffer:" + getIdentifier());
-        //This is where we will write header, move position to where we can
-        //write body
-        ByteBuffer headerBuffer = ByteBuffer.allocate(FRAME_HEADER_SIZE);
+        //Reserve space for the header, we write it once we know the size of the body
+        int headerPosition = tagBuffer.reserve(FRAME_HEADER_SIZE);
+
+        //Remove any non standard flags
+        ((EncodingFlags) encodingFlags).unsetNonStandardFlags();
+
+        //Unset Compression flag if previously set because we uncompress previously compressed frames on write.
+        ((EncodingFlags)encodingFlags).unsetCompression();
+
+        if (((EncodingFlags) encodingFlags).isEncryption())
+        {
+           tagBuffer.write(encryptionMethod);
+        }
+
+        if (((EncodingFlags) encodingFlags).isGrouping())
+        {
+            tagBuffer.write(groupIdentifier);
+        }
 
         //Write Frame Body Data
-        ByteArrayOutputStream bodyOutputStream = new ByteArrayOutputStream();
-        ((AbstractID3v2FrameBody) frameBody).write(bodyOutputStream);
+        ((AbstractID3v2FrameBody) frameBody).write(tagBuffer);
+
+        ByteBuffer headerBuffer = ByteBuffer.allocate(FRAME_HEADER_SIZE);
         //Write Frame Header write Frame ID
         if (getIdentifier().length() == 3)
         {
@@ -515,39 +561,10 @@ public class ID3v23Frame extends AbstractID3v2Frame
         //Write the Flags
         //Status Flags:leave as they were when we read
         headerBuffer.put(statusFlags.getWriteFlags());
-
-        //Remove any non standard flags
-        ((EncodingFlags) encodingFlags).unsetNonStandardFlags();
-
-        //Unset Compression flag if previously set because we uncompress previously compressed frames on write.
-        ((EncodingFlags)encodingFlags).unsetCompression();
         headerBuffer.put(encodingFlags.getFlags());
 
-        try
-        {
-            //Add header to the Byte Array Output Stream
-            tagBuffer.write(headerBuffer.array());
-
-            if (((EncodingFlags) encodingFlags).isEncryption())
-            {
-               tagBuffer.write(encryptionMethod);
-            }
-
-            if (((EncodingFlags) encodingFlags).isGrouping())
-            {
-                tagBuffer.write(groupIdentifier);
-            }
-
-            //Add body to the Byte Array Output Stream
-            tagBuffer.write(bodyOutputStream.toByteArray());
-        }
-        catch (IOException ioe)
-        {
-            //This could never happen coz not writing to file, so convert to RuntimeException
-            throw new RuntimeException(ioe);
-        }
-
-
+        //Add header to the space reserved for it
+        tagBuffer.put(headerPosition, headerBuffer.array());
     }
 
     public AbstractID3v2Frame.StatusFlags getStatusFlags()
@@ -818,7 +835,7 @@ public class ID3v23Frame extends AbstractID3v2Frame
         MP3File.getStructureFormatter().addElement(TYPE_FRAME_SIZE, frameSize);
         statusFlags.createStructure();
         encodingFlags.createStructure();
-        frameBody.createStructure();
+        getBody().createStructure();
         MP3File.getStructureFormatter().closeHeadingElement(TYPE_FRAME);
     }
 
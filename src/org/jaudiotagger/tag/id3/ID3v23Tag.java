@@ -730,25 +730,25 @@ public class ID3v23Tag extends AbstractID3v2Tag
         logger.config("Writing tag to file:"+getLoggingFilename());
 
         //Write Body Buffer
-        byte[] bodyByteBuffer = writeFramesToBuffer().toByteArray();
-        logger.config(getLoggingFilename() + ":bodybytebuffer:sizebeforeunsynchronisation:" + bodyByteBuffer.length);
+        ID3v2TagBuffer bodyByteBuffer = writeFramesToBuffer();
+        logger.config(getLoggingFilename() + ":bodybytebuffer:sizebeforeunsynchronisation:" + bodyByteBuffer.size());
 
         // Unsynchronize if option enabled and unsync required
-        unsynchronization = TagOptionSingleton.getInstance().isUnsyncTags() && ID3Unsynchronization.requiresUnsynchronization(bodyByteBuffer);
+        unsynchronization = TagOptionSingleton.getInstance().isUnsyncTags() && bodyByteBuffer.requiresUnsynchronization(0, bodyByteBuffer.size());
         if (isUnsynchronization())
         {
-            bodyByteBuffer = ID3Unsynchronization.unsynchronize(bodyByteBuffer);
-            logger.config(getLoggingFilename() + ":bodybytebuffer:sizeafterunsynchronisation:" + bodyByteBuffer.length);
+            bodyByteBuffer.unsynchronize(0);
+            logger.config(getLoggingFilename() + ":bodybytebuffer:sizeafterunsynchronisation:" + bodyByteBuffer.size());
         }
 
-        int sizeIncPadding = calculateTagSize(bodyByteBuffer.length + TAG_HEADER_LENGTH, (int) audioStartLocation);
-        int padding = sizeIncPadding - (bodyByteBuffer.length + TAG_HEADER_LENGTH);
+        int sizeIncPadding = calculateTagSize(bodyByteBuffer.size() + TAG_HEADER_LENGTH, (int) audioStartLocation, file.length());
+        int padding = sizeIncPadding - (bodyByteBuffer.size() + TAG_HEADER_LENGTH);
         logger.config(getLoggingFilename() + ":Current audiostart:" + audioStartLocation);
         logger.config(getLoggingFilename() + ":Size including padding:" + sizeIncPadding);
         logger.config(getLoggingFilename() + ":Padding:" + padding);
 
-        ByteBuffer headerBuffer = writeHeaderToBuffer(padding, bodyByteBuffer.length);
-        writeBufferToFile(file, headerBuffer, bodyByteBuffer, padding, sizeIncPadding, audioStartLocation);
+        ByteBuffer headerBuffer = writeHeaderToBuffer(padding, bodyByteBuffer.size());
+        writeBufferToFile(file, headerBuffer, bodyByteBuffer.toByteBuffer(), padding, sizeIncPadding, audioStartLocation);
         return sizeIncPadding;
     }
 
@@ -760,29 +760,27 @@ public class ID3v23Tag extends AbstractID3v2Tag
     {
         logger.config(getLoggingFilename() + ":Writing tag to channel");
 
-        byte[] bodyByteBuffer = writeFramesToBuffer().toByteArray();
-        logger.config(getLoggingFilename() + ":bodybytebuffer:sizebeforeunsynchronisation:" + bodyByteBuffer.length);
+        ID3v2TagBuffer bodyByteBuffer = writeFramesToBuffer();
+        logger.config(getLoggingFilename() + ":bodybytebuffer:sizebeforeunsynchronisation:" + bodyByteBuffer.size());
 
         // Unsynchronize if option enabled and unsync required
-        unsynchronization = TagOptionSingleton.getInstance().isUnsyncTags() && ID3Unsynchronization.requiresUnsynchronization(bodyByteBuffer);
+        unsynchronization = TagOptionSingleton.getInstance().isUnsyncTags() && bodyByteBuffer.requiresUnsynchronization(0, bodyByteBuffer.size());
         if (isUnsynchronization())
         {
-            bodyByteBuffer = ID3Unsynchronization.unsynchronize(bodyByteBuffer);
-            logger.config(getLoggingFilename() + ":bodybytebuffer:sizeafterunsynchronisation:" + bodyByteBuffer.length);
+            bodyByteBuffer.unsynchronize(0);
+            logger.config(getLoggingFilename() + ":bodybytebuffer:sizeafterunsynchronisation:" + bodyByteBuffer.size());
         }
 
         int padding = 0;
         if(currentTagSize > 0)
         {
-            int sizeIncPadding = calculateTagSize(bodyByteBuffer.length + TAG_HEADER_LENGTH, (int) currentTagSize);
-            padding = sizeIncPadding - (bodyByteBuffer.length + TAG_HEADER_LENGTH);
+            int sizeIncPadding = calculateTagSize(bodyByteBuffer.size() + TAG_HEADER_LENGTH, (int) currentTagSize);
+            padding = sizeIncPadding - (bodyByteBuffer.size() + TAG_HEADER_LENGTH);
             logger.config(getLoggingFilename() + ":Padding:"+padding);
         }
-        ByteBuffer headerBuffer = writeHeaderToBuffer(padding, bodyByteBuffer.length);
+        ByteBuffer headerBuffer = writeHeaderToBuffer(padding, bodyByteBuffer.size());
 
-        channel.write(headerBuffer);
-        channel.write(ByteBuffer.wrap(bodyByteBuffer));
-        writePadding(channel, padding);
+        writeBuffersToChannel(channel, headerBuffer, bodyByteBuffer.toByteBuffer(), padding);
     }
 
 
@@ -1167,7 +1165,7 @@ public class ID3v23Tag extends AbstractID3v2Tag
 
     protected void loadFrameIntoMap(String frameId, AbstractID3v2Frame next)
     {
-        if (next.getBody() instanceof FrameBodyTCON)
+        if (frameId.equals(ID3v23Frames.FRAME_ID_V3_GENRE) && next.getBody() instanceof FrameBodyTCON)
         {
             ((FrameBodyTCON)next.getBody()).setV23Format();
         }
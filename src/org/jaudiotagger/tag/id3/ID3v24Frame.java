@@ -26,8 +26,6 @@ import org.jaudiotagger.tag.id3.valuepair.TextEncoding;
 import org.jaudiotagger.tag.lyrics3.*;
 import org.jaudiotagger.utils.EqualsUtil;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
@@ -368,6 +366,10 @@ public class ID3v24Frame extends AbstractID3v2Frame
      */
     public int getSize()
     {
+        if (!isBodyDecoded())
+        {
+            return getRawFrameSize();
+        }
         return frameBody.getSize() + ID3v24Frame.FRAME_HEADER_SIZE;
     }
 
@@ -560,6 +562,7 @@ public class ID3v24Frame extends AbstractID3v2Frame
      */
     public void read(ByteBuffer byteBuffer) throws InvalidFrameException, InvalidDataTypeException
     {
+        int frameStart = byteBuffer.position();
         String identifier = readIdentifier(byteBuffer);
 
         //Is this a valid identifier?
@@ -608,24 +611,19 @@ public class ID3v24Frame extends AbstractID3v2Frame
         //Work out the real size of the frameBody data
         int realFrameSize = frameSize - extraHeaderBytesCount;
 
+        //Compressed and encrypted frames are always decoded straight away
+        if (TagOptionSingleton.getInstance().isLazyID3v2FrameBodyDecoding()
+                && !((EncodingFlags) encodingFlags).isCompression()
+                && !((EncodingFlags) encodingFlags).isEncryption())
+        {
+            deferBody(byteBuffer, frameStart, identifier, realFrameSize);
+            return;
+        }
+
         //Create Buffer that only contains the body of this frame rather than the remainder of tag
         ByteBuffer frameBodyBuffer = byteBuffer.slice();
         frameBodyBuffer.limit(realFrameSize);
 
-        //Do we need to synchronize the frame body
-        int syncSize = realFrameSize;
-        if (((EncodingFlags) encodingFlags).isUnsynchronised())
-        {
-            //We only want to synchronize the buffer up to the end of this frame (remember this
-            //buffer contains the remainder of this tag not just this frame), and we cannot just
-            //create a new buffer because when this method returns the position of the buffer is used
-            //to look for the next frame, so we need to modify the buffer. The action of synchronizing causes
-            //bytes to be dropped so the existing buffer is large enough to hold the modifications
-            frameBodyBuffer = ID3Unsynchronization.synchronize(frameBodyBuffer);
-            syncSize = frameBodyBuffer.limit();
-            logger.config(getLoggingFilename() + ":" + "Frame Size After Syncing is:" + syncSize);
-        }
-
         //Read the body data
         try
         {
@@ -649,7 +647,7 @@ public class ID3v24Frame extends AbstractID3v2Frame
             }
             else
             {
-                frameBody = readBody(identifier, frameBodyBuffer, syncSize);
+                frameBody = readSynchronizedBody(identifier, frameBodyBuffer);
             }
             if (!(frameBody instanceof ID3v24FrameBody))
             {
@@ -664,34 +662,91 @@ public class ID3v24Frame extends AbstractID3v2Frame
         }
     }
 
+    /**
+     * Read the body of a frame that is neither compressed or encrypted, synchronizing it first if required
+     *
+     * @param identifier
+     * @param frameBodyBuffer only contains the body of this frame
+     * @return the frame body
+     * @throws InvalidFrameException
+     * @throws InvalidDataTypeException
+     */
+    private AbstractID3v2FrameBody readSynchronizedBody(String identifier, ByteBuffer frameBodyBuffer)
+            throws InvalidFrameException, InvalidDataTypeException
+    {
+        //Do we need to synchronize the frame body
+        int syncSize = frameBodyBuffer.limit();
+        if (((EncodingFlags) encodingFlags).isUnsynchronised())
+        {
+            //We only want to synchronize the buffer up to the end of this frame (remember the tag
+            //buffer contains the remainder of this tag not just this frame), synchronizing creates a new buffer
+            //so the tag buffer is left unchanged
+            frameBodyBuffer = ID3Unsynchronization.synchronize(frameBodyBuffer);
+            syncSize = frameBodyBuffer.limit();
+            logger.config(getLoggingFilename() + ":" + "Frame Size After Syncing is:" + syncSize);
+        }
+        return readBody(identifier, frameBodyBuffer, syncSize);
+    }
+
+    protected void decodeBody(String bodyIdentifier, ByteBuffer frameBodyBuffer)
+            throws InvalidFrameException, InvalidDataTypeException
+    {
+        frameBody = readSynchronizedBody(bodyIdentifier, frameBodyBuffer);
+        if (!(frameBody instanceof ID3v24FrameBody))
+        {
+            logger.config(getLoggingFilename() + ":" + "Converted frame body with:" + identifier + " to deprecated framebody");
+            frameBody = new FrameBodyDeprecated((AbstractID3v2FrameBody) frameBody);
+        }
+    }
+
     /**
      * Write the frame. Writes the frame header but writing the data is delegated to the
      * frame body.
      *
+     * <p>The body is written straight into tagBuffer after space reserved for the header, the header is
+     * filled in once the size of the body is known.
      */
-    public void write(ByteArrayOutputStream tagBuffer)
+    public void write(ID3v2TagBuffer tagBuffer)
     {
         boolean unsynchronization;
 
+        if (writeRawFrame(tagBuffer))
+        {
+            return;
+        }
+
         logger.config("Writing frame to file:" + getIdentifier());
 
-        //This is where we will write header, move position to where we can
-        //write bodybuffer
-        ByteBuffer headerBuffer = ByteBuffer.allocate(FRAME_HEADER_SIZE);
+        //Reserve space for the header, we write it once we know the size of the body
+        int headerPosition = tagBuffer.reserve(FRAME_HEADER_SIZE);
+
+        //Remove any non standard flags
+        ((ID3v24Frame.EncodingFlags) encodingFlags).unsetNonStandardFlags();
+
+        if (((EncodingFlags) encodingFlags).isEncryption())
+        {
+           tagBuffer.write(encryptionMethod);
+        }
+
+        if (((EncodingFlags) encodingFlags).isGrouping())
+        {
+            tagBuffer.write(groupIdentifier);
+        }
 
-        //Write Frame Body Data to a new stream
-        ByteArrayOutputStream bodyOutputStream = new ByteArrayOutputStream();
-        ((AbstractID3v2FrameBody) frameBody).write(bodyOutputStream);
+        //Write Frame Body Data directly after the header
+        int bodyPosition = tagBuffer.size();
+        ((AbstractID3v2FrameBody) frameBody).write(tagBuffer);
 
         //Does it need unsynchronizing, and are we allowing unsychronizing
-        byte[] bodyBuffer = bodyOutputStream.toByteArray();
-        unsynchronization = TagOptionSingleton.getInstance().isUnsyncTags() && ID3Unsynchronization.requiresUnsynchronization(bodyBuffer);
+        unsynchronization = TagOptionSingleton.getInstance().isUnsyncTags() && tagBuffer.requiresUnsynchronization(bodyPosition, tagBuffer.size() - bodyPosition);
         if (unsynchronization)
         {
-            bodyBuffer = ID3Unsynchronization.unsynchronize(bodyBuffer);
-            logger.config("bodybytebuffer:sizeafterunsynchronisation:" + bodyBuffer.length);
+            tagBuffer.unsynchronize(bodyPosition);
+            logger.config("bodybytebuffer:sizeafterunsynchronisation:" + (tagBuffer.size() - bodyPosition));
         }
 
+        ByteBuffer headerBuffer = ByteBuffer.allocate(FRAME_HEADER_SIZE);
+
         //Write Frame Header
         //Write Frame ID, the identifier must be 4 bytes bytes long it may not be
         //because converted an unknown v2.2 id (only 3 bytes long)
@@ -703,7 +758,7 @@ public class ID3v24Frame extends AbstractID3v2Frame
 
         //Write Frame Size based on size of body buffer (if it has been unsynced then it size
         //will have increased accordingly
-        int size = bodyBuffer.length;
+        int size = tagBuffer.size() - bodyPosition;
         logger.fine("Frame Size Is:" + size);
         headerBuffer.put(ID3SyncSafeInteger.valueToBuffer(size));
 
@@ -711,9 +766,6 @@ public class ID3v24Frame extends AbstractID3v2Frame
         //Status Flags:leave as they were when we read
         headerBuffer.put(statusFlags.getWriteFlags());
 
-        //Remove any non standard flags
-        ((ID3v24Frame.EncodingFlags) encodingFlags).unsetNonStandardFlags();
-                
         //Encoding we only support unsynchronization
         if (unsynchronization)
         {
@@ -728,29 +780,8 @@ public class ID3v24Frame extends AbstractID3v2Frame
         ((ID3v24Frame.EncodingFlags) encodingFlags).unsetDataLengthIndicator();
         headerBuffer.put(encodingFlags.getFlags());
 
-        try
-        {
-            //Add header to the Byte Array Output Stream
-            tagBuffer.write(headerBuffer.array());
-
-            if (((EncodingFlags) encodingFlags).isEncryption())
-            {
-               tagBuffer.write(encryptionMethod);
-            }
-
-            if (((EncodingFlags) encodingFlags).isGrouping())
-            {
-                tagBuffer.write(groupIdentifier);
-            }
-
-            //Add bodybuffer to the Byte Array Output Stream
-            tagBuffer.write(bodyBuffer);
-        }
-        catch (IOException ioe)
-        {
-            //This could never happen coz not writing to file, so convert to RuntimeException
-            throw new RuntimeException(ioe);
-        }
+        //Add header to the space reserved for it
+        tagBuffer.put(headerPosition, headerBuffer.array());
     }
 
     /**
@@ -1106,7 +1137,7 @@ public class ID3v24Frame extends AbstractID3v2Frame
         MP3File.getStructureFormatter().addElement(TYPE_FRAME_SIZE, frameSize);
         statusFlags.createStructure();
         encodingFlags.createStructure();
-        frameBody.createStructure();
+        getBody().createStructure();
         MP3File.getStructureFormatter().closeHeadingElement(TYPE_FRAME);
     }
 
@@ -134,15 +134,14 @@ public class ID3v24Frames extends ID3Frames
     protected EnumMap<ID3v24FieldKey, FieldKey> id3ToTagField = new EnumMap<ID3v24FieldKey,FieldKey>(ID3v24FieldKey.class);
 
 
-    private static ID3v24Frames id3v24Frames;
+    private static class InstanceHolder
+    {
+        private static final ID3v24Frames INSTANCE = new ID3v24Frames();
+    }
 
     public static ID3v24Frames getInstanceOf()
     {
-        if (id3v24Frames == null)
-        {
-            id3v24Frames = new ID3v24Frames();
-        }
-        return id3v24Frames;
+        return InstanceHolder.INSTANCE;
     }
 
     private ID3v24Frames()
@@ -1084,16 +1084,16 @@ public class ID3v24Tag extends AbstractID3v2Tag
         logger.config("Writing tag to file:"+getLoggingFilename());
 
         //Write Body Buffer
-        byte[] bodyByteBuffer = writeFramesToBuffer().toByteArray();
+        ID3v2TagBuffer bodyByteBuffer = writeFramesToBuffer();
 
         //Calculate Tag Size including Padding
-        int sizeIncPadding = calculateTagSize(bodyByteBuffer.length + TAG_HEADER_LENGTH, (int) audioStartLocation);
+        int sizeIncPadding = calculateTagSize(bodyByteBuffer.size() + TAG_HEADER_LENGTH, (int) audioStartLocation, file.length());
 
         //Calculate padding bytes required
-        int padding = sizeIncPadding - (bodyByteBuffer.length + TAG_HEADER_LENGTH);
+        int padding = sizeIncPadding - (bodyByteBuffer.size() + TAG_HEADER_LENGTH);
 
-        ByteBuffer headerBuffer = writeHeaderToBuffer(padding, bodyByteBuffer.length);
-        writeBufferToFile(file, headerBuffer, bodyByteBuffer, padding, sizeIncPadding, audioStartLocation);
+        ByteBuffer headerBuffer = writeHeaderToBuffer(padding, bodyByteBuffer.size());
+        writeBufferToFile(file, headerBuffer, bodyByteBuffer.toByteBuffer(), padding, sizeIncPadding, audioStartLocation);
         return sizeIncPadding;
     }
 
@@ -1105,20 +1105,18 @@ public class ID3v24Tag extends AbstractID3v2Tag
     {
         logger.severe("Writing tag to channel");
 
-        byte[] bodyByteBuffer = writeFramesToBuffer().toByteArray();
+        ID3v2TagBuffer bodyByteBuffer = writeFramesToBuffer();
 
 
         int padding = 0;
         if(currentTagSize > 0)
         {
-            int sizeIncPadding = calculateTagSize(bodyByteBuffer.length + TAG_HEADER_LENGTH, (int) currentTagSize);
-            padding = sizeIncPadding - (bodyByteBuffer.length + TAG_HEADER_LENGTH);
+            int sizeIncPadding = calculateTagSize(bodyByteBuffer.size() + TAG_HEADER_LENGTH, (int) currentTagSize);
+            padding = sizeIncPadding - (bodyByteBuffer.size() + TAG_HEADER_LENGTH);
         }
-        ByteBuffer headerBuffer = writeHeaderToBuffer(padding, bodyByteBuffer.length);
+        ByteBuffer headerBuffer = writeHeaderToBuffer(padding, bodyByteBuffer.size());
 
-        channel.write(headerBuffer);
-        channel.write(ByteBuffer.wrap(bodyByteBuffer));
-        writePadding(channel, padding);
+        writeBuffersToChannel(channel, headerBuffer, bodyByteBuffer.toByteBuffer(), padding);
     }
 
     /**
@@ -0,0 +1,102 @@
+package org.jaudiotagger.tag.id3;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Single growable buffer that all the frames of a tag are written into.
+ *
+ * Frames reserve space for their header, write their body directly after it and then fill in the header once the
+ * size of the body is known, so frame bodies are never copied through intermediate buffers. The finished buffer
+ * can be viewed as a ByteBuffer without copying.
+ */
+public class ID3v2TagBuffer extends ByteArrayOutputStream
+{
+    public ID3v2TagBuffer()
+    {
+        super();
+    }
+
+    /**
+     * @param size initial capacity, ideally the expected size of the tag
+     */
+    public ID3v2TagBuffer(int size)
+    {
+        super(Math.max(size, 32));
+    }
+
+    /**
+     * Reserve space to be filled in later with {@link #put(int, byte[])}
+     *
+     * @param length
+     * @return position of the reserved space
+     */
+    public int reserve(int length)
+    {
+        int position = count;
+        for (int i = 0; i < length; i++)
+        {
+            write(0);
+        }
+        return position;
+    }
+
+    /**
+     * Overwrite bytes that have already been written, typically a reserved frame header
+     *
+     * @param position
+     * @param data
+     */
+    public void put(int position, byte[] data)
+    {
+        if (position < 0 || position + data.length > count)
+        {
+            throw new IndexOutOfBoundsException("Cannot put " + data.length + " bytes at " + position + " in buffer of size " + count);
+        }
+        System.arraycopy(data, 0, buf, position, data.length);
+    }
+
+    /**
+     * Discard everything written after size
+     *
+     * @param size
+     */
+    public void truncate(int size)
+    {
+        if (size < 0 || size > count)
+        {
+            throw new IndexOutOfBoundsException("Cannot truncate buffer of size " + count + " to " + size);
+        }
+        count = size;
+    }
+
+    /**
+     * @param position
+     * @param length
+     * @return true if the given range contains a false sync
+     */
+    public boolean requiresUnsynchronization(int position, int length)
+    {
+        return ID3Unsynchronization.requiresUnsynchronization(buf, position, length);
+    }
+
+    /**
+     * Unsynchronize everything written from position onwards
+     *
+     * @param position
+     */
+    public void unsynchronize(int position)
+    {
+        byte[] unsynchronized = ID3Unsynchronization.unsynchronize(buf, position, count - position);
+        count = position;
+        write(unsynchronized, 0, unsynchronized.length);
+    }
+
+    /**
+     * @return view of the written data, only valid until the buffer is next modified
+     */
+    public ByteBuffer toByteBuffer()
+    {
+        return ByteBuffer.wrap(buf, 0, count);
+    }
+}
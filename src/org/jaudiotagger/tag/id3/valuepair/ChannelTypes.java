@@ -26,15 +26,14 @@ import org.jaudiotagger.tag.datatype.AbstractIntStringValuePair;
 
 public class ChannelTypes extends AbstractIntStringValuePair
 {
-    private static ChannelTypes channelTypes;
+    private static class InstanceHolder
+    {
+        private static final ChannelTypes INSTANCE = new ChannelTypes();
+    }
 
     public static ChannelTypes getInstanceOf()
     {
-        if (channelTypes == null)
-        {
-            channelTypes = new ChannelTypes();
-        }
-        return channelTypes;
+        return InstanceHolder.INSTANCE;
     }
 
     private ChannelTypes()
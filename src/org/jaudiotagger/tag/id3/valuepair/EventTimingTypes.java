@@ -25,15 +25,14 @@ import org.jaudiotagger.tag.datatype.AbstractIntStringValuePair;
 
 public class EventTimingTypes extends AbstractIntStringValuePair
 {
-    private static EventTimingTypes eventTimingTypes;
+    private static class InstanceHolder
+    {
+        private static final EventTimingTypes INSTANCE = new EventTimingTypes();
+    }
 
     public static EventTimingTypes getInstanceOf()
     {
-        if (eventTimingTypes == null)
-        {
-            eventTimingTypes = new EventTimingTypes();
-        }
-        return eventTimingTypes;
+        return InstanceHolder.INSTANCE;
     }
 
     private EventTimingTypes()
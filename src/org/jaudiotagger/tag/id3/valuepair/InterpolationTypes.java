@@ -25,15 +25,14 @@ import org.jaudiotagger.tag.datatype.AbstractIntStringValuePair;
 
 public class InterpolationTypes extends AbstractIntStringValuePair
 {
-    private static InterpolationTypes interpolationTypes;
+    private static class InstanceHolder
+    {
+        private static final InterpolationTypes INSTANCE = new InterpolationTypes();
+    }
 
     public static InterpolationTypes getInstanceOf()
     {
-        if (interpolationTypes == null)
-        {
-            interpolationTypes = new InterpolationTypes();
-        }
-        return interpolationTypes;
+        return InstanceHolder.INSTANCE;
     }
 
     private InterpolationTypes()
@@ -33,15 +33,14 @@ public class ReceivedAsTypes extends AbstractIntStringValuePair
     //The number of bytes used to hold the text encoding field size
     public static final int RECEIVED_AS_FIELD_SIZE = 1;
 
-    private static ReceivedAsTypes receivedAsTypes;
+    private static class InstanceHolder
+    {
+        private static final ReceivedAsTypes INSTANCE = new ReceivedAsTypes();
+    }
 
     public static ReceivedAsTypes getInstanceOf()
     {
-        if (receivedAsTypes == null)
-        {
-            receivedAsTypes = new ReceivedAsTypes();
-        }
-        return receivedAsTypes;
+        return InstanceHolder.INSTANCE;
     }
 
     private ReceivedAsTypes()
@@ -7,15 +7,14 @@ import org.jaudiotagger.tag.datatype.AbstractIntStringValuePair;
  */
 public class SynchronisedLyricsContentType extends AbstractIntStringValuePair
 {
-    private static SynchronisedLyricsContentType eventTimingTypes;
+    private static class InstanceHolder
+    {
+        private static final SynchronisedLyricsContentType INSTANCE = new SynchronisedLyricsContentType();
+    }
 
     public static SynchronisedLyricsContentType getInstanceOf()
     {
-        if (SynchronisedLyricsContentType.eventTimingTypes == null)
-        {
-            SynchronisedLyricsContentType.eventTimingTypes = new SynchronisedLyricsContentType();
-        }
-        return SynchronisedLyricsContentType.eventTimingTypes;
+        return InstanceHolder.INSTANCE;
     }
 
     public static final int CONTENT_KEY_FIELD_SIZE = 1;
@@ -52,8 +52,6 @@ public class TextEncoding extends AbstractIntStringValuePair
     /** The number of bytes used to hold the text encoding field size. */
     public static final int TEXT_ENCODING_FIELD_SIZE = 1;
 
-    private static TextEncoding textEncodings;
-
     private final Map<Integer, Charset> idToCharset = new HashMap<>();
 
     /**
@@ -61,13 +59,14 @@ public class TextEncoding extends AbstractIntStringValuePair
      *
      * @return singleton
      */
-    public static synchronized TextEncoding getInstanceOf()
+    private static class InstanceHolder
     {
-        if (textEncodings == null)
-        {
-            textEncodings = new TextEncoding();
-        }
-        return textEncodings;
+        private static final TextEncoding INSTANCE = new TextEncoding();
+    }
+
+    public static TextEncoding getInstanceOf()
+    {
+        return InstanceHolder.INSTANCE;
     }
 
     private TextEncoding()
@@ -12,20 +12,19 @@ import java.util.List;
  */
 public class V2GenreTypes
 {
-    private static V2GenreTypes v2GenresTypes;
-
     private V2GenreTypes()
     {
 
     }
 
+    private static class InstanceHolder
+    {
+        private static final V2GenreTypes INSTANCE = new V2GenreTypes();
+    }
+
     public static V2GenreTypes getInstanceOf()
     {
-        if (v2GenresTypes == null)
-        {
-            v2GenresTypes = new V2GenreTypes();
-        }
-        return v2GenresTypes;
+        return InstanceHolder.INSTANCE;
     }
 
     /**
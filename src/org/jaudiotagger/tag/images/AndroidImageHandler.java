@@ -13,15 +13,14 @@ import java.io.IOException;
  */
 public class AndroidImageHandler implements ImageHandler
 {
-    private static AndroidImageHandler instance;
+    private static class InstanceHolder
+    {
+        private static final AndroidImageHandler INSTANCE = new AndroidImageHandler();
+    }
 
     public static AndroidImageHandler getInstanceOf()
     {
-        if(instance==null)
-        {
-            instance = new AndroidImageHandler();
-        }
-        return instance;
+        return InstanceHolder.INSTANCE;
     }
 
     private AndroidImageHandler()
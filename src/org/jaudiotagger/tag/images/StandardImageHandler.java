@@ -9,15 +9,14 @@ import java.io.IOException;
  */
 public class StandardImageHandler implements ImageHandler
 {
-    private static StandardImageHandler instance;
+    private static class InstanceHolder
+    {
+        private static final StandardImageHandler INSTANCE = new StandardImageHandler();
+    }
 
     public static StandardImageHandler getInstanceOf()
     {
-        if (instance==null)
-        {
-            instance = new StandardImageHandler();
-        }
-        return instance;
+        return InstanceHolder.INSTANCE;
     }
 
     private StandardImageHandler()
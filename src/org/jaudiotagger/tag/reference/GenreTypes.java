@@ -51,15 +51,14 @@ public class GenreTypes extends AbstractIntStringValuePair
         return MAX_GENRE_ID;
     }
 
-    private static GenreTypes genreTypes;
+    private static class InstanceHolder
+    {
+        private static final GenreTypes INSTANCE = new GenreTypes();
+    }
 
     public static GenreTypes getInstanceOf()
     {
-        if (genreTypes == null)
-        {
-            genreTypes = new GenreTypes();
-        }
-        return genreTypes;
+        return InstanceHolder.INSTANCE;
     }
 
     //This maps the lowercase version to the id, so applications can map from the lowercase value to the id
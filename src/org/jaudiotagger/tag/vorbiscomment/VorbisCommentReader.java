@@ -20,11 +20,12 @@
 package org.jaudiotagger.tag.vorbiscomment;
 
 import org.jaudiotagger.audio.exceptions.CannotReadException;
-import org.jaudiotagger.audio.generic.Utils;
-import org.jaudiotagger.audio.ogg.util.VorbisHeader;
 import org.jaudiotagger.logging.ErrorMessage;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
 import java.util.logging.Logger;
 
 /**
@@ -80,53 +81,58 @@ public class VorbisCommentReader
      */
     public VorbisCommentTag read(byte[] rawdata, boolean isFramingBit) throws IOException, CannotReadException
     {
+        return read(ByteBuffer.wrap(rawdata), isFramingBit);
+    }
 
+    /**
+     * Read the tag from a view of the raw data, the fields refer to the data rather than copy it so it must not be
+     * modified afterwards. Only the field ids are decoded, the values are decoded when first used.
+     *
+     * @param rawdata from its position to its limit, the position is not changed
+     * @param isFramingBit
+     * @return logical representation of VorbisCommentTag
+     * @throws IOException
+     * @throws CannotReadException
+     */
+    public VorbisCommentTag read(ByteBuffer rawdata, boolean isFramingBit) throws IOException, CannotReadException
+    {
         VorbisCommentTag tag = new VorbisCommentTag();
 
-        byte[] b = new byte[FIELD_VENDOR_LENGTH_LENGTH];
-        System.arraycopy(rawdata, FIELD_VENDOR_LENGTH_POS, b, FIELD_VENDOR_LENGTH_POS, FIELD_VENDOR_LENGTH_LENGTH);
-        int pos = FIELD_VENDOR_LENGTH_LENGTH;
-        int vendorStringLength = Utils.getIntLE(b);
+        ByteBuffer data = rawdata.slice();
+        data.order(ByteOrder.LITTLE_ENDIAN);
 
-        b = new byte[vendorStringLength];
-        System.arraycopy(rawdata, pos, b, 0, vendorStringLength);
-        pos += vendorStringLength;
-        tag.setVendor(new String(b, VorbisHeader.CHARSET_UTF_8));
+        int vendorStringLength = data.getInt();
+        ByteBuffer vendor = data.slice();
+        vendor.limit(vendorStringLength);
+        data.position(data.position() + vendorStringLength);
+        tag.setVendor(StandardCharsets.UTF_8.decode(vendor).toString());
         logger.config("Vendor is:"+tag.getVendor());
-        
-        b = new byte[FIELD_USER_COMMENT_LIST_LENGTH];
-        System.arraycopy(rawdata, pos, b, 0, FIELD_USER_COMMENT_LIST_LENGTH);
-        pos += FIELD_USER_COMMENT_LIST_LENGTH;
 
-        int userComments = Utils.getIntLE(b);
+        int userComments = data.getInt();
         logger.config("Number of user comments:" + userComments);
-        
+
         for (int i = 0; i < userComments; i++)
         {
-            b = new byte[FIELD_COMMENT_LENGTH_LENGTH];
-            System.arraycopy(rawdata, pos, b, 0, FIELD_COMMENT_LENGTH_LENGTH);
-            pos += FIELD_COMMENT_LENGTH_LENGTH;
-
-            int commentLength = Utils.getIntLE(b);
+            int commentLength = data.getInt();
             logger.config("Next Comment Length:" + commentLength);
 
-            if(commentLength> JAUDIOTAGGER_MAX_COMMENT_LENGTH)
+            if(commentLength> JAUDIOTAGGER_MAX_COMMENT_LENGTH || commentLength < 0)
             {
                 logger.warning(ErrorMessage.VORBIS_COMMENT_LENGTH_TOO_LARGE.getMsg(commentLength));
                 break;
             }
-            else if(commentLength>rawdata.length)
+            else if(commentLength>data.remaining())
             {
-                logger.warning(ErrorMessage.VORBIS_COMMENT_LENGTH_LARGE_THAN_HEADER.getMsg(commentLength,rawdata.length));
+                logger.warning(ErrorMessage.VORBIS_COMMENT_LENGTH_LARGE_THAN_HEADER.getMsg(commentLength,data.limit()));
                 break;
             }
             else
             {
-                b = new byte[commentLength];
-                System.arraycopy(rawdata, pos, b, 0, commentLength);
-                pos += commentLength;
+                ByteBuffer comment = data.slice();
+                comment.limit(commentLength);
+                data.position(data.position() + commentLength);
 
-                VorbisCommentTagField fieldComment = new VorbisCommentTagField(b);
+                VorbisCommentTagField fieldComment = new VorbisCommentTagField(comment);
                 logger.config("Adding:" + fieldComment.getId());
                 tag.addField(fieldComment);
             }
@@ -135,9 +141,9 @@ public class VorbisCommentReader
         //Check framing bit, only exists when vorbisComment used within OggVorbis       
         if (isFramingBit)
         {
-            if ((rawdata[pos] & 0x01) != 1)
+            if ((data.get(data.position()) & 0x01) != 1)
             {
-                throw new CannotReadException(ErrorMessage.OGG_VORBIS_NO_FRAMING_BIT.getMsg((rawdata[pos] & 0x01)));
+                throw new CannotReadException(ErrorMessage.OGG_VORBIS_NO_FRAMING_BIT.getMsg((data.get(data.position()) & 0x01)));
             }
         }
         return tag;
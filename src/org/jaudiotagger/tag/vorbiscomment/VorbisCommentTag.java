@@ -420,6 +420,11 @@ public class VorbisCommentTag extends AbstractTag
      */
     public byte[] getArtworkBinaryData()
     {
+        List<TagField> coverArt = this.get(VorbisCommentFieldKey.COVERART);
+        if (coverArt.size() > 0 && coverArt.get(0) instanceof VorbisCommentTagField)
+        {
+            return ((VorbisCommentTagField) coverArt.get(0)).getBase64DecodedContent();
+        }
         String base64data = this.getFirst(VorbisCommentFieldKey.COVERART);
         byte[] rawdata = Base64Coder.decode(base64data.toCharArray());
         return rawdata;
@@ -500,7 +505,15 @@ public class VorbisCommentTag extends AbstractTag
 
             try
             {
-                byte[] imageBinaryData = Base64Coder.decode(((TagTextField)tagField).getContent());
+                byte[] imageBinaryData;
+                if (tagField instanceof VorbisCommentTagField)
+                {
+                    imageBinaryData = ((VorbisCommentTagField) tagField).getBase64DecodedContent();
+                }
+                else
+                {
+                    imageBinaryData = Base64Coder.decode(((TagTextField) tagField).getContent());
+                }
                 MetadataBlockDataPicture coverArt = new MetadataBlockDataPicture(ByteBuffer.wrap(imageBinaryData));
                 Artwork artwork=ArtworkFactory.createArtworkFromMetadataBlockDataPicture(coverArt);
                 artworkList.add(artwork);
@@ -20,8 +20,10 @@ package org.jaudiotagger.tag.vorbiscomment;
 
 import org.jaudiotagger.tag.TagField;
 import org.jaudiotagger.tag.TagTextField;
+import org.jaudiotagger.tag.vorbiscomment.util.Base64Coder;
 
 import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 
@@ -51,6 +53,13 @@ public class VorbisCommentTagField implements TagTextField
      */
     private String content;
 
+    /**
+     * The UTF-8 content as read, a view of the tag data rather than a copy. The content is only decoded from it when
+     * first used, so large fields such as pictures are never held as a String unless asked for. Cleared if the
+     * content is changed.
+     */
+    private ByteBuffer rawContent;
+
     /**
      * Stores the id (name) of the tag field. <br>
      */
@@ -69,26 +78,45 @@ public class VorbisCommentTagField implements TagTextField
      */
     public VorbisCommentTagField(byte[] raw) throws UnsupportedEncodingException
     {
-        String field = new String(raw, "UTF-8");
-        int i = field.indexOf("=");
-        if (i == -1)
+        this(ByteBuffer.wrap(raw));
+    }
+
+    /**
+     * Creates an instance from a view of the raw field data without copying it, only the id is decoded, the content
+     * is decoded when first used.
+     *
+     * @param raw Raw byte data of the tagfield from its position to its limit, must not be modified afterwards
+     */
+    public VorbisCommentTagField(ByteBuffer raw)
+    {
+        int start = raw.position();
+        int separator = -1;
+        for (int i = start; i < raw.limit(); i++)
+        {
+            //'=' cannot occur within a multibyte UTF-8 character
+            if (raw.get(i) == '=')
+            {
+                separator = i;
+                break;
+            }
+        }
+
+        if (separator == -1)
         {
             //Beware that ogg ID, must be capitalized and contain no space..
             this.id = ERRONEOUS_ID;
-            this.content = field;
+            this.rawContent = raw.slice();
         }
         else
         {
-            this.id = field.substring(0, i).toUpperCase();
-            if (field.length() > i)
-            {
-                this.content = field.substring(i + 1);
-            }
-            else
-            {
-                //We have "XXXXXX=" with nothing after the "="
-                this.content = "";
-            }
+            ByteBuffer idBytes = raw.duplicate();
+            idBytes.limit(separator);
+            this.id = StandardCharsets.UTF_8.decode(idBytes).toString().toUpperCase();
+
+            //We may have "XXXXXX=" with nothing after the "="
+            ByteBuffer contentBytes = raw.duplicate();
+            contentBytes.position(separator + 1);
+            this.rawContent = contentBytes.slice();
         }
         checkCommon();
     }
@@ -145,15 +173,36 @@ public class VorbisCommentTagField implements TagTextField
         if (field instanceof TagTextField)
         {
             this.content = ((TagTextField) field).getContent();
+            this.rawContent = null;
         }
     }
 
     @Override
     public String getContent()
     {
+        if (content == null)
+        {
+            content = StandardCharsets.UTF_8.decode(rawContent.duplicate()).toString();
+        }
         return content;
     }
 
+    /**
+     * Decode the content as Base64, as used for pictures. If the content has not been changed since it was read it is
+     * decoded straight from the raw bytes, without ever being held as a String.
+     *
+     * @return the decoded content
+     * @throws IllegalArgumentException if the content is not valid Base64
+     */
+    public byte[] getBase64DecodedContent()
+    {
+        if (rawContent != null)
+        {
+            return Base64Coder.decode(rawContent);
+        }
+        return Base64Coder.decode(content);
+    }
+
     @Override
     public Charset getEncoding()
     {
@@ -171,7 +220,17 @@ public class VorbisCommentTagField implements TagTextField
     {
         byte[] size = new byte[VorbisCommentReader.FIELD_COMMENT_LENGTH_LENGTH];
         byte[] idBytes = this.id.getBytes(StandardCharsets.ISO_8859_1);
-        byte[] contentBytes = this.content.getBytes(StandardCharsets.UTF_8);
+        byte[] contentBytes;
+        if (rawContent != null)
+        {
+            //Unchanged so write back what was read
+            contentBytes = new byte[rawContent.remaining()];
+            rawContent.duplicate().get(contentBytes);
+        }
+        else
+        {
+            contentBytes = this.content.getBytes(StandardCharsets.UTF_8);
+        }
         byte[] b = new byte[4 + idBytes.length + 1 + contentBytes.length];
 
         int length = idBytes.length + 1 + contentBytes.length;
@@ -217,6 +276,10 @@ public class VorbisCommentTagField implements TagTextField
     @Override
     public boolean isEmpty()
     {
+        if (rawContent != null)
+        {
+            return !rawContent.hasRemaining();
+        }
         return this.content.equals("");
     }
 
@@ -224,6 +287,7 @@ public class VorbisCommentTagField implements TagTextField
     public void setContent(String s)
     {
         this.content = s;
+        this.rawContent = null;
     }
 
     @Override
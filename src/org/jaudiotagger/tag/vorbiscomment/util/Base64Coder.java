@@ -1,5 +1,6 @@
 package org.jaudiotagger.tag.vorbiscomment.util;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 
 /**
@@ -158,4 +159,63 @@ public class Base64Coder
         }
         return out;
     }
+
+    /**
+     * Decodes Base64 data held as ASCII bytes, such as a field read straight from a file, without first converting it
+     * to characters.
+     *
+     * @param in the Base64 encoded data from its position to its limit, the position is not changed
+     * @return An array containing the decoded data bytes.
+     * @throws IllegalArgumentException if the input is not valid Base64 encoded data.
+     */
+    public static byte[] decode(final ByteBuffer in)
+    {
+        final int start = in.position();
+        int iLen = in.remaining();
+        if (iLen % 4 != 0)
+        {
+            throw new IllegalArgumentException("Length of Base64 encoded input string is not a multiple of 4.");
+        }
+        while (iLen > 0 && in.get(start + iLen - 1) == '=')
+        {
+            iLen--;
+        }
+        final int oLen = (iLen * 3) / 4;
+        final byte[] out = new byte[oLen];
+        int ip = 0;
+        int op = 0;
+        while (ip < iLen)
+        {
+            final int i0 = in.get(start + ip++) & 0xff;
+            final int i1 = in.get(start + ip++) & 0xff;
+            if(i0==13 && i1==10) continue;
+            final int i2 = ip < iLen ? in.get(start + ip++) & 0xff : 'A';
+            final int i3 = ip < iLen ? in.get(start + ip++) & 0xff : 'A';
+            if (i0 > 127 || i1 > 127 || i2 > 127 || i3 > 127)
+            {
+                throw new IllegalArgumentException("Illegal character in Base64 encoded data.");
+            }
+            final int b0 = map2[i0];
+            final int b1 = map2[i1];
+            final int b2 = map2[i2];
+            final int b3 = map2[i3];
+            if (b0 < 0 || b1 < 0 || b2 < 0 || b3 < 0)
+            {
+                throw new IllegalArgumentException("Illegal character in Base64 encoded data.");
+            }
+            final int o0 = (b0 << 2) | (b1 >>> 4);
+            final int o1 = ((b1 & 0xf) << 4) | (b2 >>> 2);
+            final int o2 = ((b2 & 3) << 6) | b3;
+            out[op++] = (byte) o0;
+            if (op < oLen)
+            {
+                out[op++] = (byte) o1;
+            }
+            if (op < oLen)
+            {
+                out[op++] = (byte) o2;
+            }
+        }
+        return out;
+    }
 }
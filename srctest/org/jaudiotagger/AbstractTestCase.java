@@ -26,6 +26,7 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.EnumMap;
 import java.util.regex.Pattern;
 
@@ -173,6 +174,18 @@ public abstract class AbstractTestCase {
         return outputFile;
     }
 
+    /**
+     * Text for a field value large enough to change the size of the metadata
+     * 
+     * @param length
+     * @return
+     */
+    public static String createText(int length) {
+        char[] text = new char[length];
+        Arrays.fill(text, 'a');
+        return new String(text);
+    }
+
     /**
      * Prepends file with tag file in order to create an mp3 with a valid id3
      * 
@@ -0,0 +1,231 @@
+package org.jaudiotagger.audio;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.exceptions.CannotWriteException;
+import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.tag.Tag;
+import org.jaudiotagger.tag.TagException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Coalescing many tag edits into one write per file
+ */
+public class AudioFileBatchTest
+{
+    private static final String[] FILES = {"testV1.mp3", "test.flac", "test.m4a"};
+
+    private static class SetField implements TagEdit
+    {
+        private final FieldKey key;
+        private final String value;
+
+        SetField(FieldKey key, String value)
+        {
+            this.key = key;
+            this.value = value;
+        }
+
+        public void apply(Tag tag) throws TagException
+        {
+            tag.setField(key, value);
+        }
+    }
+
+    private List<File> copyFiles(String prefix) throws Exception
+    {
+        List<File> files = new ArrayList<File>();
+        for (String next : FILES)
+        {
+            files.add(AbstractTestCase.copyAudioToTmp(next, new File(prefix + next)));
+        }
+        return files;
+    }
+
+    @Test
+    public void testEditsFromManyThreads() throws Exception
+    {
+        final List<File> files = copyFiles("testBatch");
+        final AudioFileBatch batch = new AudioFileBatch();
+        batch.setThreadCount(2);
+
+        final Map<String, AtomicInteger> writes = new ConcurrentHashMap<String, AtomicInteger>();
+        AudioFileIO audioFileIO = new AudioFileIO()
+        {
+            public void writeFile(AudioFile f, String targetPath) throws CannotWriteException
+            {
+                writes.putIfAbsent(f.getFile().getName(), new AtomicInteger());
+                writes.get(f.getFile().getName()).incrementAndGet();
+                super.writeFile(f, targetPath);
+            }
+        };
+        batch.setAudioFileIO(audioFileIO);
+
+        //Each producer edits a different field of every file
+        final FieldKey[] keys = {FieldKey.ARTIST, FieldKey.ALBUM, FieldKey.COMMENT};
+        Thread[] producers = new Thread[keys.length];
+        for (int i = 0; i < keys.length; i++)
+        {
+            final FieldKey key = keys[i];
+            producers[i] = new Thread()
+            {
+                public void run()
+                {
+                    for (File file : files)
+                    {
+                        batch.add(file, new SetField(key, key.name() + file.getName()));
+                    }
+                }
+            };
+            producers[i].start();
+        }
+        for (Thread producer : producers)
+        {
+            producer.join();
+        }
+
+        //Later edits to the same file are applied after earlier ones
+        for (File file : files)
+        {
+            batch.add(file, new SetField(FieldKey.TITLE, "first"));
+            batch.add(new File(file.getPath()), new SetField(FieldKey.TITLE, "second"));
+        }
+        Assert.assertEquals(files.size(), batch.getFileCount());
+        Assert.assertEquals(files.size() * 5, batch.getEditCount());
+
+        List<AudioFileBatchResult> results = batch.commit();
+        Assert.assertTrue(batch.isCommitted());
+        Assert.assertEquals(files.size(), results.size());
+        for (int i = 0; i < files.size(); i++)
+        {
+            AudioFileBatchResult result = results.get(i);
+            Assert.assertTrue(result.toString(), result.isSuccess());
+            Assert.assertEquals(files.get(i).getCanonicalFile(), result.getFile());
+            Assert.assertEquals(5, result.getEditCount());
+
+            Tag tag = AudioFileIO.read(files.get(i)).getTag();
+            for (FieldKey key : keys)
+            {
+                Assert.assertEquals(key.name() + files.get(i).getName(), tag.getFirst(key));
+            }
+            Assert.assertEquals("second", tag.getFirst(FieldKey.TITLE));
+        }
+
+        //One write for each file
+        Assert.assertEquals(files.size(), writes.size());
+        for (File file : files)
+        {
+            Assert.assertEquals(1, writes.get(file.getName()).get());
+        }
+    }
+
+    @Test
+    public void testFailedEditIsNotWritten() throws Exception
+    {
+        List<File> files = copyFiles("testBatchFailed");
+        String artist = AudioFileIO.read(files.get(1)).getTag().getFirst(FieldKey.ARTIST);
+        AudioFileBatch batch = new AudioFileBatch();
+        batch.add(files.get(1), new SetField(FieldKey.ARTIST, "new artist"));
+        batch.add(files.get(1), new TagEdit()
+        {
+            public void apply(Tag tag) throws TagException
+            {
+                throw new TagException("edit failed");
+            }
+        });
+        batch.add(files.get(2), new SetField(FieldKey.ARTIST, "new artist"));
+        batch.add(new File("testdatatmp", "testBatchMissing.flac"), new SetField(FieldKey.ARTIST, "artist"));
+
+        List<AudioFileBatchResult> results = batch.commit();
+        Assert.assertFalse(results.get(0).isSuccess());
+        Assert.assertEquals("edit failed", results.get(0).getException().getMessage());
+        Assert.assertEquals(artist, AudioFileIO.read(files.get(1)).getTag().getFirst(FieldKey.ARTIST));
+        Assert.assertTrue(results.get(1).isSuccess());
+        Assert.assertEquals("new artist", AudioFileIO.read(files.get(2)).getTag().getFirst(FieldKey.ARTIST));
+        Assert.assertFalse(results.get(2).isSuccess());
+
+        try
+        {
+            batch.add(files.get(0), new SetField(FieldKey.ARTIST, "artist"));
+            Assert.fail("Edits added after commit");
+        }
+        catch (IllegalStateException ise)
+        {
+            //expected
+        }
+    }
+
+    @Test
+    public void testEditThrowingErrorHasResult() throws Exception
+    {
+        List<File> files = copyFiles("testBatchError");
+        final Error error = new Error("edit failed");
+        final List<Throwable> thrown = new ArrayList<Throwable>();
+        AudioFileBatch batch = new AudioFileBatch();
+        batch.setExecutor(new Executor()
+        {
+            public void execute(Runnable command)
+            {
+                try
+                {
+                    command.run();
+                }
+                catch (Error e)
+                {
+                    thrown.add(e);
+                }
+            }
+        });
+        batch.add(files.get(0), new SetField(FieldKey.ARTIST, "new artist"));
+        batch.add(files.get(1), new TagEdit()
+        {
+            public void apply(Tag tag) throws TagException
+            {
+                throw error;
+            }
+        });
+
+        List<AudioFileBatchResult> results = batch.commit();
+        Assert.assertTrue(results.get(0).isSuccess());
+        Assert.assertFalse(results.get(1).isSuccess());
+        Assert.assertTrue(results.get(1).getException() instanceof ExecutionException);
+        Assert.assertSame(error, results.get(1).getException().getCause());
+        //The error still reaches the executor
+        Assert.assertEquals(1, thrown.size());
+        Assert.assertSame(error, thrown.get(0));
+    }
+
+    @Test
+    public void testSameFileThroughDifferentPaths() throws Exception
+    {
+        File file = copyFiles("testBatchPaths").get(0);
+        File link = new File(file.getParentFile(), "testBatchPathsLink.mp3");
+        link.delete();
+        Files.createSymbolicLink(link.toPath(), file.getAbsoluteFile().toPath());
+
+        AudioFileBatch batch = new AudioFileBatch();
+        batch.add(file, new SetField(FieldKey.ARTIST, "artist"));
+        batch.add(new File(file.getParentFile(), "./" + file.getName()), new SetField(FieldKey.ALBUM, "album"));
+        batch.add(link, new SetField(FieldKey.TITLE, "title"));
+        Assert.assertEquals(1, batch.getFileCount());
+
+        List<AudioFileBatchResult> results = batch.commit();
+        Assert.assertEquals(1, results.size());
+        Assert.assertEquals(3, results.get(0).getEditCount());
+        Tag tag = AudioFileIO.read(file).getTag();
+        Assert.assertEquals("artist", tag.getFirst(FieldKey.ARTIST));
+        Assert.assertEquals("album", tag.getFirst(FieldKey.ALBUM));
+        Assert.assertEquals("title", tag.getFirst(FieldKey.TITLE));
+        link.delete();
+    }
+}
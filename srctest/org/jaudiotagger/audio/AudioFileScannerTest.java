@@ -0,0 +1,219 @@
+package org.jaudiotagger.audio;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.exceptions.CannotReadException;
+import org.jaudiotagger.audio.exceptions.InvalidAudioFrameException;
+import org.jaudiotagger.audio.exceptions.ReadOnlyFileException;
+import org.jaudiotagger.tag.TagException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Reading many files in parallel
+ */
+public class AudioFileScannerTest
+{
+    private static final String[] FILES = {"testV1.mp3", "test.ogg", "test.flac", "test.m4a", "test.wav", "test119.aif"};
+
+    private void delete(File file)
+    {
+        File[] children = Files.isSymbolicLink(file.toPath()) ? null : file.listFiles();
+        if (children != null)
+        {
+            for (File child : children)
+            {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+    private File createScanDirectory(String name) throws Exception
+    {
+        File directory = new File("testdatatmp", name);
+        delete(directory);
+        File subDirectory = new File(directory, "sub");
+        Assert.assertTrue(subDirectory.mkdirs());
+        for (int i = 0; i < FILES.length; i++)
+        {
+            File copy = AbstractTestCase.copyAudioToTmp(FILES[i], new File(name + FILES[i]));
+            Assert.assertTrue(copy.renameTo(new File(i % 2 == 0 ? directory : subDirectory, FILES[i])));
+        }
+
+        FileOutputStream corrupt = new FileOutputStream(new File(subDirectory, "corrupt.mp3"));
+        corrupt.write(new byte[1000]);
+        corrupt.close();
+
+        FileOutputStream unsupported = new FileOutputStream(new File(directory, "notes.txt"));
+        unsupported.write(new byte[1000]);
+        unsupported.close();
+        return directory;
+    }
+
+    @Test
+    public void testScanDirectory() throws Exception
+    {
+        File directory = createScanDirectory("scanDirectory");
+
+        AudioFileScanner scanner = new AudioFileScanner();
+        scanner.setThreadCount(4);
+        scanner.setMaxOpenFiles(2);
+        scanner.setMaxPendingResults(2);
+        AudioFileScan scan = scanner.scan(directory);
+
+        Map<String, AudioFileScanResult> results = new HashMap<String, AudioFileScanResult>();
+        while (scan.hasNext())
+        {
+            AudioFileScanResult result = scan.next();
+            results.put(result.getFile().getName(), result);
+        }
+        Assert.assertEquals(FILES.length + 1, results.size());
+        Assert.assertEquals(FILES.length + 1, scan.getCompletedCount());
+
+        Assert.assertFalse(results.get("corrupt.mp3").isSuccess());
+        Assert.assertNotNull(results.get("corrupt.mp3").getException());
+        for (String fileName : FILES)
+        {
+            AudioFileScanResult result = results.get(fileName);
+            Assert.assertTrue(fileName, result.isSuccess());
+            AudioFile expected = AudioFileIO.read(result.getFile());
+            Assert.assertEquals(fileName, expected.getAudioHeader().toString(), result.getAudioFile().getAudioHeader().toString());
+            Assert.assertEquals(fileName, String.valueOf(expected.getTag()), String.valueOf(result.getAudioFile().getTag()));
+        }
+    }
+
+    @Test
+    public void testScanFilesWithReadOptions() throws Exception
+    {
+        File directory = createScanDirectory("scanFiles");
+        List<File> files = new ArrayList<File>();
+        files.add(new File(directory, "testV1.mp3"));
+        files.add(new File(directory, "missing.mp3"));
+
+        AudioFileScanner scanner = new AudioFileScanner();
+        scanner.setReadOptions(ReadOptions.TAG_ONLY);
+        AudioFileScan scan = scanner.scan(files);
+
+        List<String> read = new ArrayList<String>();
+        while (scan.hasNext())
+        {
+            AudioFileScanResult result = scan.next();
+            if (result.isSuccess())
+            {
+                Assert.assertNull(result.getAudioFile().getAudioHeader());
+                read.add(result.getFile().getName());
+            }
+            else
+            {
+                Assert.assertEquals("missing.mp3", result.getFile().getName());
+            }
+        }
+        Assert.assertEquals(Arrays.asList("testV1.mp3"), read);
+    }
+
+    @Test
+    public void testCancel() throws Exception
+    {
+        File directory = createScanDirectory("scanCancel");
+
+        AudioFileScanner scanner = new AudioFileScanner();
+        scanner.setMaxPendingResults(1);
+        AudioFileScan scan = scanner.scan(directory);
+        Assert.assertTrue(scan.hasNext());
+        scan.next();
+        scan.cancel();
+
+        int count = 1;
+        while (scan.hasNext())
+        {
+            scan.next();
+            count++;
+        }
+        Assert.assertTrue(scan.isCancelled());
+        Assert.assertTrue(count < FILES.length + 1);
+    }
+
+    @Test
+    public void testScanDirectoryWithLinks() throws Exception
+    {
+        File directory = createScanDirectory("scanLinks");
+        File subDirectory = new File(directory, "sub");
+        //One link leads back to the top of the tree, the other to a directory that is also walked directly
+        Files.createSymbolicLink(new File(subDirectory, "loop").toPath(), directory.getAbsoluteFile().toPath());
+        Files.createSymbolicLink(new File(directory, "alias").toPath(), subDirectory.getAbsoluteFile().toPath());
+
+        AudioFileScan scan = new AudioFileScanner().scan(directory);
+        Map<String, AudioFileScanResult> results = new HashMap<String, AudioFileScanResult>();
+        while (scan.hasNext())
+        {
+            AudioFileScanResult result = scan.next();
+            Assert.assertNull(result.getFile().getName(), results.put(result.getFile().getName(), result));
+        }
+        Assert.assertEquals(FILES.length + 1, results.size());
+        Assert.assertEquals(FILES.length + 1, scan.getCompletedCount());
+        delete(directory);
+    }
+
+    @Test
+    public void testScanReportsErrors() throws Exception
+    {
+        File directory = createScanDirectory("scanErrors");
+        final Error error = new Error("read failed");
+        final List<Throwable> thrown = new ArrayList<Throwable>();
+
+        AudioFileScanner scanner = new AudioFileScanner();
+        scanner.setAudioFileIO(new AudioFileIO()
+        {
+            public AudioFile readFile(File f, ReadOptions options)
+                    throws CannotReadException, IOException, TagException, ReadOnlyFileException, InvalidAudioFrameException
+            {
+                if (f.getName().equals("test.ogg"))
+                {
+                    throw error;
+                }
+                return super.readFile(f, options);
+            }
+        });
+        scanner.setExecutor(new Executor()
+        {
+            public void execute(Runnable command)
+            {
+                try
+                {
+                    command.run();
+                }
+                catch (Error e)
+                {
+                    thrown.add(e);
+                }
+            }
+        });
+        AudioFileScan scan = scanner.scan(directory);
+
+        Map<String, AudioFileScanResult> results = new HashMap<String, AudioFileScanResult>();
+        while (scan.hasNext())
+        {
+            AudioFileScanResult result = scan.next();
+            results.put(result.getFile().getName(), result);
+        }
+        Assert.assertEquals(FILES.length + 1, results.size());
+        Assert.assertEquals(FILES.length + 1, scan.getCompletedCount());
+        Assert.assertTrue(results.get("test.ogg").getException() instanceof ExecutionException);
+        Assert.assertSame(error, results.get("test.ogg").getException().getCause());
+        //The error still reaches the executor
+        Assert.assertEquals(1, thrown.size());
+        Assert.assertSame(error, thrown.get(0));
+    }
+}
@@ -0,0 +1,175 @@
+package org.jaudiotagger.audio;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.generic.AudioDataHasher;
+import org.jaudiotagger.audio.generic.AudioDataRanges;
+import org.jaudiotagger.audio.mp3.MP3File;
+import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.tag.Tag;
+import org.jaudiotagger.tag.flac.FlacTag;
+import org.jaudiotagger.tag.id3.ID3v1Tag;
+import org.jaudiotagger.tag.images.Artwork;
+import org.jaudiotagger.tag.images.ArtworkFactory;
+import org.jaudiotagger.tag.reference.PictureTypes;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.CRC32;
+
+/**
+ * Hashing the audio data without the metadata
+ */
+public class AudioHashTest
+{
+    private static final String[] FILES = {"testV1Cbr128ID3v1v2.mp3", "test.flac", "test.m4a", "test.ogg", "test.wav", "test119.aif", "test122.dsf"};
+
+    /**
+     * Changes the metadata in the way that moves the audio or metadata for each format
+     */
+    private void retag(AudioFile af) throws Exception
+    {
+        String fileName = af.getFile().getName();
+        Tag tag = af.getTagOrCreateAndSetDefault();
+        tag.setField(FieldKey.TITLE, "retagged");
+        if (af instanceof MP3File)
+        {
+            //ID3v2 grows and the ID3v1 tag after the audio is removed
+            tag.setField(FieldKey.COMMENT, AbstractTestCase.createText(5000));
+            ((MP3File) af).setID3v1Tag((ID3v1Tag) null);
+        }
+        else if (tag instanceof FlacTag)
+        {
+            //Picture block larger than the existing padding before the audio
+            tag.setField(((FlacTag) tag).createArtworkField(new byte[50000], PictureTypes.DEFAULT_ID, "image/png", "", 200, 200, 24, 0));
+        }
+        else if (fileName.endsWith(".m4a"))
+        {
+            //Larger covr atom so the chunk offsets change
+            Artwork artwork = ArtworkFactory.getNew();
+            artwork.setBinaryData(new byte[20000]);
+            artwork.setMimeType("image/png");
+            tag.setField(artwork);
+        }
+        else if (fileName.endsWith(".ogg"))
+        {
+            //Comment header spread over several pages
+            tag.setField(FieldKey.COMMENT, AbstractTestCase.createText(100000));
+        }
+        else
+        {
+            //Metadata chunk after the audio for wav and dsf, before it for aiff
+            tag.setField(FieldKey.COMMENT, AbstractTestCase.createText(5000));
+        }
+    }
+
+    @Test
+    public void testHashUnchangedByRetagging() throws Exception
+    {
+        for (String fileName : FILES)
+        {
+            File testFile = AbstractTestCase.copyAudioToTmp(fileName, new File("testAudioHash" + fileName));
+            AudioFile af = AudioFileIO.read(testFile);
+            byte[] hash = af.getAudioHash("SHA-256");
+            long checksum = af.getAudioChecksum(new CRC32());
+            long fileSize = testFile.length();
+            AudioDataRanges ranges = af.getAudioDataRanges();
+            Assert.assertTrue(fileName, ranges.getTotalLength() > 0);
+            Assert.assertTrue(fileName, ranges.getTotalLength() < fileSize);
+
+            retag(af);
+            af.commit();
+            Assert.assertTrue(fileName, testFile.length() > fileSize);
+
+            af = AudioFileIO.read(testFile);
+            Assert.assertEquals(fileName, "retagged", af.getTag().getFirst(FieldKey.TITLE));
+            Assert.assertArrayEquals(fileName, hash, af.getAudioHash("SHA-256"));
+            Assert.assertEquals(fileName, checksum, af.getAudioChecksum(new CRC32()));
+            Assert.assertEquals(fileName, ranges.getTotalLength(), af.getAudioDataRanges().getTotalLength());
+        }
+    }
+
+    @Test
+    public void testSameAudioDifferentMetadata() throws Exception
+    {
+        //test2.flac has the same audio as test.flac but different metadata blocks
+        File testFile1 = AbstractTestCase.copyAudioToTmp("test.flac", new File("testAudioHashSame1.flac"));
+        File testFile2 = AbstractTestCase.copyAudioToTmp("test2.flac", new File("testAudioHashSame2.flac"));
+        File testFile3 = AbstractTestCase.copyAudioToTmp("test3.flac", new File("testAudioHashSame3.flac"));
+        byte[] hash = AudioFileIO.read(testFile1).getAudioHash("MD5");
+        Assert.assertArrayEquals(hash, AudioFileIO.read(testFile2).getAudioHash("MD5"));
+        Assert.assertFalse(Arrays.equals(hash, AudioFileIO.read(testFile3).getAudioHash("MD5")));
+    }
+
+    @Test
+    public void testMp3HashMatchesExistingHash() throws Exception
+    {
+        File testFile = AbstractTestCase.copyAudioToTmp("testV1Cbr128ID3v1v2.mp3", new File("testAudioHashMp3.mp3"));
+        MP3File mp3File = (MP3File) AudioFileIO.read(testFile);
+        Assert.assertTrue(mp3File.hasID3v1Tag());
+        Assert.assertArrayEquals(mp3File.getHash(), mp3File.getAudioHash("MD5"));
+        Assert.assertArrayEquals(mp3File.getHash(), mp3File.getHash(1000));
+    }
+
+    @Test
+    public void testBufferAndChunkSizes() throws Exception
+    {
+        File testFile = AbstractTestCase.copyAudioToTmp("test.m4a", new File("testAudioHashChunks.m4a"));
+        AudioFile af = AudioFileIO.read(testFile);
+        byte[] hash = af.getAudioHash("SHA-1");
+
+        AudioDataHasher hasher = new AudioDataHasher();
+        hasher.setBufferSize(777);
+        Assert.assertArrayEquals(hash, af.getAudioHash(MessageDigest.getInstance("SHA-1"), hasher));
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try
+        {
+            hasher.setExecutor(executor);
+            hasher.setChunkSize(1000);
+            byte[] chunkedHash = af.getAudioHash(MessageDigest.getInstance("SHA-1"), hasher);
+            Assert.assertFalse(Arrays.equals(hash, chunkedHash));
+            Assert.assertArrayEquals(chunkedHash, af.getAudioHash(MessageDigest.getInstance("SHA-1"), hasher));
+
+            //Splitting the reads differently makes no difference to the chunk hashes
+            hasher.setBufferSize(64);
+            Assert.assertArrayEquals(chunkedHash, af.getAudioHash(MessageDigest.getInstance("SHA-1"), hasher));
+
+            //Any executor can be used, including one that runs each chunk on the calling thread
+            hasher.setExecutor(new Executor()
+            {
+                public void execute(Runnable command)
+                {
+                    command.run();
+                }
+            });
+            Assert.assertArrayEquals(chunkedHash, af.getAudioHash(MessageDigest.getInstance("SHA-1"), hasher));
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testRanges()
+    {
+        AudioDataRanges ranges = new AudioDataRanges();
+        ranges.add(10, 5);
+        ranges.add(15, 5);
+        ranges.add(30, 0);
+        ranges.add(40, 10);
+        ranges.add(60, 1);
+        Assert.assertEquals(3, ranges.getCount());
+        Assert.assertEquals(10, ranges.getStart(0));
+        Assert.assertEquals(10, ranges.getLength(0));
+        Assert.assertEquals(40, ranges.getStart(1));
+        Assert.assertEquals(60, ranges.getStart(2));
+        Assert.assertEquals(21, ranges.getTotalLength());
+    }
+}
@@ -0,0 +1,93 @@
+package org.jaudiotagger.audio;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.exceptions.CannotWriteException;
+import org.jaudiotagger.audio.mp3.MP3File;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+
+/**
+ * Reading only the tag or only the audio header of each format
+ */
+public class ReadOptionsTest
+{
+    @Test
+    public void testReadOptions() throws Exception
+    {
+        for (String fileName : new String[]{"testV1.mp3", "test.ogg", "test.flac", "test.m4a", "test.wav", "test1.wma", "test119.aif", "test122.dsf", "test01.ra"})
+        {
+            File testFile = AbstractTestCase.copyAudioToTmp(fileName, new File("testReadOptions" + fileName));
+
+            AudioFile full = AudioFileIO.read(testFile);
+            AudioFile tagOnly = AudioFileIO.read(testFile, ReadOptions.TAG_ONLY);
+            AudioFile headerOnly = AudioFileIO.read(testFile, ReadOptions.HEADER_ONLY);
+
+            Assert.assertNull(fileName, tagOnly.getAudioHeader());
+            Assert.assertNull(fileName, headerOnly.getTag());
+            Assert.assertEquals(fileName, full.getAudioHeader().toString(), headerOnly.getAudioHeader().toString());
+            if (full.getTag() == null)
+            {
+                Assert.assertNull(fileName, tagOnly.getTag());
+            }
+            else
+            {
+                Assert.assertEquals(fileName, full.getTag().toString(), tagOnly.getTag().toString());
+            }
+        }
+    }
+
+    /**
+     * The single pass read of Flac metadata blocks finds the same artwork as reading the tag alone
+     */
+    @Test
+    public void testFlacSinglePassReadsArtwork() throws Exception
+    {
+        File testFile = AbstractTestCase.copyAudioToTmp("test.flac", new File("testFlacSinglePass.flac"));
+        AudioFile full = AudioFileIO.read(testFile);
+        AudioFile tagOnly = AudioFileIO.read(testFile, ReadOptions.TAG_ONLY);
+        Assert.assertEquals(2, full.getTag().getArtworkList().size());
+        Assert.assertEquals(tagOnly.getTag().getArtworkList().size(), full.getTag().getArtworkList().size());
+        Assert.assertArrayEquals(tagOnly.getTag().getFirstArtwork().getBinaryData(), full.getTag().getFirstArtwork().getBinaryData());
+    }
+
+    /**
+     * A file read without its tag cannot be written, as that would lose the tag already in the file
+     */
+    @Test
+    public void testHeaderOnlyReadCannotBeWritten() throws Exception
+    {
+        for (String fileName : new String[]{"testV1Cbr128ID3v1v2.mp3", "test.flac", "test.m4a", "test1.wma"})
+        {
+            File testFile = AbstractTestCase.copyAudioToTmp(fileName, new File("testHeaderOnlyCommit" + fileName));
+            String tag = AudioFileIO.read(testFile).getTag().toString();
+
+            AudioFile headerOnly = AudioFileIO.read(testFile, ReadOptions.HEADER_ONLY);
+            try
+            {
+                headerOnly.commit();
+                Assert.fail(fileName + " written without reading its tag");
+            }
+            catch (CannotWriteException cwe)
+            {
+                //expected
+            }
+            try
+            {
+                AudioFileIO.write(headerOnly);
+                Assert.fail(fileName + " written without reading its tag");
+            }
+            catch (CannotWriteException cwe)
+            {
+                //expected
+            }
+            Assert.assertEquals(fileName, tag, AudioFileIO.read(testFile).getTag().toString());
+        }
+
+        //Both of the mp3 tags are kept
+        MP3File mp3File = (MP3File) AudioFileIO.read(new File("testdatatmp", "testHeaderOnlyCommittestV1Cbr128ID3v1v2.mp3"));
+        Assert.assertTrue(mp3File.hasID3v1Tag());
+        Assert.assertTrue(mp3File.hasID3v2Tag());
+    }
+}
@@ -0,0 +1,118 @@
+package org.jaudiotagger.audio.asf;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.audio.asf.data.AsfHeader;
+import org.jaudiotagger.audio.asf.data.Chunk;
+import org.jaudiotagger.audio.asf.data.GUID;
+import org.jaudiotagger.audio.asf.io.AsfHeaderReader;
+import org.jaudiotagger.audio.generic.PaddingPolicy;
+import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.tag.TagOptionSingleton;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+
+/**
+ * Writing the ASF header object without copying the data and index objects through memory
+ */
+public class AsfInPlaceWriteTest
+{
+    @After
+    public void tearDown()
+    {
+        TagOptionSingleton.getInstance().setToDefault();
+    }
+
+    /**
+     * @return size of the padding object in the header object, or 0 if there is none
+     */
+    private long getPaddingSize(AsfHeader header)
+    {
+        for (Chunk chunk : header.getChunks())
+        {
+            if (GUID.GUID_PADDING.equals(chunk.getGuid()))
+            {
+                return chunk.getChunkLength().longValue();
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @return everything after the header object
+     */
+    private byte[] readAudio(File file) throws Exception
+    {
+        long headerSize = AsfHeaderReader.readHeader(file).getChunkLength().longValue();
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try
+        {
+            byte[] audio = new byte[(int) (raf.length() - headerSize)];
+            raf.seek(headerSize);
+            raf.readFully(audio);
+            return audio;
+        }
+        finally
+        {
+            raf.close();
+        }
+    }
+
+    @Test
+    public void testLargerRewrittenThenWrittenInPlace() throws Exception
+    {
+        PaddingPolicy policy = PaddingPolicy.fixed(1000);
+        TagOptionSingleton.getInstance().setPaddingPolicy(policy);
+        File testFile = AbstractTestCase.copyAudioToTmp("test1.wma", new File("testAsfInPlace.wma"));
+        byte[] audio = readAudio(testFile);
+
+        AudioFile af = AudioFileIO.read(testFile);
+        af.getTag().setField(FieldKey.COMMENT, AbstractTestCase.createText(5000));
+        af.commit();
+        Assert.assertEquals(1, policy.getRewriteCount());
+        Assert.assertEquals(0, policy.getInPlaceWriteCount());
+        Assert.assertArrayEquals(audio, readAudio(testFile));
+
+        //File properties object holds the new file size, and the padding object is in the header
+        AsfHeader header = AsfHeaderReader.readHeader(testFile);
+        Assert.assertEquals(testFile.length(), header.getFileHeader().getFileSize().longValue());
+        Assert.assertEquals(1000, getPaddingSize(header));
+
+        //Comments are UTF-16, this would leave 10 bytes which is too small for a padding object so is rewritten
+        af = AudioFileIO.read(testFile);
+        af.getTag().setField(FieldKey.COMMENT, AbstractTestCase.createText(5495));
+        af.commit();
+        Assert.assertEquals(2, policy.getRewriteCount());
+        Assert.assertEquals(0, policy.getInPlaceWriteCount());
+        Assert.assertArrayEquals(audio, readAudio(testFile));
+        Assert.assertEquals(1000, getPaddingSize(AsfHeaderReader.readHeader(testFile)));
+
+        //Uses all the padding so the padding object is removed
+        long fileSize = testFile.length();
+        af = AudioFileIO.read(testFile);
+        af.getTag().setField(FieldKey.COMMENT, AbstractTestCase.createText(5995));
+        af.commit();
+        Assert.assertEquals(1, policy.getInPlaceWriteCount());
+        Assert.assertEquals(fileSize, testFile.length());
+        Assert.assertArrayEquals(audio, readAudio(testFile));
+        Assert.assertEquals(0, getPaddingSize(AsfHeaderReader.readHeader(testFile)));
+
+        //Smaller adds a padding object again
+        af = AudioFileIO.read(testFile);
+        af.getTag().setField(FieldKey.COMMENT, "comment");
+        af.commit();
+        Assert.assertEquals(2, policy.getInPlaceWriteCount());
+        Assert.assertEquals(fileSize, testFile.length());
+        Assert.assertArrayEquals(audio, readAudio(testFile));
+        Assert.assertEquals((5995 - "comment".length()) * 2, getPaddingSize(AsfHeaderReader.readHeader(testFile)));
+
+        af = AudioFileIO.read(testFile);
+        Assert.assertEquals("comment", af.getTag().getFirst(FieldKey.COMMENT));
+        Assert.assertEquals(testFile.length(), AsfHeaderReader.readHeader(testFile).getFileHeader().getFileSize().longValue());
+    }
+}
@@ -13,6 +13,7 @@ import org.junit.Test;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.math.BigInteger;
@@ -180,6 +181,25 @@ public class UtilsTest {
         Assert.assertEquals((long) Integer.MAX_VALUE * 2 + 1, value);
     }
 
+    /**
+     * Numbers are read with one read, which must not run past the end of the stream.
+     *
+     * @throws IOException Never
+     */
+    @Test
+    public void testReadUINT32InputStreamTooShort() throws IOException
+    {
+        try
+        {
+            Utils.readUINT32(new ByteArrayInputStream(MAX_UINT16));
+            Assert.fail("Read past end of stream");
+        }
+        catch (EOFException eofe)
+        {
+            //expected
+        }
+    }
+
     /**
      * Test method for
      * {@link org.jaudiotagger.audio.asf.util.Utils#readUINT64(java.io.InputStream)}
@@ -0,0 +1,117 @@
+package org.jaudiotagger.audio.asf.io;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.asf.data.AsfHeader;
+import org.jaudiotagger.audio.asf.data.GUID;
+import org.jaudiotagger.audio.asf.util.Utils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+/**
+ * Reading the ASF header object into memory before parsing it
+ */
+public class AsfHeaderReaderTest
+{
+    @Test
+    public void testHeaderReadOnce() throws Exception
+    {
+        File file = AbstractTestCase.copyAudioToTmp("test1.wma", new File("testAsfHeaderRead.wma"));
+        AsfHeader header = AsfHeaderReader.readHeader(file);
+        Assert.assertNotNull(header.getFileHeader());
+        Assert.assertNotNull(header.getAudioStreamChunk());
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r"))
+        {
+            AsfHeader infoHeader = AsfHeaderReader.readInfoHeader(raf);
+            //Nothing after the header object is read
+            Assert.assertEquals(header.getChunkLength().longValue(), raf.getFilePointer());
+            Assert.assertEquals(header.getFileHeader().getPreciseDuration(), infoHeader.getFileHeader().getPreciseDuration(), 0);
+            Assert.assertEquals(header.getAudioStreamChunk().getSamplingRate(), infoHeader.getAudioStreamChunk().getSamplingRate());
+            Assert.assertNull(infoHeader.getContentDescription());
+
+            raf.seek(0);
+            AsfHeader tagHeader = AsfHeaderReader.readTagHeader(raf);
+            Assert.assertNull(tagHeader.getFileHeader());
+            Assert.assertEquals(header.getContentDescription().getTitle(), tagHeader.getContentDescription().getTitle());
+            Assert.assertEquals(header.getContentDescription().getAuthor(), tagHeader.getContentDescription().getAuthor());
+        }
+    }
+
+    @Test
+    public void testNotAsf() throws Exception
+    {
+        File file = AbstractTestCase.copyAudioToTmp("testV1.mp3", new File("testAsfHeaderReadNotAsf.mp3"));
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r"))
+        {
+            AsfHeaderReader.readInfoHeader(raf);
+            Assert.fail("Read header from a file that is not ASF");
+        }
+        catch (IllegalArgumentException iae)
+        {
+            //expected
+        }
+
+        //Header object is larger than the file
+        File truncated = new File("testdatatmp", "testAsfHeaderTruncated.wma");
+        try (RandomAccessFile source = new RandomAccessFile(AbstractTestCase.copyAudioToTmp("test1.wma", new File("testAsfHeaderSource.wma")), "r");
+             RandomAccessFile raf = new RandomAccessFile(truncated, "rw"))
+        {
+            byte[] start = new byte[100];
+            source.readFully(start);
+            raf.setLength(0);
+            raf.write(start);
+            raf.seek(0);
+            AsfHeaderReader.readInfoHeader(raf);
+            Assert.fail("Read header from a truncated file");
+        }
+        catch (IOException ioe)
+        {
+            //expected
+        }
+    }
+
+    @Test
+    public void testDecodeFromBuffer() throws Exception
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(GUID.GUID_HEADER.getBytes());
+        Utils.writeUINT16(0xFEDC, out);
+        Utils.writeUINT32(0xFEDCBA98L, out);
+        //Top bit set
+        out.write(new byte[]{(byte) 0xFE, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF});
+        Utils.writeUINT64(1234567890123L, out);
+        byte[] data = out.toByteArray();
+
+        //Decoded directly through the counting stream the container readers use, matching the generic stream reads
+        CountingInputStream direct = CountingInputStream.create(new ByteBufferInputStream(data));
+        CountingInputStream stream = CountingInputStream.create(new FullRequestInputStream(new ByteArrayInputStream(data)));
+        Assert.assertEquals(GUID.GUID_HEADER, Utils.readGUID(direct));
+        Assert.assertEquals(Utils.readGUID(stream), GUID.GUID_HEADER);
+        Assert.assertEquals(0xFEDC, Utils.readUINT16(direct));
+        Assert.assertEquals(Utils.readUINT16(stream), 0xFEDC);
+        Assert.assertEquals(0xFEDCBA98L, Utils.readUINT32(direct));
+        Assert.assertEquals(Utils.readUINT32(stream), 0xFEDCBA98L);
+        Assert.assertEquals(Utils.readBig64(stream), Utils.readBig64(direct));
+        Assert.assertEquals(1234567890123L, Utils.readUINT64(direct));
+        Assert.assertEquals(Utils.readUINT64(stream), 1234567890123L);
+        Assert.assertEquals(data.length, direct.getReadCount());
+        Assert.assertEquals(data.length, stream.getReadCount());
+
+        try
+        {
+            Utils.readUINT16(direct);
+            Assert.fail("Read past the end of the buffer");
+        }
+        catch (EOFException eofe)
+        {
+            //expected
+        }
+    }
+}
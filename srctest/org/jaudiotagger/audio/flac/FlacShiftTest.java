@@ -0,0 +1,64 @@
+package org.jaudiotagger.audio.flac;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.tag.flac.FlacTag;
+import org.jaudiotagger.tag.reference.PictureTypes;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+
+/**
+ * Growing the metadata of a Flac file beyond the space available so the audio has to be moved
+ */
+public class FlacShiftTest
+{
+    private byte[] readAudio(File file) throws Exception
+    {
+        AudioFile af = AudioFileIO.read(file);
+        long start = af.getAudioHeader().getAudioDataStartPosition();
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r"))
+        {
+            byte[] audio = new byte[(int) (raf.length() - start)];
+            raf.seek(start);
+            raf.readFully(audio);
+            return audio;
+        }
+    }
+
+    private void addArtwork(File file, int size) throws Exception
+    {
+        AudioFile af = AudioFileIO.read(file);
+        FlacTag tag = (FlacTag) af.getTag();
+        byte[] imageData = new byte[size];
+        Arrays.fill(imageData, (byte) 7);
+        tag.addField(tag.createArtworkField(imageData, PictureTypes.DEFAULT_ID, "image/png", "shift", 200, 200, 24, 0));
+        af.commit();
+    }
+
+    @Test
+    public void testGrowMetadata() throws Exception
+    {
+        File testFile = AbstractTestCase.copyAudioToTmp("test.flac", new File("testFlacShift.flac"));
+        byte[] originalAudio = readAudio(testFile);
+        long originalStart = AudioFileIO.read(testFile).getAudioHeader().getAudioDataStartPosition();
+
+        addArtwork(testFile, 100000);
+        AudioFile af = AudioFileIO.read(testFile);
+        long grownStart = af.getAudioHeader().getAudioDataStartPosition();
+        Assert.assertTrue(grownStart > originalStart + 100000);
+        Assert.assertEquals(3, ((FlacTag) af.getTag()).getImages().size());
+        Assert.assertArrayEquals(originalAudio, readAudio(testFile));
+
+        //Padding added when the audio was moved leaves room for a similar edit
+        addArtwork(testFile, 90000);
+        af = AudioFileIO.read(testFile);
+        Assert.assertEquals(grownStart, af.getAudioHeader().getAudioDataStartPosition().longValue());
+        Assert.assertEquals(4, ((FlacTag) af.getTag()).getImages().size());
+        Assert.assertArrayEquals(originalAudio, readAudio(testFile));
+    }
+}
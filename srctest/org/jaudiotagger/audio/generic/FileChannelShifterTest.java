@@ -0,0 +1,80 @@
+package org.jaudiotagger.audio.generic;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Shifting the end of a file forward
+ */
+public class FileChannelShifterTest
+{
+    private static final int FILE_SIZE = 1000;
+
+    private byte[] shift(long start, long distance, int maxBufferSize) throws Exception
+    {
+        File file = new File("testdatatmp", "shift.bin");
+        file.getParentFile().mkdirs();
+        file.delete();
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw"))
+        {
+            byte[] data = new byte[FILE_SIZE];
+            for (int i = 0; i < data.length; i++)
+            {
+                data[i] = (byte) i;
+            }
+            raf.write(data);
+
+            FileChannel fc = raf.getChannel();
+            FileChannelShifter.shiftForward(fc, start, distance, maxBufferSize);
+            Assert.assertEquals(FILE_SIZE + distance, fc.size());
+
+            ByteBuffer result = ByteBuffer.allocate((int) fc.size());
+            fc.read(result, 0);
+            return result.array();
+        }
+    }
+
+    private void assertShifted(byte[] result, int start, int distance)
+    {
+        for (int i = 0; i < start; i++)
+        {
+            Assert.assertEquals((byte) i, result[i]);
+        }
+        for (int i = start; i < FILE_SIZE; i++)
+        {
+            Assert.assertEquals((byte) i, result[i + distance]);
+        }
+    }
+
+    @Test
+    public void testShiftWithSmallBuffer() throws Exception
+    {
+        assertShifted(shift(100, 3, 7), 100, 3);
+        assertShifted(shift(100, 500, 7), 100, 500);
+        assertShifted(shift(0, 2000, 7), 0, 2000);
+    }
+
+    @Test
+    public void testShiftWithBufferLargerThanData() throws Exception
+    {
+        assertShifted(shift(990, 20, 4096), 990, 20);
+        assertShifted(shift(FILE_SIZE, 20, 4096), FILE_SIZE, 20);
+    }
+
+    @Test
+    public void testShiftNothing() throws Exception
+    {
+        assertShifted(shift(100, 0, 7), 100, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testShiftPastEnd() throws Exception
+    {
+        shift(FILE_SIZE + 1, 10, 7);
+    }
+}
@@ -0,0 +1,159 @@
+package org.jaudiotagger.audio.generic;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.audio.mp3.MP3File;
+import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.tag.TagOptionSingleton;
+import org.jaudiotagger.tag.flac.FlacTag;
+import org.jaudiotagger.tag.images.Artwork;
+import org.jaudiotagger.tag.images.ArtworkFactory;
+import org.jaudiotagger.tag.reference.PictureTypes;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+
+/**
+ * Padding added when the audio has to be moved
+ */
+public class PaddingPolicyTest
+{
+    @After
+    public void tearDown()
+    {
+        TagOptionSingleton.getInstance().setToDefault();
+    }
+
+    @Test
+    public void testPolicies()
+    {
+        Assert.assertEquals(100, PaddingPolicy.formatDefault().getPadding(1000, 100000, 100));
+        Assert.assertEquals(5000, PaddingPolicy.fixed(5000).getPadding(1000, 100000, 100));
+        Assert.assertEquals(500, PaddingPolicy.proportionalToTag(0.5, 200).getPadding(1000, 100000, 100));
+        Assert.assertEquals(200, PaddingPolicy.proportionalToTag(0.5, 200).getPadding(100, 100000, 100));
+        Assert.assertEquals(1000, PaddingPolicy.proportionalToFile(0.01, 500, 2000).getPadding(1000, 100000, 100));
+        Assert.assertEquals(500, PaddingPolicy.proportionalToFile(0.01, 500, 2000).getPadding(1000, 0, 100));
+        Assert.assertEquals(2000, PaddingPolicy.proportionalToFile(0.01, 500, 2000).getPadding(1000, 10000000, 100));
+
+        PaddingPolicy history = PaddingPolicy.history(300);
+        Assert.assertEquals(300, history.getPadding(1000, 100000, 100));
+        history.writeCompleted(PaddingPolicy.WriteMode.REWRITE, 50000);
+        history.writeCompleted(PaddingPolicy.WriteMode.IN_PLACE, 2000);
+        Assert.assertEquals(49000, history.getPadding(1000, 100000, 100));
+        Assert.assertEquals(300, history.getPadding(60000, 100000, 100));
+        Assert.assertEquals(1, history.getInPlaceWriteCount());
+        Assert.assertEquals(1, history.getRewriteCount());
+
+        history.resetCounts();
+        Assert.assertEquals(0, history.getRewriteCount());
+    }
+
+    @Test
+    public void testLimitPadding()
+    {
+        Assert.assertEquals(5000, PaddingPolicy.limitPadding(5000, 1000));
+        Assert.assertEquals(0, PaddingPolicy.limitPadding(-10, 1000));
+        //Adding the padding to the size cannot overflow
+        Assert.assertEquals(Integer.MAX_VALUE - 1000, PaddingPolicy.limitPadding(Integer.MAX_VALUE, 1000));
+        Assert.assertEquals(0, PaddingPolicy.limitPadding(5000, Integer.MAX_VALUE));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidPolicy()
+    {
+        PaddingPolicy.proportionalToFile(0.01, 500, 100);
+    }
+
+    @Test
+    public void testMp3() throws Exception
+    {
+        PaddingPolicy policy = PaddingPolicy.fixed(10000);
+        TagOptionSingleton.getInstance().setPaddingPolicy(policy);
+
+        File testFile = AbstractTestCase.copyAudioToTmp("testV1Cbr128ID3v1v2.mp3", new File("testPaddingPolicy.mp3"));
+        AudioFile af = AudioFileIO.read(testFile);
+        af.getTagOrCreateAndSetDefault().setField(FieldKey.COMMENT, AbstractTestCase.createText(5000));
+        af.commit();
+        Assert.assertEquals(1, policy.getRewriteCount());
+
+        //Padding goes between the ID3v2 tag and the audio, the ID3v1 tag at the end is kept
+        MP3File mp3File = (MP3File) AudioFileIO.read(testFile);
+        long audioStart = mp3File.getMP3AudioHeader().getMp3StartByte();
+        Assert.assertTrue(audioStart >= 15000);
+        Assert.assertTrue(mp3File.hasID3v1Tag());
+
+        //Fits within the padding
+        mp3File.getTag().setField(FieldKey.COMMENT, AbstractTestCase.createText(12000));
+        mp3File.commit();
+        Assert.assertEquals(1, policy.getInPlaceWriteCount());
+        Assert.assertEquals(1, policy.getRewriteCount());
+        mp3File = (MP3File) AudioFileIO.read(testFile);
+        Assert.assertEquals(audioStart, mp3File.getMP3AudioHeader().getMp3StartByte());
+        Assert.assertEquals(AbstractTestCase.createText(12000), mp3File.getTag().getFirst(FieldKey.COMMENT));
+
+        //Removing the comment leaves the space as padding rather than moving the audio back
+        mp3File.getTag().deleteField(FieldKey.COMMENT);
+        mp3File.commit();
+        Assert.assertEquals(2, policy.getInPlaceWriteCount());
+        Assert.assertEquals(1, policy.getRewriteCount());
+        mp3File = (MP3File) AudioFileIO.read(testFile);
+        Assert.assertEquals(audioStart, mp3File.getMP3AudioHeader().getMp3StartByte());
+        Assert.assertEquals("", mp3File.getTag().getFirst(FieldKey.COMMENT));
+        Assert.assertTrue(mp3File.hasID3v1Tag());
+    }
+
+    @Test
+    public void testFlac() throws Exception
+    {
+        PaddingPolicy policy = PaddingPolicy.fixed(30000);
+        TagOptionSingleton.getInstance().setPaddingPolicy(policy);
+
+        File testFile = AbstractTestCase.copyAudioToTmp("test.flac", new File("testPaddingPolicy.flac"));
+        AudioFile af = AudioFileIO.read(testFile);
+        FlacTag tag = (FlacTag) af.getTag();
+        tag.addField(tag.createArtworkField(new byte[50000], PictureTypes.DEFAULT_ID, "image/png", "padding", 200, 200, 24, 0));
+        af.commit();
+        Assert.assertEquals(1, policy.getRewriteCount());
+        long audioStart = AudioFileIO.read(testFile).getAudioHeader().getAudioDataStartPosition();
+
+        af = AudioFileIO.read(testFile);
+        tag = (FlacTag) af.getTag();
+        tag.addField(tag.createArtworkField(new byte[25000], PictureTypes.DEFAULT_ID, "image/png", "padding", 200, 200, 24, 0));
+        af.commit();
+        Assert.assertEquals(1, policy.getInPlaceWriteCount());
+        Assert.assertEquals(1, policy.getRewriteCount());
+        Assert.assertEquals(audioStart, AudioFileIO.read(testFile).getAudioHeader().getAudioDataStartPosition().longValue());
+    }
+
+    @Test
+    public void testMp4() throws Exception
+    {
+        //Padding as large as the tag, so artwork of the same size can be added again without moving mdat
+        PaddingPolicy policy = PaddingPolicy.proportionalToTag(1.0, 0);
+        TagOptionSingleton.getInstance().setPaddingPolicy(policy);
+
+        File testFile = AbstractTestCase.copyAudioToTmp("test.m4a", new File("testPaddingPolicy.m4a"));
+        AudioFile af = AudioFileIO.read(testFile);
+        Artwork artwork = ArtworkFactory.getNew();
+        artwork.setBinaryData(new byte[20000]);
+        artwork.setMimeType("image/png");
+        af.getTag().setField(artwork);
+        af.commit();
+        Assert.assertEquals(1, policy.getRewriteCount());
+        long fileSize = testFile.length();
+
+        af = AudioFileIO.read(testFile);
+        Assert.assertEquals(1, af.getTag().getArtworkList().size());
+        af.getTag().addField(artwork);
+        af.commit();
+        Assert.assertEquals(1, policy.getInPlaceWriteCount());
+        Assert.assertEquals(1, policy.getRewriteCount());
+        Assert.assertEquals(fileSize, testFile.length());
+
+        af = AudioFileIO.read(testFile);
+        Assert.assertEquals(2, af.getTag().getArtworkList().size());
+    }
+}
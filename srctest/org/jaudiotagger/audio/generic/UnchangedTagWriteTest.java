@@ -0,0 +1,192 @@
+package org.jaudiotagger.audio.generic;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.audio.exceptions.CannotWriteException;
+import org.jaudiotagger.audio.exceptions.ModifyVetoException;
+import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.tag.TagOptionSingleton;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Saving a file whose tag has not changed should not write to the file
+ */
+public class UnchangedTagWriteTest
+{
+    private static final long OLD_MODIFIED_TIME = 946684800000L;
+
+    @After
+    public void tearDown()
+    {
+        TagOptionSingleton.getInstance().setToDefault();
+    }
+
+    /**
+     * Write a change so the file holds the tag as it would be written, then save it again without changes
+     *
+     * @param filename
+     * @throws Exception
+     */
+    private void assertUnchangedTagNotWritten(String filename) throws Exception
+    {
+        File file = AbstractTestCase.copyAudioToTmp(filename, new File("testUnchanged" + filename));
+        AudioFile af = AudioFileIO.read(file);
+        af.getTagOrCreateAndSetDefault().setField(FieldKey.ARTIST, "unchanged artist");
+        af.commit();
+
+        byte[] written = Files.readAllBytes(file.toPath());
+        Assert.assertTrue(file.setLastModified(OLD_MODIFIED_TIME));
+        af = AudioFileIO.read(file);
+        af.commit();
+
+        Assert.assertEquals(OLD_MODIFIED_TIME, file.lastModified());
+        Assert.assertArrayEquals(written, Files.readAllBytes(file.toPath()));
+        Assert.assertEquals("unchanged artist", AudioFileIO.read(file).getTag().getFirst(FieldKey.ARTIST));
+
+        //A change is still written
+        af.getTag().setField(FieldKey.ARTIST, "changed artist");
+        af.commit();
+        Assert.assertEquals("changed artist", AudioFileIO.read(file).getTag().getFirst(FieldKey.ARTIST));
+    }
+
+    @Test
+    public void testUnchangedMp3() throws Exception
+    {
+        assertUnchangedTagNotWritten("testV1.mp3");
+    }
+
+    @Test
+    public void testUnchangedFlac() throws Exception
+    {
+        assertUnchangedTagNotWritten("test.flac");
+    }
+
+    @Test
+    public void testUnchangedMp4() throws Exception
+    {
+        assertUnchangedTagNotWritten("test.m4a");
+    }
+
+    @Test
+    public void testMp4WrittenInPlaceWithoutTemporaryFile() throws Exception
+    {
+        File file = AbstractTestCase.copyAudioToTmp("test.m4a", new File("testInPlaceNoTemp.m4a"));
+        final List<File> modified = new ArrayList<File>();
+        AudioFileIO audioFileIO = new AudioFileIO();
+        audioFileIO.addAudioFileModificationListener(new AudioFileModificationAdapter()
+        {
+            public void fileModified(AudioFile original, File temporary)
+            {
+                modified.add(temporary);
+            }
+        });
+
+        //First write leaves padding for the second to be written in place
+        AudioFile af = audioFileIO.readFile(file);
+        af.getTag().setField(FieldKey.ARTIST, "first artist with a longer value");
+        audioFileIO.writeFile(af, null);
+
+        af = audioFileIO.readFile(file);
+        af.getTag().setField(FieldKey.ARTIST, "second artist");
+        audioFileIO.writeFile(af, null);
+
+        Assert.assertEquals(2, modified.size());
+        Assert.assertEquals(file, modified.get(1));
+        Assert.assertEquals("second artist", audioFileIO.readFile(file).getTag().getFirst(FieldKey.ARTIST));
+    }
+
+    /**
+     * Writes the artist and records what the modification listener is told
+     *
+     * @param file
+     * @param artist
+     * @return the calls made to the listener
+     * @throws Exception
+     */
+    private List<String> writeWithListener(File file, String artist) throws Exception
+    {
+        final List<String> calls = new ArrayList<String>();
+        AudioFileIO audioFileIO = new AudioFileIO();
+        audioFileIO.addAudioFileModificationListener(new AudioFileModificationAdapter()
+        {
+            public void fileWillBeModified(AudioFile file, boolean delete)
+            {
+                calls.add("willBeModified");
+            }
+
+            public void fileModified(AudioFile original, File temporary)
+            {
+                calls.add("modified");
+            }
+
+            public void fileOperationFinished(File result)
+            {
+                calls.add("finished");
+            }
+        });
+        AudioFile af = audioFileIO.readFile(file);
+        af.getTagOrCreateAndSetDefault().setField(FieldKey.ARTIST, artist);
+        audioFileIO.writeFile(af, null);
+        Assert.assertEquals(artist, AudioFileIO.read(file).getTag().getFirst(FieldKey.ARTIST));
+        return calls;
+    }
+
+    @Test
+    public void testListenerToldOnceWhetherOrNotWrittenInPlace() throws Exception
+    {
+        List<String> expected = Arrays.asList("willBeModified", "modified", "finished");
+
+        //No in place support
+        File ogg = AbstractTestCase.copyAudioToTmp("test.ogg", new File("testListenerOnce.ogg"));
+        Assert.assertEquals(expected, writeWithListener(ogg, "artist"));
+
+        //Fits in the existing metadata
+        File m4a = AbstractTestCase.copyAudioToTmp("test.m4a", new File("testListenerOnce.m4a"));
+        Assert.assertEquals(expected, writeWithListener(m4a, "a"));
+
+        //Needs the audio moved so not written by the in place hook
+        char[] longArtist = new char[20000];
+        Arrays.fill(longArtist, 'a');
+        Assert.assertEquals(expected, writeWithListener(m4a, new String(longArtist)));
+
+        File wma = AbstractTestCase.copyAudioToTmp("test1.wma", new File("testListenerOnce.wma"));
+        Assert.assertEquals(expected, writeWithListener(wma, "a"));
+        Assert.assertEquals(expected, writeWithListener(wma, new String(longArtist)));
+    }
+
+    @Test
+    public void testVetoStopsInPlaceWrite() throws Exception
+    {
+        File file = AbstractTestCase.copyAudioToTmp("test.m4a", new File("testVetoInPlace.m4a"));
+        byte[] original = Files.readAllBytes(file.toPath());
+        AudioFileIO audioFileIO = new AudioFileIO();
+        audioFileIO.addAudioFileModificationListener(new AudioFileModificationAdapter()
+        {
+            public void fileWillBeModified(AudioFile file, boolean delete) throws ModifyVetoException
+            {
+                throw new ModifyVetoException("not allowed");
+            }
+        });
+        AudioFile af = audioFileIO.readFile(file);
+        af.getTag().setField(FieldKey.ARTIST, "a");
+        try
+        {
+            audioFileIO.writeFile(af, null);
+            Assert.fail("Expected CannotWriteException");
+        }
+        catch (CannotWriteException cwe)
+        {
+            //expected
+        }
+        Assert.assertArrayEquals(original, Files.readAllBytes(file.toPath()));
+    }
+}
@@ -0,0 +1,134 @@
+package org.jaudiotagger.audio.mp3;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.tag.TagOptionSingleton;
+import org.jaudiotagger.tag.id3.AbstractID3v2Tag;
+import org.jaudiotagger.tag.id3.ID3SyncSafeInteger;
+import org.jaudiotagger.tag.id3.ID3v24Tag;
+import org.jaudiotagger.tag.images.Artwork;
+import org.jaudiotagger.tag.images.ArtworkFactory;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Finding the start of the audio, including when the ID3v2 tag size is wrong
+ */
+public class MP3AudioStartTest
+{
+    private static final int IMAGE_SIZE = 20000;
+
+    @After
+    public void tearDown()
+    {
+        TagOptionSingleton.getInstance().setToDefault();
+    }
+
+    @Test
+    public void testFindSyncByte()
+    {
+        ByteBuffer bb = ByteBuffer.allocate(100);
+        Assert.assertEquals(90, MP3AudioHeader.findSyncByte(bb, 0, 90));
+
+        bb.put(37, (byte) 0xFF);
+        bb.put(38, (byte) 0x7F);
+        Assert.assertEquals(37, MP3AudioHeader.findSyncByte(bb, 0, 90));
+        Assert.assertEquals(37, MP3AudioHeader.findSyncByte(bb, 37, 90));
+        Assert.assertEquals(90, MP3AudioHeader.findSyncByte(bb, 38, 90));
+        Assert.assertEquals(37, MP3AudioHeader.findSyncByte(bb, 0, 37));
+
+        //Found in the bytes left over after the last whole eight
+        bb.put(94, (byte) 0xFF);
+        Assert.assertEquals(94, MP3AudioHeader.findSyncByte(bb, 38, 99));
+    }
+
+    /**
+     * @param size
+     * @return image data that contains no audio sync bytes
+     */
+    static byte[] createImageData(int size)
+    {
+        byte[] imageData = new byte[size];
+        for (int i = 0; i < imageData.length; i++)
+        {
+            imageData[i] = (byte) (i % 127);
+        }
+        return imageData;
+    }
+
+    /**
+     * @param filename
+     * @param imageSize
+     * @return a file with a v2.4 tag holding an artist and artwork from {@link #createImageData(int)}
+     * @throws Exception
+     */
+    static File createFileWithArtwork(String filename, int imageSize) throws Exception
+    {
+        File file = AbstractTestCase.copyAudioToTmp("testV1.mp3", new File(filename));
+        MP3File mp3File = new MP3File(file);
+        ID3v24Tag tag = new ID3v24Tag();
+        tag.setField(FieldKey.ARTIST, "artist");
+        Artwork artwork = ArtworkFactory.getNew();
+        artwork.setBinaryData(createImageData(imageSize));
+        artwork.setMimeType("image/png");
+        tag.setField(artwork);
+        mp3File.setID3v2Tag(tag);
+        mp3File.save();
+        return file;
+    }
+
+    @Test
+    public void testTagSizeCorrect() throws Exception
+    {
+        File file = createFileWithArtwork("testAudioStartCorrect.mp3", IMAGE_SIZE);
+        MP3File mp3File = new MP3File(file);
+        MP3AudioStartDiagnostics diagnostics = mp3File.getAudioStartDiagnostics();
+        Assert.assertTrue(diagnostics.toString(), diagnostics.isTagSizeCorrect());
+        Assert.assertEquals(1, diagnostics.getSearchCount());
+        Assert.assertEquals(0, diagnostics.getBytesScanned());
+        Assert.assertEquals(AbstractID3v2Tag.getV2TagSizeIfExists(file), diagnostics.getAudioStartByte());
+
+        //The frames end before the padding
+        try (FileChannel fc = new RandomAccessFile(file, "r").getChannel())
+        {
+            long framesEnd = AbstractID3v2Tag.getV2TagFramesEnd(fc);
+            Assert.assertTrue(framesEnd > IMAGE_SIZE);
+            Assert.assertTrue(framesEnd <= diagnostics.getAudioStartByte());
+        }
+
+        Assert.assertNull(new MP3File(file, MP3File.LOAD_IDV2TAG | MP3File.SKIP_AUDIO_HEADER, true).getAudioStartDiagnostics());
+    }
+
+    @Test
+    public void testTagSizeTooSmall() throws Exception
+    {
+        File file = createFileWithArtwork("testAudioStartTagTooSmall.mp3", IMAGE_SIZE);
+        long audioStart = new MP3File(file).getMP3AudioHeader().getMp3StartByte();
+        long framesEnd;
+
+        //Make the tag header report a size that ends inside the artwork
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw"))
+        {
+            framesEnd = AbstractID3v2Tag.getV2TagFramesEnd(raf.getChannel());
+            int wrongSize = (int) (audioStart - AbstractID3v2Tag.TAG_HEADER_LENGTH) - IMAGE_SIZE / 2;
+            raf.seek(AbstractID3v2Tag.TAG_HEADER_LENGTH - ID3SyncSafeInteger.INTEGRAL_SIZE);
+            raf.write(new byte[]{(byte) ((wrongSize >> 21) & 0x7F), (byte) ((wrongSize >> 14) & 0x7F), (byte) ((wrongSize >> 7) & 0x7F), (byte) (wrongSize & 0x7F)});
+        }
+
+        MP3File mp3File = new MP3File(file);
+        MP3AudioStartDiagnostics diagnostics = mp3File.getAudioStartDiagnostics();
+        Assert.assertEquals(audioStart, mp3File.getMP3AudioHeader().getMp3StartByte());
+        Assert.assertEquals(audioStart, mp3File.getMP3StartByte(file));
+        Assert.assertFalse(diagnostics.isTagSizeCorrect());
+        Assert.assertEquals(2, diagnostics.getSearchCount());
+        Assert.assertEquals(framesEnd, diagnostics.getTagFramesEnd());
+        Assert.assertEquals(audioStart, diagnostics.getAudioStartByte());
+        Assert.assertEquals((audioStart - diagnostics.getTagSizeReportedByHeader()) + (audioStart - framesEnd), diagnostics.getBytesScanned());
+    }
+}
@@ -0,0 +1,141 @@
+package org.jaudiotagger.audio.mp3;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.audio.ReadOptions;
+import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.tag.TagOptionSingleton;
+import org.jaudiotagger.tag.id3.AbstractID3v2Tag;
+import org.jaudiotagger.tag.id3.ID3v1Tag;
+import org.jaudiotagger.tag.id3.ID3v23Tag;
+import org.jaudiotagger.tag.id3.ID3v24Tag;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+
+/**
+ * Reading the tags and audio header from a single open file
+ */
+public class MP3FileReadTest
+{
+    @After
+    public void tearDown()
+    {
+        TagOptionSingleton.getInstance().setToDefault();
+    }
+
+    private void assertSameAudioHeader(File file) throws Exception
+    {
+        MP3File mp3File = new MP3File(file);
+        MP3AudioHeader fromFile = new MP3AudioHeader(file, AbstractID3v2Tag.getV2TagSizeIfExists(file));
+        Assert.assertEquals(fromFile.getMp3StartByte(), mp3File.getMP3AudioHeader().getMp3StartByte());
+        Assert.assertEquals(fromFile.getNumberOfFrames(), mp3File.getMP3AudioHeader().getNumberOfFrames());
+        Assert.assertEquals(mp3File.getMP3AudioHeader().getMp3StartByte(), mp3File.getMP3StartByte(file));
+
+        try (FileChannel fc = new RandomAccessFile(file, "r").getChannel())
+        {
+            MP3AudioHeader fromChannel = new MP3AudioHeader(fc, AbstractID3v2Tag.getV2TagSizeIfExists(file), null, file.getName());
+            Assert.assertEquals(fromFile.getMp3StartByte(), fromChannel.getMp3StartByte());
+            Assert.assertTrue(fc.isOpen());
+        }
+    }
+
+    @Test
+    public void testTagsRead() throws Exception
+    {
+        File file = AbstractTestCase.copyAudioToTmp("testV1Cbr128ID3v1v2.mp3", new File("testSingleRead.mp3"));
+        MP3File mp3File = new MP3File(file);
+        Assert.assertTrue(mp3File.hasID3v1Tag());
+        Assert.assertTrue(mp3File.hasID3v2Tag());
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r"))
+        {
+            Assert.assertEquals(new ID3v1Tag(raf, "").getFirst(FieldKey.TITLE), mp3File.getID3v1Tag().getFirst(FieldKey.TITLE));
+        }
+        assertSameAudioHeader(file);
+
+        //Too short to hold a tag header
+        Assert.assertEquals(0, AbstractID3v2Tag.getV2TagSizeIfExists(ByteBuffer.allocate(4)));
+    }
+
+    @Test
+    public void testTagLargerThanFirstRead() throws Exception
+    {
+        File file = MP3AudioStartTest.createFileWithArtwork("testSingleReadLargeTag.mp3", 200000);
+        byte[] imageData = MP3AudioStartTest.createImageData(200000);
+
+        MP3File mp3File = new MP3File(file);
+        Assert.assertTrue(mp3File.getMP3AudioHeader().getMp3StartByte() > imageData.length);
+        Assert.assertEquals("artist", mp3File.getID3v2Tag().getFirst(FieldKey.ARTIST));
+        Assert.assertArrayEquals(imageData, mp3File.getID3v2Tag().getFirstArtwork().getBinaryData());
+        assertSameAudioHeader(file);
+
+        //Audio found after the tag without the tag being read
+        MP3File withoutV2Tag = new MP3File(file, MP3File.LOAD_IDV1TAG, true);
+        Assert.assertNull(withoutV2Tag.getID3v2Tag());
+        Assert.assertEquals(mp3File.getMP3AudioHeader().getMp3StartByte(), withoutV2Tag.getMP3AudioHeader().getMp3StartByte());
+        Assert.assertEquals(mp3File.getMP3AudioHeader().getNumberOfFrames(), withoutV2Tag.getMP3AudioHeader().getNumberOfFrames());
+    }
+
+    @Test
+    public void testV24TagCreatedWhenAskedFor() throws Exception
+    {
+        File file = AbstractTestCase.copyAudioToTmp("testV1.mp3", new File("testV24OnDemand.mp3"));
+        MP3File mp3File = new MP3File(file);
+        ID3v23Tag v23Tag = new ID3v23Tag();
+        v23Tag.setField(FieldKey.ARTIST, "artist");
+        mp3File.setID3v2Tag(v23Tag);
+
+        //Conversion holds changes made before it was first asked for
+        v23Tag.setField(FieldKey.TITLE, "title");
+        ID3v24Tag v24Tag = mp3File.getID3v2TagAsv24();
+        Assert.assertEquals("artist", v24Tag.getFirst(FieldKey.ARTIST));
+        Assert.assertEquals("title", v24Tag.getFirst(FieldKey.TITLE));
+        Assert.assertSame(v24Tag, mp3File.getID3v2TagAsv24());
+
+        ID3v24Tag tag = new ID3v24Tag();
+        mp3File.setID3v2Tag(tag);
+        Assert.assertSame(tag, mp3File.getID3v2TagAsv24());
+
+        mp3File.setID3v2TagOnly(v23Tag);
+        Assert.assertNull(mp3File.getID3v2TagAsv24());
+    }
+
+    /**
+     * A file read without its audio header can still be modified and written, finding the audio start when needed
+     */
+    @Test
+    public void testTagOnlyReadModifyCommit() throws Exception
+    {
+        File file = AbstractTestCase.copyAudioToTmp("testV1Cbr128ID3v1v2.mp3", new File("testTagOnlyCommit.mp3"));
+        long originalAudioStart = new MP3File(file).getMP3AudioHeader().getMp3StartByte();
+
+        MP3File mp3File = (MP3File) AudioFileIO.read(file, ReadOptions.TAG_ONLY);
+        Assert.assertNull(mp3File.getAudioHeader());
+        File extracted = mp3File.extractID3v2TagDataIntoFile(new File(file.getParentFile(), "testTagOnlyCommit.id3"));
+        Assert.assertEquals(originalAudioStart, extracted.length());
+
+        //Long enough to make the tag grow and move the audio
+        StringBuilder title = new StringBuilder();
+        for (int i = 0; i < 5000; i++)
+        {
+            title.append('t');
+        }
+        mp3File.getTag().setField(FieldKey.TITLE, title.toString());
+        mp3File.commit();
+        mp3File.getTag().setField(FieldKey.ARTIST, "artist");
+        mp3File.commit();
+
+        mp3File = new MP3File(file);
+        Assert.assertTrue(mp3File.getMP3AudioHeader().getMp3StartByte() > originalAudioStart);
+        Assert.assertEquals(title.toString(), mp3File.getID3v2Tag().getFirst(FieldKey.TITLE));
+        Assert.assertEquals("artist", mp3File.getID3v2Tag().getFirst(FieldKey.ARTIST));
+        Assert.assertEquals(mp3File.getMP3AudioHeader().getMp3StartByte(), Files.size(mp3File.extractID3v2TagDataIntoFile(extracted).toPath()));
+        assertSameAudioHeader(file);
+    }
+}
@@ -0,0 +1,162 @@
+package org.jaudiotagger.audio.mp3;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.tag.TagOptionSingleton;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Walking every frame of an mp3 for the exact track length
+ */
+public class MP3FrameIndexTest
+{
+    private static final int HEADER_128 = 0xFFFB9064;
+    private static final int HEADER_320 = 0xFFFBE064;
+    private static final int LENGTH_128 = 417;
+    private static final int LENGTH_320 = 1044;
+    private static final int LEADING_JUNK = 100;
+    private static final int MIDDLE_JUNK = 1000;
+
+    @After
+    public void tearDown()
+    {
+        TagOptionSingleton.getInstance().setToDefault();
+    }
+
+    private void writeFrames(OutputStream out, int header, int length, int count) throws Exception
+    {
+        byte[] frame = new byte[length];
+        frame[0] = (byte) (header >>> 24);
+        frame[1] = (byte) (header >>> 16);
+        frame[2] = (byte) (header >>> 8);
+        frame[3] = (byte) header;
+        for (int i = 0; i < count; i++)
+        {
+            out.write(frame);
+        }
+    }
+
+    /**
+     * Variable bitrate without a Xing header, with junk before and between the frames and an ID3v1 tag at the end
+     */
+    private File createVbrFile(String name) throws Exception
+    {
+        File file = new File("testdatatmp", name);
+        try (OutputStream out = new FileOutputStream(file))
+        {
+            out.write(new byte[LEADING_JUNK]);
+            writeFrames(out, HEADER_128, LENGTH_128, 50);
+            writeFrames(out, HEADER_320, LENGTH_320, 50);
+            byte[] junk = new byte[MIDDLE_JUNK];
+            Arrays.fill(junk, (byte) 0xAA);
+            out.write(junk);
+            writeFrames(out, HEADER_128, LENGTH_128, 10);
+            byte[] id3v1 = new byte[128];
+            id3v1[0] = 'T';
+            id3v1[1] = 'A';
+            id3v1[2] = 'G';
+            out.write(id3v1);
+        }
+        return file;
+    }
+
+    @Test
+    public void testExactDurationOfVbrFile() throws Exception
+    {
+        File testFile = createVbrFile("testMp3FrameIndex.mp3");
+        MP3File mp3File = new MP3File(testFile);
+        MP3AudioHeader header = mp3File.getMP3AudioHeader();
+        Assert.assertEquals(LEADING_JUNK, header.getMp3StartByte());
+        Assert.assertFalse(header.isVariableBitRate());
+        Assert.assertTrue(header.getNumberOfFrames() > 110);
+
+        MP3FrameIndex index = mp3File.scanFrames(true);
+        Assert.assertEquals(110, index.getFrameCount());
+        Assert.assertEquals(60 * LENGTH_128 + 50 * LENGTH_320, index.getAudioSize());
+        Assert.assertEquals(MIDDLE_JUNK, index.getSkippedBytes());
+        Assert.assertEquals(110 * 1152 / 44100.0, index.getPreciseTrackLength(), 0.0001);
+        Assert.assertTrue(index.isVariableBitRate());
+        long bitRate = Math.round(index.getAudioSize() * 8 / (index.getPreciseTrackLength() * 1000));
+        Assert.assertEquals(bitRate, index.getBitRate());
+
+        Assert.assertEquals(110, header.getNumberOfFrames());
+        Assert.assertEquals(index.getPreciseTrackLength(), header.getPreciseTrackLength(), 0.0001);
+        Assert.assertEquals(bitRate, header.getBitRateAsNumber());
+        Assert.assertEquals("~" + bitRate, header.getBitRate());
+        Assert.assertTrue(header.isVariableBitRate());
+
+        //Seek index
+        Assert.assertEquals(LEADING_JUNK, index.getFramePosition(0));
+        Assert.assertEquals(LEADING_JUNK + 50 * LENGTH_128, index.getFramePosition(50));
+        Assert.assertEquals(LEADING_JUNK + 50 * LENGTH_128 + 50 * LENGTH_320 + MIDDLE_JUNK, index.getFramePosition(100));
+        Assert.assertEquals(LEADING_JUNK + 50 * LENGTH_128 + 50 * LENGTH_320 + MIDDLE_JUNK + 9 * LENGTH_128, index.getFramePosition(109));
+        Assert.assertEquals(0, index.getFrameAt(0));
+        Assert.assertEquals(38, index.getFrameAt(1.0));
+        Assert.assertEquals(109, index.getFrameAt(1000));
+    }
+
+    @Test
+    public void testCacheIndex() throws Exception
+    {
+        File testFile = createVbrFile("testMp3FrameIndexCache.mp3");
+        MP3FrameIndex index = new MP3File(testFile).scanFrames(true);
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        index.write(new DataOutputStream(baos));
+        MP3FrameIndex cached = MP3FrameIndex.read(new DataInputStream(new ByteArrayInputStream(baos.toByteArray())));
+        Assert.assertTrue(cached.isValidFor(testFile));
+        Assert.assertEquals(index.toString(), cached.toString());
+        for (int i = 0; i < index.getFrameCount(); i++)
+        {
+            Assert.assertEquals(index.getFramePosition(i), cached.getFramePosition(i));
+        }
+
+        MP3File mp3File = new MP3File(testFile);
+        mp3File.getMP3AudioHeader().setFrameIndex(cached);
+        Assert.assertEquals(110, mp3File.getMP3AudioHeader().getNumberOfFrames());
+        Assert.assertSame(cached, mp3File.getMP3AudioHeader().getFrameIndex());
+    }
+
+    @Test
+    public void testExactDurationOption() throws Exception
+    {
+        File testFile = createVbrFile("testMp3FrameIndexOption.mp3");
+        TagOptionSingleton.getInstance().setMp3ExactDuration(true);
+        MP3File mp3File = (MP3File) AudioFileIO.read(testFile);
+        Assert.assertEquals(110, mp3File.getMP3AudioHeader().getNumberOfFrames());
+        Assert.assertFalse(mp3File.getMP3AudioHeader().getFrameIndex().hasSeekIndex());
+        Assert.assertEquals(2, mp3File.getAudioHeader().getTrackLength());
+    }
+
+    /**
+     * For real files the exact frame count matches the Xing header or the estimate
+     */
+    @Test
+    public void testRealFiles() throws Exception
+    {
+        String[] files = {"testV1vbrOld0.mp3", "testV1vbrNew0.mp3", "testV2vbrNew0.mp3", "testV25vbrNew0.mp3", "testV1Cbr128.mp3", "testV1L2stereo.mp3", "testV1Cbr128ID3v1v2.mp3"};
+        for (String fileName : files)
+        {
+            File testFile = AbstractTestCase.copyAudioToTmp(fileName, new File("testMp3FrameIndex" + fileName));
+            MP3File mp3File = new MP3File(testFile);
+            MP3AudioHeader header = mp3File.getMP3AudioHeader();
+            long frames = header.getNumberOfFrames();
+            double trackLength = header.getPreciseTrackLength();
+            MP3FrameIndex index = mp3File.scanFrames(false);
+            Assert.assertEquals(fileName, frames, index.getFrameCount(), 1);
+            Assert.assertEquals(fileName, trackLength, index.getPreciseTrackLength(), 0.1);
+            Assert.assertEquals(fileName, 0, index.getSkippedBytes());
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package org.jaudiotagger.audio.mp3;
+
+import org.jaudiotagger.audio.exceptions.InvalidAudioFrameException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Decoding of the four byte frame header
+ */
+public class MPEGFrameHeaderTest
+{
+    private ByteBuffer createBuffer(int header)
+    {
+        ByteBuffer bb = ByteBuffer.allocate(6);
+        bb.put((byte) 0);
+        bb.putInt(header);
+        bb.put((byte) 0);
+        bb.position(1);
+        return bb;
+    }
+
+    @Test
+    public void testDecodeHeader() throws Exception
+    {
+        ByteBuffer bb = createBuffer(0xFFFB9064);
+        Assert.assertTrue(MPEGFrameHeader.isMPEGFrame(bb));
+        Assert.assertTrue(MPEGFrameHeader.isValidMPEGFrame(bb));
+        MPEGFrameHeader header = MPEGFrameHeader.parseMPEGHeader(bb);
+        Assert.assertEquals(1, bb.position());
+        Assert.assertEquals(MPEGFrameHeader.VERSION_1, header.getVersion());
+        Assert.assertEquals("MPEG-1", header.getVersionAsString());
+        Assert.assertEquals(MPEGFrameHeader.LAYER_III, header.getLayer());
+        Assert.assertEquals(128, header.getBitRate().intValue());
+        Assert.assertEquals(44100, header.getSamplingRate().intValue());
+        Assert.assertEquals(MPEGFrameHeader.MODE_JOINT_STEREO, header.getChannelMode());
+        Assert.assertEquals("off-on", header.getModeExtension());
+        Assert.assertEquals(1152, header.getNoOfSamples());
+        Assert.assertEquals(417, header.getFrameLength());
+        Assert.assertFalse(header.isProtected());
+        Assert.assertFalse(header.isPadding());
+        Assert.assertTrue(header.isOriginal());
+        Assert.assertEquals("None", header.getEmphasisAsString());
+
+        //Padded MPEG-2.5 Layer III mono
+        header = MPEGFrameHeader.parseMPEGHeader(createBuffer(0xFFE38AC0));
+        Assert.assertEquals(MPEGFrameHeader.VERSION_2_5, header.getVersion());
+        Assert.assertEquals(64, header.getBitRate().intValue());
+        Assert.assertEquals(8000, header.getSamplingRate().intValue());
+        Assert.assertEquals(MPEGFrameHeader.MODE_MONO, header.getChannelMode());
+        Assert.assertEquals(72 * 64000 / 8000 + 1, header.getFrameLength());
+    }
+
+    @Test
+    public void testInvalidHeaders()
+    {
+        //No sync, reserved bitrate, reserved version, reserved layer, reserved sampling rate
+        int[] invalid = {0x7FFB9064, 0xFFFBF064, 0xFFEB9064, 0xFFF99064, 0xFFFB9C64};
+        for (int header : invalid)
+        {
+            Assert.assertFalse(Integer.toHexString(header), MPEGFrameHeader.isValidHeader(header));
+            Assert.assertFalse(Integer.toHexString(header), MPEGFrameHeader.isValidMPEGFrame(createBuffer(header)));
+        }
+
+        //Not enough bytes left
+        ByteBuffer bb = createBuffer(0xFFFB9064);
+        bb.limit(4);
+        Assert.assertFalse(MPEGFrameHeader.isValidMPEGFrame(bb));
+    }
+
+    /**
+     * The arithmetic check must agree with parsing for every version, layer, bitrate and sampling rate
+     */
+    @Test
+    public void testValidMatchesParse()
+    {
+        for (int fields = 0; fields < 0x2000; fields++)
+        {
+            int header = 0xFFE00000 | fields << 8 | 0x44;
+            boolean parsed;
+            try
+            {
+                MPEGFrameHeader.parseMPEGHeader(createBuffer(header));
+                parsed = true;
+            }
+            catch (InvalidAudioFrameException iafe)
+            {
+                parsed = false;
+            }
+            Assert.assertEquals(Integer.toHexString(header), parsed, MPEGFrameHeader.isValidHeader(header));
+        }
+    }
+
+    @Test
+    public void testIgnoresBufferByteOrder() throws Exception
+    {
+        ByteBuffer bb = createBuffer(0xFFFB9064);
+        bb.order(ByteOrder.LITTLE_ENDIAN);
+        Assert.assertTrue(MPEGFrameHeader.isValidMPEGFrame(bb));
+        Assert.assertEquals(417, MPEGFrameHeader.parseMPEGHeader(bb).getFrameLength());
+    }
+}
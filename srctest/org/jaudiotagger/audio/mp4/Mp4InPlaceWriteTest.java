@@ -0,0 +1,167 @@
+package org.jaudiotagger.audio.mp4;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.audio.exceptions.CannotWriteException;
+import org.jaudiotagger.audio.generic.InPlaceWriteListener;
+import org.jaudiotagger.audio.generic.PaddingPolicy;
+import org.jaudiotagger.audio.mp4.atom.Mp4BoxHeader;
+import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.tag.TagOptionSingleton;
+import org.jaudiotagger.tag.images.Artwork;
+import org.jaudiotagger.tag.images.ArtworkFactory;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+
+/**
+ * Writing mp4 metadata directly into the original file
+ */
+public class Mp4InPlaceWriteTest
+{
+    @After
+    public void tearDown()
+    {
+        TagOptionSingleton.getInstance().setToDefault();
+    }
+
+    private Artwork createArtwork(int size)
+    {
+        byte[] imageData = new byte[size];
+        for (int i = 0; i < imageData.length; i++)
+        {
+            imageData[i] = (byte) i;
+        }
+        Artwork artwork = ArtworkFactory.getNew();
+        artwork.setBinaryData(imageData);
+        artwork.setMimeType("image/png");
+        return artwork;
+    }
+
+    /**
+     * @return the mdat atom, followed by the difference between the first chunk offset and the start of mdat
+     */
+    private byte[] readAudio(File file) throws Exception
+    {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try
+        {
+            Mp4AtomTree atomTree = new Mp4AtomTree(raf, false);
+            Mp4BoxHeader mdatHeader = atomTree.getBoxHeader(atomTree.getMdatNode());
+            byte[] audio = new byte[mdatHeader.getLength() + 8];
+            raf.seek(mdatHeader.getFilePos());
+            raf.readFully(audio, 0, mdatHeader.getLength());
+            long diff = atomTree.getStco().getFirstOffSet() - mdatHeader.getFilePos();
+            for (int i = 0; i < 8; i++)
+            {
+                audio[mdatHeader.getLength() + i] = (byte) (diff >> (i * 8));
+            }
+            return audio;
+        }
+        finally
+        {
+            raf.close();
+        }
+    }
+
+    private void assertNoOtherFiles(File testFile)
+    {
+        final String baseName = testFile.getName().substring(0, testFile.getName().indexOf('.'));
+        String[] files = testFile.getParentFile().list();
+        for (String name : files)
+        {
+            Assert.assertFalse(name, name.startsWith(baseName) && !name.equals(testFile.getName()));
+        }
+    }
+
+    @Test
+    public void testSmallerAndSameSizeWrittenInPlace() throws Exception
+    {
+        PaddingPolicy policy = PaddingPolicy.formatDefault();
+        TagOptionSingleton.getInstance().setPaddingPolicy(policy);
+        File testFile = AbstractTestCase.copyAudioToTmp("test.m4a", new File("testMp4InPlaceSmaller.m4a"));
+        long fileSize = testFile.length();
+        byte[] audio = readAudio(testFile);
+
+        AudioFile af = AudioFileIO.read(testFile);
+        af.getTag().setField(FieldKey.TITLE, "a");
+        af.commit();
+        af = AudioFileIO.read(testFile);
+        af.getTag().setField(FieldKey.TITLE, "b");
+        af.commit();
+
+        Assert.assertEquals(2, policy.getInPlaceWriteCount());
+        Assert.assertEquals(0, policy.getRewriteCount());
+        Assert.assertEquals(fileSize, testFile.length());
+        Assert.assertArrayEquals(audio, readAudio(testFile));
+        assertNoOtherFiles(testFile);
+        Assert.assertEquals("b", AudioFileIO.read(testFile).getTag().getFirst(FieldKey.TITLE));
+    }
+
+    @Test
+    public void testLargerMovesAudioWithinFile() throws Exception
+    {
+        PaddingPolicy policy = PaddingPolicy.fixed(1000);
+        TagOptionSingleton.getInstance().setPaddingPolicy(policy);
+        File testFile = AbstractTestCase.copyAudioToTmp("test.m4a", new File("testMp4InPlaceLarger.m4a"));
+        File copyFile = AbstractTestCase.copyAudioToTmp("test.m4a", new File("testMp4InPlaceCopy.m4a"));
+        byte[] audio = readAudio(testFile);
+
+        //Artwork is the usual reason the metadata outgrows the space before mdat, so the chunk offsets must change
+        AudioFile af = AudioFileIO.read(testFile);
+        af.getTag().setField(createArtwork(20000));
+        af.commit();
+        Assert.assertEquals(1, policy.getRewriteCount());
+        Assert.assertArrayEquals(audio, readAudio(testFile));
+        assertNoOtherFiles(testFile);
+
+        //Same result as writing through a temporary file
+        TagOptionSingleton.getInstance().setMp4WriteInPlace(false);
+        af = AudioFileIO.read(copyFile);
+        af.getTag().setField(createArtwork(20000));
+        af.commit();
+        Assert.assertEquals(copyFile.length(), testFile.length());
+        Assert.assertArrayEquals(readAudio(copyFile), readAudio(testFile));
+        TagOptionSingleton.getInstance().setMp4WriteInPlace(true);
+
+        //Now fits in the padding
+        long fileSize = testFile.length();
+        af = AudioFileIO.read(testFile);
+        af.getTag().setField(FieldKey.COMMENT, AbstractTestCase.createText(500));
+        af.commit();
+        Assert.assertEquals(1, policy.getInPlaceWriteCount());
+        Assert.assertEquals(fileSize, testFile.length());
+        Assert.assertArrayEquals(audio, readAudio(testFile));
+
+        af = AudioFileIO.read(testFile);
+        Assert.assertEquals(AbstractTestCase.createText(500), af.getTag().getFirst(FieldKey.COMMENT));
+        Assert.assertArrayEquals(createArtwork(20000).getBinaryData(), af.getTag().getFirstArtwork().getBinaryData());
+    }
+
+    @Test
+    public void testWriteInPlaceNeverMovesAudio() throws Exception
+    {
+        File testFile = AbstractTestCase.copyAudioToTmp("test.m4a", new File("testMp4InPlaceNoMove.m4a"));
+        byte[] original = Files.readAllBytes(testFile.toPath());
+        AudioFile af = AudioFileIO.read(testFile);
+        af.getTag().setField(createArtwork(20000));
+
+        try (RandomAccessFile raf = new RandomAccessFile(testFile, "rw"))
+        {
+            boolean written = new Mp4TagWriter().writeInPlace(af.getTag(), raf, new InPlaceWriteListener()
+            {
+                public void beforeWrite() throws CannotWriteException
+                {
+                    Assert.fail("Not written in place");
+                }
+            });
+            Assert.assertFalse(written);
+        }
+        Assert.assertArrayEquals(original, Files.readAllBytes(testFile.toPath()));
+    }
+}
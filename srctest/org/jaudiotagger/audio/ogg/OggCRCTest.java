@@ -0,0 +1,127 @@
+package org.jaudiotagger.audio.ogg;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.audio.exceptions.CannotReadException;
+import org.jaudiotagger.audio.ogg.util.OggCRCFactory;
+import org.jaudiotagger.audio.ogg.util.OggPageChecksumVerifier;
+import org.jaudiotagger.audio.ogg.util.OggPageHeader;
+import org.jaudiotagger.tag.TagOptionSingleton;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+/**
+ * Ogg page checksum calculation and verification
+ */
+public class OggCRCTest
+{
+    @After
+    public void resetOptions()
+    {
+        TagOptionSingleton.getInstance().setToDefault();
+    }
+
+    @Test
+    public void testKnownValue()
+    {
+        byte[] data = "123456789".getBytes();
+        Assert.assertEquals(0x89A1897F, OggCRCFactory.update(0, data, 0, data.length));
+        Assert.assertArrayEquals(new byte[]{(byte) 0x7F, (byte) 0x89, (byte) 0xA1, (byte) 0x89}, OggCRCFactory.computeCRC(data));
+        Assert.assertTrue(new OggCRCFactory().checkCRC(data, OggCRCFactory.computeCRC(data)));
+        Assert.assertFalse(new OggCRCFactory().checkCRC(data, new byte[4]));
+    }
+
+    @Test
+    public void testIncrementalHeapAndDirectBuffersMatch()
+    {
+        byte[] data = new byte[10007];
+        new Random(1).nextBytes(data);
+        int expected = OggCRCFactory.update(0, data, 0, data.length);
+
+        int incremental = 0;
+        for (int offset = 0; offset < data.length; offset += 13)
+        {
+            incremental = OggCRCFactory.update(incremental, data, offset, Math.min(13, data.length - offset));
+        }
+        Assert.assertEquals(expected, incremental);
+
+        ByteBuffer heap = ByteBuffer.wrap(data);
+        Assert.assertEquals(expected, OggCRCFactory.update(0, heap, 0, data.length));
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(data.length + 5);
+        direct.position(5);
+        direct.put(data);
+        Assert.assertEquals(expected, OggCRCFactory.update(0, direct, 5, data.length));
+        Assert.assertEquals(direct.capacity(), direct.position());
+    }
+
+    @Test
+    public void testPageCRC() throws Exception
+    {
+        File testFile = AbstractTestCase.copyAudioToTmp("test.ogg", new File("testPageCRC.ogg"));
+        RandomAccessFile raf = new RandomAccessFile(testFile, "r");
+        OggPageHeader pageHeader = OggPageHeader.read(raf);
+        int pageLength = pageHeader.getRawHeaderData().length + pageHeader.getPageLength();
+        ByteBuffer page = ByteBuffer.allocateDirect(pageLength);
+        raf.getChannel().read(page, 0);
+        raf.close();
+
+        Assert.assertTrue(OggCRCFactory.isPageCRCValid(page, 0, pageLength));
+        Assert.assertEquals(pageHeader.getCheckSum(), OggCRCFactory.getPageCRC(page, 0));
+
+        page.put(OggPageHeader.FIELD_PAGE_CHECKSUM_POS, (byte) 0);
+        Assert.assertFalse(OggCRCFactory.isPageCRCValid(page, 0, pageLength));
+        OggCRCFactory.writePageCRC(page, 0, pageLength);
+        Assert.assertTrue(OggCRCFactory.isPageCRCValid(page, 0, pageLength));
+        Assert.assertEquals(pageHeader.getCheckSum(), OggCRCFactory.getPageCRC(page, 0));
+    }
+
+    @Test
+    public void testVerifyPageChecksums() throws Exception
+    {
+        File testFile = AbstractTestCase.copyAudioToTmp("test.ogg", new File("testVerifyPageChecksums.ogg"));
+        RandomAccessFile raf = new RandomAccessFile(testFile, "rw");
+        Assert.assertEquals(10, new OggPageChecksumVerifier().verify(raf));
+
+        TagOptionSingleton.getInstance().setVerifyOggPageChecksums(true);
+        AudioFileIO.read(testFile);
+
+        //Corrupt the last byte of audio
+        raf.seek(raf.length() - 1);
+        int last = raf.read();
+        raf.seek(raf.length() - 1);
+        raf.write(last ^ 0xFF);
+
+        Exception exceptionCaught = null;
+        try
+        {
+            new OggPageChecksumVerifier().verify(raf);
+        }
+        catch (CannotReadException cre)
+        {
+            exceptionCaught = cre;
+        }
+        raf.close();
+        Assert.assertNotNull(exceptionCaught);
+
+        exceptionCaught = null;
+        try
+        {
+            AudioFileIO.read(testFile);
+        }
+        catch (CannotReadException cre)
+        {
+            exceptionCaught = cre;
+        }
+        Assert.assertNotNull(exceptionCaught);
+
+        TagOptionSingleton.getInstance().setVerifyOggPageChecksums(false);
+        AudioFileIO.read(testFile);
+    }
+}
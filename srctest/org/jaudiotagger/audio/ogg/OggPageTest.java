@@ -2,6 +2,7 @@ package org.jaudiotagger.audio.ogg;
 
 import org.jaudiotagger.AbstractTestCase;
 import org.jaudiotagger.audio.ogg.util.OggPageHeader;
+import org.jaudiotagger.audio.ogg.util.OggPageReverseScanner;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -186,4 +187,60 @@ public class OggPageTest {
         Assert.assertNull(exceptionCaught);
         Assert.assertEquals(25, count);
     }
+
+    /**
+     * Test reverse scan finds the same last page as reading forward, even with junk at the end of the file
+     * and a block size smaller than the junk
+     */
+    @Test
+    public void testReverseScanForLastPage()
+    {
+        Exception exceptionCaught = null;
+        try
+        {
+            File testFile = AbstractTestCase.copyAudioToTmp("test.ogg", new File("testReverseScanForLastPage.ogg"));
+            RandomAccessFile raf = new RandomAccessFile(testFile, "rw");
+            OggPageHeader lastPageHeader = null;
+            while (raf.getFilePointer() < raf.length())
+            {
+                lastPageHeader = OggPageHeader.read(raf);
+                lastPageHeader.setStartByte(raf.getFilePointer() - lastPageHeader.getRawHeaderData().length);
+                raf.seek(raf.getFilePointer() + lastPageHeader.getPageLength());
+            }
+            long audioLength = raf.length();
+
+            OggPageReverseScanner scanner = new OggPageReverseScanner();
+            OggPageHeader foundPageHeader = scanner.findLastPageHeader(raf.getChannel(), 0);
+            Assert.assertNotNull(foundPageHeader);
+            Assert.assertEquals(lastPageHeader.getStartByte(), foundPageHeader.getStartByte());
+            Assert.assertEquals(lastPageHeader.getPageSequence(), foundPageHeader.getPageSequence());
+            Assert.assertEquals(lastPageHeader.getAbsoluteGranulePosition(), foundPageHeader.getAbsoluteGranulePosition(), 0);
+            Assert.assertTrue(scanner.getBytesScanned() >= audioLength - lastPageHeader.getStartByte());
+            Assert.assertTrue(scanner.getBytesScanned() <= audioLength);
+
+            //Append junk including a capture pattern with an invalid version
+            raf.seek(audioLength);
+            byte[] junk = new byte[1000];
+            junk[500] = 'O';
+            junk[501] = 'g';
+            junk[502] = 'g';
+            junk[503] = 'S';
+            junk[504] = 1;
+            raf.write(junk);
+
+            scanner = new OggPageReverseScanner(100);
+            foundPageHeader = scanner.findLastPageHeader(raf.getChannel(), 0);
+            Assert.assertNotNull(foundPageHeader);
+            Assert.assertEquals(lastPageHeader.getStartByte(), foundPageHeader.getStartByte());
+            Assert.assertEquals(lastPageHeader.getPageSequence(), foundPageHeader.getPageSequence());
+            Assert.assertTrue(scanner.getBytesScanned() >= junk.length);
+            raf.close();
+        }
+        catch (Exception e)
+        {
+            e.printStackTrace();
+            exceptionCaught = e;
+        }
+        Assert.assertNull(exceptionCaught);
+    }
 }
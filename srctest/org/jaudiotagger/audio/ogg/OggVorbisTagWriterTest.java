@@ -0,0 +1,127 @@
+package org.jaudiotagger.audio.ogg;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.audio.ogg.util.OggCRCFactory;
+import org.jaudiotagger.audio.ogg.util.OggPageHeader;
+import org.jaudiotagger.tag.FieldKey;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+
+/**
+ * Check the remaining audio pages are copied correctly when the comment header changes size
+ */
+public class OggVorbisTagWriterTest
+{
+    /**
+     * Check every page has the correct checksum and that page sequence numbers are contiguous
+     *
+     * @return number of pages
+     */
+    private int checkPages(File file) throws Exception
+    {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        int count = 0;
+        int lastPageSequence = -1;
+        try
+        {
+            while (raf.getFilePointer() < raf.length())
+            {
+                long start = raf.getFilePointer();
+                OggPageHeader pageHeader = OggPageHeader.read(raf);
+                byte[] page = new byte[pageHeader.getRawHeaderData().length + pageHeader.getPageLength()];
+                raf.seek(start);
+                raf.readFully(page);
+                byte[] checksum = Arrays.copyOfRange(page, OggPageHeader.FIELD_PAGE_CHECKSUM_POS, OggPageHeader.FIELD_PAGE_CHECKSUM_POS + OggPageHeader.FIELD_PAGE_CHECKSUM_LENGTH);
+                Arrays.fill(page, OggPageHeader.FIELD_PAGE_CHECKSUM_POS, OggPageHeader.FIELD_PAGE_CHECKSUM_POS + OggPageHeader.FIELD_PAGE_CHECKSUM_LENGTH, (byte) 0);
+                Assert.assertArrayEquals(checksum, OggCRCFactory.computeCRC(page));
+                if (lastPageSequence != -1)
+                {
+                    Assert.assertEquals(lastPageSequence + 1, pageHeader.getPageSequence());
+                }
+                lastPageSequence = pageHeader.getPageSequence();
+                count++;
+            }
+        }
+        finally
+        {
+            raf.close();
+        }
+        return count;
+    }
+
+    private String createLargeComment(char c)
+    {
+        char[] comment = new char[OggPageHeader.MAXIMUM_PAGE_DATA_SIZE + 1000];
+        Arrays.fill(comment, c);
+        return new String(comment);
+    }
+
+    /**
+     * Comment growing onto more pages requires renumbering, rewriting a comment of the same size
+     * does not so remaining pages can be copied unchanged
+     */
+    @Test
+    public void testWriteRemainingPagesRenumberedAndUnchanged() throws Exception
+    {
+        File testFile = AbstractTestCase.copyAudioToTmp("test.ogg", new File("testWriteRemainingPages.ogg"));
+        int originalCount = checkPages(testFile);
+
+        AudioFile af = AudioFileIO.read(testFile);
+        af.getTag().setField(FieldKey.COMMENT, createLargeComment('a'));
+        af.commit();
+        int largerCount = checkPages(testFile);
+        Assert.assertTrue(largerCount > originalCount);
+
+        af = AudioFileIO.read(testFile);
+        Assert.assertEquals(createLargeComment('a'), af.getTag().getFirst(FieldKey.COMMENT));
+        af.getTag().setField(FieldKey.COMMENT, createLargeComment('b'));
+        af.commit();
+        Assert.assertEquals(largerCount, checkPages(testFile));
+
+        af = AudioFileIO.read(testFile);
+        Assert.assertEquals(createLargeComment('b'), af.getTag().getFirst(FieldKey.COMMENT));
+        af.getTag().setField(FieldKey.COMMENT, "small");
+        af.commit();
+        Assert.assertEquals(originalCount, checkPages(testFile));
+
+        af = AudioFileIO.read(testFile);
+        Assert.assertEquals("small", af.getTag().getFirst(FieldKey.COMMENT));
+    }
+
+    /**
+     * An ID3v1 tag after the last page is discarded whether or not pages need renumbering
+     */
+    @Test
+    public void testWriteRemainingPagesDiscardsID3v1Tag() throws Exception
+    {
+        File testFile = AbstractTestCase.copyAudioToTmp("test.ogg", new File("testWriteRemainingPagesID3v1.ogg"));
+        AudioFile af = AudioFileIO.read(testFile);
+        af.getTag().setField(FieldKey.COMMENT, createLargeComment('a'));
+        af.commit();
+        int largerCount = checkPages(testFile);
+
+        for (char c : new char[]{'b', 'c'})
+        {
+            RandomAccessFile raf = new RandomAccessFile(testFile, "rw");
+            byte[] id3v1 = new byte[128];
+            id3v1[0] = 'T';
+            id3v1[1] = 'A';
+            id3v1[2] = 'G';
+            raf.seek(raf.length());
+            raf.write(id3v1);
+            raf.close();
+
+            af = AudioFileIO.read(testFile);
+            af.getTag().setField(FieldKey.COMMENT, c == 'b' ? createLargeComment(c) : "small");
+            af.commit();
+            checkPages(testFile);
+        }
+        Assert.assertTrue(checkPages(testFile) < largerCount);
+    }
+}
@@ -0,0 +1,147 @@
+package org.jaudiotagger.tag.id3;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.mp3.MP3File;
+import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.tag.TagOptionSingleton;
+import org.jaudiotagger.tag.images.Artwork;
+import org.jaudiotagger.tag.images.ArtworkFactory;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * Writing frames straight into a single tag buffer
+ */
+public class ID3v2TagBufferTest
+{
+    private static final int PREFERRED_SIZE = 50000;
+
+    private byte[] imageData = createImageData();
+
+    /**
+     * Contains false syncs and ends with $FF
+     */
+    private byte[] createImageData()
+    {
+        byte[] data = new byte[20000];
+        for (int i = 0; i < data.length; i++)
+        {
+            data[i] = (byte) (i * 31);
+        }
+        data[100] = (byte) 0xFF;
+        data[101] = (byte) 0xE0;
+        data[data.length - 1] = (byte) 0xFF;
+        return data;
+    }
+
+    @After
+    public void tearDown()
+    {
+        TagOptionSingleton.getInstance().setToDefault();
+    }
+
+    private ID3v24Tag createTag() throws Exception
+    {
+        ID3v24Tag tag = new ID3v24Tag();
+        tag.setField(FieldKey.TITLE, "title");
+        tag.setField(FieldKey.ARTIST, "artist");
+        Artwork artwork = ArtworkFactory.getNew();
+        artwork.setBinaryData(imageData);
+        artwork.setMimeType("image/png");
+        artwork.setPictureType(3);
+        tag.setField(artwork);
+        return tag;
+    }
+
+    @Test
+    public void testUnsynchronizeRange()
+    {
+        byte[] data = {7, 1, (byte) 0xFF, (byte) 0xE0, 2, (byte) 0xFF, 0, (byte) 0xFF, 7};
+        Assert.assertFalse(ID3Unsynchronization.requiresUnsynchronization(data, 1, 2));
+        Assert.assertTrue(ID3Unsynchronization.requiresUnsynchronization(data, 1, 3));
+        Assert.assertArrayEquals(new byte[]{1, (byte) 0xFF, 0, (byte) 0xE0, 2, (byte) 0xFF, 0, 0, (byte) 0xFF, 0}, ID3Unsynchronization.unsynchronize(data, 1, 7));
+        Assert.assertArrayEquals(ID3Unsynchronization.unsynchronize(Arrays.copyOfRange(data, 1, 8)), ID3Unsynchronization.unsynchronize(data, 1, 7));
+        Assert.assertArrayEquals(new byte[]{1, 2}, ID3Unsynchronization.unsynchronize(new byte[]{1, 2}));
+
+        ID3v2TagBuffer buffer = new ID3v2TagBuffer();
+        buffer.write(data, 0, data.length);
+        buffer.unsynchronize(1);
+        Assert.assertEquals(11, buffer.size());
+        Assert.assertEquals(7, buffer.toByteArray()[0]);
+        Assert.assertEquals(0, buffer.toByteArray()[3]);
+    }
+
+    @Test
+    public void testFramesWrittenAfterExistingData() throws Exception
+    {
+        TagOptionSingleton.getInstance().setUnsyncTags(true);
+        AbstractID3v2Frame frame = (AbstractID3v2Frame) createTag().getFirstField(ID3v24Frames.FRAME_ID_ATTACHED_PICTURE);
+        byte[] frameData = frame.getRawContent();
+        Assert.assertTrue(((ID3v24Frame.EncodingFlags) frame.getEncodingFlags()).isUnsynchronised());
+        Assert.assertEquals(frameData.length - ID3v24Frame.FRAME_HEADER_SIZE, ID3SyncSafeInteger.bufferToValue(Arrays.copyOfRange(frameData, 4, 8)));
+
+        ID3v2TagBuffer buffer = new ID3v2TagBuffer(10);
+        buffer.write(1);
+        frame.write(buffer);
+        Assert.assertEquals(frameData.length + 1, buffer.size());
+        Assert.assertArrayEquals(frameData, Arrays.copyOfRange(buffer.toByteArray(), 1, buffer.size()));
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        frame.write(baos);
+        Assert.assertArrayEquals(frameData, baos.toByteArray());
+    }
+
+    @Test
+    public void testWriteToChannel() throws Exception
+    {
+        TagOptionSingleton.getInstance().setUnsyncTags(true);
+        ID3v24Tag tag = createTag();
+
+        //Non gathering channel
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        tag.write(Channels.newChannel(baos), PREFERRED_SIZE);
+        Assert.assertEquals(PREFERRED_SIZE, baos.size());
+
+        //Gathering channel
+        File file = new File("testdatatmp", "testID3v2TagBuffer.id3");
+        file.delete();
+        try (FileChannel fc = new RandomAccessFile(file, "rw").getChannel())
+        {
+            tag.write(fc, PREFERRED_SIZE);
+        }
+        Assert.assertEquals(PREFERRED_SIZE, file.length());
+        ByteBuffer fileData;
+        try (FileChannel fc = new RandomAccessFile(file, "r").getChannel())
+        {
+            fileData = ByteBuffer.allocate((int) fc.size());
+            fc.read(fileData);
+        }
+        Assert.assertArrayEquals(baos.toByteArray(), fileData.array());
+
+        ID3v24Tag readTag = new ID3v24Tag(ByteBuffer.wrap(baos.toByteArray()), "");
+        Assert.assertEquals("title", readTag.getFirst(FieldKey.TITLE));
+        Assert.assertArrayEquals(imageData, readTag.getFirstArtwork().getBinaryData());
+    }
+
+    @Test
+    public void testSaveToFile() throws Exception
+    {
+        File testFile = AbstractTestCase.copyAudioToTmp("testV1.mp3", new File("testID3v2TagBuffer.mp3"));
+        MP3File mp3File = new MP3File(testFile);
+        mp3File.setID3v2Tag(createTag());
+        mp3File.save();
+
+        mp3File = new MP3File(testFile);
+        Assert.assertEquals("artist", mp3File.getID3v2Tag().getFirst(FieldKey.ARTIST));
+        Assert.assertArrayEquals(imageData, mp3File.getID3v2Tag().getFirstArtwork().getBinaryData());
+    }
+}
@@ -0,0 +1,66 @@
+package org.jaudiotagger.tag.id3;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.mp3.MP3File;
+import org.jaudiotagger.tag.FieldKey;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.ByteBuffer;
+
+/**
+ * Reading an ID3v2 tag using the version given in its header
+ */
+public class ID3v2TagVersionTest
+{
+    private ByteBuffer writeTag(AbstractID3v2Tag tag) throws Exception
+    {
+        tag.setField(FieldKey.TITLE, "title");
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        tag.write(baos);
+        return ByteBuffer.wrap(baos.toByteArray());
+    }
+
+    @Test
+    public void testReadTagUsesMajorVersion() throws Exception
+    {
+        for (AbstractID3v2Tag tag : new AbstractID3v2Tag[]{new ID3v22Tag(), new ID3v23Tag(), new ID3v24Tag()})
+        {
+            AbstractID3v2Tag read = AbstractID3v2Tag.readTag(writeTag(tag), "");
+            Assert.assertNotNull(read);
+            Assert.assertEquals(tag.getClass(), read.getClass());
+            Assert.assertEquals("title", read.getFirst(FieldKey.TITLE));
+        }
+    }
+
+    @Test
+    public void testReadTagNotFound() throws Exception
+    {
+        Assert.assertNull(AbstractID3v2Tag.readTag(ByteBuffer.allocate(100), ""));
+        Assert.assertNull(AbstractID3v2Tag.readTag(ByteBuffer.wrap(new byte[]{'I', 'D', '3'}), ""));
+
+        ByteBuffer unsupportedVersion = writeTag(new ID3v24Tag());
+        unsupportedVersion.put(AbstractID3v2Tag.FIELD_TAG_MAJOR_VERSION_POS, (byte) 5);
+        Assert.assertNull(AbstractID3v2Tag.readTag(unsupportedVersion, ""));
+    }
+
+    @Test
+    public void testSkipAudioHeader() throws Exception
+    {
+        File testFile = AbstractTestCase.copyAudioToTmp("testV1.mp3", new File("testSkipAudioHeader.mp3"));
+        MP3File mp3File = new MP3File(testFile);
+        mp3File.setID3v2Tag(new ID3v23Tag());
+        mp3File.getID3v2Tag().setField(FieldKey.ARTIST, "artist");
+        mp3File.save();
+
+        MP3File full = new MP3File(testFile, MP3File.LOAD_ALL, true);
+        MP3File tagsOnly = new MP3File(testFile, MP3File.LOAD_ALL | MP3File.SKIP_AUDIO_HEADER, true);
+        Assert.assertNotNull(full.getAudioHeader());
+        Assert.assertNull(tagsOnly.getAudioHeader());
+        Assert.assertTrue(tagsOnly.getID3v2Tag() instanceof ID3v23Tag);
+        Assert.assertEquals(full.getID3v2Tag(), tagsOnly.getID3v2Tag());
+        Assert.assertEquals("artist", tagsOnly.getTag().getFirst(FieldKey.ARTIST));
+    }
+}
@@ -0,0 +1,161 @@
+package org.jaudiotagger.tag.id3;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.generic.PaddingPolicy;
+import org.jaudiotagger.audio.mp3.MP3File;
+import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.tag.TagOptionSingleton;
+import org.jaudiotagger.tag.id3.framebody.FrameBodyAPIC;
+import org.jaudiotagger.tag.id3.valuepair.ImageFormats;
+import org.jaudiotagger.tag.reference.PictureTypes;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Deferred decoding of ID3v2 frame bodies
+ */
+public class LazyFrameBodyTest
+{
+    @After
+    public void resetOptions()
+    {
+        TagOptionSingleton.getInstance().setToDefault();
+    }
+
+    private byte[] createImageData()
+    {
+        byte[] imageData = new byte[200000];
+        new Random(1).nextBytes(imageData);
+        return imageData;
+    }
+
+    private byte[] createTag(AbstractID3v2Tag tag, String pictureId) throws Exception
+    {
+        tag.setField(FieldKey.TITLE, "title");
+        tag.setField(FieldKey.ARTIST, "artist");
+        AbstractID3v2Frame frame = tag.createFrame(pictureId);
+        FrameBodyAPIC body = (FrameBodyAPIC) frame.getBody();
+        body.setMimeType(ImageFormats.MIME_TYPE_PNG);
+        body.setPictureType(PictureTypes.DEFAULT_ID.byteValue());
+        body.setImageData(createImageData());
+        body.setDescription("");
+        tag.setFrame(frame);
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        tag.write(baos);
+        return baos.toByteArray();
+    }
+
+    private void checkLazyTag(AbstractID3v2Tag tag, byte[] original, String titleId, String pictureId) throws Exception
+    {
+        AbstractID3v2Frame titleFrame = (AbstractID3v2Frame) tag.getFrame(titleId);
+        AbstractID3v2Frame pictureFrame = (AbstractID3v2Frame) tag.getFrame(pictureId);
+        Assert.assertFalse(titleFrame.isBodyDecoded());
+        Assert.assertFalse(pictureFrame.isBodyDecoded());
+
+        Assert.assertEquals("title", tag.getFirst(FieldKey.TITLE));
+        Assert.assertTrue(titleFrame.isBodyDecoded());
+        Assert.assertFalse(pictureFrame.isBodyDecoded());
+
+        //Untouched frames are copied unchanged, and decoded once written
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        tag.write(baos);
+        Assert.assertArrayEquals(original, baos.toByteArray());
+        Assert.assertTrue(pictureFrame.isBodyDecoded());
+
+        Assert.assertArrayEquals(createImageData(), tag.getFirstArtwork().getBinaryData());
+        Assert.assertTrue(pictureFrame.isBodyDecoded());
+
+        //Modified tag is written normally
+        tag.setField(FieldKey.ARTIST, "new artist");
+        baos = new ByteArrayOutputStream();
+        tag.write(baos);
+        TagOptionSingleton.getInstance().setLazyID3v2FrameBodyDecoding(false);
+        AbstractID3v2Tag reread = tag instanceof ID3v24Tag
+                ? new ID3v24Tag(ByteBuffer.wrap(baos.toByteArray()), "")
+                : new ID3v23Tag(ByteBuffer.wrap(baos.toByteArray()), "");
+        Assert.assertEquals("title", reread.getFirst(FieldKey.TITLE));
+        Assert.assertEquals("new artist", reread.getFirst(FieldKey.ARTIST));
+        Assert.assertArrayEquals(createImageData(), reread.getFirstArtwork().getBinaryData());
+    }
+
+    @Test
+    public void testLazyV24FrameBodies() throws Exception
+    {
+        byte[] original = createTag(new ID3v24Tag(), ID3v24Frames.FRAME_ID_ATTACHED_PICTURE);
+        TagOptionSingleton.getInstance().setLazyID3v2FrameBodyDecoding(true);
+        checkLazyTag(new ID3v24Tag(ByteBuffer.wrap(original), ""), original, ID3v24Frames.FRAME_ID_TITLE, ID3v24Frames.FRAME_ID_ATTACHED_PICTURE);
+    }
+
+    @Test
+    public void testLazyV23FrameBodies() throws Exception
+    {
+        byte[] original = createTag(new ID3v23Tag(), ID3v23Frames.FRAME_ID_V3_ATTACHED_PICTURE);
+        TagOptionSingleton.getInstance().setLazyID3v2FrameBodyDecoding(true);
+        checkLazyTag(new ID3v23Tag(ByteBuffer.wrap(original), ""), original, ID3v23Frames.FRAME_ID_V3_TITLE, ID3v23Frames.FRAME_ID_V3_ATTACHED_PICTURE);
+    }
+
+    /**
+     * Deferred frames must not depend on the file they were read from, which changes when the tag is written in place
+     */
+    @Test
+    public void testLazyFramesAfterTagMovedInFile() throws Exception
+    {
+        File file = AbstractTestCase.copyAudioToTmp("testV1.mp3", new File("testLazyFramesMoved.mp3"));
+        TagOptionSingleton.getInstance().setPaddingPolicy(PaddingPolicy.fixed(4000));
+        MP3File mp3File = new MP3File(file);
+        ID3v24Tag tag = new ID3v24Tag(ByteBuffer.wrap(createTag(new ID3v24Tag(), ID3v24Frames.FRAME_ID_ATTACHED_PICTURE)), "");
+        mp3File.setID3v2Tag(tag);
+        mp3File.save();
+
+        //Audio starts well after the end of the tag so the tag is mapped from the file rather than read with the audio
+        byte[] data = Files.readAllBytes(file.toPath());
+        int tagSize = (int) AbstractID3v2Tag.getV2TagSizeIfExists(file);
+        byte[] gapped = new byte[data.length + 20000];
+        System.arraycopy(data, 0, gapped, 0, tagSize);
+        System.arraycopy(data, tagSize, gapped, tagSize + 20000, data.length - tagSize);
+        Files.write(file.toPath(), gapped);
+
+        TagOptionSingleton.getInstance().setLazyID3v2FrameBodyDecoding(true);
+        mp3File = new MP3File(file);
+        Assert.assertEquals(tagSize + 20000, mp3File.getMP3AudioHeader().getMp3StartByte());
+        AbstractID3v2Frame pictureFrame = (AbstractID3v2Frame) mp3File.getID3v2Tag().getFrame(ID3v24Frames.FRAME_ID_ATTACHED_PICTURE);
+        Assert.assertFalse(pictureFrame.isBodyDecoded());
+
+        //Longer title moves the frames after it
+        char[] title = new char[1000];
+        Arrays.fill(title, 't');
+        mp3File.getID3v2Tag().setField(FieldKey.TITLE, new String(title));
+        long audioStart = mp3File.getMP3AudioHeader().getMp3StartByte();
+        mp3File.save();
+        Assert.assertEquals(audioStart, new MP3File(file).getMP3AudioHeader().getMp3StartByte());
+        Assert.assertArrayEquals(createImageData(), mp3File.getID3v2Tag().getFirstArtwork().getBinaryData());
+
+        mp3File.getID3v2Tag().setField(FieldKey.ARTIST, "new artist");
+        mp3File.save();
+
+        mp3File = new MP3File(file);
+        Assert.assertEquals(new String(title), mp3File.getID3v2Tag().getFirst(FieldKey.TITLE));
+        Assert.assertEquals("new artist", mp3File.getID3v2Tag().getFirst(FieldKey.ARTIST));
+        Assert.assertArrayEquals(createImageData(), mp3File.getID3v2Tag().getFirstArtwork().getBinaryData());
+    }
+
+    @Test
+    public void testLazyAndEagerFramesEqual() throws Exception
+    {
+        byte[] original = createTag(new ID3v24Tag(), ID3v24Frames.FRAME_ID_ATTACHED_PICTURE);
+        ID3v24Tag eager = new ID3v24Tag(ByteBuffer.wrap(original), "");
+        TagOptionSingleton.getInstance().setLazyID3v2FrameBodyDecoding(true);
+        ID3v24Tag lazy = new ID3v24Tag(ByteBuffer.wrap(original), "");
+        Assert.assertEquals(eager.getSize(), lazy.getSize());
+        Assert.assertEquals(eager, lazy);
+    }
+}
@@ -0,0 +1,94 @@
+package org.jaudiotagger.tag.id3.framebody;
+
+import org.jaudiotagger.tag.datatype.DataTypes;
+import org.jaudiotagger.tag.id3.ID3v22Frames;
+import org.jaudiotagger.tag.id3.ID3v23Frames;
+import org.jaudiotagger.tag.id3.ID3v24Frame;
+import org.jaudiotagger.tag.id3.ID3v24Frames;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * FrameBodyFactoryTest.
+ */
+public class FrameBodyFactoryTest
+{
+    /**
+     * Every frame that has a frame body class is created by the factory
+     */
+    @Test
+    public void testCreatesEveryFrameBody() throws Exception
+    {
+        Set<String> identifiers = new TreeSet<String>();
+        identifiers.addAll(ID3v24Frames.getInstanceOf().getIdToValueMap().keySet());
+        identifiers.addAll(ID3v23Frames.getInstanceOf().getIdToValueMap().keySet());
+        identifiers.addAll(ID3v22Frames.getInstanceOf().getIdToValueMap().keySet());
+
+        int count = 0;
+        for (String identifier : identifiers)
+        {
+            Class<?> c;
+            try
+            {
+                c = Class.forName("org.jaudiotagger.tag.id3.framebody.FrameBody" + identifier);
+            }
+            catch (ClassNotFoundException cnfe)
+            {
+                assertNull(identifier, FrameBodyFactory.createFrameBody(identifier));
+                continue;
+            }
+            AbstractID3v2FrameBody body = FrameBodyFactory.createFrameBody(identifier);
+            assertNotNull(identifier, body);
+            assertEquals(c, body.getClass());
+            count++;
+        }
+        assertTrue(count > 90);
+    }
+
+    @Test
+    public void testReadFrameBody() throws Exception
+    {
+        ID3v24Frame frame = new ID3v24Frame(ID3v24Frames.FRAME_ID_TITLE);
+        ((FrameBodyTIT2) frame.getBody()).setText("title");
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        frame.write(baos);
+
+        ID3v24Frame read = new ID3v24Frame(ByteBuffer.wrap(baos.toByteArray()), "");
+        assertEquals(FrameBodyTIT2.class, read.getBody().getClass());
+        assertEquals("title", ((FrameBodyTIT2) read.getBody()).getText());
+    }
+
+    /**
+     * Unknown frames are read as unsupported without looking for a frame body class
+     */
+    @Test
+    public void testReadUnknownFrameBody() throws Exception
+    {
+        byte[] data = new byte[]{1, 2, 3, 4, 5};
+        assertNull(FrameBodyFactory.createFrameBody("ZZZZ", ByteBuffer.wrap(data), data.length));
+        assertNull(FrameBodyFactory.createFrameBody("ZZZZ"));
+
+        ByteBuffer frameBuffer = ByteBuffer.allocate(10 + data.length);
+        frameBuffer.put("ZZZZ".getBytes("ISO-8859-1"));
+        frameBuffer.putInt(data.length);
+        frameBuffer.putShort((short) 0);
+        frameBuffer.put(data);
+        frameBuffer.flip();
+
+        ID3v24Frame read = new ID3v24Frame(frameBuffer, "");
+        assertEquals("ZZZZ", read.getIdentifier());
+        assertTrue(read.getBody() instanceof FrameBodyUnsupported);
+        FrameBodyUnsupported body = (FrameBodyUnsupported) read.getBody();
+        assertArrayEquals(data, (byte[]) body.getObjectValue(DataTypes.OBJ_DATA));
+    }
+}
@@ -0,0 +1,53 @@
+package org.jaudiotagger.tag.mp4;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.audio.generic.GenericAudioHeader;
+import org.jaudiotagger.audio.mp4.Mp4AtomTree;
+import org.jaudiotagger.audio.mp4.Mp4InfoReader;
+import org.jaudiotagger.audio.mp4.Mp4TagReader;
+import org.jaudiotagger.tag.FieldKey;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+
+/**
+ * Reading info and tag from a single atom tree gives the same results as reading them separately
+ */
+public class M4aSharedMoovReadTest
+{
+    @Test
+    public void testSharedMoovMatchesSeparateReads() throws Exception
+    {
+        for (String fileName : new String[]{"test.m4a", "test15.m4a"})
+        {
+            File testFile = AbstractTestCase.copyAudioToTmp(fileName, new File("testSharedMoov" + fileName));
+
+            RandomAccessFile raf = new RandomAccessFile(testFile, "r");
+            GenericAudioHeader separateInfo = (GenericAudioHeader) new Mp4InfoReader().read(raf);
+            raf.seek(0);
+            Mp4Tag separateTag = new Mp4TagReader().read(raf);
+
+            raf.seek(0);
+            Mp4AtomTree atomTree = new Mp4AtomTree(raf, false);
+            int moovPosition = atomTree.getMoovBuffer().position();
+            GenericAudioHeader sharedInfo = (GenericAudioHeader) new Mp4InfoReader().read(atomTree, raf);
+            Mp4Tag sharedTag = new Mp4TagReader().read(atomTree);
+            raf.close();
+
+            //Readers must not disturb the shared buffer
+            Assert.assertEquals(moovPosition, atomTree.getMoovBuffer().position());
+            Assert.assertEquals(separateInfo.toString(), sharedInfo.toString());
+            Assert.assertEquals(separateTag.getFieldCount(), sharedTag.getFieldCount());
+            Assert.assertEquals(separateTag.getFirst(FieldKey.TITLE), sharedTag.getFirst(FieldKey.TITLE));
+            Assert.assertEquals(separateTag.getFirst(FieldKey.ARTIST), sharedTag.getFirst(FieldKey.ARTIST));
+
+            AudioFile af = AudioFileIO.read(testFile);
+            Assert.assertEquals(separateInfo.toString(), af.getAudioHeader().toString());
+            Assert.assertEquals(separateTag.getFieldCount(), af.getTag().getFieldCount());
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package org.jaudiotagger.tag.vorbiscomment;
+
+import org.jaudiotagger.AbstractTestCase;
+import org.jaudiotagger.audio.AudioFile;
+import org.jaudiotagger.audio.AudioFileIO;
+import org.jaudiotagger.audio.flac.metadatablock.MetadataBlockDataPicture;
+import org.jaudiotagger.tag.FieldKey;
+import org.jaudiotagger.tag.images.Artwork;
+import org.jaudiotagger.tag.vorbiscomment.util.Base64Coder;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Reading vorbis comments from a view of the raw data
+ */
+public class VorbisCommentReaderTest
+{
+    private byte[] imageData = createImageData();
+
+    private byte[] createImageData()
+    {
+        byte[] data = new byte[1000];
+        for (int i = 0; i < data.length; i++)
+        {
+            data[i] = (byte) i;
+        }
+        return data;
+    }
+
+    private void writeString(ByteArrayOutputStream out, String value) throws Exception
+    {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.write(ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(bytes.length).array());
+        out.write(bytes);
+    }
+
+    private byte[] createPacket(String... comments) throws Exception
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writeString(out, "vendor é");
+        out.write(ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(comments.length).array());
+        for (String comment : comments)
+        {
+            writeString(out, comment);
+        }
+        out.write(1);
+        return out.toByteArray();
+    }
+
+    private String createPictureComment() throws Exception
+    {
+        MetadataBlockDataPicture picture = new MetadataBlockDataPicture(imageData, 3, "image/png", "", 10, 10, 24, 0);
+        return "METADATA_BLOCK_PICTURE=" + new String(Base64Coder.encode(picture.getRawContent()));
+    }
+
+    @Test
+    public void testReadFromBufferView() throws Exception
+    {
+        byte[] packet = createPacket("title=Café", "ARTIST=", "NOSEPARATOR", createPictureComment());
+        byte[] padded = new byte[packet.length + 20];
+        System.arraycopy(packet, 0, padded, 10, packet.length);
+        ByteBuffer view = ByteBuffer.wrap(padded, 10, packet.length);
+
+        VorbisCommentTag tag = new VorbisCommentReader().read(view, true);
+        Assert.assertEquals(10, view.position());
+        Assert.assertEquals("vendor é", tag.getVendor());
+        Assert.assertEquals("Café", tag.getFirst(FieldKey.TITLE));
+        Assert.assertEquals("", tag.getFirst(FieldKey.ARTIST));
+        Assert.assertTrue(((VorbisCommentTagField) tag.getFirstField(FieldKey.ARTIST)).isEmpty());
+        Assert.assertEquals("NOSEPARATOR", tag.getFirst("ERRONEOUS"));
+
+        Artwork artwork = tag.getFirstArtwork();
+        Assert.assertArrayEquals(imageData, artwork.getBinaryData());
+        Assert.assertEquals("image/png", artwork.getMimeType());
+
+        //Unchanged fields are written back as read, without the framing bit
+        packet = createPacket("TITLE=Café", "ARTIST=", createPictureComment());
+        tag = new VorbisCommentReader().read(packet, true);
+        Assert.assertArrayEquals(Arrays.copyOf(packet, packet.length - 1), new VorbisCommentCreator().convert(tag, 0).array());
+    }
+
+    @Test
+    public void testChangedContent() throws Exception
+    {
+        VorbisCommentTag tag = new VorbisCommentReader().read(createPacket("TITLE=old", createPictureComment()), true);
+        VorbisCommentTagField field = (VorbisCommentTagField) tag.getFirstField(FieldKey.TITLE);
+        field.setContent("new");
+        Assert.assertEquals("new", field.getContent());
+        Assert.assertArrayEquals(new byte[]{9, 0, 0, 0, 'T', 'I', 'T', 'L', 'E', '=', 'n', 'e', 'w'}, field.getRawContent());
+
+        VorbisCommentTagField picture = (VorbisCommentTagField) tag.getFirstField(VorbisCommentFieldKey.METADATA_BLOCK_PICTURE.getFieldName());
+        byte[] decoded = picture.getBase64DecodedContent();
+        picture.setContent(picture.getContent());
+        Assert.assertArrayEquals(decoded, picture.getBase64DecodedContent());
+    }
+
+    @Test
+    public void testBase64DecodeBytes()
+    {
+        for (int length = 0; length < 10; length++)
+        {
+            byte[] data = Arrays.copyOf(imageData, length);
+            char[] encoded = Base64Coder.encode(data);
+            ByteBuffer bytes = ByteBuffer.wrap(new String(encoded).getBytes(StandardCharsets.US_ASCII));
+            Assert.assertArrayEquals(data, Base64Coder.decode(bytes));
+            Assert.assertEquals(0, bytes.position());
+        }
+    }
+
+    @Test
+    public void testReadFileWithCoverArt() throws Exception
+    {
+        File testFile = AbstractTestCase.copyAudioToTmp("testsmallimage.ogg", new File("testVorbisCommentReaderImage.ogg"));
+        AudioFile af = AudioFileIO.read(testFile);
+        VorbisCommentTag tag = (VorbisCommentTag) af.getTag();
+        byte[] fromBytes = tag.getArtworkBinaryData();
+        Assert.assertArrayEquals(Base64Coder.decode(tag.getFirst(VorbisCommentFieldKey.COVERART)), fromBytes);
+        Assert.assertTrue(fromBytes.length > 0);
+    }
+}